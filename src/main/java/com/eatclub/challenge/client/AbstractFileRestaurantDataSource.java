@@ -0,0 +1,138 @@
+package com.eatclub.challenge.client;
+
+import com.eatclub.challenge.exception.RestaurantDataException;
+import com.eatclub.challenge.model.compact.CompactRestaurant;
+import com.fasterxml.jackson.core.JsonFactory;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+/**
+ * Base class for sources that read the feed from a local file.
+ * The file's modification time and size play the role of HTTP validators, and a content hash
+ * catches files that were rewritten with identical content: such a file is hashed without being parsed.
+ * A changed file's validators are only remembered once its {@link FeedUpdate} is committed.
+ */
+@Slf4j
+abstract class AbstractFileRestaurantDataSource implements RestaurantDataSource {
+
+    private final Path path;
+    private final JsonFactory jsonFactory;
+    private final IngestMetrics ingestMetrics;
+
+    private volatile FileValidators validators = FileValidators.NONE;
+
+    protected AbstractFileRestaurantDataSource(Path path, JsonFactory jsonFactory, IngestMetrics ingestMetrics) {
+        this.path = path;
+        this.jsonFactory = jsonFactory;
+        this.ingestMetrics = ingestMetrics;
+    }
+
+    @Override
+    public FeedUpdate fetchRestaurants() {
+        return load(FileValidators.NONE)
+                .orElseThrow(() -> new RestaurantDataException("Restaurant feed file is empty: " + path));
+    }
+
+    @Override
+    public Optional<FeedUpdate> fetchRestaurantsIfChanged() {
+        return load(validators);
+    }
+
+    @Override
+    public String describe() {
+        return sourceType() + ":" + path;
+    }
+
+    /**
+     * Short name of this source type, used as the metrics tag.
+     */
+    protected abstract String sourceType();
+
+    /**
+     * Pushes the channel's content to the sink in order. A buffer handed to the sink may be reused
+     * once the sink returns.
+     */
+    protected abstract void read(FileChannel channel, long size, Consumer<ByteBuffer> sink) throws IOException;
+
+    private Optional<FeedUpdate> load(FileValidators known) {
+        try {
+            // Attributes are read before opening: if the file is replaced in between, the next load sees newer ones
+            BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+            if (known.sameFile(attributes)) {
+                log.debug("Restaurant feed file {} not modified", path);
+                return Optional.empty();
+            }
+
+            if (known.contentHash() != null) {
+                byte[] hash = hash();
+                if (known.sameContent(hash)) {
+                    log.info("Restaurant feed file {} rewritten with identical content, skipping snapshot rebuild",
+                            path);
+                    validators = FileValidators.from(attributes, hash);
+                    return Optional.empty();
+                }
+            }
+
+            RestaurantFeedReader reader = new RestaurantFeedReader(jsonFactory);
+            try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+                read(channel, channel.size(), reader::feed);
+            }
+            List<CompactRestaurant> restaurants = reader.finish();
+            FileValidators received = FileValidators.from(attributes, reader.contentHash());
+
+            ingestMetrics.record(sourceType(), reader.stats());
+            return Optional.of(new FeedUpdate(restaurants, () -> validators = received));
+        } catch (NoSuchFileException e) {
+            throw new RestaurantDataException("Restaurant feed file not found: " + path, e);
+        } catch (IOException e) {
+            log.error("Failed to read restaurant feed file {}: {}", path, e.getMessage());
+            throw new RestaurantDataException("Unable to read restaurant feed file", e);
+        }
+    }
+
+    /**
+     * Hash of the file's current content, read without parsing it.
+     */
+    private byte[] hash() throws IOException {
+        MessageDigest digest = RestaurantFeedReader.sha256();
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            read(channel, channel.size(), digest::update);
+        }
+        return digest.digest();
+    }
+
+    /**
+     * Modification time, size and content hash of a feed file.
+     */
+    private record FileValidators(FileTime lastModified, long size, byte[] contentHash) {
+
+        static final FileValidators NONE = new FileValidators(null, -1, null);
+
+        static FileValidators from(BasicFileAttributes attributes, byte[] contentHash) {
+            return new FileValidators(attributes.lastModifiedTime(), attributes.size(), contentHash);
+        }
+
+        boolean sameFile(BasicFileAttributes attributes) {
+            return lastModified != null
+                    && lastModified.equals(attributes.lastModifiedTime())
+                    && size == attributes.size();
+        }
+
+        boolean sameContent(byte[] hash) {
+            return contentHash != null && MessageDigest.isEqual(contentHash, hash);
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.eatclub.challenge.client;
+
+import com.eatclub.challenge.model.compact.CompactRestaurant;
+
+import java.util.List;
+
+/**
+ * Restaurants loaded from a {@link RestaurantDataSource}, with the validators that identify them held back.
+ * <p>
+ * The source keeps comparing later loads with the last committed feed until {@link #commit()} is called, which the
+ * caller does once a snapshot built from these restaurants is installed. An update that is dropped because
+ * compiling or installing its snapshot failed, or because it arrived too late to be used, is therefore loaded again
+ * on the next refresh instead of being skipped as unchanged.
+ *
+ * @param restaurants restaurants read from the feed
+ * @param onCommit    makes the source remember the validators of this load
+ */
+public record FeedUpdate(List<CompactRestaurant> restaurants, Runnable onCommit) {
+
+    /**
+     * Update whose source has nothing to remember.
+     */
+    public static FeedUpdate of(List<CompactRestaurant> restaurants) {
+        return new FeedUpdate(restaurants, () -> {
+        });
+    }
+
+    /**
+     * Marks the restaurants as accepted, so that the source skips the same feed on later conditional loads.
+     */
+    public void commit() {
+        onCommit.run();
+    }
+}
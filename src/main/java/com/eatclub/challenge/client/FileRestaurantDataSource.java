@@ -0,0 +1,36 @@
+package com.eatclub.challenge.client;
+
+import com.fasterxml.jackson.core.JsonFactory;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.util.function.Consumer;
+
+/**
+ * Reads the feed from a local file through a single reusable buffer.
+ */
+public class FileRestaurantDataSource extends AbstractFileRestaurantDataSource {
+
+    private static final int CHUNK_SIZE = 64 * 1024;
+
+    public FileRestaurantDataSource(Path path, JsonFactory jsonFactory, IngestMetrics ingestMetrics) {
+        super(path, jsonFactory, ingestMetrics);
+    }
+
+    @Override
+    protected String sourceType() {
+        return "file";
+    }
+
+    @Override
+    protected void read(FileChannel channel, long size, Consumer<ByteBuffer> sink) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(CHUNK_SIZE);
+        while (channel.read(buffer) != -1) {
+            buffer.flip();
+            sink.accept(buffer);
+            buffer.clear();
+        }
+    }
+}
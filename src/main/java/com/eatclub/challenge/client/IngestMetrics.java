@@ -0,0 +1,69 @@
+package com.eatclub.challenge.client;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Records {@link IngestStats} as {@code restaurant.ingest.*} meters tagged by source type,
+ * and per-feed fetch latency and outcome as {@code restaurant.feed.fetch}.
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class IngestMetrics {
+
+    private final MeterRegistry meterRegistry;
+
+    public void record(String source, IngestStats stats) {
+        DistributionSummary.builder("restaurant.ingest.bytes.read")
+                .baseUnit("bytes")
+                .description("Raw feed bytes consumed per ingest")
+                .tag("source", source)
+                .register(meterRegistry)
+                .record(stats.bytesRead());
+        DistributionSummary.builder("restaurant.ingest.bytes.allocated")
+                .baseUnit("bytes")
+                .description("Heap bytes allocated while parsing per ingest")
+                .tag("source", source)
+                .register(meterRegistry)
+                .record(stats.bytesAllocated());
+        DistributionSummary.builder("restaurant.ingest.objects")
+                .baseUnit("objects")
+                .description("Restaurants, deals and pooled values retained per ingest")
+                .tag("source", source)
+                .register(meterRegistry)
+                .record(stats.retainedObjects());
+        Timer.builder("restaurant.ingest.duration")
+                .description("Time to read and parse the feed")
+                .tag("source", source)
+                .register(meterRegistry)
+                .record(stats.elapsed());
+
+        log.info("Ingested {} restaurants and {} deals from {} bytes ({}): {} bytes allocated, {} objects retained "
+                        + "({} pooled values) in {} ms",
+                stats.restaurants(), stats.deals(), stats.bytesRead(), source, stats.bytesAllocated(),
+                stats.retainedObjects(), stats.pooledValues(), stats.elapsed().toMillis());
+    }
+
+    /**
+     * Records one feed fetch of a multi-feed source.
+     *
+     * @param feed    feed URL
+     * @param outcome {@code changed}, {@code unchanged}, {@code timeout} or {@code error}
+     * @param elapsed time until the outcome was known
+     */
+    public void recordFeedFetch(String feed, String outcome, Duration elapsed) {
+        Timer.builder("restaurant.feed.fetch")
+                .description("Latency and outcome of fetching one restaurant feed")
+                .tag("feed", feed)
+                .tag("outcome", outcome)
+                .register(meterRegistry)
+                .record(elapsed);
+    }
+}
@@ -0,0 +1,30 @@
+package com.eatclub.challenge.client;
+
+import java.time.Duration;
+
+/**
+ * Size and allocation figures for one ingest of the restaurant feed.
+ *
+ * @param bytesRead       raw document bytes consumed
+ * @param bytesAllocated  heap bytes allocated by the ingest thread(s) while parsing, 0 if not measurable (e.g. on virtual threads)
+ * @param restaurants     restaurants built
+ * @param deals           deals built
+ * @param pooledValues    distinct shared values (times, flags, suburbs, cuisine lists)
+ * @param elapsed         wall-clock time from the first chunk to the end of the document
+ */
+public record IngestStats(
+        long bytesRead,
+        long bytesAllocated,
+        int restaurants,
+        int deals,
+        int pooledValues,
+        Duration elapsed
+) {
+
+    /**
+     * Model objects retained by the snapshot: restaurants, deals and pooled values.
+     */
+    public long retainedObjects() {
+        return (long) restaurants + deals + pooledValues;
+    }
+}
@@ -0,0 +1,36 @@
+package com.eatclub.challenge.client;
+
+import com.fasterxml.jackson.core.JsonFactory;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.util.function.Consumer;
+
+/**
+ * Reads the feed from a memory-mapped local file, so the parser reads straight from the page cache
+ * without copying into the heap.
+ */
+public class MappedFileRestaurantDataSource extends AbstractFileRestaurantDataSource {
+
+    // A single mapping is limited to Integer.MAX_VALUE bytes, so larger files are mapped in windows
+    private static final long MAX_WINDOW = 1L << 30;
+
+    public MappedFileRestaurantDataSource(Path path, JsonFactory jsonFactory, IngestMetrics ingestMetrics) {
+        super(path, jsonFactory, ingestMetrics);
+    }
+
+    @Override
+    protected String sourceType() {
+        return "mmap";
+    }
+
+    @Override
+    protected void read(FileChannel channel, long size, Consumer<ByteBuffer> sink) throws IOException {
+        for (long position = 0; position < size; position += MAX_WINDOW) {
+            long length = Math.min(MAX_WINDOW, size - position);
+            sink.accept(channel.map(FileChannel.MapMode.READ_ONLY, position, length));
+        }
+    }
+}
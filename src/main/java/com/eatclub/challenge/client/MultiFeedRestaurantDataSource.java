@@ -0,0 +1,178 @@
+package com.eatclub.challenge.client;
+
+import com.eatclub.challenge.exception.RestaurantDataException;
+import com.eatclub.challenge.model.compact.CompactDeal;
+import com.eatclub.challenge.model.compact.CompactRestaurant;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Reads several regional feeds in parallel on the reactive client and merges them into one restaurant list.
+ * <p>
+ * Each feed has its own timeout and keeps its own last good result: a feed that fails or is too slow is
+ * recorded and its previous data is merged in, so one region never holds up or empties the others. A feed's new data
+ * only becomes its last good result, and its validators only advance, once the merged update is committed.
+ * Duplicates are resolved by {@code objectId} with the feed listed first taking precedence: its restaurant
+ * fields win, and deals from later feeds are only added when their {@code objectId} is new.
+ */
+@Slf4j
+public class MultiFeedRestaurantDataSource implements RestaurantDataSource {
+
+    private final List<Feed> feeds;
+    private final IngestMetrics ingestMetrics;
+    private final Duration feedTimeout;
+
+    public MultiFeedRestaurantDataSource(List<RestaurantDataClient> clients, IngestMetrics ingestMetrics,
+                                         Duration feedTimeout) {
+        this.feeds = clients.stream().map(Feed::new).toList();
+        this.ingestMetrics = ingestMetrics;
+        this.feedTimeout = feedTimeout;
+    }
+
+    @Override
+    public FeedUpdate fetchRestaurants() {
+        return update(fetchAll(RestaurantDataClient::fetchRestaurantsReactive));
+    }
+
+    @Override
+    public Optional<FeedUpdate> fetchRestaurantsIfChanged() {
+        List<Outcome> outcomes = fetchAll(RestaurantDataClient::fetchRestaurantsIfChangedReactive);
+        boolean changed = outcomes.stream().anyMatch(outcome -> outcome.update != null);
+        return changed ? Optional.of(update(outcomes)) : Optional.empty();
+    }
+
+    @Override
+    public String describe() {
+        return feeds.stream().map(feed -> feed.client.describe()).collect(Collectors.joining(", ", "feeds[", "]"));
+    }
+
+    /**
+     * Merges restaurant lists in precedence order, resolving duplicate restaurants and deals by {@code objectId}.
+     * Restaurants and deals without an {@code objectId} cannot be matched and are kept as they are.
+     */
+    static List<CompactRestaurant> merge(List<List<CompactRestaurant>> feeds) {
+        Map<Object, CompactRestaurant> merged = new LinkedHashMap<>();
+        for (List<CompactRestaurant> restaurants : feeds) {
+            for (CompactRestaurant restaurant : restaurants) {
+                Object key = restaurant.objectId() != null ? restaurant.objectId() : new Object();
+                merged.merge(key, restaurant, MultiFeedRestaurantDataSource::mergeDeals);
+            }
+        }
+        return List.copyOf(merged.values());
+    }
+
+    private static CompactRestaurant mergeDeals(CompactRestaurant primary, CompactRestaurant secondary) {
+        Set<String> dealIds = new HashSet<>();
+        primary.deals().forEach(deal -> dealIds.add(deal.objectId()));
+
+        List<CompactDeal> extra = new ArrayList<>();
+        for (CompactDeal deal : secondary.deals()) {
+            if (deal.objectId() == null || dealIds.add(deal.objectId())) {
+                extra.add(deal);
+            }
+        }
+        if (extra.isEmpty()) {
+            return primary;
+        }
+
+        List<CompactDeal> deals = new ArrayList<>(primary.deals());
+        deals.addAll(extra);
+        return new CompactRestaurant(primary.objectId(), primary.name(), primary.address1(), primary.suburb(),
+                primary.cuisines(), primary.open(), primary.close(), List.copyOf(deals));
+    }
+
+    /**
+     * Fetches every feed in parallel.
+     *
+     * @return one outcome per feed, in precedence order
+     * @throws RestaurantDataException if every feed failed
+     */
+    private List<Outcome> fetchAll(Function<RestaurantDataClient, Mono<FeedUpdate>> call) {
+        List<Outcome> outcomes = Flux.fromIterable(feeds)
+                .flatMapSequential(feed -> fetch(feed, call))
+                .collectList()
+                .block();
+
+        List<Outcome> failures = outcomes.stream().filter(outcome -> outcome.error != null).toList();
+        if (failures.size() == feeds.size()) {
+            throw new RestaurantDataException("All " + feeds.size() + " restaurant feeds failed: "
+                    + failures.get(0).error.getMessage(), failures.get(0).error);
+        }
+        for (Outcome failure : failures) {
+            log.warn("Restaurant feed {} failed, {}: {}", failure.feed.client.describe(),
+                    failure.feed.lastGood != null ? "keeping its last good data" : "it has no data yet",
+                    failure.error.getMessage());
+        }
+        return outcomes;
+    }
+
+    /**
+     * Merges the feeds that changed with the last good data of the others. Committing the result makes each changed
+     * feed's restaurants its last good data and commits the feed's own update.
+     */
+    private FeedUpdate update(List<Outcome> outcomes) {
+        List<CompactRestaurant> restaurants = merge(outcomes.stream()
+                .map(outcome -> outcome.update != null ? outcome.update.restaurants() : outcome.feed.lastGood)
+                .filter(Objects::nonNull)
+                .toList());
+        return new FeedUpdate(restaurants, () -> {
+            for (Outcome outcome : outcomes) {
+                if (outcome.update != null) {
+                    outcome.feed.lastGood = outcome.update.restaurants();
+                    outcome.update.commit();
+                }
+            }
+        });
+    }
+
+    private Mono<Outcome> fetch(Feed feed, Function<RestaurantDataClient, Mono<FeedUpdate>> call) {
+        return Mono.defer(() -> {
+            long startNanos = System.nanoTime();
+            // An update arriving after the timeout is dropped uncommitted, so the feed reports it again next time
+            return call.apply(feed.client)
+                    .timeout(feedTimeout)
+                    .map(update -> new Outcome(feed, update, null))
+                    .defaultIfEmpty(new Outcome(feed, null, null))
+                    .onErrorResume(e -> Mono.just(new Outcome(feed, null, e)))
+                    .doOnNext(outcome -> ingestMetrics.recordFeedFetch(feed.client.describe(), outcome.label(),
+                            Duration.ofNanos(System.nanoTime() - startNanos)));
+        });
+    }
+
+    private static final class Feed {
+
+        private final RestaurantDataClient client;
+        private volatile List<CompactRestaurant> lastGood;
+
+        Feed(RestaurantDataClient client) {
+            this.client = client;
+        }
+    }
+
+    private record Outcome(Feed feed, FeedUpdate update, Throwable error) {
+
+        String label() {
+            if (error instanceof TimeoutException) {
+                return "timeout";
+            }
+            if (error != null) {
+                return "error";
+            }
+            return update != null ? "changed" : "unchanged";
+        }
+    }
+}
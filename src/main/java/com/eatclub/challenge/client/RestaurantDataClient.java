@@ -1,68 +1,226 @@
 package com.eatclub.challenge.client;
 
 import com.eatclub.challenge.exception.RestaurantDataException;
-import com.eatclub.challenge.model.domain.Restaurant;
-import lombok.Data;
+import com.eatclub.challenge.model.compact.CompactRestaurant;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.reactor.bulkhead.operator.BulkheadOperator;
+import io.github.resilience4j.reactor.circuitbreaker.operator.CircuitBreakerOperator;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.stereotype.Component;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.reactive.function.client.ClientResponse;
 import org.springframework.web.reactive.function.client.WebClient;
 import org.springframework.web.reactive.function.client.WebClientException;
+import reactor.core.publisher.Mono;
 
+import java.security.MessageDigest;
+import java.time.Duration;
 import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeoutException;
 
 /**
  * Client for fetching restaurant data from external API.
+ * The response body is streamed through {@link RestaurantFeedReader} chunk by chunk. Remembers the validators
+ * of the last committed {@link FeedUpdate} so that unchanged feeds are skipped cheaply: the body is hashed chunk by
+ * chunk while it is parsed, and when its hash matches the last committed one the parsed restaurants are discarded, so
+ * a feed served without ETag or Last-Modified never triggers a snapshot rebuild while it stays the same and is never
+ * buffered whole. A changed response's validators are only remembered once its update is committed.
+ * <p>
+ * Calls go through a circuit breaker, which fails fast while the upstream is unhealthy so callers keep serving
+ * their cached data, and a bulkhead that caps concurrent calls. Connect and read timeouts belong to the
+ * {@link WebClient.Builder} passed in; the fetch timeout bounds a whole call, so blocking callers never wait longer.
  */
-@Component
 @Slf4j
-public class RestaurantDataClient {
-
-    private static final String RESTAURANTS_API_URL = "https://eccdn.com.au/misc/challengedata.json";
+public class RestaurantDataClient implements RestaurantDataSource {
 
+    private final String url;
     private final WebClient webClient;
+    private final ObjectMapper objectMapper;
+    private final IngestMetrics ingestMetrics;
+    private final CircuitBreaker circuitBreaker;
+    private final Bulkhead bulkhead;
+    private final Duration fetchTimeout;
+
+    private volatile FeedValidators validators = FeedValidators.NONE;
 
-    public RestaurantDataClient(WebClient.Builder webClientBuilder) {
-        this.webClient = webClientBuilder.baseUrl(RESTAURANTS_API_URL).build();
+    public RestaurantDataClient(WebClient.Builder webClientBuilder, ObjectMapper objectMapper,
+                                IngestMetrics ingestMetrics, String url,
+                                CircuitBreaker circuitBreaker, Bulkhead bulkhead, Duration fetchTimeout) {
+        this.url = url;
+        this.webClient = webClientBuilder.baseUrl(url).build();
+        this.objectMapper = objectMapper;
+        this.ingestMetrics = ingestMetrics;
+        this.circuitBreaker = circuitBreaker;
+        this.bulkhead = bulkhead;
+        this.fetchTimeout = fetchTimeout;
     }
 
     /**
      * Fetches all restaurants with deals from external API.
      *
-     * @return list of restaurants
+     * @return restaurants, whose validators are remembered once the update is committed
      * @throws RestaurantDataException if unable to fetch data
      */
-    public List<Restaurant> fetchRestaurants() {
-        log.info("Fetching restaurant data from: {}", RESTAURANTS_API_URL);
-
-        try {
-            RestaurantApiResponse response = webClient.get()
-                    .retrieve()
-                    .bodyToMono(RestaurantApiResponse.class)
-                    .block();
-
-            if (response == null || response.getRestaurants() == null) {
-                log.warn("Received empty response from restaurant API");
-                throw new RestaurantDataException("Restaurant API returned empty response");
+    @Override
+    public FeedUpdate fetchRestaurants() {
+        return fetchRestaurantsReactive().block();
+    }
+
+    /**
+     * Fetches restaurants only if the feed changed since the last committed response.
+     * Sends If-None-Match/If-Modified-Since and compares a hash of the raw body,
+     * so an unchanged feed never triggers a snapshot rebuild.
+     *
+     * @return restaurants if the feed changed, empty if it is unchanged
+     * @throws RestaurantDataException if unable to fetch data
+     */
+    @Override
+    public Optional<FeedUpdate> fetchRestaurantsIfChanged() {
+        return fetchRestaurantsIfChangedReactive().blockOptional();
+    }
+
+    /**
+     * Non-blocking variant of {@link #fetchRestaurants()}.
+     *
+     * @return restaurants, or an error signal with {@link RestaurantDataException}
+     */
+    public Mono<FeedUpdate> fetchRestaurantsReactive() {
+        return fetch(FeedValidators.NONE)
+                .switchIfEmpty(Mono.error(() -> new RestaurantDataException("Restaurant API returned empty response")));
+    }
+
+    /**
+     * Non-blocking variant of {@link #fetchRestaurantsIfChanged()}.
+     *
+     * @return restaurants if the feed changed, empty if it is unchanged
+     */
+    public Mono<FeedUpdate> fetchRestaurantsIfChangedReactive() {
+        return fetch(validators);
+    }
+
+    @Override
+    public String describe() {
+        return url;
+    }
+
+    private Mono<FeedUpdate> fetch(FeedValidators known) {
+        return Mono.defer(() -> {
+                    log.info("Fetching restaurant data from: {}", url);
+                    return webClient.get()
+                            .headers(known::applyTo)
+                            .exchangeToMono(response -> readPayload(response, known));
+                })
+                .flatMap(this::accept)
+                // The read timeout only bounds gaps between chunks, so a feed trickling data needs its own deadline
+                .timeout(fetchTimeout)
+                .onErrorMap(TimeoutException.class, e -> new RestaurantDataException(
+                        "Restaurant data service did not respond within " + fetchTimeout, e))
+                .onErrorMap(e -> !(e instanceof RestaurantDataException), this::toRestaurantDataException)
+                .transformDeferred(CircuitBreakerOperator.of(circuitBreaker))
+                .transformDeferred(BulkheadOperator.of(bulkhead))
+                .onErrorMap(CallNotPermittedException.class, e -> new RestaurantDataException(
+                        "Restaurant data service is unavailable, circuit breaker " + circuitBreaker.getName()
+                                + " is open", e))
+                .onErrorMap(BulkheadFullException.class, e -> new RestaurantDataException(
+                        "Too many concurrent requests to restaurant data service", e));
+    }
+
+    private Mono<FeedUpdate> accept(FeedPayload feed) {
+        if (feed.restaurants() == null) {
+            // The content is the committed one, so its new ETag or Last-Modified can be remembered right away
+            validators = feed.validators();
+            log.info("Restaurant data unchanged, skipping snapshot rebuild");
+            return Mono.empty();
+        }
+
+        ingestMetrics.record("http", feed.stats());
+        log.info("Successfully fetched {} restaurants from {}", feed.restaurants().size(), url);
+        return Mono.just(new FeedUpdate(feed.restaurants(), () -> validators = feed.validators()));
+    }
+
+    private RestaurantDataException toRestaurantDataException(Throwable e) {
+        if (e instanceof WebClientException) {
+            log.error("Failed to fetch restaurant data from {}: {}", url, e.getMessage());
+            return new RestaurantDataException("Unable to connect to restaurant data service", e);
+        }
+        log.error("Unexpected error fetching restaurant data from {}", url, e);
+        return new RestaurantDataException("Failed to fetch restaurant data", e);
+    }
+
+    private Mono<FeedPayload> readPayload(ClientResponse response, FeedValidators known) {
+        if (response.statusCode().isSameCodeAs(HttpStatus.NOT_MODIFIED)) {
+            log.info("Restaurant data not modified since last fetch");
+            return response.releaseBody().then(Mono.empty());
+        }
+        if (response.statusCode().isError()) {
+            return response.createError();
+        }
+
+        HttpHeaders headers = response.headers().asHttpHeaders();
+        // The reader hashes each chunk as it parses it, so the body is never held whole just to be compared
+        RestaurantFeedReader reader = new RestaurantFeedReader(objectMapper.getFactory());
+        return response.bodyToFlux(DataBuffer.class)
+                .doOnNext(buffer -> consume(buffer, reader))
+                .then(Mono.fromCallable(() -> {
+                    List<CompactRestaurant> restaurants = reader.finish();
+                    FeedValidators received = FeedValidators.from(headers, reader.contentHash());
+                    if (known.sameContent(received.contentHash())) {
+                        return FeedPayload.unchanged(received);
+                    }
+                    return new FeedPayload(restaurants, reader.stats(), received);
+                }));
+    }
+
+    private void consume(DataBuffer buffer, RestaurantFeedReader reader) {
+        try (DataBuffer.ByteBufferIterator chunks = buffer.readableByteBuffers()) {
+            while (chunks.hasNext()) {
+                reader.feed(chunks.next());
             }
+        } finally {
+            DataBufferUtils.release(buffer);
+        }
+    }
 
-            int count = response.getRestaurants().size();
-            log.info("Successfully fetched {} restaurants", count);
+    /**
+     * Restaurants read from one response along with its validators; no restaurants or stats if the body was the same
+     * as the last committed one, in which case what was parsed is discarded.
+     */
+    private record FeedPayload(List<CompactRestaurant> restaurants, IngestStats stats, FeedValidators validators) {
 
-            return response.getRestaurants();
-        } catch (WebClientException e) {
-            log.error("Failed to fetch restaurant data: {}", e.getMessage());
-            throw new RestaurantDataException("Unable to connect to restaurant data service", e);
-        } catch (Exception e) {
-            log.error("Unexpected error fetching restaurant data", e);
-            throw new RestaurantDataException("Failed to fetch restaurant data", e);
+        static FeedPayload unchanged(FeedValidators validators) {
+            return new FeedPayload(null, null, validators);
         }
     }
 
     /**
-     * Response wrapper matching external API structure.
+     * HTTP validators and content hash of a feed response.
      */
-    @Data
-    private static class RestaurantApiResponse {
-        private List<Restaurant> restaurants;
+    private record FeedValidators(String etag, String lastModified, byte[] contentHash) {
+
+        static final FeedValidators NONE = new FeedValidators(null, null, null);
+
+        static FeedValidators from(HttpHeaders headers, byte[] contentHash) {
+            return new FeedValidators(headers.getETag(), headers.getFirst(HttpHeaders.LAST_MODIFIED), contentHash);
+        }
+
+        void applyTo(HttpHeaders headers) {
+            if (etag != null) {
+                headers.setIfNoneMatch(etag);
+            }
+            if (lastModified != null) {
+                headers.set(HttpHeaders.IF_MODIFIED_SINCE, lastModified);
+            }
+        }
+
+        boolean sameContent(byte[] hash) {
+            return contentHash != null && MessageDigest.isEqual(contentHash, hash);
+        }
     }
-}
\ No newline at end of file
+}
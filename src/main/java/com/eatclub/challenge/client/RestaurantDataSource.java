@@ -0,0 +1,34 @@
+package com.eatclub.challenge.client;
+
+import com.eatclub.challenge.exception.RestaurantDataException;
+
+import java.util.Optional;
+
+/**
+ * Source of the restaurant feed document.
+ * Implementations remember the last feed whose {@link FeedUpdate} was committed so that an unchanged feed can be
+ * skipped cheaply.
+ */
+public interface RestaurantDataSource {
+
+    /**
+     * Loads all restaurants, ignoring what was returned before.
+     *
+     * @return restaurants, to be committed once they are in use
+     * @throws RestaurantDataException if unable to load data
+     */
+    FeedUpdate fetchRestaurants();
+
+    /**
+     * Loads restaurants only if the feed changed since the last committed load.
+     *
+     * @return restaurants if the feed changed, to be committed once they are in use; empty if it is unchanged
+     * @throws RestaurantDataException if unable to load data
+     */
+    Optional<FeedUpdate> fetchRestaurantsIfChanged();
+
+    /**
+     * Short description of where the feed is read from, for logs.
+     */
+    String describe();
+}
@@ -0,0 +1,312 @@
+package com.eatclub.challenge.client;
+
+import com.eatclub.challenge.exception.RestaurantDataException;
+import com.eatclub.challenge.model.compact.CompactDeal;
+import com.eatclub.challenge.model.compact.CompactRestaurant;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.async.ByteBufferFeeder;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.ByteBuffer;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Incremental reader for the restaurant feed document.
+ * Input is pushed chunk by chunk into a non-blocking Jackson parser; only the tokens of the restaurant
+ * currently being read are buffered, and each restaurant is turned into a {@link CompactRestaurant}
+ * as soon as its object closes. A SHA-256 of the raw bytes is computed on the way through so that sources
+ * can recognise an unchanged document. Not thread-safe; use one instance per ingest.
+ */
+final class RestaurantFeedReader {
+
+    private static final String RESTAURANTS_FIELD = "restaurants";
+
+    private final JsonParser parser;
+    private final ByteBufferFeeder feeder;
+    private final List<CompactRestaurant> restaurants = new ArrayList<>();
+    private final Map<String, String> valuePool = new HashMap<>();
+    private final Map<List<String>, List<String>> cuisinePool = new HashMap<>();
+    private final MessageDigest digest = sha256();
+    private final long startNanos = System.nanoTime();
+
+    private int depth;
+    private boolean restaurantsFieldNext;
+    private boolean inRestaurants;
+    private boolean sawRestaurants;
+    private TokenBuffer currentRestaurant;
+
+    private int dealCount;
+    private long bytesRead;
+    private long bytesAllocated;
+
+    RestaurantFeedReader(JsonFactory jsonFactory) {
+        try {
+            this.parser = jsonFactory.createNonBlockingByteBufferParser();
+        } catch (IOException e) {
+            throw new RestaurantDataException("Unable to create restaurant feed parser", e);
+        }
+        this.feeder = (ByteBufferFeeder) parser.getNonBlockingInputFeeder();
+    }
+
+    /**
+     * Consumes one chunk of the document. All tokens available in the chunk are processed before returning,
+     * so the caller may release the underlying buffer afterwards.
+     */
+    void feed(ByteBuffer chunk) {
+        long allocatedBefore = currentThreadAllocatedBytes();
+        bytesRead += chunk.remaining();
+        digest.update(chunk.duplicate());
+        try {
+            feeder.feedInput(chunk);
+            drain();
+        } catch (IOException e) {
+            throw new RestaurantDataException("Malformed restaurant feed", e);
+        } finally {
+            bytesAllocated += currentThreadAllocatedBytes() - allocatedBefore;
+        }
+    }
+
+    /**
+     * Signals end of input and returns the restaurants read.
+     *
+     * @throws RestaurantDataException if the document is truncated or has no restaurants array
+     */
+    List<CompactRestaurant> finish() {
+        long allocatedBefore = currentThreadAllocatedBytes();
+        try {
+            feeder.endOfInput();
+            drain();
+            parser.close();
+        } catch (IOException e) {
+            throw new RestaurantDataException("Malformed restaurant feed", e);
+        } finally {
+            bytesAllocated += currentThreadAllocatedBytes() - allocatedBefore;
+        }
+
+        if (depth != 0) {
+            throw new RestaurantDataException("Restaurant feed is truncated");
+        }
+        if (!sawRestaurants) {
+            throw new RestaurantDataException("Restaurant API returned empty response");
+        }
+        return restaurants;
+    }
+
+    /**
+     * SHA-256 of all bytes fed so far. Call once, after {@link #finish()}.
+     */
+    byte[] contentHash() {
+        return digest.digest();
+    }
+
+    /**
+     * Allocation and size figures for this ingest.
+     */
+    IngestStats stats() {
+        return new IngestStats(
+                bytesRead,
+                bytesAllocated,
+                restaurants.size(),
+                dealCount,
+                valuePool.size() + cuisinePool.size(),
+                Duration.ofNanos(System.nanoTime() - startNanos));
+    }
+
+    private void drain() throws IOException {
+        JsonToken token;
+        while ((token = parser.nextToken()) != null && token != JsonToken.NOT_AVAILABLE) {
+            if (currentRestaurant != null) {
+                bufferRestaurantToken(token);
+            } else {
+                handleDocumentToken(token);
+            }
+        }
+    }
+
+    private void handleDocumentToken(JsonToken token) throws IOException {
+        switch (token) {
+            case FIELD_NAME -> restaurantsFieldNext = depth == 1 && RESTAURANTS_FIELD.equals(parser.currentName());
+            case START_ARRAY -> {
+                depth++;
+                if (restaurantsFieldNext && depth == 2) {
+                    inRestaurants = true;
+                    sawRestaurants = true;
+                }
+                restaurantsFieldNext = false;
+            }
+            case START_OBJECT -> {
+                depth++;
+                restaurantsFieldNext = false;
+                if (inRestaurants && depth == 3) {
+                    currentRestaurant = new TokenBuffer(parser);
+                    currentRestaurant.copyCurrentEvent(parser);
+                }
+            }
+            case END_ARRAY -> {
+                if (inRestaurants && depth == 2) {
+                    inRestaurants = false;
+                }
+                depth--;
+            }
+            case END_OBJECT -> depth--;
+            default -> restaurantsFieldNext = false;
+        }
+    }
+
+    private void bufferRestaurantToken(JsonToken token) throws IOException {
+        currentRestaurant.copyCurrentEvent(parser);
+        if (token == JsonToken.START_OBJECT || token == JsonToken.START_ARRAY) {
+            depth++;
+        } else if (token == JsonToken.END_OBJECT || token == JsonToken.END_ARRAY) {
+            depth--;
+            if (depth == 2) {
+                try (JsonParser restaurantParser = currentRestaurant.asParser()) {
+                    restaurantParser.nextToken();
+                    restaurants.add(readRestaurant(restaurantParser));
+                }
+                currentRestaurant = null;
+            }
+        }
+    }
+
+    private CompactRestaurant readRestaurant(JsonParser p) throws IOException {
+        String objectId = null;
+        String name = null;
+        String address1 = null;
+        String suburb = null;
+        List<String> cuisines = null;
+        String open = null;
+        String close = null;
+        List<CompactDeal> deals = null;
+
+        while (p.nextToken() == JsonToken.FIELD_NAME) {
+            String field = p.currentName();
+            p.nextToken();
+            switch (field) {
+                case "objectId" -> objectId = text(p);
+                case "name" -> name = text(p);
+                case "address1" -> address1 = text(p);
+                case "suburb" -> suburb = pooled(text(p));
+                case "cuisines" -> cuisines = readCuisines(p);
+                case "open" -> open = pooled(text(p));
+                case "close" -> close = pooled(text(p));
+                case "deals" -> deals = readDeals(p);
+                default -> p.skipChildren();
+            }
+        }
+        return new CompactRestaurant(objectId, name, address1, suburb, cuisines, open, close, deals);
+    }
+
+    private List<String> readCuisines(JsonParser p) throws IOException {
+        if (p.currentToken() != JsonToken.START_ARRAY) {
+            p.skipChildren();
+            return null;
+        }
+        List<String> cuisines = new ArrayList<>();
+        while (p.nextToken() != JsonToken.END_ARRAY) {
+            String cuisine = pooled(text(p));
+            if (cuisine != null) {
+                cuisines.add(cuisine);
+            }
+        }
+        List<String> shared = List.copyOf(cuisines);
+        List<String> existing = cuisinePool.putIfAbsent(shared, shared);
+        return existing != null ? existing : shared;
+    }
+
+    private List<CompactDeal> readDeals(JsonParser p) throws IOException {
+        if (p.currentToken() != JsonToken.START_ARRAY) {
+            p.skipChildren();
+            return null;
+        }
+        List<CompactDeal> deals = new ArrayList<>();
+        while (p.nextToken() != JsonToken.END_ARRAY) {
+            if (p.currentToken() == JsonToken.START_OBJECT) {
+                deals.add(readDeal(p));
+            } else {
+                p.skipChildren();
+            }
+        }
+        dealCount += deals.size();
+        return List.copyOf(deals);
+    }
+
+    private CompactDeal readDeal(JsonParser p) throws IOException {
+        String objectId = null;
+        String discount = null;
+        String dineIn = null;
+        String lightning = null;
+        String qtyLeft = null;
+        String open = null;
+        String close = null;
+        String start = null;
+        String end = null;
+
+        while (p.nextToken() == JsonToken.FIELD_NAME) {
+            String field = p.currentName();
+            p.nextToken();
+            switch (field) {
+                case "objectId" -> objectId = text(p);
+                case "discount" -> discount = pooled(text(p));
+                case "dineIn" -> dineIn = pooled(text(p));
+                case "lightning" -> lightning = pooled(text(p));
+                case "qtyLeft" -> qtyLeft = pooled(text(p));
+                case "open" -> open = pooled(text(p));
+                case "close" -> close = pooled(text(p));
+                case "start" -> start = pooled(text(p));
+                case "end" -> end = pooled(text(p));
+                default -> p.skipChildren();
+            }
+        }
+        return new CompactDeal(objectId, discount, dineIn, lightning, qtyLeft, open, close, start, end);
+    }
+
+    private static String text(JsonParser p) throws IOException {
+        JsonToken token = p.currentToken();
+        if (token == JsonToken.VALUE_NULL) {
+            return null;
+        }
+        if (token.isStructStart()) {
+            p.skipChildren();
+            return null;
+        }
+        return p.getText();
+    }
+
+    private String pooled(String value) {
+        if (value == null) {
+            return null;
+        }
+        String existing = valuePool.putIfAbsent(value, value);
+        return existing != null ? existing : value;
+    }
+
+    /**
+     * Digest used for {@link #contentHash()}, for sources that check a document before parsing it.
+     */
+    static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private static long currentThreadAllocatedBytes() {
+        if (ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean threadMXBean
+                && threadMXBean.isThreadAllocatedMemoryEnabled()) {
+            return threadMXBean.getCurrentThreadAllocatedBytes();
+        }
+        return 0;
+    }
+}
@@ -0,0 +1,92 @@
+package com.eatclub.challenge.config;
+
+import com.eatclub.challenge.client.FileRestaurantDataSource;
+import com.eatclub.challenge.client.IngestMetrics;
+import com.eatclub.challenge.client.MappedFileRestaurantDataSource;
+import com.eatclub.challenge.client.MultiFeedRestaurantDataSource;
+import com.eatclub.challenge.client.RestaurantDataClient;
+import com.eatclub.challenge.client.RestaurantDataSource;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.netty.channel.ChannelOption;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.http.client.HttpClient;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * Selects the {@link RestaurantDataSource} from {@code eatclub.data-source.type}.
+ * HTTP feeds get connect, read and fetch timeouts, and a circuit breaker and bulkhead per feed named
+ * {@code restaurantFeed} (single URL) or {@code restaurantFeed-<index>} (regional feeds, numbered from 0 in the order of
+ * {@code eatclub.data-source.urls}), so feeds served from the same host still fail and queue independently.
+ */
+@Configuration
+@EnableConfigurationProperties(RestaurantDataSourceProperties.class)
+public class RestaurantDataSourceConfig {
+
+    private static final String TYPE_PROPERTY = "eatclub.data-source.type";
+    private static final String RESILIENCE_NAME = "restaurantFeed";
+
+    @Bean
+    @ConditionalOnProperty(name = TYPE_PROPERTY, havingValue = "http", matchIfMissing = true)
+    public RestaurantDataSource restaurantDataClient(WebClient.Builder webClientBuilder,
+                                                     ObjectMapper objectMapper,
+                                                     IngestMetrics ingestMetrics,
+                                                     RestaurantDataSourceProperties properties,
+                                                     CircuitBreakerRegistry circuitBreakerRegistry,
+                                                     BulkheadRegistry bulkheadRegistry) {
+        HttpClient httpClient = HttpClient.create()
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) properties.getConnectTimeout().toMillis())
+                .responseTimeout(properties.getReadTimeout());
+        WebClient.Builder timeoutBuilder = webClientBuilder.clone()
+                .clientConnector(new ReactorClientHttpConnector(httpClient));
+
+        if (properties.getUrls().isEmpty()) {
+            return new RestaurantDataClient(timeoutBuilder, objectMapper, ingestMetrics, properties.getUrl(),
+                    circuitBreakerRegistry.circuitBreaker(RESILIENCE_NAME),
+                    bulkheadRegistry.bulkhead(RESILIENCE_NAME), properties.getFetchTimeout());
+        }
+        List<String> urls = properties.getUrls();
+        List<RestaurantDataClient> feeds = IntStream.range(0, urls.size())
+                .mapToObj(index -> {
+                    String name = RESILIENCE_NAME + "-" + index;
+                    return new RestaurantDataClient(timeoutBuilder.clone(), objectMapper, ingestMetrics,
+                            urls.get(index), circuitBreakerRegistry.circuitBreaker(name),
+                            bulkheadRegistry.bulkhead(name), properties.getFetchTimeout());
+                })
+                .toList();
+        return new MultiFeedRestaurantDataSource(feeds, ingestMetrics, properties.getFeedTimeout());
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = TYPE_PROPERTY, havingValue = "file")
+    public RestaurantDataSource fileRestaurantDataSource(ObjectMapper objectMapper,
+                                                         IngestMetrics ingestMetrics,
+                                                         RestaurantDataSourceProperties properties) {
+        return new FileRestaurantDataSource(requirePath(properties), objectMapper.getFactory(), ingestMetrics);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = TYPE_PROPERTY, havingValue = "mmap")
+    public RestaurantDataSource mappedFileRestaurantDataSource(ObjectMapper objectMapper,
+                                                               IngestMetrics ingestMetrics,
+                                                               RestaurantDataSourceProperties properties) {
+        return new MappedFileRestaurantDataSource(requirePath(properties), objectMapper.getFactory(), ingestMetrics);
+    }
+
+    private static Path requirePath(RestaurantDataSourceProperties properties) {
+        if (properties.getPath() == null) {
+            throw new IllegalStateException("eatclub.data-source.path is required for data source type "
+                    + properties.getType());
+        }
+        return properties.getPath();
+    }
+}
@@ -0,0 +1,70 @@
+package com.eatclub.challenge.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Configuration for where the restaurant feed is read from.
+ */
+@Data
+@ConfigurationProperties(prefix = "eatclub.data-source")
+public class RestaurantDataSourceProperties {
+
+    /**
+     * Kind of source the feed is read from.
+     */
+    private Type type = Type.HTTP;
+
+    /**
+     * Feed URL for the HTTP source.
+     */
+    private String url = "https://eccdn.com.au/misc/challengedata.json";
+
+    /**
+     * Time allowed to establish a connection to the feed host.
+     */
+    private Duration connectTimeout = Duration.ofSeconds(5);
+
+    /**
+     * Maximum time without receiving data while reading a feed response.
+     */
+    private Duration readTimeout = Duration.ofSeconds(10);
+
+    /**
+     * Maximum time a whole feed fetch may take, from connecting to parsing the last byte. Regional feeds each get
+     * this long, and are still cut off earlier by a shorter {@link #feedTimeout}.
+     */
+    private Duration fetchTimeout = Duration.ofSeconds(30);
+
+    /**
+     * Regional feed URLs for the HTTP source. When set, they are fetched in parallel and merged instead of
+     * using {@link #url}; on duplicate {@code objectId}s the feed listed first wins.
+     */
+    private List<String> urls = new ArrayList<>();
+
+    /**
+     * Maximum time to wait for each regional feed before falling back to its last good data.
+     */
+    private Duration feedTimeout = Duration.ofSeconds(10);
+
+    /**
+     * Feed file for the file and mmap sources.
+     */
+    private Path path;
+
+    /**
+     * Reload the snapshot when the feed file is replaced. Only applies to the file and mmap sources.
+     */
+    private boolean watch = false;
+
+    public enum Type {
+        HTTP,
+        FILE,
+        MMAP
+    }
+}
@@ -0,0 +1,14 @@
+package com.eatclub.challenge.config;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Enables the scheduled background refresh of the restaurant snapshot.
+ */
+@Configuration
+@EnableScheduling
+@EnableConfigurationProperties(SnapshotProperties.class)
+public class SnapshotConfig {
+}
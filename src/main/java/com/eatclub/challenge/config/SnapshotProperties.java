@@ -0,0 +1,40 @@
+package com.eatclub.challenge.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Configuration for the in-memory restaurant snapshot.
+ */
+@Data
+@ConfigurationProperties(prefix = "eatclub.snapshot")
+public class SnapshotProperties {
+
+    /**
+     * Delay between background refreshes of the snapshot.
+     */
+    private Duration refreshInterval = Duration.ofSeconds(60);
+
+    /**
+     * Age after which the snapshot is reported as stale.
+     */
+    private Duration staleAfter = Duration.ofMinutes(5);
+
+    /**
+     * File the last validated snapshot is written to and restored from at startup. Disabled when not set.
+     */
+    private Path persistPath;
+
+    /**
+     * Longest a request arriving before the first snapshot waits for the load in flight before it is refused.
+     */
+    private Duration initialLoadWait = Duration.ofSeconds(30);
+
+    /**
+     * Number of recent snapshot versions, the current one included, that pagination cursors can still read from.
+     */
+    private int retainedVersions = 3;
+}
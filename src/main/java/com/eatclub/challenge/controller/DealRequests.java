@@ -0,0 +1,99 @@
+package com.eatclub.challenge.controller;
+
+import com.eatclub.challenge.dto.AvailabilityResponse;
+import com.eatclub.challenge.dto.DealResponse;
+import com.eatclub.challenge.dto.PeakTimeResponse;
+import com.eatclub.challenge.dto.PeakWindowsResponse;
+import com.eatclub.challenge.model.DealFilter;
+import com.eatclub.challenge.model.RangeMatch;
+import lombok.experimental.UtilityClass;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Pageable;
+
+/**
+ * Turns request parameters into service arguments and logs each request and its response.
+ * Shared by {@link DealsController} and {@link ReactiveDealsController} so both stacks validate and log alike;
+ * the controllers only bind parameters and choose between the blocking and the reactive service calls.
+ */
+@UtilityClass
+@Slf4j
+class DealRequests {
+
+    /**
+     * Builds the filter of an active deals page.
+     *
+     * @throws IllegalArgumentException if minDiscount is out of range
+     */
+    DealFilter activeDeals(String timeOfDay, String suburb, String cuisine, Boolean dineIn, Boolean lightning,
+                           Integer minDiscount, Pageable pageable) {
+        DealFilter filter = new DealFilter(suburb, cuisine, dineIn, lightning, minDiscount);
+        log.info("Received request for active deals at time: {} with pagination: page={}, size={}, filter: {}",
+                timeOfDay, pageable.getPageNumber(), pageable.getPageSize(), filter);
+        return filter;
+    }
+
+    /**
+     * Builds the filter of an active deals stream.
+     *
+     * @throws IllegalArgumentException if minDiscount is out of range
+     */
+    DealFilter streamActiveDeals(String timeOfDay, String suburb, String cuisine, Boolean dineIn, Boolean lightning,
+                                 Integer minDiscount) {
+        DealFilter filter = new DealFilter(suburb, cuisine, dineIn, lightning, minDiscount);
+        log.info("Received request to stream active deals at time: {}, filter: {}", timeOfDay, filter);
+        return filter;
+    }
+
+    void dealsInRange(String from, String to, RangeMatch match, Pageable pageable) {
+        log.info("Received request for deals from {} to {} (match={}) with pagination: page={}, size={}",
+                from, to, match, pageable.getPageNumber(), pageable.getPageSize());
+    }
+
+    void searchDeals(String q, String timeOfDay, Pageable pageable) {
+        log.info("Received search for '{}' at time: {} with pagination: page={}, size={}",
+                q, timeOfDay, pageable.getPageNumber(), pageable.getPageSize());
+    }
+
+    void availability(int bucket) {
+        log.info("Received request for deal availability with bucket: {} minutes", bucket);
+    }
+
+    /**
+     * Builds the filter of a peak time calculation.
+     */
+    DealFilter peakTime(String suburb, String cuisine, Boolean dineIn, Boolean lightning) {
+        DealFilter filter = new DealFilter(suburb, cuisine, dineIn, lightning);
+        log.info("Received request for peak time calculation, filter: {}", filter);
+        return filter;
+    }
+
+    void topWindows(int k) {
+        log.info("Received request for top {} peak windows", k);
+    }
+
+    void nearPeakWindows(double ratio) {
+        log.info("Received request for near-peak windows at ratio: {}", ratio);
+    }
+
+    DealResponse returning(DealResponse response) {
+        log.info("Returning page {} of {} ({} total deals, {} on this page)",
+                response.getCurrentPage(), response.getTotalPages(),
+                response.getTotalElements(), response.getDeals().size());
+        return response;
+    }
+
+    AvailabilityResponse returning(AvailabilityResponse response) {
+        log.info("Returning {} availability buckets", response.getBuckets().size());
+        return response;
+    }
+
+    PeakTimeResponse returning(PeakTimeResponse response) {
+        log.info("Returning peak time: {} - {}", response.getPeakTimeStart(), response.getPeakTimeEnd());
+        return response;
+    }
+
+    PeakWindowsResponse returning(PeakWindowsResponse response) {
+        log.info("Returning {} windows", response.getWindows().size());
+        return response;
+    }
+}
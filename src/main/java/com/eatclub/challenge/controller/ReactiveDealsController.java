@@ -0,0 +1,200 @@
+package com.eatclub.challenge.controller;
+
+import com.eatclub.challenge.dto.AvailabilityResponse;
+import com.eatclub.challenge.dto.DealDto;
+import com.eatclub.challenge.dto.DealResponse;
+import com.eatclub.challenge.dto.PeakTimeResponse;
+import com.eatclub.challenge.dto.PeakWindowsResponse;
+import com.eatclub.challenge.model.DealFilter;
+import com.eatclub.challenge.model.RangeMatch;
+import com.eatclub.challenge.service.DealService;
+import com.eatclub.challenge.service.PeakTimeService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.web.PageableDefault;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * WebFlux variant of {@link DealsController}, serving the same API without blocking the event loop.
+ * Reads come straight from the in-memory snapshot; only a cold start waits, asynchronously, for the first load.
+ */
+@RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@RequestMapping("/api/v1/deals")
+@RequiredArgsConstructor
+@Tag(name = "Deals", description = "APIs for fetching restaurant deals and peak times")
+public class ReactiveDealsController {
+
+    private final DealService dealService;
+    private final PeakTimeService peakTimeService;
+
+    @GetMapping
+    @Operation(summary = "Get active deals", description = "Fetches active restaurant deals for the specified time of day, optionally filtered by suburb, cuisine, deal flags and discount, with pagination and sorting by discount, qtyLeft or restaurantName")
+    @ApiResponse(responseCode = "200", description = "Active deals retrieved successfully")
+    @ApiResponse(responseCode = "400", description = "Invalid time format, filter, sort or cursor")
+    @ApiResponse(responseCode = "410", description = "Cursor's snapshot version is no longer available")
+    @ApiResponse(responseCode = "503", description = "Unable to fetch restaurant data")
+    public Mono<ResponseEntity<DealResponse>> getActiveDeals(
+            @Parameter(description = "Time of day (e.g., 3:00pm, 15:00)", example = "3:00pm")
+            @RequestParam String timeOfDay,
+            @Parameter(description = "Only deals of restaurants in this suburb", example = "Richmond")
+            @RequestParam(required = false) String suburb,
+            @Parameter(description = "Only deals of restaurants serving this cuisine", example = "Indian")
+            @RequestParam(required = false) String cuisine,
+            @Parameter(description = "Only dine-in (true) or non-dine-in (false) deals")
+            @RequestParam(required = false) Boolean dineIn,
+            @Parameter(description = "Only lightning (true) or regular (false) deals")
+            @RequestParam(required = false) Boolean lightning,
+            @Parameter(description = "Only deals with at least this discount in percent (0 to 100)", example = "20")
+            @RequestParam(required = false) Integer minDiscount,
+            @Parameter(description = "nextCursor of the previous page; continues on the same snapshot version and replaces page")
+            @RequestParam(required = false) String cursor,
+            @PageableDefault(size = 20, page = 0) Pageable pageable) {
+
+        DealFilter filter = DealRequests.activeDeals(timeOfDay, suburb, cuisine, dineIn, lightning, minDiscount,
+                pageable);
+        return dealService.getActiveDealsReactive(timeOfDay, filter, cursor, pageable)
+                .map(DealRequests::returning)
+                .map(ResponseEntity::ok);
+    }
+
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(summary = "Stream active deals", description = "Streams every active deal for the specified time of day as newline-delimited JSON, one deal per line, optionally filtered like the paged endpoint")
+    @ApiResponse(responseCode = "200", description = "Active deals streamed successfully")
+    @ApiResponse(responseCode = "400", description = "Invalid time format or filter")
+    @ApiResponse(responseCode = "503", description = "Unable to fetch restaurant data")
+    public Flux<DealDto> streamActiveDeals(
+            @Parameter(description = "Time of day (e.g., 3:00pm, 15:00)", example = "3:00pm")
+            @RequestParam String timeOfDay,
+            @Parameter(description = "Only deals of restaurants in this suburb", example = "Richmond")
+            @RequestParam(required = false) String suburb,
+            @Parameter(description = "Only deals of restaurants serving this cuisine", example = "Indian")
+            @RequestParam(required = false) String cuisine,
+            @Parameter(description = "Only dine-in (true) or non-dine-in (false) deals")
+            @RequestParam(required = false) Boolean dineIn,
+            @Parameter(description = "Only lightning (true) or regular (false) deals")
+            @RequestParam(required = false) Boolean lightning,
+            @Parameter(description = "Only deals with at least this discount in percent (0 to 100)", example = "20")
+            @RequestParam(required = false) Integer minDiscount) {
+
+        DealFilter filter = DealRequests.streamActiveDeals(timeOfDay, suburb, cuisine, dineIn, lightning, minDiscount);
+        return dealService.streamActiveDealsReactive(timeOfDay, filter);
+    }
+
+    @GetMapping("/range")
+    @Operation(summary = "Get deals in a time range", description = "Fetches deals available at any point in, or for the entire, time range with pagination support")
+    @ApiResponse(responseCode = "200", description = "Deals retrieved successfully")
+    @ApiResponse(responseCode = "400", description = "Invalid time format or match mode")
+    @ApiResponse(responseCode = "503", description = "Unable to fetch restaurant data")
+    public Mono<ResponseEntity<DealResponse>> getDealsInRange(
+            @Parameter(description = "Start of the range, inclusive (e.g., 5:30pm, 17:30)", example = "5:30pm")
+            @RequestParam String from,
+            @Parameter(description = "End of the range, inclusive; before the start wraps past midnight", example = "7:00pm")
+            @RequestParam String to,
+            @Parameter(description = "ANY: available at some point in the range; ALL: available for the entire range")
+            @RequestParam(defaultValue = "ANY") RangeMatch match,
+            @PageableDefault(size = 20, page = 0) Pageable pageable) {
+
+        DealRequests.dealsInRange(from, to, match, pageable);
+        return dealService.getDealsInRangeReactive(from, to, match, pageable)
+                .map(DealRequests::returning)
+                .map(ResponseEntity::ok);
+    }
+
+    @GetMapping("/search")
+    @Operation(summary = "Search deals", description = "Finds deals by restaurant name, suburb and cuisine, best matching restaurants first, optionally only those available at a time of day")
+    @ApiResponse(responseCode = "200", description = "Search completed successfully")
+    @ApiResponse(responseCode = "400", description = "Invalid query or time format")
+    @ApiResponse(responseCode = "503", description = "Unable to fetch restaurant data")
+    public Mono<ResponseEntity<DealResponse>> searchDeals(
+            @Parameter(description = "Words to find in restaurant names, suburbs and cuisines; every word must match", example = "thai richmond")
+            @RequestParam String q,
+            @Parameter(description = "Only deals available at this time of day (e.g., 3:00pm, 15:00)", example = "6:00pm")
+            @RequestParam(required = false) String timeOfDay,
+            @PageableDefault(size = 20, page = 0) Pageable pageable) {
+
+        DealRequests.searchDeals(q, timeOfDay, pageable);
+        return dealService.searchDealsReactive(q, timeOfDay, pageable)
+                .map(DealRequests::returning)
+                .map(ResponseEntity::ok);
+    }
+
+    @GetMapping("/availability")
+    @Operation(summary = "Get deal availability across the day", description = "Counts the deals available at every minute of the day, or per bucket of the requested length")
+    @ApiResponse(responseCode = "200", description = "Availability counted successfully")
+    @ApiResponse(responseCode = "400", description = "Invalid bucket size")
+    @ApiResponse(responseCode = "503", description = "Unable to fetch restaurant data")
+    public Mono<ResponseEntity<AvailabilityResponse>> getAvailability(
+            @Parameter(description = "Bucket length in minutes (1 to 1440)", example = "15")
+            @RequestParam(defaultValue = "1") int bucket) {
+
+        DealRequests.availability(bucket);
+        return dealService.getAvailabilityReactive(bucket)
+                .map(DealRequests::returning)
+                .map(ResponseEntity::ok);
+    }
+
+    @GetMapping("/peak-time")
+    @Operation(summary = "Get peak time window", description = "Calculates when the maximum number of deals, optionally narrowed by suburb, cuisine and deal flags, are simultaneously available")
+    @ApiResponse(responseCode = "200", description = "Peak time calculated successfully")
+    @ApiResponse(responseCode = "400", description = "Invalid filter")
+    @ApiResponse(responseCode = "500", description = "Calculation error")
+    @ApiResponse(responseCode = "503", description = "Unable to fetch restaurant data")
+    public Mono<ResponseEntity<PeakTimeResponse>> getPeakTime(
+            @Parameter(description = "Only count deals of restaurants in this suburb", example = "Richmond")
+            @RequestParam(required = false) String suburb,
+            @Parameter(description = "Only count deals of restaurants serving this cuisine", example = "Indian")
+            @RequestParam(required = false) String cuisine,
+            @Parameter(description = "Only count dine-in (true) or non-dine-in (false) deals")
+            @RequestParam(required = false) Boolean dineIn,
+            @Parameter(description = "Only count lightning (true) or regular (false) deals")
+            @RequestParam(required = false) Boolean lightning) {
+
+        DealFilter filter = DealRequests.peakTime(suburb, cuisine, dineIn, lightning);
+        return peakTimeService.calculatePeakTimeReactive(filter)
+                .map(DealRequests::returning)
+                .map(ResponseEntity::ok);
+    }
+
+    @GetMapping("/peak-time/top")
+    @Operation(summary = "Get top peak windows", description = "Ranks the windows of the day by the number of deals available, most deals first")
+    @ApiResponse(responseCode = "200", description = "Windows ranked successfully")
+    @ApiResponse(responseCode = "400", description = "Invalid k")
+    @ApiResponse(responseCode = "503", description = "Unable to fetch restaurant data")
+    public Mono<ResponseEntity<PeakWindowsResponse>> getTopWindows(
+            @Parameter(description = "Number of windows (1 to 1440)", example = "5")
+            @RequestParam(defaultValue = "5") int k) {
+
+        DealRequests.topWindows(k);
+        return peakTimeService.getTopWindowsReactive(k)
+                .map(DealRequests::returning)
+                .map(ResponseEntity::ok);
+    }
+
+    @GetMapping("/peak-time/near")
+    @Operation(summary = "Get near-peak windows", description = "Finds every window during which the deals available stay at or above a share of the daily maximum")
+    @ApiResponse(responseCode = "200", description = "Windows found successfully")
+    @ApiResponse(responseCode = "400", description = "Invalid ratio")
+    @ApiResponse(responseCode = "503", description = "Unable to fetch restaurant data")
+    public Mono<ResponseEntity<PeakWindowsResponse>> getNearPeakWindows(
+            @Parameter(description = "Share of the maximum deal count, greater than 0 and at most 1", example = "0.9")
+            @RequestParam(defaultValue = "0.9") double ratio) {
+
+        DealRequests.nearPeakWindows(ratio);
+        return peakTimeService.getNearPeakWindowsReactive(ratio)
+                .map(DealRequests::returning)
+                .map(ResponseEntity::ok);
+    }
+}
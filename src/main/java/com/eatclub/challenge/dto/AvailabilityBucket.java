@@ -0,0 +1,25 @@
+package com.eatclub.challenge.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Deal availability over one bucket of the day.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Number of deals available during one bucket of the day")
+public class AvailabilityBucket {
+
+    @Schema(description = "First minute of the bucket", example = "6:00pm")
+    private String start;
+
+    @Schema(description = "Deals available at the start of the bucket, as returned for that timeOfDay", example = "12")
+    private int dealCount;
+
+    @Schema(description = "Most deals available at any minute of the bucket", example = "15")
+    private int maxDealCount;
+}
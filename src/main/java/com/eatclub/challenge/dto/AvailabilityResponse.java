@@ -0,0 +1,30 @@
+package com.eatclub.challenge.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Response object for the deal availability histogram API.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Number of deals available across the day, in buckets from midnight")
+public class AvailabilityResponse {
+
+    @Schema(description = "Length of each bucket in minutes; the last bucket is shorter if it does not divide the day",
+            example = "15")
+    private int bucketMinutes;
+
+    @Schema(description = "Version of the restaurant snapshot the counts were read from", example = "42")
+    private long snapshotVersion;
+
+    @Schema(description = "Buckets in order from midnight", required = true)
+    private List<AvailabilityBucket> buckets;
+}
@@ -1,5 +1,6 @@
 package com.eatclub.challenge.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import io.swagger.v3.oas.annotations.media.Schema;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -39,6 +40,15 @@ public class DealResponse {
     @Schema(description = "Whether there is a previous page", example = "false")
     private boolean hasPrevious;
 
+    @Schema(description = "Cursor for the next page, pinned to the same snapshot version; absent on the last page",
+            example = "AAAAAAAAAAcAAAAUdd1X8A")
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String nextCursor;
+
+    @Schema(description = "Matching deals per facet value; only present when the request is filtered")
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private FacetCountsDto facets;
+
     /**
      * Creates a non-paginated response (for backwards compatibility).
      */
@@ -0,0 +1,33 @@
+package com.eatclub.challenge.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+/**
+ * DTO counting the deals of a filtered result per facet value.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Number of matching deals per facet value, across all pages")
+public class FacetCountsDto {
+
+    @Schema(description = "Deals per suburb, most deals first", example = "{\"Richmond\": 12, \"Carlton\": 4}")
+    private Map<String, Integer> suburbs;
+
+    @Schema(description = "Deals per cuisine, most deals first; a restaurant counts for each cuisine it lists",
+            example = "{\"Indian\": 9, \"Thai\": 3}")
+    private Map<String, Integer> cuisines;
+
+    @Schema(description = "Number of dine-in deals", example = "10")
+    private int dineIn;
+
+    @Schema(description = "Number of lightning deals", example = "2")
+    private int lightning;
+}
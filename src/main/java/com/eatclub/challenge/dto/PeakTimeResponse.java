@@ -5,6 +5,8 @@ import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.time.Instant;
+
 /**
  * Response object for peak time window API.
  */
@@ -19,4 +21,14 @@ public class PeakTimeResponse {
 
     @Schema(description = "End time of the peak window", example = "9:00pm", nullable = true)
     private String peakTimeEnd;
-}
\ No newline at end of file
+
+    @Schema(description = "Version of the restaurant snapshot the window was computed from", example = "42")
+    private Long snapshotVersion;
+
+    @Schema(description = "When the window was computed, once per snapshot version", example = "2025-11-21T03:30:00Z")
+    private Instant computedAt;
+
+    public PeakTimeResponse(String peakTimeStart, String peakTimeEnd) {
+        this(peakTimeStart, peakTimeEnd, null, null);
+    }
+}
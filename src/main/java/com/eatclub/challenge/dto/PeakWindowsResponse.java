@@ -0,0 +1,33 @@
+package com.eatclub.challenge.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Response object for the top-K and near-peak window APIs.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Windows of the day ranked by, or filtered on, the number of deals available")
+public class PeakWindowsResponse {
+
+    @Schema(description = "Most deals available at any point of the day", example = "10")
+    private int maxDealCount;
+
+    @Schema(description = "Matching windows", required = true)
+    private List<TimeWindowDto> windows;
+
+    @Schema(description = "Version of the restaurant snapshot the windows were computed from", example = "42")
+    private long snapshotVersion;
+
+    @Schema(description = "When the windows were computed, once per snapshot version", example = "2025-11-21T03:30:00Z")
+    private Instant computedAt;
+}
@@ -0,0 +1,28 @@
+package com.eatclub.challenge.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO representing a window of the day and the deals available during it.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Window of the day with the number of deals available during it")
+public class TimeWindowDto {
+
+    @Schema(description = "Start time of the window", example = "6:00pm")
+    private String start;
+
+    @Schema(description = "End time of the window", example = "7:30pm")
+    private String end;
+
+    @Schema(description = "Deals available throughout the window", example = "9")
+    private int dealCount;
+
+    @Schema(description = "Most deals available at any point in the window", example = "10")
+    private int maxDealCount;
+}
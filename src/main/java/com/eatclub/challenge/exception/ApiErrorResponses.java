@@ -0,0 +1,79 @@
+package com.eatclub.challenge.exception;
+
+import com.eatclub.challenge.dto.ErrorResponse;
+import lombok.experimental.UtilityClass;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.reactive.function.client.WebClientException;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+
+/**
+ * Maps exceptions to {@link ErrorResponse}s.
+ * Shared by the servlet and reactive exception handlers so both stacks return identical errors.
+ */
+@UtilityClass
+@Slf4j
+class ApiErrorResponses {
+
+    ResponseEntity<ErrorResponse> restaurantData(RestaurantDataException ex, String path) {
+        log.error("Restaurant data error: {}", ex.getMessage(), ex);
+        return build(HttpStatus.SERVICE_UNAVAILABLE, "Restaurant Data Error", ex.getMessage(), path, null);
+    }
+
+    ResponseEntity<ErrorResponse> invalidTimeFormat(InvalidTimeFormatException ex, String path) {
+        log.error("Invalid time format: {}", ex.getMessage(), ex);
+        return build(HttpStatus.BAD_REQUEST, "Invalid Time Format", ex.getMessage(), path, null);
+    }
+
+    ResponseEntity<ErrorResponse> cursorExpired(CursorExpiredException ex, String path) {
+        log.warn("Expired cursor: {}", ex.getMessage());
+        return build(HttpStatus.GONE, "Cursor Expired", ex.getMessage(), path, null);
+    }
+
+    ResponseEntity<ErrorResponse> peakTimeCalculation(PeakTimeCalculationException ex, String path) {
+        log.error("Peak time calculation error: {}", ex.getMessage(), ex);
+        return build(HttpStatus.INTERNAL_SERVER_ERROR, "Peak Time Calculation Error", ex.getMessage(), path, null);
+    }
+
+    ResponseEntity<ErrorResponse> invalidParameter(String name, Class<?> requiredType, Object value, String path) {
+        String message = String.format("Parameter '%s' must be of type %s",
+                name,
+                requiredType != null ? requiredType.getSimpleName() : "unknown");
+        return build(HttpStatus.BAD_REQUEST, "Invalid Parameter", message, path,
+                value != null ? "Provided value: " + value : null);
+    }
+
+    ResponseEntity<ErrorResponse> webClientResponse(WebClientResponseException ex, String path) {
+        log.error("External API error: {} - {}", ex.getStatusCode(), ex.getMessage());
+        return build(HttpStatus.SERVICE_UNAVAILABLE, "External Service Error",
+                "Failed to fetch restaurant data from external service", path, "Status: " + ex.getStatusCode());
+    }
+
+    ResponseEntity<ErrorResponse> webClient(WebClientException ex, String path) {
+        log.error("External API connection error: {}", ex.getMessage(), ex);
+        return build(HttpStatus.SERVICE_UNAVAILABLE, "External Service Error",
+                "Unable to connect to external restaurant data service", path, null);
+    }
+
+    ResponseEntity<ErrorResponse> invalidRequest(String message, String path) {
+        log.error("Invalid argument: {}", message);
+        return build(HttpStatus.BAD_REQUEST, "Invalid Request", message, path, null);
+    }
+
+    ResponseEntity<ErrorResponse> unexpected(Exception ex, String path) {
+        log.error("Unexpected error: {}", ex.getMessage(), ex);
+        return build(HttpStatus.INTERNAL_SERVER_ERROR, "Internal Server Error",
+                "An unexpected error occurred. Please try again later.", path, null);
+    }
+
+    private ResponseEntity<ErrorResponse> build(HttpStatus status, String error, String message, String path,
+                                                String details) {
+        ErrorResponse body = details != null
+                ? ErrorResponse.of(status.value(), error, message, path, details)
+                : ErrorResponse.of(status.value(), error, message, path);
+        // Set explicitly so errors are written as JSON even when only a streaming type such as NDJSON was accepted
+        return ResponseEntity.status(status).contentType(MediaType.APPLICATION_JSON).body(body);
+    }
+}
@@ -0,0 +1,11 @@
+package com.eatclub.challenge.exception;
+
+/**
+ * Exception thrown when a pagination cursor refers to a snapshot version that is no longer retained.
+ */
+public class CursorExpiredException extends RuntimeException {
+
+    public CursorExpiredException(String message) {
+        super(message);
+    }
+}
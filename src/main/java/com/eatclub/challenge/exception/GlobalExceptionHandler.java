@@ -3,7 +3,7 @@ package com.eatclub.challenge.exception;
 import com.eatclub.challenge.dto.ErrorResponse;
 import jakarta.servlet.http.HttpServletRequest;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.http.HttpStatus;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
@@ -14,8 +14,10 @@ import org.springframework.web.reactive.function.client.WebClientResponseExcepti
 /**
  * Global exception handler for all REST API endpoints.
  * Provides consistent error responses across the application.
+ * See {@link ReactiveGlobalExceptionHandler} for the reactive stack.
  */
 @RestControllerAdvice
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 @Slf4j
 public class GlobalExceptionHandler {
 
@@ -23,48 +25,28 @@ public class GlobalExceptionHandler {
     public ResponseEntity<ErrorResponse> handleRestaurantDataException(
             RestaurantDataException ex,
             HttpServletRequest request) {
-        log.error("Restaurant data error: {}", ex.getMessage(), ex);
-
-        ErrorResponse error = ErrorResponse.of(
-                HttpStatus.SERVICE_UNAVAILABLE.value(),
-                "Restaurant Data Error",
-                ex.getMessage(),
-                request.getRequestURI()
-        );
-
-        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(error);
+        return ApiErrorResponses.restaurantData(ex, request.getRequestURI());
     }
 
     @ExceptionHandler(InvalidTimeFormatException.class)
     public ResponseEntity<ErrorResponse> handleInvalidTimeFormatException(
             InvalidTimeFormatException ex,
             HttpServletRequest request) {
-        log.error("Invalid time format: {}", ex.getMessage(), ex);
-
-        ErrorResponse error = ErrorResponse.of(
-                HttpStatus.BAD_REQUEST.value(),
-                "Invalid Time Format",
-                ex.getMessage(),
-                request.getRequestURI()
-        );
+        return ApiErrorResponses.invalidTimeFormat(ex, request.getRequestURI());
+    }
 
-        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
+    @ExceptionHandler(CursorExpiredException.class)
+    public ResponseEntity<ErrorResponse> handleCursorExpiredException(
+            CursorExpiredException ex,
+            HttpServletRequest request) {
+        return ApiErrorResponses.cursorExpired(ex, request.getRequestURI());
     }
 
     @ExceptionHandler(PeakTimeCalculationException.class)
     public ResponseEntity<ErrorResponse> handlePeakTimeCalculationException(
             PeakTimeCalculationException ex,
             HttpServletRequest request) {
-        log.error("Peak time calculation error: {}", ex.getMessage(), ex);
-
-        ErrorResponse error = ErrorResponse.of(
-                HttpStatus.INTERNAL_SERVER_ERROR.value(),
-                "Peak Time Calculation Error",
-                ex.getMessage(),
-                request.getRequestURI()
-        );
-
-        return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(error);
+        return ApiErrorResponses.peakTimeCalculation(ex, request.getRequestURI());
     }
 
     @ExceptionHandler(MethodArgumentTypeMismatchException.class)
@@ -72,84 +54,35 @@ public class GlobalExceptionHandler {
             MethodArgumentTypeMismatchException ex,
             HttpServletRequest request) {
         log.error("Invalid parameter type: {}", ex.getMessage());
-
-        String message = String.format("Parameter '%s' must be of type %s",
-                ex.getName(),
-                ex.getRequiredType() != null ? ex.getRequiredType().getSimpleName() : "unknown");
-
-        ErrorResponse error = ErrorResponse.of(
-                HttpStatus.BAD_REQUEST.value(),
-                "Invalid Parameter",
-                message,
-                request.getRequestURI(),
-                ex.getValue() != null ? "Provided value: " + ex.getValue() : null
-        );
-
-        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
+        return ApiErrorResponses.invalidParameter(ex.getName(), ex.getRequiredType(), ex.getValue(),
+                request.getRequestURI());
     }
 
     @ExceptionHandler(WebClientResponseException.class)
     public ResponseEntity<ErrorResponse> handleWebClientResponseException(
             WebClientResponseException ex,
             HttpServletRequest request) {
-        log.error("External API error: {} - {}", ex.getStatusCode(), ex.getMessage());
-
-        ErrorResponse error = ErrorResponse.of(
-                HttpStatus.SERVICE_UNAVAILABLE.value(),
-                "External Service Error",
-                "Failed to fetch restaurant data from external service",
-                request.getRequestURI(),
-                "Status: " + ex.getStatusCode()
-        );
-
-        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(error);
+        return ApiErrorResponses.webClientResponse(ex, request.getRequestURI());
     }
 
     @ExceptionHandler(WebClientException.class)
     public ResponseEntity<ErrorResponse> handleWebClientException(
             WebClientException ex,
             HttpServletRequest request) {
-        log.error("External API connection error: {}", ex.getMessage(), ex);
-
-        ErrorResponse error = ErrorResponse.of(
-                HttpStatus.SERVICE_UNAVAILABLE.value(),
-                "External Service Error",
-                "Unable to connect to external restaurant data service",
-                request.getRequestURI()
-        );
-
-        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(error);
+        return ApiErrorResponses.webClient(ex, request.getRequestURI());
     }
 
     @ExceptionHandler(IllegalArgumentException.class)
     public ResponseEntity<ErrorResponse> handleIllegalArgumentException(
             IllegalArgumentException ex,
             HttpServletRequest request) {
-        log.error("Invalid argument: {}", ex.getMessage());
-
-        ErrorResponse error = ErrorResponse.of(
-                HttpStatus.BAD_REQUEST.value(),
-                "Invalid Request",
-                ex.getMessage(),
-                request.getRequestURI()
-        );
-
-        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
+        return ApiErrorResponses.invalidRequest(ex.getMessage(), request.getRequestURI());
     }
 
     @ExceptionHandler(Exception.class)
     public ResponseEntity<ErrorResponse> handleGenericException(
             Exception ex,
             HttpServletRequest request) {
-        log.error("Unexpected error: {}", ex.getMessage(), ex);
-
-        ErrorResponse error = ErrorResponse.of(
-                HttpStatus.INTERNAL_SERVER_ERROR.value(),
-                "Internal Server Error",
-                "An unexpected error occurred. Please try again later.",
-                request.getRequestURI()
-        );
-
-        return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(error);
+        return ApiErrorResponses.unexpected(ex, request.getRequestURI());
     }
-}
\ No newline at end of file
+}
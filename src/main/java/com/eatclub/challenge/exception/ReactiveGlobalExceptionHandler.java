@@ -0,0 +1,90 @@
+package com.eatclub.challenge.exception;
+
+import com.eatclub.challenge.dto.ErrorResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.TypeMismatchException;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.reactive.function.client.WebClientException;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import org.springframework.web.server.ServerWebInputException;
+
+/**
+ * Exception handler for the reactive stack, returning the same error responses as {@link GlobalExceptionHandler}.
+ */
+@RestControllerAdvice
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@Slf4j
+public class ReactiveGlobalExceptionHandler {
+
+    @ExceptionHandler(RestaurantDataException.class)
+    public ResponseEntity<ErrorResponse> handleRestaurantDataException(
+            RestaurantDataException ex,
+            ServerHttpRequest request) {
+        return ApiErrorResponses.restaurantData(ex, request.getPath().value());
+    }
+
+    @ExceptionHandler(InvalidTimeFormatException.class)
+    public ResponseEntity<ErrorResponse> handleInvalidTimeFormatException(
+            InvalidTimeFormatException ex,
+            ServerHttpRequest request) {
+        return ApiErrorResponses.invalidTimeFormat(ex, request.getPath().value());
+    }
+
+    @ExceptionHandler(CursorExpiredException.class)
+    public ResponseEntity<ErrorResponse> handleCursorExpiredException(
+            CursorExpiredException ex,
+            ServerHttpRequest request) {
+        return ApiErrorResponses.cursorExpired(ex, request.getPath().value());
+    }
+
+    @ExceptionHandler(PeakTimeCalculationException.class)
+    public ResponseEntity<ErrorResponse> handlePeakTimeCalculationException(
+            PeakTimeCalculationException ex,
+            ServerHttpRequest request) {
+        return ApiErrorResponses.peakTimeCalculation(ex, request.getPath().value());
+    }
+
+    @ExceptionHandler(ServerWebInputException.class)
+    public ResponseEntity<ErrorResponse> handleServerWebInputException(
+            ServerWebInputException ex,
+            ServerHttpRequest request) {
+        log.error("Invalid request input: {}", ex.getMessage());
+        if (ex.getCause() instanceof TypeMismatchException mismatch && ex.getMethodParameter() != null) {
+            return ApiErrorResponses.invalidParameter(ex.getMethodParameter().getParameterName(),
+                    mismatch.getRequiredType(), mismatch.getValue(), request.getPath().value());
+        }
+        return ApiErrorResponses.invalidRequest(ex.getReason(), request.getPath().value());
+    }
+
+    @ExceptionHandler(WebClientResponseException.class)
+    public ResponseEntity<ErrorResponse> handleWebClientResponseException(
+            WebClientResponseException ex,
+            ServerHttpRequest request) {
+        return ApiErrorResponses.webClientResponse(ex, request.getPath().value());
+    }
+
+    @ExceptionHandler(WebClientException.class)
+    public ResponseEntity<ErrorResponse> handleWebClientException(
+            WebClientException ex,
+            ServerHttpRequest request) {
+        return ApiErrorResponses.webClient(ex, request.getPath().value());
+    }
+
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<ErrorResponse> handleIllegalArgumentException(
+            IllegalArgumentException ex,
+            ServerHttpRequest request) {
+        return ApiErrorResponses.invalidRequest(ex.getMessage(), request.getPath().value());
+    }
+
+    @ExceptionHandler(Exception.class)
+    public ResponseEntity<ErrorResponse> handleGenericException(
+            Exception ex,
+            ServerHttpRequest request) {
+        return ApiErrorResponses.unexpected(ex, request.getPath().value());
+    }
+}
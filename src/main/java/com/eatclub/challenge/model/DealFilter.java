@@ -0,0 +1,55 @@
+package com.eatclub.challenge.model;
+
+import java.util.Locale;
+
+/**
+ * Restaurant and deal attributes a query is narrowed to; a null attribute matches every value.
+ * <p>
+ * Text attributes are compared ignoring case and surrounding whitespace, so they are normalized on construction and
+ * a blank value is treated as absent. A restaurant matches {@code cuisine} if it lists that cuisine among others.
+ *
+ * @param suburb      restaurant suburb
+ * @param cuisine     one of the restaurant's cuisines
+ * @param dineIn      whether the deal is dine-in
+ * @param lightning   whether the deal is a lightning deal
+ * @param minDiscount lowest discount in percent (0 to 100)
+ */
+public record DealFilter(String suburb, String cuisine, Boolean dineIn, Boolean lightning, Integer minDiscount) {
+
+    /**
+     * Matches every deal.
+     */
+    public static final DealFilter NONE = new DealFilter(null, null, null, null);
+
+    /**
+     * @throws IllegalArgumentException if minDiscount is out of range
+     */
+    public DealFilter {
+        suburb = normalize(suburb);
+        cuisine = normalize(cuisine);
+        if (minDiscount != null && (minDiscount < 0 || minDiscount > 100)) {
+            throw new IllegalArgumentException("minDiscount must be between 0 and 100");
+        }
+    }
+
+    public DealFilter(String suburb, String cuisine, Boolean dineIn, Boolean lightning) {
+        this(suburb, cuisine, dineIn, lightning, null);
+    }
+
+    /**
+     * Whether the filter leaves every deal in.
+     */
+    public boolean isEmpty() {
+        return suburb == null && cuisine == null && dineIn == null && lightning == null && minDiscount == null;
+    }
+
+    /**
+     * Normalizes a text attribute the way filters hold it, or returns null if it is blank.
+     */
+    public static String normalize(String value) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        return value.strip().toLowerCase(Locale.ROOT);
+    }
+}
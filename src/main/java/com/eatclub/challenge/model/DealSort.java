@@ -0,0 +1,45 @@
+package com.eatclub.challenge.model;
+
+import java.util.Arrays;
+import java.util.stream.Collectors;
+
+/**
+ * Order of the deals on a page; deals with equal values keep their feed order.
+ *
+ * @param key        attribute the deals are ordered by
+ * @param descending whether the highest values come first
+ */
+public record DealSort(Key key, boolean descending) {
+
+    /**
+     * Attributes deals can be ordered by, named after the {@code DealDto} properties they sort.
+     */
+    public enum Key {
+
+        DISCOUNT("discount"),
+        QTY_LEFT("qtyLeft"),
+        RESTAURANT_NAME("restaurantName");
+
+        private final String property;
+
+        Key(String property) {
+            this.property = property;
+        }
+
+        public String property() {
+            return property;
+        }
+
+        /**
+         * @throws IllegalArgumentException if no attribute has that property name
+         */
+        public static Key fromProperty(String property) {
+            return Arrays.stream(values())
+                    .filter(key -> key.property.equals(property))
+                    .findFirst()
+                    .orElseThrow(() -> new IllegalArgumentException("Cannot sort by '" + property
+                            + "'; expected one of "
+                            + Arrays.stream(values()).map(Key::property).collect(Collectors.joining(", "))));
+        }
+    }
+}
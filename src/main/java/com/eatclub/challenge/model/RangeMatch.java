@@ -0,0 +1,17 @@
+package com.eatclub.challenge.model;
+
+/**
+ * How a restaurant's opening window must relate to a queried time range for its deals to match.
+ */
+public enum RangeMatch {
+
+    /**
+     * Available at some point in the range.
+     */
+    ANY,
+
+    /**
+     * Available for the entire range.
+     */
+    ALL
+}
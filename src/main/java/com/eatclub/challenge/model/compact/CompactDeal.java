@@ -0,0 +1,18 @@
+package com.eatclub.challenge.model.compact;
+
+/**
+ * Compact, immutable deal held in the restaurant snapshot.
+ * Repeated values (flags, discounts, times) are shared between deals at ingest.
+ */
+public record CompactDeal(
+        String objectId,
+        String discount,
+        String dineIn,
+        String lightning,
+        String qtyLeft,
+        String open,
+        String close,
+        String start,
+        String end
+) {
+}
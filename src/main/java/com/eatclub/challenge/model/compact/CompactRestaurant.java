@@ -0,0 +1,24 @@
+package com.eatclub.challenge.model.compact;
+
+import java.util.List;
+
+/**
+ * Compact, immutable restaurant held in the restaurant snapshot.
+ * Only keeps the fields the query paths read; {@code imageLink} is dropped at ingest.
+ */
+public record CompactRestaurant(
+        String objectId,
+        String name,
+        String address1,
+        String suburb,
+        List<String> cuisines,
+        String open,
+        String close,
+        List<CompactDeal> deals
+) {
+
+    public CompactRestaurant {
+        cuisines = cuisines != null ? cuisines : List.of();
+        deals = deals != null ? deals : List.of();
+    }
+}
@@ -0,0 +1,22 @@
+package com.eatclub.challenge.model.compiled;
+
+import com.eatclub.challenge.model.compact.CompactDeal;
+
+/**
+ * Deal validated and converted to typed values once at ingest.
+ * The compact source is kept so responses echo the feed's own formatting.
+ *
+ * @param source    deal as read from the feed
+ * @param discount  discount in percent (0 to 100)
+ * @param dineIn    whether the deal is for dine-in
+ * @param lightning whether the deal is a lightning deal
+ * @param qtyLeft   remaining quantity
+ */
+public record CompiledDeal(
+        CompactDeal source,
+        int discount,
+        boolean dineIn,
+        boolean lightning,
+        int qtyLeft
+) {
+}
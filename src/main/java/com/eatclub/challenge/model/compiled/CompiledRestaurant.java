@@ -0,0 +1,29 @@
+package com.eatclub.challenge.model.compiled;
+
+import com.eatclub.challenge.model.compact.CompactRestaurant;
+
+import java.util.List;
+
+/**
+ * Restaurant validated and converted to typed values once at ingest, holding only its valid deals.
+ * The compact source is kept so responses echo the feed's own formatting.
+ *
+ * @param source      restaurant as read from the feed
+ * @param openMinute  opening time in minutes since midnight
+ * @param closeMinute closing time in minutes since midnight
+ * @param deals       valid deals in feed order
+ */
+public record CompiledRestaurant(
+        CompactRestaurant source,
+        int openMinute,
+        int closeMinute,
+        List<CompiledDeal> deals
+) {
+
+    /**
+     * Whether the opening hours wrap past midnight; equal opening and closing times mean open all day.
+     */
+    public boolean wrapsMidnight() {
+        return openMinute >= closeMinute;
+    }
+}
@@ -0,0 +1,21 @@
+package com.eatclub.challenge.model.compiled;
+
+import java.util.List;
+
+/**
+ * Consecutive deals of one restaurant that share an effective window: the deals' own window, if the feed gives
+ * one, intersected with the restaurant's opening hours. Indexes are built over runs rather than single deals, and a
+ * restaurant whose deals carry no window of their own is a single run.
+ *
+ * @param restaurant restaurant the deals belong to
+ * @param deals      the deals, in feed order
+ * @param available  minutes at which the deals are returned by time lookups, closing minutes included
+ * @param counted    minutes at which the deals are counted by the peak sweep, closing minutes excluded
+ */
+public record DealRun(
+        CompiledRestaurant restaurant,
+        List<CompiledDeal> deals,
+        List<MinuteRange> available,
+        List<MinuteRange> counted
+) {
+}
@@ -0,0 +1,71 @@
+package com.eatclub.challenge.model.compiled;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Inclusive range of minutes since midnight that does not cross midnight.
+ * Windows are held as ascending, non-adjacent lists of ranges, so a window wrapping past midnight is two ranges.
+ *
+ * @param first first minute in the range (0 to 1439)
+ * @param last  last minute in the range, at least {@code first}
+ */
+public record MinuteRange(int first, int last) {
+
+    private static final int LAST_MINUTE = 1439;
+
+    /**
+     * Minutes from {@code open} to {@code close} with both ends included, as time lookups read opening hours.
+     * Windows with {@code open > close} wrap past midnight and {@code open == close} means all day.
+     */
+    public static List<MinuteRange> closedWindow(int open, int close) {
+        if (open < close) {
+            return List.of(new MinuteRange(open, close));
+        }
+        if (open == close || close + 1 == open) {
+            return List.of(new MinuteRange(0, LAST_MINUTE));
+        }
+        return List.of(new MinuteRange(0, close), new MinuteRange(open, LAST_MINUTE));
+    }
+
+    /**
+     * Minutes from {@code open} up to but excluding {@code close}, as the peak sweep reads opening hours.
+     * Windows with {@code open > close} wrap past midnight and {@code open == close} is empty.
+     */
+    public static List<MinuteRange> halfOpenWindow(int open, int close) {
+        if (open < close) {
+            return List.of(new MinuteRange(open, close - 1));
+        }
+        if (open == close) {
+            return List.of();
+        }
+        if (close == 0) {
+            return List.of(new MinuteRange(open, LAST_MINUTE));
+        }
+        return List.of(new MinuteRange(0, close - 1), new MinuteRange(open, LAST_MINUTE));
+    }
+
+    /**
+     * Minutes present in both windows.
+     */
+    public static List<MinuteRange> intersect(List<MinuteRange> a, List<MinuteRange> b) {
+        List<MinuteRange> result = new ArrayList<>(2);
+        int i = 0;
+        int j = 0;
+        while (i < a.size() && j < b.size()) {
+            MinuteRange left = a.get(i);
+            MinuteRange right = b.get(j);
+            int first = Math.max(left.first, right.first);
+            int last = Math.min(left.last, right.last);
+            if (first <= last) {
+                result.add(new MinuteRange(first, last));
+            }
+            if (left.last < right.last) {
+                i++;
+            } else {
+                j++;
+            }
+        }
+        return List.copyOf(result);
+    }
+}
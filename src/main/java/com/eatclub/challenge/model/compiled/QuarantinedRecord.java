@@ -0,0 +1,15 @@
+package com.eatclub.challenge.model.compiled;
+
+/**
+ * Feed record rejected at ingest and excluded from query results.
+ *
+ * @param restaurantObjectId restaurant the record belongs to
+ * @param dealObjectId       rejected deal, or null if the whole restaurant was rejected
+ * @param reason             why the record was rejected
+ */
+public record QuarantinedRecord(
+        String restaurantObjectId,
+        String dealObjectId,
+        String reason
+) {
+}
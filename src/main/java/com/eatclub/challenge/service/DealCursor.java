@@ -0,0 +1,76 @@
+package com.eatclub.challenge.service;
+
+import com.eatclub.challenge.model.DealFilter;
+import com.eatclub.challenge.model.DealSort;
+
+import java.nio.ByteBuffer;
+import java.util.Base64;
+import java.util.Objects;
+
+/**
+ * Opaque position in the deals matching a query, pinned to the snapshot version the first page was read from.
+ * <p>
+ * Encoded as URL-safe Base64 of the version, the number of deals already returned, the order key of the last of them
+ * and a fingerprint of the query, so a cursor cannot be replayed against a different time, filter or sort. The next
+ * page reads the deals whose key comes after the last key rather than counting past the deals already returned, and
+ * because snapshots are immutable it starts exactly after the last deal returned, however many refreshes happened
+ * in between.
+ *
+ * @param version     snapshot version the cursor reads from
+ * @param position    number of matching deals before the next page
+ * @param lastKey     order key of the last deal returned, as picked by the snapshot's
+ *                    {@link com.eatclub.challenge.snapshot.DealOrderings}, or its index among the active deals when
+ *                    every active deal is read in feed order
+ * @param fingerprint hash of the query the cursor belongs to
+ */
+record DealCursor(long version, int position, long lastKey, int fingerprint) {
+
+    private static final int ENCODED_BYTES = Long.BYTES * 2 + Integer.BYTES * 2;
+
+    static DealCursor of(long version, int position, long lastKey, int queryMinute, DealFilter filter,
+                         DealSort sort) {
+        return new DealCursor(version, position, lastKey, fingerprint(queryMinute, filter, sort));
+    }
+
+    /**
+     * Decodes a cursor issued for the same query.
+     *
+     * @throws IllegalArgumentException if the cursor is malformed or was issued for another query
+     */
+    static DealCursor decode(String cursor, int queryMinute, DealFilter filter, DealSort sort) {
+        byte[] bytes;
+        try {
+            bytes = Base64.getUrlDecoder().decode(cursor.strip());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+        if (bytes.length != ENCODED_BYTES) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        DealCursor decoded = new DealCursor(buffer.getLong(), buffer.getInt(), buffer.getLong(), buffer.getInt());
+        if (decoded.position() < 0 || decoded.lastKey() < 0) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+        if (decoded.fingerprint() != fingerprint(queryMinute, filter, sort)) {
+            throw new IllegalArgumentException("Cursor does not belong to this query");
+        }
+        return decoded;
+    }
+
+    String encode() {
+        ByteBuffer buffer = ByteBuffer.allocate(ENCODED_BYTES)
+                .putLong(version)
+                .putInt(position)
+                .putLong(lastKey)
+                .putInt(fingerprint);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(buffer.array());
+    }
+
+    private static int fingerprint(int queryMinute, DealFilter filter, DealSort sort) {
+        // Spelled out rather than filter.hashCode(), whose algorithm records leave unspecified, and by property name
+        // as enum hash codes differ between runs
+        return Objects.hash(queryMinute, filter.suburb(), filter.cuisine(), filter.dineIn(), filter.lightning(),
+                filter.minDiscount(), sort != null ? sort.key().property() : null, sort != null && sort.descending());
+    }
+}
@@ -1,21 +1,39 @@
 package com.eatclub.challenge.service;
 
-import com.eatclub.challenge.client.RestaurantDataClient;
+import com.eatclub.challenge.dto.AvailabilityBucket;
+import com.eatclub.challenge.dto.AvailabilityResponse;
 import com.eatclub.challenge.dto.DealDto;
 import com.eatclub.challenge.dto.DealResponse;
+import com.eatclub.challenge.dto.FacetCountsDto;
+import com.eatclub.challenge.exception.CursorExpiredException;
 import com.eatclub.challenge.exception.InvalidTimeFormatException;
 import com.eatclub.challenge.exception.RestaurantDataException;
-import com.eatclub.challenge.model.domain.Deal;
-import com.eatclub.challenge.model.domain.Restaurant;
+import com.eatclub.challenge.model.DealFilter;
+import com.eatclub.challenge.model.DealSort;
+import com.eatclub.challenge.model.RangeMatch;
+import com.eatclub.challenge.model.compact.CompactDeal;
+import com.eatclub.challenge.model.compact.CompactRestaurant;
+import com.eatclub.challenge.model.compiled.DealRun;
+import com.eatclub.challenge.snapshot.ActiveDealIndex.ActiveDeals;
+import com.eatclub.challenge.snapshot.DealIntervalTree;
+import com.eatclub.challenge.snapshot.DealOrderings;
+import com.eatclub.challenge.snapshot.DealPostings;
+import com.eatclub.challenge.snapshot.DealTimeline;
+import com.eatclub.challenge.snapshot.PeakProfile;
+import com.eatclub.challenge.snapshot.RestaurantSearchIndex;
+import com.eatclub.challenge.snapshot.RestaurantSnapshot;
+import com.eatclub.challenge.snapshot.RestaurantSnapshotStore;
+import com.eatclub.challenge.util.TimeCodec;
 import com.eatclub.challenge.util.TimeParser;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
-import java.time.LocalTime;
+import java.util.ArrayList;
 import java.util.List;
 
 /**
@@ -26,7 +44,7 @@ import java.util.List;
 @RequiredArgsConstructor
 public class DealService {
 
-    private final RestaurantDataClient dataClient;
+    private final RestaurantSnapshotStore snapshotStore;
 
     /**
      * Retrieves all active deals from all restaurants at specified time.
@@ -34,85 +52,505 @@ public class DealService {
      * @param timeOfDay time to query (e.g., "3:00pm", "15:00")
      * @return list of active deals
      * @throws InvalidTimeFormatException if timeOfDay format is invalid
-     * @throws RestaurantDataException    if unable to fetch restaurant data
+     * @throws RestaurantDataException    if no restaurant data has been loaded
      */
     public List<DealDto> getActiveDeals(String timeOfDay) {
-        if (timeOfDay == null || timeOfDay.isBlank()) {
-            log.warn("Empty timeOfDay parameter received");
-            throw new IllegalArgumentException("timeOfDay parameter is required");
+        int queryMinute = parseQueryMinute(timeOfDay);
+        ActiveDeals active = snapshotStore.current().getActiveDealIndex().at(queryMinute);
+        return materialize(active, 0, active.dealCount());
+    }
+
+    /**
+     * Retrieves active deals with pagination support.
+     * Only the deals on the requested page are materialized.
+     *
+     * @param timeOfDay time to query (e.g., "3:00pm", "15:00")
+     * @param pageable  pagination parameters
+     * @return paginated response with deals and metadata
+     * @throws InvalidTimeFormatException if timeOfDay format is invalid
+     * @throws RestaurantDataException    if no restaurant data has been loaded
+     */
+    public DealResponse getActiveDeals(String timeOfDay, Pageable pageable) {
+        return getActiveDeals(timeOfDay, DealFilter.NONE, pageable);
+    }
+
+    /**
+     * Retrieves active deals narrowed by suburb, cuisine, flags and minimum discount, with pagination support.
+     * Filtered results are matched against the snapshot's inverted indexes and carry facet counts across all pages.
+     *
+     * @param timeOfDay time to query (e.g., "3:00pm", "15:00")
+     * @param filter    facets the deals must match; {@link DealFilter#NONE} returns every active deal
+     * @param pageable  pagination parameters
+     * @return paginated response with deals and metadata
+     * @throws InvalidTimeFormatException if timeOfDay format is invalid
+     * @throws RestaurantDataException    if no restaurant data has been loaded
+     */
+    public DealResponse getActiveDeals(String timeOfDay, DealFilter filter, Pageable pageable) {
+        return getActiveDeals(timeOfDay, filter, null, pageable);
+    }
+
+    /**
+     * Retrieves a page of active deals, continuing from a cursor when one is given.
+     * A cursor pins the page to the snapshot version the first page was read from and replaces the page number;
+     * every response with more deals after it carries the cursor for the next page.
+     *
+     * @param timeOfDay time to query (e.g., "3:00pm", "15:00")
+     * @param filter    facets the deals must match; {@link DealFilter#NONE} returns every active deal
+     * @param cursor    {@code nextCursor} of the previous page for the same query, or null for the page number
+     * @param pageable  pagination parameters and an optional sort by one {@link DealSort.Key} property; only the
+     *                  page size and sort are used with a cursor
+     * @return paginated response with deals and metadata
+     * @throws InvalidTimeFormatException if timeOfDay format is invalid
+     * @throws IllegalArgumentException   if the cursor is malformed or belongs to another query, or the sort is not
+     *                                    supported
+     * @throws CursorExpiredException     if the cursor's snapshot version is no longer retained
+     * @throws RestaurantDataException    if no restaurant data has been loaded
+     */
+    public DealResponse getActiveDeals(String timeOfDay, DealFilter filter, String cursor, Pageable pageable) {
+        int queryMinute = parseQueryMinute(timeOfDay);
+        DealSort sort = toDealSort(pageable.getSort());
+        if (cursor == null || cursor.isBlank()) {
+            return activeDeals(snapshotStore.current(), queryMinute, filter, sort, pageable.getOffset(), -1, pageable);
         }
+        DealCursor position = DealCursor.decode(cursor, queryMinute, filter, sort);
+        return activeDeals(pinnedSnapshot(position), queryMinute, filter, sort, position.position(),
+                position.lastKey(), pageable);
+    }
 
-        LocalTime queryTime = TimeParser.parseTime(timeOfDay);
-        List<Restaurant> restaurants = dataClient.fetchRestaurants();
+    /**
+     * Non-blocking variant of {@link #getActiveDeals(String, Pageable)}.
+     * Waits for the initial snapshot without holding the calling thread; errors are signalled, not thrown.
+     *
+     * @param timeOfDay time to query (e.g., "3:00pm", "15:00")
+     * @param pageable  pagination parameters
+     * @return paginated response with deals and metadata
+     */
+    public Mono<DealResponse> getActiveDealsReactive(String timeOfDay, Pageable pageable) {
+        return getActiveDealsReactive(timeOfDay, DealFilter.NONE, pageable);
+    }
 
-        return restaurants.stream()
-                .filter(this::hasValidData)
-                .filter(restaurant -> isRestaurantOpen(restaurant, queryTime))
-                .filter(restaurant -> restaurant.getDeals() != null && !restaurant.getDeals().isEmpty())
-                .flatMap(restaurant -> restaurant.getDeals().stream()
-                        .map(deal -> mapToDto(restaurant, deal)))
-                .toList();
+    /**
+     * Non-blocking variant of {@link #getActiveDeals(String, DealFilter, Pageable)}.
+     *
+     * @param timeOfDay time to query (e.g., "3:00pm", "15:00")
+     * @param filter    facets the deals must match; {@link DealFilter#NONE} returns every active deal
+     * @param pageable  pagination parameters
+     * @return paginated response with deals and metadata
+     */
+    public Mono<DealResponse> getActiveDealsReactive(String timeOfDay, DealFilter filter, Pageable pageable) {
+        return getActiveDealsReactive(timeOfDay, filter, null, pageable);
     }
 
     /**
-     * Retrieves active deals with pagination support.
+     * Non-blocking variant of {@link #getActiveDeals(String, DealFilter, String, Pageable)}.
+     *
+     * @param timeOfDay time to query (e.g., "3:00pm", "15:00")
+     * @param filter    facets the deals must match; {@link DealFilter#NONE} returns every active deal
+     * @param cursor    {@code nextCursor} of the previous page for the same query, or null for the page number
+     * @param pageable  pagination parameters and an optional sort; only the page size and sort are used with a cursor
+     * @return paginated response with deals and metadata
+     */
+    public Mono<DealResponse> getActiveDealsReactive(String timeOfDay, DealFilter filter, String cursor,
+                                                     Pageable pageable) {
+        return Mono.defer(() -> {
+            int queryMinute = parseQueryMinute(timeOfDay);
+            DealSort sort = toDealSort(pageable.getSort());
+            if (cursor == null || cursor.isBlank()) {
+                return snapshotStore.currentReactive().map(snapshot ->
+                        activeDeals(snapshot, queryMinute, filter, sort, pageable.getOffset(), -1, pageable));
+            }
+            DealCursor position = DealCursor.decode(cursor, queryMinute, filter, sort);
+            return Mono.just(activeDeals(pinnedSnapshot(position), queryMinute, filter, sort, position.position(),
+                    position.lastKey(), pageable));
+        });
+    }
+
+    /**
+     * Streams every active deal at the specified time that the filter matches, in feed order, from the snapshot
+     * current when called. Deals are mapped one at a time as the subscriber requests them, so nothing is buffered
+     * per deal and a slow consumer holds back the mapping instead of growing a response in memory.
+     *
+     * @param timeOfDay time to query (e.g., "3:00pm", "15:00")
+     * @param filter    facets the deals must match; {@link DealFilter#NONE} streams every active deal
+     * @return active deals, completing after the last one
+     * @throws InvalidTimeFormatException if timeOfDay format is invalid
+     * @throws RestaurantDataException    if no restaurant data has been loaded
+     */
+    public Flux<DealDto> streamActiveDeals(String timeOfDay, DealFilter filter) {
+        int queryMinute = parseQueryMinute(timeOfDay);
+        RestaurantSnapshot snapshot = snapshotStore.current();
+        return dealStream(snapshot, queryMinute, filter);
+    }
+
+    /**
+     * Non-blocking variant of {@link #streamActiveDeals(String, DealFilter)}.
      *
      * @param timeOfDay time to query (e.g., "3:00pm", "15:00")
+     * @param filter    facets the deals must match; {@link DealFilter#NONE} streams every active deal
+     * @return active deals, completing after the last one
+     */
+    public Flux<DealDto> streamActiveDealsReactive(String timeOfDay, DealFilter filter) {
+        return Flux.defer(() -> {
+            int queryMinute = parseQueryMinute(timeOfDay);
+            return snapshotStore.currentReactive()
+                    .flatMapMany(snapshot -> dealStream(snapshot, queryMinute, filter));
+        });
+    }
+
+    /**
+     * Searches deals by restaurant name, suburb and cuisine, with the deals of the best matching restaurants first.
+     * Every word of the query must occur in one of those fields; matches are looked up in the snapshot's text index.
+     *
+     * @param query     words to search for (e.g., "thai richmond")
+     * @param timeOfDay only deals available at this time (e.g., "3:00pm", "15:00"), or null for any time
      * @param pageable  pagination parameters
      * @return paginated response with deals and metadata
+     * @throws IllegalArgumentException   if the query has no words or is too long
      * @throws InvalidTimeFormatException if timeOfDay format is invalid
-     * @throws RestaurantDataException    if unable to fetch restaurant data
+     * @throws RestaurantDataException    if no restaurant data has been loaded
      */
-    public DealResponse getActiveDeals(String timeOfDay, Pageable pageable) {
-        List<DealDto> allDeals = getActiveDeals(timeOfDay);
+    public DealResponse searchDeals(String query, String timeOfDay, Pageable pageable) {
+        int minute = parseOptionalMinute(timeOfDay);
+        return search(snapshotStore.current(), query, minute, pageable);
+    }
 
-        int start = (int) pageable.getOffset();
-        int end = Math.min(start + pageable.getPageSize(), allDeals.size());
+    /**
+     * Non-blocking variant of {@link #searchDeals(String, String, Pageable)}.
+     *
+     * @param query     words to search for (e.g., "thai richmond")
+     * @param timeOfDay only deals available at this time (e.g., "3:00pm", "15:00"), or null for any time
+     * @param pageable  pagination parameters
+     * @return paginated response with deals and metadata
+     */
+    public Mono<DealResponse> searchDealsReactive(String query, String timeOfDay, Pageable pageable) {
+        return Mono.defer(() -> {
+            int minute = parseOptionalMinute(timeOfDay);
+            return snapshotStore.currentReactive().map(snapshot -> search(snapshot, query, minute, pageable));
+        });
+    }
+
+    /**
+     * Retrieves deals whose restaurant is open at any point in, or for the entire, time range.
+     * A range whose end is before its start wraps past midnight.
+     *
+     * @param from     start of the range, inclusive (e.g., "5:30pm", "17:30")
+     * @param to       end of the range, inclusive (e.g., "7:00pm", "19:00")
+     * @param match    whether deals must be available at any point in the range or for all of it
+     * @param pageable pagination parameters
+     * @return paginated response with deals and metadata
+     * @throws InvalidTimeFormatException if from or to format is invalid
+     * @throws RestaurantDataException    if no restaurant data has been loaded
+     */
+    public DealResponse getDealsInRange(String from, String to, RangeMatch match, Pageable pageable) {
+        int fromMinute = parseRangeMinute("from", from);
+        int toMinute = parseRangeMinute("to", to);
+        return toPage(inRange(snapshotStore.current(), fromMinute, toMinute, match), pageable);
+    }
+
+    /**
+     * Non-blocking variant of {@link #getDealsInRange(String, String, RangeMatch, Pageable)}.
+     *
+     * @param from     start of the range, inclusive (e.g., "5:30pm", "17:30")
+     * @param to       end of the range, inclusive (e.g., "7:00pm", "19:00")
+     * @param match    whether deals must be available at any point in the range or for all of it
+     * @param pageable pagination parameters
+     * @return paginated response with deals and metadata
+     */
+    public Mono<DealResponse> getDealsInRangeReactive(String from, String to, RangeMatch match, Pageable pageable) {
+        return Mono.defer(() -> {
+            int fromMinute = parseRangeMinute("from", from);
+            int toMinute = parseRangeMinute("to", to);
+            return snapshotStore.currentReactive()
+                    .map(snapshot -> toPage(inRange(snapshot, fromMinute, toMinute, match), pageable));
+        });
+    }
+
+    /**
+     * Counts the deals available across the day, in buckets of the given length starting at midnight.
+     * Counts are read from the per-minute counts of the snapshot's {@link PeakProfile}, so like the peak window they
+     * exclude deals at their closing minute, and the whole day costs one pass over 1440 minutes.
+     *
+     * @param bucketMinutes bucket length in minutes (1 to 1440)
+     * @return deal count at the start of, and most deals during, each bucket
+     * @throws IllegalArgumentException if bucketMinutes is out of range
+     * @throws RestaurantDataException  if no restaurant data has been loaded
+     */
+    public AvailabilityResponse getAvailability(int bucketMinutes) {
+        validateBucket(bucketMinutes);
+        return toAvailability(snapshotStore.current(), bucketMinutes);
+    }
+
+    /**
+     * Non-blocking variant of {@link #getAvailability(int)}.
+     *
+     * @param bucketMinutes bucket length in minutes (1 to 1440)
+     * @return deal count at the start of, and most deals during, each bucket
+     */
+    public Mono<AvailabilityResponse> getAvailabilityReactive(int bucketMinutes) {
+        return Mono.defer(() -> {
+            validateBucket(bucketMinutes);
+            return snapshotStore.currentReactive().map(snapshot -> toAvailability(snapshot, bucketMinutes));
+        });
+    }
 
-        Page<DealDto> page;
-        if (start > allDeals.size()) {
-            page = new PageImpl<>(List.of(), pageable, allDeals.size());
+    private void validateBucket(int bucketMinutes) {
+        if (bucketMinutes < 1 || bucketMinutes > DealTimeline.MINUTES_PER_DAY) {
+            log.warn("Invalid bucket size received: {}", bucketMinutes);
+            throw new IllegalArgumentException("bucket must be between 1 and " + DealTimeline.MINUTES_PER_DAY
+                    + " minutes");
+        }
+    }
+
+    private AvailabilityResponse toAvailability(RestaurantSnapshot snapshot, int bucketMinutes) {
+        PeakProfile profile = snapshot.getPeakProfile();
+        List<AvailabilityBucket> buckets = new ArrayList<>(
+                (DealTimeline.MINUTES_PER_DAY + bucketMinutes - 1) / bucketMinutes);
+        for (int start = 0; start < DealTimeline.MINUTES_PER_DAY; start += bucketMinutes) {
+            int end = Math.min(start + bucketMinutes, DealTimeline.MINUTES_PER_DAY);
+            int max = 0;
+            for (int minute = start; minute < end; minute++) {
+                max = Math.max(max, profile.dealCountAt(minute));
+            }
+            buckets.add(new AvailabilityBucket(TimeCodec.format(start), profile.dealCountAt(start), max));
+        }
+        return AvailabilityResponse.builder()
+                .bucketMinutes(bucketMinutes)
+                .snapshotVersion(snapshot.getVersion())
+                .buckets(buckets)
+                .build();
+    }
+
+    /**
+     * Reads the page starting after {@code offset} matching deals, or after the deal with order key {@code after}
+     * when continuing from a cursor, materializing only that page. Every active deal in feed order is read by seeking
+     * the index, with its total from the index; otherwise the matching deals are walked once, counting and tallying
+     * them while the snapshot's orderings keep the page in a heap of page size, or of the offset plus the page size
+     * for a numbered page. A cursor for the next page is added while deals remain.
+     */
+    private DealResponse activeDeals(RestaurantSnapshot snapshot, int queryMinute, DealFilter filter, DealSort sort,
+                                     long offset, long after, Pageable pageable) {
+        ActiveDeals active = snapshot.getActiveDealIndex().at(queryMinute);
+        int size = pageable.getPageSize();
+        int total;
+        long lastKey;
+        List<DealDto> pageContent;
+        DealResponse.DealResponseBuilder response;
+        if (filter.isEmpty() && sort == null) {
+            total = active.dealCount();
+            int start = (int) Math.min(after >= 0 ? after + 1 : offset, total);
+            int end = Math.min(start + size, total);
+            pageContent = materialize(active, start, end);
+            lastKey = end - 1;
+            response = toResponse(pageContent, offset, size, total);
         } else {
-            List<DealDto> pageContent = allDeals.subList(start, end);
-            page = new PageImpl<>(pageContent, pageable, allDeals.size());
+            DealPostings postings = snapshot.getDealPostings();
+            DealPostings.FacetTally facets = filter.isEmpty() ? null : postings.facetTally();
+            // A cursor page keeps only the deals after its last key; a numbered page keeps the skipped ones as well
+            int skip = after >= 0 ? 0 : (int) Math.min(offset, Integer.MAX_VALUE);
+            DealOrderings.Selection selection = snapshot.getDealOrderings()
+                    .select(sort, after, (int) Math.min(skip + (long) size, Integer.MAX_VALUE));
+            total = 0;
+            for (DealPostings.Matches matches = postings.matches(active, queryMinute, filter); matches.hasNext();
+                 total++) {
+                int ordinal = matches.nextInt();
+                selection.offer(ordinal);
+                if (facets != null) {
+                    facets.add(ordinal);
+                }
+            }
+            log.debug("{} of {} active deals match {}", total, active.dealCount(), filter);
+
+            long[] keys = selection.keys();
+            pageContent = new ArrayList<>(Math.max(keys.length - skip, 0));
+            for (int i = skip; i < keys.length; i++) {
+                int ordinal = DealOrderings.ordinalOf(keys[i]);
+                pageContent.add(mapToDto(postings.runOf(ordinal).restaurant().source(),
+                        postings.dealAt(ordinal).source()));
+            }
+            lastKey = pageContent.isEmpty() ? -1 : keys[keys.length - 1];
+            response = toResponse(pageContent, offset, size, total);
+            if (facets != null) {
+                response.facets(toFacetCounts(facets.counts()));
+            }
+        }
+        long end = offset + pageContent.size();
+        if (end < total && lastKey >= 0) {
+            response.nextCursor(DealCursor.of(snapshot.getVersion(), (int) end, lastKey, queryMinute, filter, sort)
+                    .encode());
         }
+        return response.build();
+    }
 
-        return DealResponse.builder()
-                .deals(page.getContent())
-                .totalElements(page.getTotalElements())
-                .totalPages(page.getTotalPages())
-                .currentPage(page.getNumber())
-                .pageSize(page.getSize())
-                .hasNext(page.hasNext())
-                .hasPrevious(page.hasPrevious())
+    /**
+     * Reads the single sort order a page may request, or null for feed order.
+     *
+     * @throws IllegalArgumentException if the sort has several orders or an unknown property
+     */
+    private DealSort toDealSort(Sort sort) {
+        if (sort.isUnsorted()) {
+            return null;
+        }
+        List<Sort.Order> orders = sort.toList();
+        if (orders.size() > 1) {
+            log.warn("Sort by several properties received: {}", sort);
+            throw new IllegalArgumentException("Only one sort property is supported");
+        }
+        Sort.Order order = orders.get(0);
+        return new DealSort(DealSort.Key.fromProperty(order.getProperty()), order.isDescending());
+    }
+
+    /**
+     * Pages through the deals of the matching restaurants in rank order, materializing only the requested page.
+     */
+    private DealResponse search(RestaurantSnapshot snapshot, String query, int minute, Pageable pageable) {
+        RestaurantSearchIndex index = snapshot.getSearchIndex();
+        int size = pageable.getPageSize();
+        // Every run has a deal, so the runs up to the end of the page hold all of its deals
+        int limit = (int) Math.min(pageable.getOffset() + size, Integer.MAX_VALUE);
+        RestaurantSearchIndex.Matches matches = index.search(query, minute, limit);
+        int total = matches.dealCount();
+        log.debug("{} deal runs with {} deals match '{}'", matches.runCount(), total, query);
+
+        int start = (int) Math.min(pageable.getOffset(), total);
+        int end = Math.min(start + size, total);
+        List<DealDto> pageContent = new ArrayList<>(end - start);
+        int before = 0;
+        for (int i = 0; i < matches.runs().length && before < end; i++) {
+            DealRun run = index.runAt(matches.runs()[i]);
+            for (int d = Math.max(0, start - before); d < run.deals().size() && before + d < end; d++) {
+                pageContent.add(mapToDto(run.restaurant().source(), run.deals().get(d).source()));
+            }
+            before += run.deals().size();
+        }
+        return toResponse(pageContent, pageable.getOffset(), size, total).build();
+    }
+
+    /**
+     * Lazily maps the matching deals to DTOs. Each subscription walks the index with its own match cursor, so a
+     * stream holds its position in the walk and nothing per matching deal.
+     */
+    private Flux<DealDto> dealStream(RestaurantSnapshot snapshot, int queryMinute, DealFilter filter) {
+        DealPostings postings = snapshot.getDealPostings();
+        return Flux.generate(
+                () -> postings.matches(snapshot.getActiveDealIndex().at(queryMinute), queryMinute, filter),
+                (matches, sink) -> {
+                    if (matches.hasNext()) {
+                        int ordinal = matches.nextInt();
+                        sink.next(mapToDto(postings.runOf(ordinal).restaurant().source(),
+                                postings.dealAt(ordinal).source()));
+                    }
+                    // Complete with the last deal rather than waiting for demand that may never come
+                    if (!matches.hasNext()) {
+                        sink.complete();
+                    }
+                    return matches;
+                });
+    }
+
+    private RestaurantSnapshot pinnedSnapshot(DealCursor cursor) {
+        return snapshotStore.find(cursor.version()).orElseThrow(() -> {
+            log.warn("Cursor for snapshot version {} received after it was replaced", cursor.version());
+            return new CursorExpiredException("Snapshot version " + cursor.version()
+                    + " is no longer available; restart from the first page");
+        });
+    }
+
+    private FacetCountsDto toFacetCounts(DealPostings.FacetCounts counts) {
+        return FacetCountsDto.builder()
+                .suburbs(counts.suburbs())
+                .cuisines(counts.cuisines())
+                .dineIn(counts.dineIn())
+                .lightning(counts.lightning())
                 .build();
     }
 
-    private boolean hasValidData(Restaurant restaurant) {
-        return restaurant != null
-                && restaurant.getOpen() != null
-                && restaurant.getClose() != null;
+    private ActiveDeals inRange(RestaurantSnapshot snapshot, int fromMinute, int toMinute, RangeMatch match) {
+        DealIntervalTree tree = snapshot.getDealIntervalTree();
+        return match == RangeMatch.ALL
+                ? tree.covering(fromMinute, toMinute)
+                : tree.overlapping(fromMinute, toMinute);
+    }
+
+    private int parseRangeMinute(String name, String time) {
+        if (time == null || time.isBlank()) {
+            log.warn("Empty {} parameter received", name);
+            throw new IllegalArgumentException(name + " parameter is required");
+        }
+        return TimeParser.parseMinuteOfDay(time);
+    }
+
+    private int parseOptionalMinute(String timeOfDay) {
+        if (timeOfDay == null || timeOfDay.isBlank()) {
+            return RestaurantSearchIndex.ANY_TIME;
+        }
+        return TimeParser.parseMinuteOfDay(timeOfDay);
+    }
+
+    private int parseQueryMinute(String timeOfDay) {
+        if (timeOfDay == null || timeOfDay.isBlank()) {
+            log.warn("Empty timeOfDay parameter received");
+            throw new IllegalArgumentException("timeOfDay parameter is required");
+        }
+        return TimeParser.parseMinuteOfDay(timeOfDay);
+    }
+
+    private DealResponse toPage(ActiveDeals active, Pageable pageable) {
+        int total = active.dealCount();
+        int start = (int) pageable.getOffset();
+        int end = Math.min(start + pageable.getPageSize(), total);
+
+        List<DealDto> pageContent = start < end ? materialize(active, start, end) : List.of();
+        return toResponse(pageContent, pageable.getOffset(), pageable.getPageSize(), total).build();
     }
 
-    private boolean isRestaurantOpen(Restaurant restaurant, LocalTime queryTime) {
-        LocalTime openTime = TimeParser.parseTime(restaurant.getOpen());
-        LocalTime closeTime = TimeParser.parseTime(restaurant.getClose());
-        return TimeParser.isWithinOperatingHours(queryTime, openTime, closeTime);
+    /**
+     * Page metadata for {@code pageContent}, read after {@code offset} of {@code total} deals; page numbers count
+     * whole pages of {@code size} deals.
+     */
+    private DealResponse.DealResponseBuilder toResponse(List<DealDto> pageContent, long offset, int size,
+                                                        int total) {
+        return DealResponse.builder()
+                .deals(pageContent)
+                .totalElements(total)
+                .totalPages((total + size - 1) / size)
+                .currentPage((int) (offset / size))
+                .pageSize(size)
+                .hasNext(offset + pageContent.size() < total)
+                .hasPrevious(offset > 0);
+    }
+
+    /**
+     * Maps the active deals with ordinals in [from, to) to DTOs, in feed order.
+     */
+    private List<DealDto> materialize(ActiveDeals active, int from, int to) {
+        List<DealDto> deals = new ArrayList<>(to - from);
+        if (from >= to) {
+            return deals;
+        }
+        for (ActiveDeals.Cursor cursor = active.from(from); deals.size() < to - from && cursor.next(); ) {
+            DealRun run = cursor.run();
+            int skip = Math.max(0, from - cursor.dealsBefore());
+            int take = Math.min(run.deals().size(), to - cursor.dealsBefore());
+            for (int d = skip; d < take; d++) {
+                deals.add(mapToDto(run.restaurant().source(), run.deals().get(d).source()));
+            }
+        }
+        return deals;
     }
 
-    private DealDto mapToDto(Restaurant restaurant, Deal deal) {
+    private DealDto mapToDto(CompactRestaurant restaurant, CompactDeal deal) {
         return DealDto.builder()
-                .restaurantObjectId(restaurant.getObjectId())
-                .restaurantName(restaurant.getName())
-                .restaurantAddress1(restaurant.getAddress1())
-                .restaurantSuburb(restaurant.getSuburb())
-                .restaurantOpen(restaurant.getOpen())
-                .restaurantClose(restaurant.getClose())
-                .dealObjectId(deal.getObjectId())
-                .discount(deal.getDiscount())
-                .dineIn(deal.getDineIn())
-                .lightning(deal.getLightning())
-                .qtyLeft(deal.getQtyLeft())
+                .restaurantObjectId(restaurant.objectId())
+                .restaurantName(restaurant.name())
+                .restaurantAddress1(restaurant.address1())
+                .restaurantSuburb(restaurant.suburb())
+                .restaurantOpen(restaurant.open())
+                .restaurantClose(restaurant.close())
+                .dealObjectId(deal.objectId())
+                .discount(deal.discount())
+                .dineIn(deal.dineIn())
+                .lightning(deal.lightning())
+                .qtyLeft(deal.qtyLeft())
                 .build();
     }
 }
\ No newline at end of file
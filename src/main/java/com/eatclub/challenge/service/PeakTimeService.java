@@ -1,205 +1,197 @@
 package com.eatclub.challenge.service;
 
-import com.eatclub.challenge.client.RestaurantDataClient;
 import com.eatclub.challenge.dto.PeakTimeResponse;
+import com.eatclub.challenge.dto.PeakWindowsResponse;
+import com.eatclub.challenge.dto.TimeWindowDto;
 import com.eatclub.challenge.exception.PeakTimeCalculationException;
 import com.eatclub.challenge.exception.RestaurantDataException;
-import com.eatclub.challenge.model.TimeInterval;
-import com.eatclub.challenge.model.domain.Restaurant;
-import com.eatclub.challenge.util.TimeParser;
+import com.eatclub.challenge.model.DealFilter;
+import com.eatclub.challenge.snapshot.DealTimeline;
+import com.eatclub.challenge.snapshot.PeakProfile;
+import com.eatclub.challenge.snapshot.PeakWindow;
+import com.eatclub.challenge.snapshot.RestaurantSnapshot;
+import com.eatclub.challenge.snapshot.RestaurantSnapshotStore;
+import com.eatclub.challenge.util.TimeCodec;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
 
-import java.time.LocalTime;
-import java.time.format.DateTimeFormatter;
-import java.util.*;
-import java.util.stream.IntStream;
+import java.util.List;
 
 /**
  * Service for calculating peak time windows when most restaurant deals are available.
- * Uses an event-based sweep line algorithm: O(n log n) time, O(n) space.
+ * Windows are swept from the snapshot's {@link DealTimeline} once, when the snapshot is built, so a request only
+ * reads the materialized {@link PeakProfile} of the current snapshot.
  */
 @Service
 @Slf4j
 @RequiredArgsConstructor
 public class PeakTimeService {
 
-    private static final DateTimeFormatter OUTPUT_FORMAT = DateTimeFormatter.ofPattern("h:mma");
     private static final int MINUTES_PER_DAY = 1440;
-    private static final int MIDNIGHT = 0;
 
-    private final RestaurantDataClient dataClient;
+    private final RestaurantSnapshotStore snapshotStore;
 
     /**
-     * Calculates when the maximum number of deals are simultaneously available.
+     * Returns when the maximum number of deals are simultaneously available.
      *
-     * @return peak time window with start and end times
-     * @throws RestaurantDataException      if unable to fetch restaurant data
-     * @throws PeakTimeCalculationException if calculation fails
+     * @return peak time window with start and end times, and the snapshot version it was computed from
+     * @throws RestaurantDataException      if no restaurant data has been loaded
+     * @throws PeakTimeCalculationException if the window cannot be formatted
      */
     public PeakTimeResponse calculatePeakTime() {
-        log.info("Calculating peak time window");
-
-        try {
-            List<Restaurant> restaurants = dataClient.fetchRestaurants();
-
-            if (restaurants.isEmpty()) {
-                log.warn("No restaurants found");
-                return new PeakTimeResponse(null, null);
-            }
-
-            return findPeakInterval(restaurants)
-                    .map(this::toResponse)
-                    .orElseGet(() -> {
-                        log.warn("No valid peak found");
-                        return new PeakTimeResponse(null, null);
-                    });
-        } catch (RestaurantDataException e) {
-            throw e; // Re-throw to be handled by GlobalExceptionHandler
-        } catch (Exception e) {
-            log.error("Unexpected error during peak time calculation", e);
-            throw new PeakTimeCalculationException("Failed to calculate peak time", e);
-        }
+        return calculatePeakTime(DealFilter.NONE);
     }
 
-    private Optional<TimeInterval> findPeakInterval(List<Restaurant> restaurants) {
-        Map<Integer, Integer> timeEvents = createTimeEvents(restaurants);
-
-        if (timeEvents.isEmpty()) {
-            return Optional.empty();
-        }
-
-        //Produces all maximal intervals where activeDeals == globalMaxDeals
-        List<TimeInterval> peaks = findPeakWindows(timeEvents);
-        return selectOptimalPeak(peaks);
+    /**
+     * Returns when the maximum number of deals matching the filter are simultaneously available.
+     * Counts come from per-facet difference arrays built with the snapshot, so the cost does not grow with the catalog.
+     *
+     * @param filter suburb, cuisine and flags to count deals for; {@link DealFilter#NONE} counts every deal
+     * @return peak time window with start and end times, and the snapshot version it was computed from
+     * @throws RestaurantDataException      if no restaurant data has been loaded
+     * @throws PeakTimeCalculationException if the window cannot be formatted
+     */
+    public PeakTimeResponse calculatePeakTime(DealFilter filter) {
+        return calculatePeakTime(snapshotStore.current(), filter);
     }
 
-    private Map<Integer, Integer> createTimeEvents(List<Restaurant> restaurants) {
-        Map<Integer, Integer> events = new HashMap<>();
-
-        restaurants.stream()
-                .filter(this::hasValidDeals)
-                .forEach(restaurant -> addRestaurantEvents(events, restaurant));
-
-        log.debug("Created {} time events from {} restaurants", events.size(), restaurants.size());
-        return events;
+    /**
+     * Non-blocking variant of {@link #calculatePeakTime()}.
+     * Waits for the initial snapshot without holding the calling thread; errors are signalled, not thrown.
+     *
+     * @return peak time window with start and end times, and the snapshot version it was computed from
+     */
+    public Mono<PeakTimeResponse> calculatePeakTimeReactive() {
+        return calculatePeakTimeReactive(DealFilter.NONE);
     }
 
-    private void addRestaurantEvents(Map<Integer, Integer> events, Restaurant restaurant) {
-        try {
-            TimeWindow window = parseTimeWindow(restaurant);
-            int dealCount = restaurant.getDeals().size();
-
-            if (window.spansMidnight()) {
-                // Split midnight-spanning window into two segments
-                addEvent(events, window.openMinutes, dealCount);
-                addEvent(events, MINUTES_PER_DAY, -dealCount);
-                addEvent(events, MIDNIGHT, dealCount);
-                addEvent(events, window.closeMinutes, -dealCount);
-            } else {
-                // Simple same-day window
-                addEvent(events, window.openMinutes, dealCount);
-                addEvent(events, window.closeMinutes, -dealCount);
-            }
-        } catch (Exception e) {
-            log.debug("Skipping restaurant {}: {}", restaurant.getName(), e.getMessage());
-        }
+    /**
+     * Non-blocking variant of {@link #calculatePeakTime(DealFilter)}.
+     *
+     * @param filter suburb, cuisine and flags to count deals for; {@link DealFilter#NONE} counts every deal
+     * @return peak time window with start and end times, and the snapshot version it was computed from
+     */
+    public Mono<PeakTimeResponse> calculatePeakTimeReactive(DealFilter filter) {
+        return snapshotStore.currentReactive().map(snapshot -> calculatePeakTime(snapshot, filter));
     }
 
-    private List<TimeInterval> findPeakWindows(Map<Integer, Integer> timeEvents) {
-        List<Integer> sortedTimes = timeEvents.keySet().stream()
-                .sorted()
-                .toList();
-
-        PeakTracker tracker = new PeakTracker();
-
-        IntStream.range(0, sortedTimes.size() - 1)
-                .forEach(i -> {
-                    int currentTime = sortedTimes.get(i);
-                    int nextTime = sortedTimes.get(i + 1);
-
-                    tracker.applyDelta(timeEvents.get(currentTime));
-                    tracker.recordInterval(currentTime, nextTime);
-                });
-
-        return tracker.getPeaks();
+    /**
+     * Returns the k windows with the most deals available, most deals first and earliest first among equals.
+     * Each window is a stretch of the day with a constant number of deals, so no two overlap.
+     *
+     * @param k number of windows (1 to 1440)
+     * @return up to k windows with the snapshot version they were computed from
+     * @throws IllegalArgumentException if k is out of range
+     * @throws RestaurantDataException  if no restaurant data has been loaded
+     */
+    public PeakWindowsResponse getTopWindows(int k) {
+        validateTopK(k);
+        RestaurantSnapshot snapshot = snapshotStore.current();
+        return toWindowsResponse(snapshot, snapshot.getPeakProfile().top(k));
     }
 
-    private Optional<TimeInterval> selectOptimalPeak(List<TimeInterval> peaks) {
-        return peaks.stream()
-                .min(Comparator.comparingInt(TimeInterval::getStartMinutes)
-                        .thenComparing(Comparator.comparingInt(TimeInterval::length).reversed()));
+    /**
+     * Non-blocking variant of {@link #getTopWindows(int)}.
+     *
+     * @param k number of windows (1 to 1440)
+     * @return up to k windows with the snapshot version they were computed from
+     */
+    public Mono<PeakWindowsResponse> getTopWindowsReactive(int k) {
+        return Mono.defer(() -> {
+            validateTopK(k);
+            return snapshotStore.currentReactive()
+                    .map(snapshot -> toWindowsResponse(snapshot, snapshot.getPeakProfile().top(k)));
+        });
     }
 
-    private PeakTimeResponse toResponse(TimeInterval interval) {
-        String start = formatMinutes(interval.getStartMinutes());
-        String end = formatMinutes(interval.getEndMinutes());
-
-        log.info("Peak time: {} - {} ({} minutes)", start, end, interval.length());
-        return new PeakTimeResponse(start, end);
+    /**
+     * Returns every window during which the deals available stay at or above a share of the daily maximum,
+     * in time order.
+     *
+     * @param ratio share of the maximum deal count, greater than 0 and at most 1 (e.g. 0.9)
+     * @return maximal windows at or above the threshold with the snapshot version they were computed from
+     * @throws IllegalArgumentException if ratio is out of range
+     * @throws RestaurantDataException  if no restaurant data has been loaded
+     */
+    public PeakWindowsResponse getNearPeakWindows(double ratio) {
+        validateRatio(ratio);
+        return nearPeak(snapshotStore.current(), ratio);
     }
 
-    private boolean hasValidDeals(Restaurant restaurant) {
-        return restaurant.getDeals() != null && !restaurant.getDeals().isEmpty();
+    /**
+     * Non-blocking variant of {@link #getNearPeakWindows(double)}.
+     *
+     * @param ratio share of the maximum deal count, greater than 0 and at most 1 (e.g. 0.9)
+     * @return maximal windows at or above the threshold with the snapshot version they were computed from
+     */
+    public Mono<PeakWindowsResponse> getNearPeakWindowsReactive(double ratio) {
+        return Mono.defer(() -> {
+            validateRatio(ratio);
+            return snapshotStore.currentReactive().map(snapshot -> nearPeak(snapshot, ratio));
+        });
     }
 
-    private TimeWindow parseTimeWindow(Restaurant restaurant) {
-        LocalTime open = TimeParser.parseTime(restaurant.getOpen());
-        LocalTime close = TimeParser.parseTime(restaurant.getClose());
-        return new TimeWindow(toMinutes(open), toMinutes(close));
+    private PeakWindowsResponse nearPeak(RestaurantSnapshot snapshot, double ratio) {
+        PeakProfile profile = snapshot.getPeakProfile();
+        // Tolerate rounding so that, say, 0.9 of 10 deals asks for 9 rather than 10
+        int minDealCount = (int) Math.ceil(ratio * profile.maxDealCount() - 1e-9);
+        return toWindowsResponse(snapshot, profile.atLeast(minDealCount));
     }
 
-    private void addEvent(Map<Integer, Integer> events, int time, int delta) {
-        events.merge(time, delta, Integer::sum);
+    private void validateTopK(int k) {
+        if (k < 1 || k > MINUTES_PER_DAY) {
+            log.warn("Invalid top-k received: {}", k);
+            throw new IllegalArgumentException("k must be between 1 and " + MINUTES_PER_DAY);
+        }
     }
 
-    private int toMinutes(LocalTime time) {
-        return time.getHour() * 60 + time.getMinute();
+    private void validateRatio(double ratio) {
+        if (!(ratio > 0 && ratio <= 1)) {
+            log.warn("Invalid near-peak ratio received: {}", ratio);
+            throw new IllegalArgumentException("ratio must be greater than 0 and at most 1");
+        }
     }
 
-    private String formatMinutes(int minutes) {
-        int boundedMinutes = Math.min(minutes, MINUTES_PER_DAY - 1);
-        LocalTime time = LocalTime.of(boundedMinutes / 60, boundedMinutes % 60);
-        return time.format(OUTPUT_FORMAT).toLowerCase();
+    private PeakWindowsResponse toWindowsResponse(RestaurantSnapshot snapshot, List<PeakWindow> windows) {
+        PeakProfile profile = snapshot.getPeakProfile();
+        return PeakWindowsResponse.builder()
+                .maxDealCount(profile.maxDealCount())
+                .windows(windows.stream()
+                        .map(window -> new TimeWindowDto(formatMinutes(window.startMinute()),
+                                formatMinutes(window.endMinute()), window.dealCount(), window.maxDealCount()))
+                        .toList())
+                .snapshotVersion(snapshot.getVersion())
+                .computedAt(profile.getComputedAt())
+                .build();
     }
 
-    private static class PeakTracker {
-        private int currentCount = 0;
-        private int maxCount = 0;
-        private final List<TimeInterval> peaks = new ArrayList<>();
-
-        void applyDelta(int delta) {
-            currentCount += delta;
+    private PeakTimeResponse calculatePeakTime(RestaurantSnapshot snapshot, DealFilter filter) {
+        PeakProfile profile = snapshot.peakProfile(filter);
+        try {
+            return profile.peak()
+                    .map(peak -> toResponse(snapshot, profile, peak))
+                    .orElseGet(() -> {
+                        log.debug("No peak window for {} in snapshot version {}", filter, snapshot.getVersion());
+                        return new PeakTimeResponse(null, null, snapshot.getVersion(), profile.getComputedAt());
+                    });
+        } catch (Exception e) {
+            log.error("Unexpected error reading peak time window", e);
+            throw new PeakTimeCalculationException("Failed to calculate peak time", e);
         }
+    }
 
-        void recordInterval(int start, int end) {
-            // Skip if no active deals
-            if (currentCount <= 0) return;
-
-            if (currentCount > maxCount) {
-                // New maximum found
-                maxCount = currentCount;
-                peaks.clear();
-                peaks.add(new TimeInterval(start, end, currentCount));
-            } else if (currentCount == maxCount) {
-                // Equal to max - merge if contiguous, otherwise add new
-                if (!peaks.isEmpty() && peaks.get(peaks.size() - 1).getEndMinutes() == start) {
-                    peaks.get(peaks.size() - 1).extendTo(end);
-                } else {
-                    peaks.add(new TimeInterval(start, end, currentCount));
-                }
-            }
-        }
+    private PeakTimeResponse toResponse(RestaurantSnapshot snapshot, PeakProfile profile, PeakWindow peak) {
+        String start = formatMinutes(peak.startMinute());
+        String end = formatMinutes(peak.endMinute());
 
-        List<TimeInterval> getPeaks() {
-            return new ArrayList<>(peaks);
-        }
+        log.debug("Peak time: {} - {} ({} minutes, snapshot version {})",
+                start, end, peak.length(), snapshot.getVersion());
+        return new PeakTimeResponse(start, end, snapshot.getVersion(), profile.getComputedAt());
     }
 
-    private record TimeWindow(int openMinutes, int closeMinutes) {
-        boolean spansMidnight() {
-            return openMinutes > closeMinutes;
-        }
+    private String formatMinutes(int minutes) {
+        return TimeCodec.format(Math.min(minutes, MINUTES_PER_DAY - 1));
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,338 @@
+package com.eatclub.challenge.snapshot;
+
+import com.eatclub.challenge.model.compiled.DealRun;
+import com.eatclub.challenge.model.compiled.MinuteRange;
+import com.eatclub.challenge.util.TimeParser;
+
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * Minute-of-day index of the available deals, derived from the {@link DealRun}s of a snapshot's
+ * {@link CompiledCatalog}.
+ * <p>
+ * The day is cut into segments at every minute where a run's effective window opens or closes. Every
+ * {@value #CHECKPOINT_INTERVAL}th segment keeps the sorted positions of its active runs with their running deal
+ * count; the segments in between share that checkpoint and only hold the runs added and removed since, so memory
+ * grows with the number of windows rather than segments times active runs. Each segment's run and deal totals are
+ * fixed when the index is built, and a page seeks to its first deal by binary search over the three sorted arrays,
+ * so a lookup costs O(log n) plus the deals read, with nothing allocated per active run. Windows are inclusive at
+ * both ends and windows with {@code open >= close} wrap past midnight, matching
+ * {@link TimeParser#isWithinOperatingHours}.
+ */
+public final class ActiveDealIndex {
+
+    private static final int CHECKPOINT_INTERVAL = 32;
+
+    private final int[] segmentOfMinute;
+    private final ActiveDeals[] segments;
+
+    private ActiveDealIndex(int[] segmentOfMinute, ActiveDeals[] segments) {
+        this.segmentOfMinute = segmentOfMinute;
+        this.segments = segments;
+    }
+
+    public static ActiveDealIndex of(List<DealRun> runs) {
+        List<List<Integer>> entering = new ArrayList<>(DealTimeline.MINUTES_PER_DAY);
+        List<List<Integer>> leaving = new ArrayList<>(DealTimeline.MINUTES_PER_DAY);
+        for (int minute = 0; minute < DealTimeline.MINUTES_PER_DAY; minute++) {
+            entering.add(null);
+            leaving.add(null);
+        }
+
+        int[] dealsOfRun = new int[runs.size()];
+        for (int position = 0; position < runs.size(); position++) {
+            dealsOfRun[position] = runs.get(position).deals().size();
+            for (MinuteRange range : runs.get(position).available()) {
+                addRange(entering, leaving, position, range.first(), range.last());
+            }
+        }
+
+        int[] segmentOfMinute = new int[DealTimeline.MINUTES_PER_DAY];
+        List<ActiveDeals> segments = new ArrayList<>();
+        BitSet active = new BitSet(runs.size());
+        BitSet atCheckpoint = new BitSet(runs.size());
+        SortedRuns checkpoint = SortedRuns.EMPTY;
+        for (int minute = 0; minute < DealTimeline.MINUTES_PER_DAY; minute++) {
+            boolean boundary = minute == 0;
+            if (leaving.get(minute) != null) {
+                leaving.get(minute).forEach(active::clear);
+                boundary = true;
+            }
+            if (entering.get(minute) != null) {
+                entering.get(minute).forEach(active::set);
+                boundary = true;
+            }
+            if (boundary) {
+                if (segments.size() % CHECKPOINT_INTERVAL == 0) {
+                    atCheckpoint = (BitSet) active.clone();
+                    checkpoint = SortedRuns.of(atCheckpoint, dealsOfRun);
+                }
+                BitSet removed = (BitSet) atCheckpoint.clone();
+                removed.andNot(active);
+                BitSet added = (BitSet) active.clone();
+                added.andNot(atCheckpoint);
+                segments.add(new ActiveDeals(runs, checkpoint, SortedRuns.of(removed, dealsOfRun),
+                        SortedRuns.of(added, dealsOfRun)));
+            }
+            segmentOfMinute[minute] = segments.size() - 1;
+        }
+        return new ActiveDealIndex(segmentOfMinute, segments.toArray(ActiveDeals[]::new));
+    }
+
+    /**
+     * The same index over the runs of a later snapshot, sharing every segment's arrays.
+     *
+     * @param runs runs with the same available windows and deal counts as this index's at every position
+     */
+    public ActiveDealIndex withRuns(List<DealRun> runs) {
+        ActiveDeals[] shared = new ActiveDeals[segments.length];
+        for (int i = 0; i < segments.length; i++) {
+            ActiveDeals segment = segments[i];
+            shared[i] = new ActiveDeals(runs, segment.base, segment.removed, segment.added);
+        }
+        return new ActiveDealIndex(segmentOfMinute, shared);
+    }
+
+    /**
+     * Deals available at the given minute of the day (0 to 1439).
+     */
+    public ActiveDeals at(int minute) {
+        return segments[segmentOfMinute[minute]];
+    }
+
+    /**
+     * Deals available at the given time of day.
+     */
+    public ActiveDeals at(LocalTime time) {
+        return at(TimeParser.toMinuteOfDay(time));
+    }
+
+    /**
+     * Number of distinct segments the day is divided into.
+     */
+    int segmentCount() {
+        return segments.length;
+    }
+
+    private static void addRange(List<List<Integer>> entering, List<List<Integer>> leaving,
+                                 int position, int first, int last) {
+        listAt(entering, first).add(position);
+        if (last + 1 < DealTimeline.MINUTES_PER_DAY) {
+            listAt(leaving, last + 1).add(position);
+        }
+    }
+
+    private static List<Integer> listAt(List<List<Integer>> lists, int minute) {
+        List<Integer> list = lists.get(minute);
+        if (list == null) {
+            list = new ArrayList<>(2);
+            lists.set(minute, list);
+        }
+        return list;
+    }
+
+    /**
+     * Ascending run positions with the number of deals held by the runs before each.
+     */
+    private record SortedRuns(int[] positions, int[] dealsBefore) {
+
+        static final SortedRuns EMPTY = new SortedRuns(new int[0], new int[]{0});
+
+        static SortedRuns of(BitSet positions, int[] dealsOfRun) {
+            return positions.isEmpty() ? EMPTY : of(positions.stream().toArray(), dealsOfRun);
+        }
+
+        static SortedRuns of(int[] positions, int[] dealsOfRun) {
+            int[] dealsBefore = new int[positions.length + 1];
+            for (int i = 0; i < positions.length; i++) {
+                dealsBefore[i + 1] = dealsBefore[i] + dealsOfRun[positions[i]];
+            }
+            return new SortedRuns(positions, dealsBefore);
+        }
+
+        int size() {
+            return positions.length;
+        }
+
+        int dealCount() {
+            return dealsBefore[positions.length];
+        }
+
+        /**
+         * Index of the first position at or after the given one.
+         */
+        int lowerBound(int position) {
+            int found = Arrays.binarySearch(positions, position);
+            return found >= 0 ? found : -found - 1;
+        }
+
+        /**
+         * Deals held by the runs before the given position.
+         */
+        int dealsBelow(int position) {
+            return dealsBefore[lowerBound(position)];
+        }
+    }
+
+    /**
+     * Deal runs matched by a query, in feed order. Held as a sorted base set of run positions minus the removed and
+     * plus the added positions, so segments can share their checkpoint; a set built for one query has no changes.
+     * Totals are fixed at construction and {@link #from(int)} seeks to a deal without visiting the runs before it.
+     */
+    public static final class ActiveDeals {
+
+        private static final ActiveDeals NONE = new ActiveDeals(List.of(), SortedRuns.EMPTY, SortedRuns.EMPTY,
+                SortedRuns.EMPTY);
+
+        private final List<DealRun> runs;
+        private final SortedRuns base;
+        private final SortedRuns removed;
+        private final SortedRuns added;
+        private final int size;
+        private final int dealCount;
+
+        private ActiveDeals(List<DealRun> runs, SortedRuns base, SortedRuns removed, SortedRuns added) {
+            this.runs = runs;
+            this.base = base;
+            this.removed = removed;
+            this.added = added;
+            this.size = base.size() - removed.size() + added.size();
+            this.dealCount = base.dealCount() - removed.dealCount() + added.dealCount();
+        }
+
+        /**
+         * @param positions ascending positions in {@code runs} of the matched runs
+         */
+        static ActiveDeals of(int[] positions, List<DealRun> runs) {
+            if (positions.length == 0) {
+                return NONE;
+            }
+            int[] dealsOfRun = new int[runs.size()];
+            for (int position : positions) {
+                dealsOfRun[position] = runs.get(position).deals().size();
+            }
+            return new ActiveDeals(runs, SortedRuns.of(positions, dealsOfRun), SortedRuns.EMPTY, SortedRuns.EMPTY);
+        }
+
+        /**
+         * Number of matched runs.
+         */
+        public int size() {
+            return size;
+        }
+
+        /**
+         * Total number of deals across the matched runs.
+         */
+        public int dealCount() {
+            return dealCount;
+        }
+
+        /**
+         * Cursor over the matched runs starting with the one holding the deal with the given ordinal (0 to
+         * {@link #dealCount()}); at or past the count, the cursor is already exhausted.
+         */
+        public Cursor from(int dealOrdinal) {
+            if (dealOrdinal >= dealCount) {
+                return new Cursor(Integer.MAX_VALUE, dealCount);
+            }
+            // The run holding the deal is the last position with at most dealOrdinal deals before it
+            int low = 0;
+            int high = runs.size() - 1;
+            while (low < high) {
+                int mid = (low + high + 1) >>> 1;
+                if (dealsBelow(mid) <= dealOrdinal) {
+                    low = mid;
+                } else {
+                    high = mid - 1;
+                }
+            }
+            return new Cursor(low, dealsBelow(low));
+        }
+
+        /**
+         * Cursor over the matched runs at or after the given position in the snapshot's runs.
+         */
+        public Cursor fromPosition(int position) {
+            return new Cursor(position, dealsBelow(position));
+        }
+
+        private int dealsBelow(int position) {
+            return base.dealsBelow(position) - removed.dealsBelow(position) + added.dealsBelow(position);
+        }
+
+        /**
+         * Walks the matched runs in feed order, merging the base positions that were not removed with the added
+         * ones. Call {@link #next()} before reading the first run.
+         */
+        public final class Cursor {
+
+            private int baseIndex;
+            private int removedIndex;
+            private int addedIndex;
+            private int position = -1;
+            private int dealsBefore;
+
+            private Cursor(int firstPosition, int dealsBefore) {
+                this.baseIndex = base.lowerBound(firstPosition);
+                this.removedIndex = removed.lowerBound(firstPosition);
+                this.addedIndex = added.lowerBound(firstPosition);
+                this.dealsBefore = dealsBefore;
+            }
+
+            /**
+             * Moves to the next matched run, returning false once there is none.
+             */
+            public boolean next() {
+                if (position >= 0) {
+                    dealsBefore += runs.get(position).deals().size();
+                }
+                // Removed positions are a subset of the base, so they are skipped in step
+                while (baseIndex < base.size() && removedIndex < removed.size()
+                        && base.positions()[baseIndex] == removed.positions()[removedIndex]) {
+                    baseIndex++;
+                    removedIndex++;
+                }
+                int fromBase = baseIndex < base.size() ? base.positions()[baseIndex] : Integer.MAX_VALUE;
+                int fromAdded = addedIndex < added.size() ? added.positions()[addedIndex] : Integer.MAX_VALUE;
+                if (fromBase == Integer.MAX_VALUE && fromAdded == Integer.MAX_VALUE) {
+                    position = -1;
+                    return false;
+                }
+                if (fromBase < fromAdded) {
+                    position = fromBase;
+                    baseIndex++;
+                } else {
+                    position = fromAdded;
+                    addedIndex++;
+                }
+                return true;
+            }
+
+            /**
+             * Position of the current run in the snapshot's runs.
+             */
+            public int position() {
+                return position;
+            }
+
+            /**
+             * The current run.
+             */
+            public DealRun run() {
+                return runs.get(position);
+            }
+
+            /**
+             * Number of deals held by the matched runs before the current one.
+             */
+            public int dealsBefore() {
+                return dealsBefore;
+            }
+        }
+    }
+}
@@ -0,0 +1,229 @@
+package com.eatclub.challenge.snapshot;
+
+import com.eatclub.challenge.model.compact.CompactDeal;
+import com.eatclub.challenge.model.compact.CompactRestaurant;
+import com.eatclub.challenge.model.compiled.CompiledDeal;
+import com.eatclub.challenge.model.compiled.CompiledRestaurant;
+import com.eatclub.challenge.model.compiled.DealRun;
+import com.eatclub.challenge.model.compiled.MinuteRange;
+import com.eatclub.challenge.model.compiled.QuarantinedRecord;
+import com.eatclub.challenge.util.TimeCodec;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Typed form of a snapshot's restaurants, validated once at ingest so query paths never parse feed strings.
+ * <p>
+ * Restaurants whose opening hours cannot be parsed, and deals whose discount, flags or quantity are invalid, are
+ * quarantined: they are left out of the compiled restaurants and reported with a reason instead. Deals that carry
+ * their own window ({@code open}/{@code close}, or {@code start}/{@code end}) are grouped into {@link DealRun}s whose
+ * window is intersected with the restaurant's hours here, so lookups never see the raw deal times. Compilation is
+ * tracked per compact restaurant instance, so the next catalog only compiles what a {@link SnapshotDiff} changed.
+ */
+public final class CompiledCatalog {
+
+    private final List<CompiledRestaurant> restaurants;
+    private final List<DealRun> dealRuns;
+    private final List<QuarantinedRecord> quarantined;
+    private final Map<CompactRestaurant, Compilation> bySource;
+
+    private CompiledCatalog(List<CompactRestaurant> sources, Map<CompactRestaurant, Compilation> bySource) {
+        List<CompiledRestaurant> restaurants = new ArrayList<>(sources.size());
+        List<DealRun> dealRuns = new ArrayList<>(sources.size());
+        List<QuarantinedRecord> quarantined = new ArrayList<>();
+        for (CompactRestaurant source : sources) {
+            Compilation compilation = bySource.get(source);
+            if (compilation.restaurant() != null) {
+                restaurants.add(compilation.restaurant());
+            }
+            dealRuns.addAll(compilation.runs());
+            quarantined.addAll(compilation.quarantined());
+        }
+        this.restaurants = List.copyOf(restaurants);
+        this.dealRuns = List.copyOf(dealRuns);
+        this.quarantined = List.copyOf(quarantined);
+        this.bySource = bySource;
+    }
+
+    public static CompiledCatalog of(List<CompactRestaurant> sources) {
+        Map<CompactRestaurant, Compilation> bySource = new IdentityHashMap<>(sources.size());
+        sources.forEach(source -> bySource.computeIfAbsent(source, CompiledCatalog::compile));
+        return new CompiledCatalog(sources, bySource);
+    }
+
+    /**
+     * Returns the catalog for the snapshot the diff leads to, reusing the compilation of unchanged restaurants.
+     */
+    public CompiledCatalog next(SnapshotDiff diff) {
+        Map<CompactRestaurant, Compilation> next = new IdentityHashMap<>(diff.restaurants().size());
+        for (CompactRestaurant source : diff.restaurants()) {
+            Compilation existing = bySource.get(source);
+            next.put(source, existing != null ? existing : compile(source));
+        }
+        return new CompiledCatalog(diff.restaurants(), next);
+    }
+
+    /**
+     * Valid restaurants in feed order, each holding only its valid deals.
+     */
+    public List<CompiledRestaurant> getRestaurants() {
+        return restaurants;
+    }
+
+    /**
+     * Deals of the valid restaurants grouped by effective window, in feed order.
+     */
+    public List<DealRun> getDealRuns() {
+        return dealRuns;
+    }
+
+    /**
+     * Records rejected at ingest, in feed order.
+     */
+    public List<QuarantinedRecord> getQuarantined() {
+        return quarantined;
+    }
+
+    /**
+     * Compiled form of one of this catalog's compact restaurants, empty if it was quarantined.
+     */
+    public Optional<CompiledRestaurant> compiled(CompactRestaurant source) {
+        Compilation compilation = bySource.get(source);
+        return compilation != null ? Optional.ofNullable(compilation.restaurant()) : Optional.empty();
+    }
+
+    /**
+     * Deal runs of one of this catalog's compact restaurants, empty if it was quarantined or has no valid deals.
+     */
+    public List<DealRun> runs(CompactRestaurant source) {
+        Compilation compilation = bySource.get(source);
+        return compilation != null ? compilation.runs() : List.of();
+    }
+
+    private static Compilation compile(CompactRestaurant source) {
+        int open = TimeCodec.parseMinuteOfDay(source.open());
+        int close = TimeCodec.parseMinuteOfDay(source.close());
+        if (open == TimeCodec.INVALID || close == TimeCodec.INVALID) {
+            return new Compilation(null, List.of(), List.of(new QuarantinedRecord(source.objectId(), null,
+                    "invalid opening hours '" + source.open() + "' to '" + source.close() + "'")));
+        }
+
+        List<CompiledDeal> deals = new ArrayList<>(source.deals().size());
+        List<int[]> windows = new ArrayList<>(source.deals().size());
+        List<QuarantinedRecord> quarantined = new ArrayList<>(0);
+        for (CompactDeal deal : source.deals()) {
+            String problem = compileDeal(deal, open, close, deals, windows);
+            if (problem != null) {
+                quarantined.add(new QuarantinedRecord(source.objectId(), deal.objectId(), problem));
+            }
+        }
+        CompiledRestaurant restaurant = new CompiledRestaurant(source, open, close, List.copyOf(deals));
+        return new Compilation(restaurant, runs(restaurant, windows), List.copyOf(quarantined));
+    }
+
+    /**
+     * Splits a restaurant's deals into runs of consecutive deals with the same window, resolving each run's
+     * effective window once.
+     *
+     * @param windows opening and closing minute of each deal's own window, aligned with the restaurant's deals
+     */
+    private static List<DealRun> runs(CompiledRestaurant restaurant, List<int[]> windows) {
+        List<DealRun> runs = new ArrayList<>(1);
+        int start = 0;
+        for (int i = 1; i <= windows.size(); i++) {
+            if (i < windows.size() && Arrays.equals(windows.get(i), windows.get(start))) {
+                continue;
+            }
+            int[] window = windows.get(start);
+            runs.add(new DealRun(restaurant, restaurant.deals().subList(start, i),
+                    MinuteRange.intersect(
+                            MinuteRange.closedWindow(restaurant.openMinute(), restaurant.closeMinute()),
+                            MinuteRange.closedWindow(window[0], window[1])),
+                    MinuteRange.intersect(
+                            MinuteRange.halfOpenWindow(restaurant.openMinute(), restaurant.closeMinute()),
+                            MinuteRange.halfOpenWindow(window[0], window[1]))));
+            start = i;
+        }
+        return List.copyOf(runs);
+    }
+
+    /**
+     * Adds the compiled deal to {@code deals} and its own window to {@code windows}, or returns why it was rejected.
+     * A deal without a window of its own, or without one of its ends, takes the restaurant's hours for it.
+     */
+    private static String compileDeal(CompactDeal deal, int restaurantOpen, int restaurantClose,
+                                      List<CompiledDeal> deals, List<int[]> windows) {
+        int discount = parseDiscount(deal.discount());
+        if (discount < 0 || discount > 100) {
+            return "invalid discount '" + deal.discount() + "'";
+        }
+        int qtyLeft = parseQuantity(deal.qtyLeft());
+        if (qtyLeft < 0) {
+            return "invalid qtyLeft '" + deal.qtyLeft() + "'";
+        }
+        if (!isFlag(deal.dineIn())) {
+            return "invalid dineIn '" + deal.dineIn() + "'";
+        }
+        if (!isFlag(deal.lightning())) {
+            return "invalid lightning '" + deal.lightning() + "'";
+        }
+        String dealOpen = deal.open() != null ? deal.open() : deal.start();
+        String dealClose = deal.close() != null ? deal.close() : deal.end();
+        int open = dealOpen != null ? TimeCodec.parseMinuteOfDay(dealOpen) : restaurantOpen;
+        int close = dealClose != null ? TimeCodec.parseMinuteOfDay(dealClose) : restaurantClose;
+        if (open == TimeCodec.INVALID || close == TimeCodec.INVALID) {
+            return "invalid deal window '" + dealOpen + "' to '" + dealClose + "'";
+        }
+        deals.add(new CompiledDeal(deal, discount, parseFlag(deal.dineIn()), parseFlag(deal.lightning()), qtyLeft));
+        windows.add(new int[]{open, close});
+        return null;
+    }
+
+    /**
+     * Parses a whole-number percentage such as {@code 20} or {@code 20%}, returning -1 if it is not one.
+     */
+    private static int parseDiscount(String discount) {
+        if (discount == null) {
+            return -1;
+        }
+        String digits = discount.strip();
+        if (digits.endsWith("%")) {
+            digits = digits.substring(0, digits.length() - 1).strip();
+        }
+        return parseQuantity(digits);
+    }
+
+    /**
+     * Parses a non-negative whole number, returning -1 if it is not one.
+     */
+    private static int parseQuantity(String quantity) {
+        if (quantity == null) {
+            return -1;
+        }
+        try {
+            return Math.max(-1, Integer.parseInt(quantity.strip()));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * Missing flags are read as false.
+     */
+    private static boolean isFlag(String flag) {
+        return flag == null || flag.equalsIgnoreCase("true") || flag.equalsIgnoreCase("false");
+    }
+
+    private static boolean parseFlag(String flag) {
+        return "true".equalsIgnoreCase(flag);
+    }
+
+    private record Compilation(CompiledRestaurant restaurant, List<DealRun> runs,
+                               List<QuarantinedRecord> quarantined) {
+    }
+}
@@ -0,0 +1,195 @@
+package com.eatclub.challenge.snapshot;
+
+import com.eatclub.challenge.model.DealFilter;
+import com.eatclub.challenge.model.compiled.CompiledDeal;
+import com.eatclub.challenge.model.compiled.DealRun;
+import com.eatclub.challenge.model.compiled.MinuteRange;
+
+import java.time.Instant;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Deal timelines narrowed by facet, for peak-time queries filtered by suburb, cuisine, dine-in and lightning.
+ * <p>
+ * When the snapshot is built, every {@link DealRun} adds its deals' counted windows to a dense difference array over
+ * the day for each facet key it falls under: its suburb or any suburb, each of its restaurant's cuisines or any
+ * cuisine, and the exact dine-in and lightning flags of the deals. Only keys that occur get an array. A query adds up
+ * the arrays of the one to four flag combinations its filter allows and sweeps the day once, so it costs O(1440)
+ * whatever the size of the catalog, and nothing is cached per filter. Like {@link DealTimeline}, a refresh only
+ * patches the arrays of the restaurants it changed, and windows exclude their closing minutes.
+ */
+public final class DealFacets {
+
+    private static final int FLAG_COMBINATIONS = 4;
+
+    private final Map<FacetKey, int[][]> deltas;
+    private final Instant computedAt;
+
+    private DealFacets(Map<FacetKey, int[][]> deltas, Instant computedAt) {
+        this.deltas = deltas;
+        this.computedAt = computedAt;
+    }
+
+    /**
+     * @param computedAt when the snapshot's counts were computed, reported by every profile read from these facets
+     */
+    public static DealFacets of(List<DealRun> runs, Instant computedAt) {
+        Map<FacetKey, int[][]> deltas = new HashMap<>();
+        for (DealRun run : runs) {
+            contribute(deltas, run, 1, null);
+        }
+        return new DealFacets(deltas, computedAt);
+    }
+
+    /**
+     * Returns the facets of the snapshot the diff leads to by subtracting the runs of removed and changed
+     * restaurants and adding those of added and changed ones. Arrays no change touches are shared with this instance,
+     * and touched ones are copied before they are patched.
+     *
+     * @param previous   catalog these facets were built from
+     * @param next       catalog the diff leads to
+     * @param computedAt when the next snapshot's counts were computed
+     */
+    public DealFacets apply(SnapshotDiff diff, CompiledCatalog previous, CompiledCatalog next, Instant computedAt) {
+        if (diff.fullRebuild()) {
+            return of(next.getDealRuns(), computedAt);
+        }
+        Map<FacetKey, int[][]> patched = new HashMap<>(deltas);
+        Set<Object> copied = Collections.newSetFromMap(new IdentityHashMap<>());
+        diff.removed().forEach(restaurant -> previous.runs(restaurant)
+                .forEach(run -> contribute(patched, run, -1, copied)));
+        diff.added().forEach(restaurant -> next.runs(restaurant)
+                .forEach(run -> contribute(patched, run, 1, copied)));
+        for (SnapshotDiff.Change change : diff.changed()) {
+            previous.runs(change.previous()).forEach(run -> contribute(patched, run, -1, copied));
+            next.runs(change.current()).forEach(run -> contribute(patched, run, 1, copied));
+        }
+        return new DealFacets(patched, computedAt);
+    }
+
+    /**
+     * Deal counts of the day restricted to the deals the filter matches. An empty filter is answered by the
+     * snapshot's own {@link PeakProfile}; a suburb or cuisine no restaurant has yields a profile without deals.
+     *
+     * @throws IllegalArgumentException if the filter sets a minimum discount, which is not a peak-time facet
+     */
+    public PeakProfile profile(DealFilter filter) {
+        if (filter.minDiscount() != null) {
+            throw new IllegalArgumentException("minDiscount is not supported for peak time");
+        }
+        int[] combined = new int[DealTimeline.MINUTES_PER_DAY + 1];
+        int[][] byFlags = deltas.get(new FacetKey(filter.suburb(), filter.cuisine()));
+        if (byFlags != null) {
+            for (int flags = 0; flags < FLAG_COMBINATIONS; flags++) {
+                if (byFlags[flags] != null && matches(filter, flags)) {
+                    int[] array = byFlags[flags];
+                    for (int minute = 0; minute < combined.length; minute++) {
+                        combined[minute] += array[minute];
+                    }
+                }
+            }
+        }
+
+        int eventCount = 0;
+        for (int delta : combined) {
+            eventCount += delta != 0 ? 1 : 0;
+        }
+        int[] eventMinutes = new int[eventCount];
+        int[] eventDeltas = new int[eventCount];
+        for (int minute = 0, i = 0; minute < combined.length; minute++) {
+            if (combined[minute] != 0) {
+                eventMinutes[i] = minute;
+                eventDeltas[i++] = combined[minute];
+            }
+        }
+        return PeakProfile.of(eventMinutes, eventDeltas, computedAt);
+    }
+
+    /**
+     * Number of facet keys that held at least one deal in this snapshot or a previous one it was patched from, each
+     * holding an array per flag combination that occurred.
+     */
+    public int size() {
+        return deltas.size();
+    }
+
+    /**
+     * Adds the run's deals under every facet key they fall under, or subtracts them for a negative sign.
+     *
+     * @param copied arrays already copied from the previous facets, or null while building, when every array is new
+     */
+    private static void contribute(Map<FacetKey, int[][]> deltas, DealRun run, int sign, Set<Object> copied) {
+        int[] countsByFlags = new int[FLAG_COMBINATIONS];
+        for (CompiledDeal deal : run.deals()) {
+            countsByFlags[flagIndex(deal.dineIn(), deal.lightning())]++;
+        }
+        String suburb = DealFilter.normalize(run.restaurant().source().suburb());
+        Set<String> cuisines = new LinkedHashSet<>();
+        cuisines.add(null);
+        for (String cuisine : run.restaurant().source().cuisines()) {
+            String normalized = DealFilter.normalize(cuisine);
+            if (normalized != null) {
+                cuisines.add(normalized);
+            }
+        }
+
+        for (String s : suburb != null ? new String[]{null, suburb} : new String[]{null}) {
+            for (String cuisine : cuisines) {
+                FacetKey key = new FacetKey(s, cuisine);
+                int[][] byFlags = deltas.get(key);
+                if (byFlags == null) {
+                    byFlags = new int[FLAG_COMBINATIONS][];
+                    deltas.put(key, byFlags);
+                    owned(copied, byFlags);
+                } else if (copied != null && !copied.contains(byFlags)) {
+                    byFlags = byFlags.clone();
+                    deltas.put(key, byFlags);
+                    copied.add(byFlags);
+                }
+                for (int flags = 0; flags < FLAG_COMBINATIONS; flags++) {
+                    if (countsByFlags[flags] == 0) {
+                        continue;
+                    }
+                    if (byFlags[flags] == null) {
+                        byFlags[flags] = owned(copied, new int[DealTimeline.MINUTES_PER_DAY + 1]);
+                    } else if (copied != null && !copied.contains(byFlags[flags])) {
+                        byFlags[flags] = owned(copied, byFlags[flags].clone());
+                    }
+                    int delta = sign * countsByFlags[flags];
+                    for (MinuteRange range : run.counted()) {
+                        byFlags[flags][range.first()] += delta;
+                        byFlags[flags][range.last() + 1] -= delta;
+                    }
+                }
+            }
+        }
+    }
+
+    private static <T> T owned(Set<Object> copied, T array) {
+        if (copied != null) {
+            copied.add(array);
+        }
+        return array;
+    }
+
+    private static boolean matches(DealFilter filter, int flags) {
+        return (filter.dineIn() == null || filter.dineIn() == ((flags & 2) != 0))
+                && (filter.lightning() == null || filter.lightning() == ((flags & 1) != 0));
+    }
+
+    private static int flagIndex(boolean dineIn, boolean lightning) {
+        return (dineIn ? 2 : 0) | (lightning ? 1 : 0);
+    }
+
+    /**
+     * Suburb and cuisine a set of difference arrays counts deals for, either left open by a null.
+     */
+    private record FacetKey(String suburb, String cuisine) {
+    }
+}
@@ -0,0 +1,230 @@
+package com.eatclub.challenge.snapshot;
+
+import com.eatclub.challenge.model.compiled.DealRun;
+import com.eatclub.challenge.model.compiled.MinuteRange;
+import com.eatclub.challenge.snapshot.ActiveDealIndex.ActiveDeals;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Centered interval tree over the effective windows of a snapshot's {@link DealRun}s, for time-range queries.
+ * <p>
+ * Windows are the inclusive minute ranges of {@link DealRun#available()}: one wrapping past midnight is split into
+ * {@code [open, 1439]} and {@code [0, close]}, and {@code open == close} is a single all-day range, matching the
+ * point lookups of {@link ActiveDealIndex}. Query ranges wrap past midnight the same way when {@code from > to}.
+ * Finding windows that overlap a range costs O(log n + k); finding windows covering a whole range scans the
+ * windows containing its first minute.
+ */
+public final class DealIntervalTree {
+
+    private static final int LAST_MINUTE = DealTimeline.MINUTES_PER_DAY - 1;
+
+    private final List<DealRun> runs;
+    private final Window[] byStart;
+    private final Node root;
+
+    private DealIntervalTree(List<DealRun> runs, Window[] byStart, Node root) {
+        this.runs = runs;
+        this.byStart = byStart;
+        this.root = root;
+    }
+
+    public static DealIntervalTree of(List<DealRun> runs) {
+        List<Window> windows = new ArrayList<>();
+        for (int position = 0; position < runs.size(); position++) {
+            for (MinuteRange range : runs.get(position).available()) {
+                windows.add(new Window(range.first(), range.last(), position));
+            }
+        }
+
+        Window[] byStart = windows.toArray(Window[]::new);
+        Arrays.sort(byStart, Comparator.comparingInt(Window::start));
+        return new DealIntervalTree(runs, byStart, build(windows));
+    }
+
+    /**
+     * The same tree over the runs of a later snapshot, sharing its windows and nodes.
+     *
+     * @param runs runs with the same available windows as this tree's at every position
+     */
+    public DealIntervalTree withRuns(List<DealRun> runs) {
+        return new DealIntervalTree(runs, byStart, root);
+    }
+
+    /**
+     * Deals available at some minute between {@code from} and {@code to} inclusive, in feed order.
+     * A range with {@code from > to} wraps past midnight.
+     */
+    public ActiveDeals overlapping(int from, int to) {
+        Positions positions = new Positions();
+        if (from <= to) {
+            collectOverlapping(from, to, positions);
+        } else {
+            collectOverlapping(from, LAST_MINUTE, positions);
+            collectOverlapping(0, to, positions);
+        }
+        return ActiveDeals.of(positions.sortedDistinct(), runs);
+    }
+
+    /**
+     * Deals available for every minute between {@code from} and {@code to} inclusive, in feed order.
+     * A range with {@code from > to} wraps past midnight.
+     */
+    public ActiveDeals covering(int from, int to) {
+        if (from <= to) {
+            Positions positions = new Positions();
+            collectCovering(from, to, positions);
+            return ActiveDeals.of(positions.sortedDistinct(), runs);
+        }
+        Positions beforeMidnight = new Positions();
+        collectCovering(from, LAST_MINUTE, beforeMidnight);
+        Positions afterMidnight = new Positions();
+        collectCovering(0, to, afterMidnight);
+        return ActiveDeals.of(intersect(beforeMidnight.sortedDistinct(), afterMidnight.sortedDistinct()), runs);
+    }
+
+    private void collectOverlapping(int from, int to, Positions positions) {
+        // Windows starting inside the range, then windows already open when it starts
+        int first = lowerBound(from);
+        for (int i = first; i < byStart.length && byStart[i].start() <= to; i++) {
+            positions.add(byStart[i].position());
+        }
+        stab(root, from, to, false, positions);
+    }
+
+    private void collectCovering(int from, int to, Positions positions) {
+        stab(root, from, to, true, positions);
+    }
+
+    /**
+     * Visits the windows containing {@code point}. Overlap queries skip windows starting exactly at the point,
+     * which were already collected from the start-sorted array; covering queries keep those ending at or after
+     * {@code to}.
+     */
+    private static void stab(Node node, int point, int to, boolean covering, Positions positions) {
+        while (node != null) {
+            if (point < node.center) {
+                for (Window window : node.byStart) {
+                    if (window.start() > point) {
+                        break;
+                    }
+                    if (covering ? window.end() >= to : window.start() < point) {
+                        positions.add(window.position());
+                    }
+                }
+                node = node.left;
+            } else {
+                int limit = covering ? Math.max(point, to) : point;
+                for (Window window : node.byEnd) {
+                    if (window.end() < limit) {
+                        break;
+                    }
+                    if (covering || window.start() < point) {
+                        positions.add(window.position());
+                    }
+                }
+                node = point > node.center ? node.right : null;
+            }
+        }
+    }
+
+    private int lowerBound(int minute) {
+        int low = 0;
+        int high = byStart.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (byStart[mid].start() < minute) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private static Node build(List<Window> windows) {
+        if (windows.isEmpty()) {
+            return null;
+        }
+        int[] endpoints = new int[windows.size() * 2];
+        for (int i = 0; i < windows.size(); i++) {
+            endpoints[2 * i] = windows.get(i).start();
+            endpoints[2 * i + 1] = windows.get(i).end();
+        }
+        Arrays.sort(endpoints);
+        int center = endpoints[endpoints.length / 2];
+
+        List<Window> left = new ArrayList<>();
+        List<Window> right = new ArrayList<>();
+        List<Window> here = new ArrayList<>();
+        for (Window window : windows) {
+            if (window.end() < center) {
+                left.add(window);
+            } else if (window.start() > center) {
+                right.add(window);
+            } else {
+                here.add(window);
+            }
+        }
+
+        Window[] byStart = here.toArray(Window[]::new);
+        Arrays.sort(byStart, Comparator.comparingInt(Window::start));
+        Window[] byEnd = here.toArray(Window[]::new);
+        Arrays.sort(byEnd, Comparator.comparingInt(Window::end).reversed());
+        return new Node(center, byStart, byEnd, build(left), build(right));
+    }
+
+    private static int[] intersect(int[] a, int[] b) {
+        int[] result = new int[Math.min(a.length, b.length)];
+        int size = 0;
+        for (int i = 0, j = 0; i < a.length && j < b.length; ) {
+            if (a[i] < b[j]) {
+                i++;
+            } else if (a[i] > b[j]) {
+                j++;
+            } else {
+                result[size++] = a[i];
+                i++;
+                j++;
+            }
+        }
+        return Arrays.copyOf(result, size);
+    }
+
+    private record Window(int start, int end, int position) {
+    }
+
+    private record Node(int center, Window[] byStart, Window[] byEnd, Node left, Node right) {
+    }
+
+    /**
+     * Growable buffer of run positions; a run may be collected once per window.
+     */
+    private static final class Positions {
+
+        private int[] values = new int[16];
+        private int size;
+
+        void add(int position) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = position;
+        }
+
+        int[] sortedDistinct() {
+            int[] sorted = Arrays.copyOf(values, size);
+            Arrays.sort(sorted);
+            int distinct = 0;
+            for (int i = 0; i < sorted.length; i++) {
+                if (i == 0 || sorted[i] != sorted[i - 1]) {
+                    sorted[distinct++] = sorted[i];
+                }
+            }
+            return Arrays.copyOf(sorted, distinct);
+        }
+    }
+}
@@ -0,0 +1,178 @@
+package com.eatclub.challenge.snapshot;
+
+import com.eatclub.challenge.model.DealSort;
+import com.eatclub.challenge.model.compiled.CompiledDeal;
+
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Orderings of a snapshot's deals by each {@link DealSort.Key}, for sorting pages without comparing deals per request.
+ * <p>
+ * Deals are numbered as in {@link DealPostings}. When the snapshot is built, every deal gets a rank for each key,
+ * equal values sharing a rank. Discounts and quantities are non-negative integers that serve as their own ranks, so
+ * they need no sorting and a refresh rewrites only the deals it changed; names are ranked among the distinct names,
+ * sorted once per run rather than per deal. A page then compares order keys only, packing the rank
+ * with the ordinal: the matching deals are offered one at a time and the first {@code count} after the previous
+ * page's last key are kept in a heap of at most {@code count} keys, so a page costs O(n log count) for n matching
+ * deals however deep it is, and only the picked deals are put in order.
+ */
+public final class DealOrderings {
+
+    private final Map<DealSort.Key, Ranking> rankings;
+
+    private DealOrderings(Map<DealSort.Key, Ranking> rankings) {
+        this.rankings = rankings;
+    }
+
+    public static DealOrderings of(DealPostings postings) {
+        int dealCount = postings.dealCount();
+        int[] discounts = new int[dealCount];
+        int[] quantities = new int[dealCount];
+        for (int ordinal = 0; ordinal < dealCount; ordinal++) {
+            CompiledDeal deal = postings.dealAt(ordinal);
+            discounts[ordinal] = deal.discount();
+            quantities[ordinal] = deal.qtyLeft();
+        }
+        Map<DealSort.Key, Ranking> rankings = new EnumMap<>(DealSort.Key.class);
+        rankings.put(DealSort.Key.DISCOUNT, new Ranking(discounts));
+        rankings.put(DealSort.Key.QTY_LEFT, new Ranking(quantities));
+        rankings.put(DealSort.Key.RESTAURANT_NAME, Ranking.byName(postings));
+        return new DealOrderings(rankings);
+    }
+
+    /**
+     * Returns the orderings of a later snapshot whose runs keep their positions and deal counts. The discounts and
+     * quantities are copied and rewritten for the deals of the changed runs only, and the name ranks are shared
+     * unless one of those runs' restaurants was renamed.
+     *
+     * @param previous    postings these orderings were built from
+     * @param next        postings of the later snapshot
+     * @param changedRuns positions of the runs whose deals or restaurant changed
+     */
+    public DealOrderings apply(DealPostings previous, DealPostings next, int[] changedRuns) {
+        int[] discounts = rankings.get(DealSort.Key.DISCOUNT).ranks().clone();
+        int[] quantities = rankings.get(DealSort.Key.QTY_LEFT).ranks().clone();
+        boolean renamed = false;
+        for (int position : changedRuns) {
+            for (int ordinal = next.firstDealOf(position); ordinal < next.firstDealOf(position + 1); ordinal++) {
+                CompiledDeal deal = next.dealAt(ordinal);
+                discounts[ordinal] = deal.discount();
+                quantities[ordinal] = deal.qtyLeft();
+            }
+            renamed |= !Objects.equals(previous.runAt(position).restaurant().source().name(),
+                    next.runAt(position).restaurant().source().name());
+        }
+        Map<DealSort.Key, Ranking> patched = new EnumMap<>(DealSort.Key.class);
+        patched.put(DealSort.Key.DISCOUNT, new Ranking(discounts));
+        patched.put(DealSort.Key.QTY_LEFT, new Ranking(quantities));
+        patched.put(DealSort.Key.RESTAURANT_NAME,
+                renamed ? Ranking.byName(next) : rankings.get(DealSort.Key.RESTAURANT_NAME));
+        return new DealOrderings(patched);
+    }
+
+    /**
+     * Starts picking, from the deals offered to it, the first {@code count} in the requested order whose order key
+     * comes after {@code after}, deals with equal values in feed order.
+     *
+     * @param sort  order to put the deals in, or null for feed order
+     * @param after order key of the last deal already read, or -1 to start with the first deal
+     * @param count number of deals wanted, typically the page size
+     */
+    public Selection select(DealSort sort, long after, int count) {
+        return new Selection(sort != null ? rankings.get(sort.key()) : null, sort != null && sort.descending(), after,
+                count);
+    }
+
+    /**
+     * Deal ordinal held in an order key.
+     */
+    public static int ordinalOf(long key) {
+        return (int) key;
+    }
+
+    /**
+     * Deals picked for one page. Each offered deal is turned into its order key, so a page can be continued from
+     * the key of its last deal without reading the deals before it again.
+     */
+    public static final class Selection {
+
+        private final Ranking ranking;
+        private final boolean descending;
+        private final long after;
+        private final SmallestKeys keys;
+
+        private Selection(Ranking ranking, boolean descending, long after, int count) {
+            this.ranking = ranking;
+            this.descending = descending;
+            this.after = after;
+            this.keys = new SmallestKeys(count);
+        }
+
+        /**
+         * Keeps the deal if it comes after the last deal already read and is among the first in order offered so far.
+         *
+         * @param ordinal deal ordinal from the same snapshot's {@link DealPostings}
+         */
+        public void offer(int ordinal) {
+            long key = ranking != null ? ranking.orderKey(ordinal, descending) : ordinal;
+            if (key > after) {
+                keys.offer(key);
+            }
+        }
+
+        /**
+         * Order keys of the picked deals, in order; {@link #ordinalOf} reads each deal's ordinal.
+         */
+        public long[] keys() {
+            return keys.sorted();
+        }
+    }
+
+    /**
+     * Non-negative rank of every deal's value for one key, lower values ranking lower.
+     */
+    private record Ranking(int[] ranks) {
+
+        /**
+         * Ranks the restaurant names of the runs, ignoring case and putting missing names last, and gives each deal
+         * the rank of its run, so names are compared once per run rather than per deal.
+         */
+        static Ranking byName(DealPostings postings) {
+            String[] names = new String[postings.runCount()];
+            for (int position = 0; position < names.length; position++) {
+                names[position] = postings.runAt(position).restaurant().source().name();
+            }
+            String[] sorted = Arrays.stream(names).filter(Objects::nonNull).toArray(String[]::new);
+            Arrays.sort(sorted, String.CASE_INSENSITIVE_ORDER);
+            int distinct = 0;
+            for (int i = 0; i < sorted.length; i++) {
+                if (i == 0 || String.CASE_INSENSITIVE_ORDER.compare(sorted[distinct - 1], sorted[i]) != 0) {
+                    sorted[distinct++] = sorted[i];
+                }
+            }
+
+            int[] rankOfRun = new int[names.length];
+            for (int position = 0; position < names.length; position++) {
+                rankOfRun[position] = names[position] == null ? distinct
+                        : Arrays.binarySearch(sorted, 0, distinct, names[position], String.CASE_INSENSITIVE_ORDER);
+            }
+            int[] ranks = new int[postings.dealCount()];
+            for (int ordinal = 0; ordinal < ranks.length; ordinal++) {
+                ranks[ordinal] = rankOfRun[postings.runPositionOf(ordinal)];
+            }
+            return new Ranking(ranks);
+        }
+
+        /**
+         * Rank in the high half and ordinal in the low half, so ascending keys follow the order with ties in feed
+         * order.
+         */
+        long orderKey(int ordinal, boolean descending) {
+            int rank = descending ? Integer.MAX_VALUE - ranks[ordinal] : ranks[ordinal];
+            return ((long) rank << 32) | ordinal;
+        }
+    }
+}
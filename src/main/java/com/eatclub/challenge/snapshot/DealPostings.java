@@ -0,0 +1,606 @@
+package com.eatclub.challenge.snapshot;
+
+import com.eatclub.challenge.model.DealFilter;
+import com.eatclub.challenge.model.compact.CompactRestaurant;
+import com.eatclub.challenge.model.compiled.CompiledDeal;
+import com.eatclub.challenge.model.compiled.DealRun;
+import com.eatclub.challenge.model.compiled.MinuteRange;
+import com.eatclub.challenge.snapshot.ActiveDealIndex.ActiveDeals;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.PrimitiveIterator;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Inverted indexes from facet values to deals, for filtering the deals available at a minute.
+ * <p>
+ * Every deal of a snapshot gets an ordinal in feed order, and each suburb, cuisine, flag value and discount threshold
+ * maps to the set of ordinals carrying it. A filter walks the smallest of its candidate sets, the deals available at
+ * the minute included, and keeps the ordinals every other set contains, so its cost follows the size of that set
+ * rather than the catalog. Facet counts are tallied over the matched ordinals only. A refresh that keeps every run's
+ * position and deal count patches copies of the postings it touches and shares the rest.
+ */
+public final class DealPostings {
+
+    private final DealRun[] runs;
+    private final int[] runOfDeal;
+    private final int[] firstDealOfRun;
+    private final String[] runSuburbs;
+    private final String[][] runCuisines;
+    private final Map<String, Posting> bySuburb;
+    private final Map<String, Posting> byCuisine;
+    private final Map<String, String> labels;
+    private final Posting[] byDineIn;
+    private final Posting[] byLightning;
+    private final int[] discountThresholds;
+    private final Posting[] byMinDiscount;
+
+    private DealPostings(Builder builder) {
+        this.runs = builder.runs;
+        this.runOfDeal = builder.runOfDeal;
+        this.firstDealOfRun = builder.firstDealOfRun;
+        this.runSuburbs = builder.runSuburbs;
+        this.runCuisines = builder.runCuisines;
+        this.bySuburb = Posting.of(builder.bySuburb);
+        this.byCuisine = Posting.of(builder.byCuisine);
+        this.labels = builder.labels;
+        this.byDineIn = new Posting[]{Posting.of(builder.byDineIn[0]), Posting.of(builder.byDineIn[1])};
+        this.byLightning = new Posting[]{Posting.of(builder.byLightning[0]), Posting.of(builder.byLightning[1])};
+
+        // Deals at or above each discount in the catalog, accumulated from the highest discount down
+        TreeMap<Integer, BitSet> byDiscount = builder.byDiscount;
+        this.discountThresholds = byDiscount.keySet().stream().mapToInt(Integer::intValue).toArray();
+        this.byMinDiscount = new Posting[discountThresholds.length];
+        BitSet atLeast = new BitSet(runOfDeal.length);
+        for (int i = discountThresholds.length - 1; i >= 0; i--) {
+            atLeast.or(byDiscount.get(discountThresholds[i]));
+            byMinDiscount[i] = Posting.of((BitSet) atLeast.clone());
+        }
+    }
+
+    private DealPostings(DealPostings previous, DealRun[] runs, String[] runSuburbs, String[][] runCuisines,
+                         Map<String, Posting> bySuburb, Map<String, Posting> byCuisine, Map<String, String> labels,
+                         Posting[] byDineIn, Posting[] byLightning, Posting[] byMinDiscount) {
+        this.runs = runs;
+        this.runOfDeal = previous.runOfDeal;
+        this.firstDealOfRun = previous.firstDealOfRun;
+        this.runSuburbs = runSuburbs;
+        this.runCuisines = runCuisines;
+        this.bySuburb = bySuburb;
+        this.byCuisine = byCuisine;
+        this.labels = labels;
+        this.byDineIn = byDineIn;
+        this.byLightning = byLightning;
+        this.discountThresholds = previous.discountThresholds;
+        this.byMinDiscount = byMinDiscount;
+    }
+
+    public static DealPostings of(List<DealRun> runs) {
+        Builder builder = new Builder(runs);
+        for (int position = 0; position < runs.size(); position++) {
+            builder.add(position);
+        }
+        return new DealPostings(builder);
+    }
+
+    /**
+     * Returns the postings of a later snapshot whose runs keep their positions and deal counts, so every deal keeps
+     * its ordinal. Only the postings holding a deal of a changed run are copied and patched; the others, and the
+     * arrays numbering the deals, are shared. A discount no deal had before needs a threshold of its own, so the
+     * postings are then built afresh.
+     *
+     * @param runs        runs of the later snapshot
+     * @param changedRuns positions of the runs whose deals or restaurant changed
+     */
+    public DealPostings apply(List<DealRun> runs, int[] changedRuns) {
+        DealRun[] nextRuns = runs.toArray(DealRun[]::new);
+        String[] nextSuburbs = runSuburbs.clone();
+        String[][] nextCuisines = runCuisines.clone();
+        Map<String, String> nextLabels = new HashMap<>(labels);
+        Map<String, Posting> nextBySuburb = new HashMap<>(bySuburb);
+        Map<String, Posting> nextByCuisine = new HashMap<>(byCuisine);
+        Posting[] nextDineIn = byDineIn.clone();
+        Posting[] nextLightning = byLightning.clone();
+        Posting[] nextMinDiscount = byMinDiscount.clone();
+        PostingEdits edits = new PostingEdits();
+
+        for (int position : changedRuns) {
+            int first = firstDealOfRun[position];
+            int last = firstDealOfRun[position + 1];
+            CompactRestaurant restaurant = nextRuns[position].restaurant().source();
+            String suburb = label(nextLabels, restaurant.suburb());
+            if (!Objects.equals(suburb, runSuburbs[position])) {
+                if (runSuburbs[position] != null) {
+                    edits.edit(nextBySuburb, runSuburbs[position]).clear(first, last);
+                }
+                if (suburb != null) {
+                    edits.edit(nextBySuburb, suburb).set(first, last);
+                }
+                nextSuburbs[position] = suburb;
+            }
+            String[] cuisines = cuisineKeys(nextLabels, restaurant);
+            if (!Arrays.equals(cuisines, runCuisines[position])) {
+                List<String> previousCuisines = List.of(runCuisines[position]);
+                List<String> currentCuisines = List.of(cuisines);
+                previousCuisines.stream().filter(cuisine -> !currentCuisines.contains(cuisine))
+                        .forEach(cuisine -> edits.edit(nextByCuisine, cuisine).clear(first, last));
+                currentCuisines.stream().filter(cuisine -> !previousCuisines.contains(cuisine))
+                        .forEach(cuisine -> edits.edit(nextByCuisine, cuisine).set(first, last));
+                nextCuisines[position] = cuisines;
+            }
+
+            for (int ordinal = first; ordinal < last; ordinal++) {
+                CompiledDeal before = this.runs[position].deals().get(ordinal - first);
+                CompiledDeal after = nextRuns[position].deals().get(ordinal - first);
+                if (before.dineIn() != after.dineIn()) {
+                    edits.edit(nextDineIn, before.dineIn() ? 1 : 0).clear(ordinal);
+                    edits.edit(nextDineIn, after.dineIn() ? 1 : 0).set(ordinal);
+                }
+                if (before.lightning() != after.lightning()) {
+                    edits.edit(nextLightning, before.lightning() ? 1 : 0).clear(ordinal);
+                    edits.edit(nextLightning, after.lightning() ? 1 : 0).set(ordinal);
+                }
+                if (before.discount() != after.discount()) {
+                    if (Arrays.binarySearch(discountThresholds, after.discount()) < 0) {
+                        return of(runs);
+                    }
+                    for (int i = 0; i < discountThresholds.length; i++) {
+                        boolean atLeast = after.discount() >= discountThresholds[i];
+                        if (atLeast != before.discount() >= discountThresholds[i]) {
+                            edits.edit(nextMinDiscount, i).set(ordinal, atLeast);
+                        }
+                    }
+                }
+            }
+        }
+        return new DealPostings(this, nextRuns, nextSuburbs, nextCuisines, edits.patched(nextBySuburb),
+                edits.patched(nextByCuisine), nextLabels, edits.patched(nextDineIn), edits.patched(nextLightning),
+                edits.patched(nextMinDiscount));
+    }
+
+    /**
+     * Ordinals, in feed order, of the deals available at the minute that the filter matches.
+     *
+     * @param active deals available at {@code minute}, from the same snapshot's {@link ActiveDealIndex}
+     * @param minute minute of the day (0 to 1439)
+     */
+    public int[] matching(ActiveDeals active, int minute, DealFilter filter) {
+        Matches matches = matches(active, minute, filter);
+        Ordinals matched = new Ordinals();
+        while (matches.hasNext()) {
+            matched.add(matches.nextInt());
+        }
+        return matched.toArray();
+    }
+
+    /**
+     * Lazily walks the deals available at the minute that the filter matches, in feed order, holding only its
+     * position in the walk.
+     *
+     * @param active deals available at {@code minute}, from the same snapshot's {@link ActiveDealIndex}
+     * @param minute minute of the day (0 to 1439)
+     */
+    public Matches matches(ActiveDeals active, int minute, DealFilter filter) {
+        List<Posting> postings = new ArrayList<>(5);
+        if (!collect(filter, postings)) {
+            return new Matches(List.of(), minute, null, null);
+        }
+        postings.sort(Comparator.comparingInt(Posting::size));
+        if (postings.isEmpty() || active.dealCount() <= postings.get(0).size()) {
+            return new Matches(postings, minute, active.from(0), null);
+        }
+        return new Matches(postings, minute, null, postings.get(0).deals());
+    }
+
+    /**
+     * Number of deals in the snapshot; ordinals run from 0 to this count minus one.
+     */
+    public int dealCount() {
+        return runOfDeal.length;
+    }
+
+    /**
+     * Run holding the deal with the given ordinal.
+     */
+    public DealRun runOf(int ordinal) {
+        return runs[runOfDeal[ordinal]];
+    }
+
+    /**
+     * Deal with the given ordinal.
+     */
+    public CompiledDeal dealAt(int ordinal) {
+        int position = runOfDeal[ordinal];
+        return runs[position].deals().get(ordinal - firstDealOfRun[position]);
+    }
+
+    /**
+     * Position in the snapshot's runs of the run holding the deal with the given ordinal.
+     */
+    int runPositionOf(int ordinal) {
+        return runOfDeal[ordinal];
+    }
+
+    /**
+     * Number of runs in the snapshot.
+     */
+    int runCount() {
+        return runs.length;
+    }
+
+    /**
+     * Run at the given position in the snapshot's runs.
+     */
+    DealRun runAt(int position) {
+        return runs[position];
+    }
+
+    /**
+     * Ordinal of the first deal of the run at the given position, or the number of deals past the last run.
+     */
+    int firstDealOf(int position) {
+        return firstDealOfRun[position];
+    }
+
+    /**
+     * Starts counting deals per facet value; deals are added to the tally one at a time as they are matched.
+     */
+    public FacetTally facetTally() {
+        return new FacetTally();
+    }
+
+    /**
+     * Adds the posting of every facet the filter sets, returning false if a value matches no deal at all.
+     */
+    private boolean collect(DealFilter filter, List<Posting> postings) {
+        if (filter.suburb() != null && !add(postings, bySuburb.get(filter.suburb()))) {
+            return false;
+        }
+        if (filter.cuisine() != null && !add(postings, byCuisine.get(filter.cuisine()))) {
+            return false;
+        }
+        if (filter.dineIn() != null && !add(postings, byDineIn[filter.dineIn() ? 1 : 0])) {
+            return false;
+        }
+        if (filter.lightning() != null && !add(postings, byLightning[filter.lightning() ? 1 : 0])) {
+            return false;
+        }
+        if (filter.minDiscount() != null) {
+            int threshold = Arrays.binarySearch(discountThresholds, filter.minDiscount());
+            int index = threshold >= 0 ? threshold : -threshold - 1;
+            return index < byMinDiscount.length && add(postings, byMinDiscount[index]);
+        }
+        return true;
+    }
+
+    /**
+     * Normalizes a facet value, remembering how it was first written for facet counts.
+     */
+    private static String label(Map<String, String> labels, String value) {
+        String key = DealFilter.normalize(value);
+        if (key != null) {
+            labels.putIfAbsent(key, value.strip());
+        }
+        return key;
+    }
+
+    /**
+     * Distinct normalized cuisines of the restaurant, in feed order.
+     */
+    private static String[] cuisineKeys(Map<String, String> labels, CompactRestaurant restaurant) {
+        Set<String> cuisines = new LinkedHashSet<>();
+        for (String cuisine : restaurant.cuisines()) {
+            String key = label(labels, cuisine);
+            if (key != null) {
+                cuisines.add(key);
+            }
+        }
+        return cuisines.toArray(String[]::new);
+    }
+
+    private static boolean add(List<Posting> postings, Posting posting) {
+        if (posting == null || posting.size() == 0) {
+            return false;
+        }
+        postings.add(posting);
+        return true;
+    }
+
+    private static boolean containsAll(List<Posting> postings, int from, int ordinal) {
+        for (int i = from; i < postings.size(); i++) {
+            if (!postings.get(i).deals().get(ordinal)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isAvailable(DealRun run, int minute) {
+        for (MinuteRange range : run.available()) {
+            if (range.first() <= minute && minute <= range.last()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private Map<String, Integer> ranked(Map<String, Integer> counts) {
+        Map<String, Integer> ranked = new LinkedHashMap<>();
+        counts.entrySet().stream()
+                .sorted(Map.Entry.<String, Integer>comparingByValue().reversed()
+                        .thenComparing(entry -> labels.get(entry.getKey())))
+                .forEach(entry -> ranked.put(labels.get(entry.getKey()), entry.getValue()));
+        return ranked;
+    }
+
+    /**
+     * Counts matched deals per suburb and cuisine, and how many are dine-in and lightning deals, as they are added.
+     */
+    public final class FacetTally {
+
+        private final Map<String, Integer> suburbs = new HashMap<>();
+        private final Map<String, Integer> cuisines = new HashMap<>();
+        private int dineIn;
+        private int lightning;
+
+        private FacetTally() {
+        }
+
+        /**
+         * Counts the deal with the given ordinal.
+         */
+        public void add(int ordinal) {
+            int run = runOfDeal[ordinal];
+            if (runSuburbs[run] != null) {
+                suburbs.merge(runSuburbs[run], 1, Integer::sum);
+            }
+            for (String cuisine : runCuisines[run]) {
+                cuisines.merge(cuisine, 1, Integer::sum);
+            }
+            CompiledDeal deal = dealAt(ordinal);
+            dineIn += deal.dineIn() ? 1 : 0;
+            lightning += deal.lightning() ? 1 : 0;
+        }
+
+        /**
+         * Counts of the deals added so far, suburbs and cuisines most deals first and labelled as first written in
+         * the feed.
+         */
+        public FacetCounts counts() {
+            return new FacetCounts(ranked(suburbs), ranked(cuisines), dineIn, lightning);
+        }
+    }
+
+    /**
+     * Deals per facet value among a set of matched deals.
+     *
+     * @param suburbs   deals per suburb, most deals first
+     * @param cuisines  deals per cuisine, most deals first
+     * @param dineIn    number of dine-in deals
+     * @param lightning number of lightning deals
+     */
+    public record FacetCounts(Map<String, Integer> suburbs, Map<String, Integer> cuisines, int dineIn,
+                              int lightning) {
+    }
+
+    /**
+     * Ordinals of the deals carrying one facet value, with their number kept to pick the smallest set.
+     */
+    private record Posting(BitSet deals, int size) {
+
+        static Posting of(BitSet deals) {
+            return new Posting(deals, deals.cardinality());
+        }
+
+        static Map<String, Posting> of(Map<String, BitSet> byValue) {
+            Map<String, Posting> postings = new HashMap<>(byValue.size() * 2);
+            byValue.forEach((value, deals) -> postings.put(value, of(deals)));
+            return postings;
+        }
+    }
+
+    /**
+     * Cursor over the deals a filter matches at a minute. It walks either the runs available at the minute, keeping
+     * the deals every posting contains, or the smallest posting, keeping the deals the other postings contain and
+     * whose run is available; with neither it matches nothing. The next match is looked up ahead, so the end is known
+     * as soon as the last match has been read.
+     */
+    public final class Matches implements PrimitiveIterator.OfInt {
+
+        private static final int UNKNOWN = -2;
+
+        private final List<Posting> postings;
+        private final int minute;
+        private final ActiveDeals.Cursor active;
+        private final BitSet smallest;
+        private int ordinal = -1;
+        private int runEnd;
+        private boolean done;
+        private int pending = UNKNOWN;
+
+        private Matches(List<Posting> postings, int minute, ActiveDeals.Cursor active, BitSet smallest) {
+            this.postings = postings;
+            this.minute = minute;
+            this.active = active;
+            this.smallest = smallest;
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (pending == UNKNOWN) {
+                pending = advance();
+            }
+            return pending >= 0;
+        }
+
+        /**
+         * Ordinal of the next matching deal.
+         *
+         * @throws NoSuchElementException if every match has been read
+         */
+        @Override
+        public int nextInt() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            int ordinal = pending;
+            pending = UNKNOWN;
+            return ordinal;
+        }
+
+        /**
+         * Ordinal of the next matching deal, or -1 once there is none.
+         */
+        private int advance() {
+            if (done) {
+                return -1;
+            }
+            if (active != null) {
+                while (true) {
+                    ordinal++;
+                    if (ordinal >= runEnd) {
+                        if (!active.next()) {
+                            done = true;
+                            return -1;
+                        }
+                        ordinal = firstDealOfRun[active.position()];
+                        runEnd = firstDealOfRun[active.position() + 1];
+                    }
+                    if (containsAll(postings, 0, ordinal)) {
+                        return ordinal;
+                    }
+                }
+            }
+            if (smallest != null) {
+                while ((ordinal = smallest.nextSetBit(ordinal + 1)) >= 0) {
+                    if (containsAll(postings, 1, ordinal) && isAvailable(runs[runOfDeal[ordinal]], minute)) {
+                        return ordinal;
+                    }
+                }
+            }
+            done = true;
+            return -1;
+        }
+    }
+
+    /**
+     * Growable buffer of matched ordinals.
+     */
+    private static final class Ordinals {
+
+        private int[] values = new int[16];
+        private int size;
+
+        void add(int ordinal) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = ordinal;
+        }
+
+        int[] toArray() {
+            return Arrays.copyOf(values, size);
+        }
+    }
+
+    /**
+     * Copies of the postings a patch edits, each copied once however many deals it touches.
+     */
+    private static final class PostingEdits {
+
+        private final Map<Posting, BitSet> copies = new IdentityHashMap<>();
+
+        BitSet edit(Map<String, Posting> byValue, String value) {
+            return edit(byValue.computeIfAbsent(value, key -> new Posting(new BitSet(), 0)));
+        }
+
+        BitSet edit(Posting[] postings, int index) {
+            return edit(postings[index]);
+        }
+
+        private BitSet edit(Posting posting) {
+            return copies.computeIfAbsent(posting, original -> (BitSet) original.deals().clone());
+        }
+
+        Map<String, Posting> patched(Map<String, Posting> byValue) {
+            byValue.replaceAll((value, posting) -> patched(posting));
+            return byValue;
+        }
+
+        Posting[] patched(Posting[] postings) {
+            for (int i = 0; i < postings.length; i++) {
+                postings[i] = patched(postings[i]);
+            }
+            return postings;
+        }
+
+        private Posting patched(Posting posting) {
+            BitSet copy = copies.get(posting);
+            return copy != null ? Posting.of(copy) : posting;
+        }
+    }
+
+    /**
+     * Collects the postings while deals are numbered.
+     */
+    private static final class Builder {
+
+        private final DealRun[] runs;
+        private final int[] runOfDeal;
+        private final int[] firstDealOfRun;
+        private final String[] runSuburbs;
+        private final String[][] runCuisines;
+        private final Map<String, BitSet> bySuburb = new HashMap<>();
+        private final Map<String, BitSet> byCuisine = new HashMap<>();
+        private final Map<String, String> labels = new HashMap<>();
+        private final BitSet[] byDineIn = {new BitSet(), new BitSet()};
+        private final BitSet[] byLightning = {new BitSet(), new BitSet()};
+        private final TreeMap<Integer, BitSet> byDiscount = new TreeMap<>();
+        private int nextOrdinal;
+
+        Builder(List<DealRun> runs) {
+            this.runs = runs.toArray(DealRun[]::new);
+            this.runOfDeal = new int[runs.stream().mapToInt(run -> run.deals().size()).sum()];
+            this.firstDealOfRun = new int[runs.size() + 1];
+            this.runSuburbs = new String[runs.size()];
+            this.runCuisines = new String[runs.size()][];
+        }
+
+        void add(int position) {
+            DealRun run = runs[position];
+            int first = nextOrdinal;
+            int last = first + run.deals().size();
+            firstDealOfRun[position + 1] = last;
+            Arrays.fill(runOfDeal, first, last, position);
+            nextOrdinal = last;
+
+            runSuburbs[position] = label(labels, run.restaurant().source().suburb());
+            if (runSuburbs[position] != null) {
+                bySuburb.computeIfAbsent(runSuburbs[position], key -> new BitSet()).set(first, last);
+            }
+            runCuisines[position] = cuisineKeys(labels, run.restaurant().source());
+            for (String cuisine : runCuisines[position]) {
+                byCuisine.computeIfAbsent(cuisine, key -> new BitSet()).set(first, last);
+            }
+
+            for (int ordinal = first; ordinal < last; ordinal++) {
+                CompiledDeal deal = run.deals().get(ordinal - first);
+                byDineIn[deal.dineIn() ? 1 : 0].set(ordinal);
+                byLightning[deal.lightning() ? 1 : 0].set(ordinal);
+                byDiscount.computeIfAbsent(deal.discount(), key -> new BitSet()).set(ordinal);
+            }
+        }
+    }
+}
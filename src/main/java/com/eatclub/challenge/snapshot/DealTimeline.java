@@ -0,0 +1,91 @@
+package com.eatclub.challenge.snapshot;
+
+import com.eatclub.challenge.model.compiled.DealRun;
+import com.eatclub.challenge.model.compiled.MinuteRange;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * Per-minute difference array of available deals over the day, derived from a snapshot.
+ * <p>
+ * Each {@link DealRun} adds its deal count where its effective window opens and removes it where it closes, the
+ * closing minute excluded; windows spanning midnight are split at minute 1440. Because every restaurant's
+ * contribution is independent, a new snapshot's timeline is obtained by patching only the restaurants in a
+ * {@link SnapshotDiff}. Built from the {@link CompiledCatalog}, so quarantined restaurants and deals contribute
+ * nothing.
+ */
+public final class DealTimeline {
+
+    public static final int MINUTES_PER_DAY = 1440;
+
+    private final int[] deltas;
+
+    private DealTimeline(int[] deltas) {
+        this.deltas = deltas;
+    }
+
+    public static DealTimeline of(List<DealRun> runs) {
+        int[] deltas = new int[MINUTES_PER_DAY + 1];
+        runs.forEach(run -> contribute(deltas, run, 1));
+        return new DealTimeline(deltas);
+    }
+
+    /**
+     * Returns the timeline for the snapshot the diff leads to, touching only changed restaurants.
+     *
+     * @param diff     changes from the snapshot this timeline belongs to
+     * @param previous catalog of the snapshot this timeline belongs to
+     * @param next     catalog of the snapshot the diff leads to
+     */
+    public DealTimeline apply(SnapshotDiff diff, CompiledCatalog previous, CompiledCatalog next) {
+        if (diff.fullRebuild()) {
+            return of(next.getDealRuns());
+        }
+        int[] patched = deltas.clone();
+        diff.removed().forEach(restaurant -> previous.runs(restaurant)
+                .forEach(run -> contribute(patched, run, -1)));
+        diff.added().forEach(restaurant -> next.runs(restaurant)
+                .forEach(run -> contribute(patched, run, 1)));
+        for (SnapshotDiff.Change change : diff.changed()) {
+            previous.runs(change.previous()).forEach(run -> contribute(patched, run, -1));
+            next.runs(change.current()).forEach(run -> contribute(patched, run, 1));
+        }
+        return new DealTimeline(patched);
+    }
+
+    /**
+     * Net change in available deals at the given minute (0 to 1440 inclusive).
+     */
+    public int deltaAt(int minute) {
+        return deltas[minute];
+    }
+
+    /**
+     * Minutes at which the number of available deals changes, in ascending order.
+     */
+    public int[] eventMinutes() {
+        return IntStream.rangeClosed(0, MINUTES_PER_DAY)
+                .filter(minute -> deltas[minute] != 0)
+                .toArray();
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        return other instanceof DealTimeline timeline && Arrays.equals(deltas, timeline.deltas);
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(deltas);
+    }
+
+    private static void contribute(int[] deltas, DealRun run, int sign) {
+        int delta = sign * run.deals().size();
+        for (MinuteRange range : run.counted()) {
+            deltas[range.first()] += delta;
+            deltas[range.last() + 1] -= delta;
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package com.eatclub.challenge.snapshot;
+
+import com.eatclub.challenge.config.RestaurantDataSourceProperties;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+
+/**
+ * Reloads the snapshot as soon as the feed file is replaced.
+ * Watches the file's directory, since an atomic replace (write to a temp file, then rename) shows up as a
+ * create event on the directory rather than a modify event on the file.
+ */
+@Component
+@Slf4j
+@ConditionalOnProperty(name = "eatclub.data-source.watch", havingValue = "true")
+public class FeedFileWatcher {
+
+    private final RestaurantSnapshotStore snapshotStore;
+    private final Path file;
+
+    private volatile WatchService watchService;
+
+    public FeedFileWatcher(RestaurantSnapshotStore snapshotStore, RestaurantDataSourceProperties properties) {
+        if (properties.getPath() == null) {
+            throw new IllegalStateException(
+                    "eatclub.data-source.path is required when eatclub.data-source.watch is enabled");
+        }
+        this.snapshotStore = snapshotStore;
+        this.file = properties.getPath().toAbsolutePath();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() throws IOException {
+        Path directory = file.getParent();
+        watchService = directory.getFileSystem().newWatchService();
+        directory.register(watchService,
+                StandardWatchEventKinds.ENTRY_CREATE,
+                StandardWatchEventKinds.ENTRY_MODIFY);
+
+        Thread thread = new Thread(this::watch, "feed-file-watcher");
+        thread.setDaemon(true);
+        thread.start();
+        log.info("Watching {} for feed updates", file);
+    }
+
+    @PreDestroy
+    public void stop() throws IOException {
+        if (watchService != null) {
+            watchService.close();
+        }
+    }
+
+    private void watch() {
+        try {
+            while (true) {
+                WatchKey key = watchService.take();
+                boolean changed = false;
+                // Drain everything already queued so a burst of events triggers a single reload
+                while (key != null) {
+                    changed |= concernsFeedFile(key);
+                    key.reset();
+                    key = watchService.poll();
+                }
+                if (changed) {
+                    log.info("Feed file {} changed, reloading snapshot", file);
+                    snapshotStore.refresh();
+                }
+            }
+        } catch (ClosedWatchServiceException e) {
+            log.debug("Stopped watching {}", file);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private boolean concernsFeedFile(WatchKey key) {
+        boolean concerns = false;
+        for (WatchEvent<?> event : key.pollEvents()) {
+            if (event.kind() == StandardWatchEventKinds.OVERFLOW
+                    || file.getFileName().equals(event.context())) {
+                concerns = true;
+            }
+        }
+        return concerns;
+    }
+}
@@ -0,0 +1,149 @@
+package com.eatclub.challenge.snapshot;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.IntStream;
+
+/**
+ * Deal counts of the day as segments of constant count, materialized once per snapshot for the peak-time APIs.
+ * <p>
+ * One sweep over the {@link DealTimeline}'s change points cuts the day into segments; adjacent segments always
+ * differ in count. The segments holding deals are then ranked once, most deals first and earliest first among
+ * equals, so the peak is the first ranked segment and the top K are a prefix of the ranking. Windows at or above a
+ * deal count merge consecutive qualifying segments in a single pass. The same sweep fills the deal count of every
+ * minute, for histograms that bucket the day. Building costs O(s log s) for s change points, plus one pass over the
+ * day.
+ */
+public final class PeakProfile {
+
+    private final int[] starts;
+    private final int[] ends;
+    private final int[] counts;
+    private final int[] byRank;
+    private final int[] countByMinute;
+    private final Instant computedAt;
+
+    private PeakProfile(int[] starts, int[] ends, int[] counts, int[] byRank, int[] countByMinute,
+                        Instant computedAt) {
+        this.starts = starts;
+        this.ends = ends;
+        this.counts = counts;
+        this.byRank = byRank;
+        this.countByMinute = countByMinute;
+        this.computedAt = computedAt;
+    }
+
+    public static PeakProfile of(DealTimeline timeline, Instant computedAt) {
+        int[] eventMinutes = timeline.eventMinutes();
+        int[] deltas = new int[eventMinutes.length];
+        for (int i = 0; i < eventMinutes.length; i++) {
+            deltas[i] = timeline.deltaAt(eventMinutes[i]);
+        }
+        return of(eventMinutes, deltas, computedAt);
+    }
+
+    /**
+     * Builds a profile from sparse change points rather than a whole-day timeline.
+     *
+     * @param eventMinutes minutes at which the deal count changes, ascending, from 0 to 1440 inclusive
+     * @param deltas       net change at each of those minutes
+     */
+    public static PeakProfile of(int[] eventMinutes, int[] deltas, Instant computedAt) {
+        int segmentCount = Math.max(0, eventMinutes.length - 1);
+        int[] starts = new int[segmentCount];
+        int[] ends = new int[segmentCount];
+        int[] counts = new int[segmentCount];
+        int[] countByMinute = new int[DealTimeline.MINUTES_PER_DAY];
+
+        int current = 0;
+        for (int i = 0; i < segmentCount; i++) {
+            current += deltas[i];
+            starts[i] = eventMinutes[i];
+            ends[i] = eventMinutes[i + 1];
+            counts[i] = current;
+            Arrays.fill(countByMinute, starts[i], ends[i], current);
+        }
+
+        int[] byRank = IntStream.range(0, segmentCount)
+                .filter(i -> counts[i] > 0)
+                .boxed()
+                .sorted(Comparator.<Integer>comparingInt(i -> counts[i]).reversed()
+                        .thenComparingInt(i -> starts[i]))
+                .mapToInt(Integer::intValue)
+                .toArray();
+        return new PeakProfile(starts, ends, counts, byRank, countByMinute, computedAt);
+    }
+
+    /**
+     * When the profile was computed.
+     */
+    public Instant getComputedAt() {
+        return computedAt;
+    }
+
+    /**
+     * Deals available at the given minute of the day (0 to 1439). Like the windows, a deal stops counting at its
+     * closing minute.
+     */
+    public int dealCountAt(int minute) {
+        return countByMinute[minute];
+    }
+
+    /**
+     * Most deals available at any minute of the day.
+     */
+    public int maxDealCount() {
+        return byRank.length == 0 ? 0 : counts[byRank[0]];
+    }
+
+    /**
+     * Earliest window with the most deals, empty if no deal is ever available.
+     */
+    public Optional<PeakWindow> peak() {
+        return byRank.length == 0 ? Optional.empty() : Optional.of(segment(byRank[0]));
+    }
+
+    /**
+     * The {@code k} windows with the most deals, most deals first and earliest first among equals.
+     * Each window is a stretch of constant deal count, so no two overlap.
+     */
+    public List<PeakWindow> top(int k) {
+        return Arrays.stream(byRank, 0, Math.min(k, byRank.length))
+                .mapToObj(this::segment)
+                .toList();
+    }
+
+    /**
+     * Maximal windows during which at least {@code minDealCount} deals are available, in time order.
+     */
+    public List<PeakWindow> atLeast(int minDealCount) {
+        int threshold = Math.max(1, minDealCount);
+        List<PeakWindow> windows = new ArrayList<>();
+        int i = 0;
+        while (i < counts.length) {
+            if (counts[i] < threshold) {
+                i++;
+                continue;
+            }
+            int first = i;
+            int min = counts[i];
+            int max = counts[i];
+            while (i + 1 < counts.length && counts[i + 1] >= threshold) {
+                i++;
+                min = Math.min(min, counts[i]);
+                max = Math.max(max, counts[i]);
+            }
+            windows.add(new PeakWindow(starts[first], ends[i], min, max));
+            i++;
+        }
+        return windows;
+    }
+
+    private PeakWindow segment(int i) {
+        return new PeakWindow(starts[i], ends[i], counts[i], counts[i]);
+    }
+}
@@ -0,0 +1,20 @@
+package com.eatclub.challenge.snapshot;
+
+/**
+ * Window of the day, read from a snapshot's {@link PeakProfile}. The end minute may be 1440 for a window running
+ * until midnight.
+ *
+ * @param startMinute   first minute of the window
+ * @param endMinute     minute at which the window ends, exclusive
+ * @param dealCount     number of deals available throughout the window
+ * @param maxDealCount  most deals available at any minute of the window
+ */
+public record PeakWindow(int startMinute, int endMinute, int dealCount, int maxDealCount) {
+
+    /**
+     * Length of the window in minutes.
+     */
+    public int length() {
+        return endMinute - startMinute;
+    }
+}
@@ -0,0 +1,436 @@
+package com.eatclub.challenge.snapshot;
+
+import com.eatclub.challenge.model.compact.CompactRestaurant;
+import com.eatclub.challenge.model.compiled.DealRun;
+import com.eatclub.challenge.model.compiled.MinuteRange;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Text index over restaurant names, suburbs and cuisines, for searching deals by what a user types.
+ * <p>
+ * Text is lower-cased and split into words at anything but letters and digits. When the snapshot is built, each
+ * distinct word gets the ascending list of {@link DealRun}s using it, and is itself indexed under its three-character
+ * sequences. A query term of three characters or more matches the words containing it, found by intersecting the
+ * word lists of its trigrams, and the run lists of those few words are merged. A shorter term matches every word
+ * starting with it, possibly thousands, so the merged run list of each one- and two-character prefix is built ahead.
+ * <p>
+ * The terms' run lists are then intersected starting from the shortest, skipping ahead through the longer ones, so a
+ * query costs about the runs of its rarest term rather than the catalog, and only the runs on the requested pages are
+ * put in order. Matches are ranked by how well each term hits: a whole word scores above a word prefix, which scores
+ * above a match inside a word, and the restaurant name counts double. Runs with equal scores keep feed order.
+ */
+public final class RestaurantSearchIndex {
+
+    /**
+     * Minute to pass when matches need not be available at any particular time.
+     */
+    public static final int ANY_TIME = -1;
+
+    /**
+     * Longest query accepted, in characters.
+     */
+    public static final int MAX_QUERY_LENGTH = 100;
+
+    private static final int GRAM = 3;
+    private static final byte NAME_WEIGHT = 2;
+    private static final byte OTHER_WEIGHT = 1;
+    private static final int[] NONE = new int[0];
+    private static final Posting EMPTY = new Posting(NONE, new byte[0]);
+    private static final Pattern NON_WORD = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private final DealRun[] runs;
+    private final String[] words;
+    private final Posting[] postingOfWord;
+    private final Map<Long, int[]> wordsByTrigram;
+    private final Map<String, Posting> postingOfPrefix;
+
+    private RestaurantSearchIndex(DealRun[] runs, String[] words, Posting[] postingOfWord,
+                                  Map<Long, int[]> wordsByTrigram, Map<String, Posting> postingOfPrefix) {
+        this.runs = runs;
+        this.words = words;
+        this.postingOfWord = postingOfWord;
+        this.wordsByTrigram = wordsByTrigram;
+        this.postingOfPrefix = postingOfPrefix;
+    }
+
+    public static RestaurantSearchIndex of(List<DealRun> runs) {
+        DealRun[] indexed = runs.toArray(DealRun[]::new);
+        Map<String, PostingBuilder> builders = new HashMap<>();
+        for (int position = 0; position < indexed.length; position++) {
+            CompactRestaurant restaurant = indexed[position].restaurant().source();
+            // A word in the name takes the name's weight even if it also names the suburb or a cuisine
+            Map<String, Byte> weights = new HashMap<>();
+            addWords(weights, restaurant.suburb(), OTHER_WEIGHT);
+            restaurant.cuisines().forEach(cuisine -> addWords(weights, cuisine, OTHER_WEIGHT));
+            addWords(weights, restaurant.name(), NAME_WEIGHT);
+            int run = position;
+            weights.forEach((word, weight) ->
+                    builders.computeIfAbsent(word, key -> new PostingBuilder()).add(run, weight));
+        }
+
+        String[] words = builders.keySet().toArray(String[]::new);
+        Arrays.sort(words);
+        Posting[] postingOfWord = new Posting[words.length];
+        Map<Long, PositionsBuilder> trigrams = new HashMap<>();
+        Map<String, List<Posting>> prefixes = new HashMap<>();
+        for (int id = 0; id < words.length; id++) {
+            String word = words[id];
+            postingOfWord[id] = builders.get(word).build();
+            Set<Long> grams = new HashSet<>();
+            for (int i = 0; i + GRAM <= word.length(); i++) {
+                grams.add(gram(word, i));
+            }
+            for (Long gram : grams) {
+                trigrams.computeIfAbsent(gram, key -> new PositionsBuilder()).add(id);
+            }
+            for (int length = 1; length < GRAM && length <= word.length(); length++) {
+                String prefix = word.substring(0, length);
+                prefixes.computeIfAbsent(prefix, key -> new ArrayList<>())
+                        .add(postingOfWord[id].scaled(quality(word, prefix)));
+            }
+        }
+        Map<Long, int[]> wordsByTrigram = new HashMap<>(trigrams.size() * 2);
+        trigrams.forEach((gram, ids) -> wordsByTrigram.put(gram, ids.build()));
+        Map<String, Posting> postingOfPrefix = new HashMap<>(prefixes.size() * 2);
+        prefixes.forEach((prefix, postings) -> postingOfPrefix.put(prefix, union(postings)));
+        return new RestaurantSearchIndex(indexed, words, postingOfWord, wordsByTrigram, postingOfPrefix);
+    }
+
+    /**
+     * The same index over the runs of a later snapshot, sharing its words and postings.
+     *
+     * @param runs runs whose restaurants have the same name, suburb and cuisines, and whose windows and deal counts
+     *             are the same, as this index's at every position
+     */
+    public RestaurantSearchIndex withRuns(List<DealRun> runs) {
+        return new RestaurantSearchIndex(runs.toArray(DealRun[]::new), words, postingOfWord, wordsByTrigram,
+                postingOfPrefix);
+    }
+
+    /**
+     * Runs matching every term of the query, best match first.
+     *
+     * @param query  words to look for in restaurant names, suburbs and cuisines
+     * @param minute minute of the day (0 to 1439) the runs must be available at, or {@link #ANY_TIME}
+     * @param limit  number of best matching runs to put in order
+     * @throws IllegalArgumentException if the query is longer than {@link #MAX_QUERY_LENGTH} or has no words
+     */
+    public Matches search(String query, int minute, int limit) {
+        String[] terms = terms(query);
+        Posting[] postings = new Posting[terms.length];
+        for (int t = 0; t < terms.length; t++) {
+            postings[t] = postingOf(terms[t]);
+        }
+        // The rarest term fixes the candidates; the others can only remove some
+        Arrays.sort(postings, Comparator.comparingInt(Posting::size));
+        Posting rarest = postings[0];
+        int[] candidates = Arrays.copyOf(rarest.runs(), rarest.size());
+        int[] score = new int[rarest.size()];
+        for (int i = 0; i < score.length; i++) {
+            score[i] = rarest.points()[i];
+        }
+        int size = candidates.length;
+        for (int t = 1; t < postings.length && size > 0; t++) {
+            size = retainShared(candidates, score, size, postings[t]);
+        }
+
+        long[] keys = new long[size];
+        int count = 0;
+        int dealCount = 0;
+        for (int i = 0; i < size; i++) {
+            int run = candidates[i];
+            if (minute == ANY_TIME || isAvailable(runs[run], minute)) {
+                // Negated score in the high half so ascending keys put the best first, ties in feed order
+                keys[count++] = ((long) -score[i] << 32) | run;
+                dealCount += runs[run].deals().size();
+            }
+        }
+        long[] best = SmallestKeys.of(keys, count, limit);
+        int[] ranked = new int[best.length];
+        for (int i = 0; i < best.length; i++) {
+            ranked[i] = (int) best[i];
+        }
+        return new Matches(ranked, count, dealCount);
+    }
+
+    /**
+     * Run at the given position, as returned in {@link Matches#runs()}.
+     */
+    public DealRun runAt(int position) {
+        return runs[position];
+    }
+
+    /**
+     * Lower-cases the text and separates its words with single spaces, or returns an empty string if it has none.
+     */
+    static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        return NON_WORD.matcher(text.toLowerCase(Locale.ROOT)).replaceAll(" ").strip();
+    }
+
+    private static String[] terms(String query) {
+        if (query != null && query.length() > MAX_QUERY_LENGTH) {
+            throw new IllegalArgumentException("q must be at most " + MAX_QUERY_LENGTH + " characters");
+        }
+        String normalized = normalize(query);
+        if (normalized.isEmpty()) {
+            throw new IllegalArgumentException("q must contain at least one letter or digit");
+        }
+        return new LinkedHashSet<>(Arrays.asList(normalized.split(" "))).toArray(String[]::new);
+    }
+
+    /**
+     * Runs of the words a term matches, with the points of its best word in each: words starting with the term for
+     * terms under three characters, otherwise words containing it.
+     */
+    private Posting postingOf(String term) {
+        if (term.length() < GRAM) {
+            return postingOfPrefix.getOrDefault(term, EMPTY);
+        }
+        List<int[]> candidates = new ArrayList<>(term.length() - GRAM + 1);
+        for (int i = 0; i + GRAM <= term.length(); i++) {
+            int[] ids = wordsByTrigram.get(gram(term, i));
+            if (ids == null) {
+                return EMPTY;
+            }
+            candidates.add(ids);
+        }
+        candidates.sort(Comparator.comparingInt(ids -> ids.length));
+        int[] ids = candidates.get(0);
+        for (int i = 1; i < candidates.size() && ids.length > 0; i++) {
+            ids = intersect(ids, candidates.get(i));
+        }
+        List<Posting> matching = new ArrayList<>(ids.length);
+        for (int id : ids) {
+            // Sharing every trigram does not make the term a substring, so each word is checked
+            if (words[id].contains(term)) {
+                matching.add(postingOfWord[id].scaled(quality(words[id], term)));
+            }
+        }
+        return union(matching);
+    }
+
+    /**
+     * 3 if the word is the term, 2 if it starts with it and 1 if it contains it elsewhere.
+     */
+    private static int quality(String word, String term) {
+        if (word.equals(term)) {
+            return 3;
+        }
+        return word.startsWith(term) ? 2 : 1;
+    }
+
+    /**
+     * Keeps the first {@code size} candidates that the posting also has, adding its points to their scores.
+     *
+     * @return number of candidates kept, moved to the front of the arrays
+     */
+    private static int retainShared(int[] candidates, int[] score, int size, Posting posting) {
+        int[] others = posting.runs();
+        int kept = 0;
+        int from = 0;
+        for (int i = 0; i < size; i++) {
+            from = skipTo(others, from, candidates[i]);
+            if (from == others.length) {
+                break;
+            }
+            if (others[from] == candidates[i]) {
+                candidates[kept] = candidates[i];
+                score[kept] = score[i] + posting.points()[from];
+                kept++;
+            }
+        }
+        return kept;
+    }
+
+    /**
+     * First index from {@code from} on holding a value of at least {@code target}, or the length if there is none.
+     * Steps double in size until they pass the target, so skipping k values costs O(log k).
+     */
+    private static int skipTo(int[] sorted, int from, int target) {
+        if (from >= sorted.length || sorted[from] >= target) {
+            return from;
+        }
+        int below = from;
+        int step = 1;
+        while (below + step < sorted.length && sorted[below + step] < target) {
+            below += step;
+            step <<= 1;
+        }
+        int found = Arrays.binarySearch(sorted, below + 1, Math.min(below + step, sorted.length), target);
+        return found >= 0 ? found : -found - 1;
+    }
+
+    /**
+     * Runs in any of the postings, each with its highest points among them.
+     */
+    private static Posting union(List<Posting> postings) {
+        if (postings.isEmpty()) {
+            return EMPTY;
+        }
+        // Merging in pairs keeps every run's cost to the logarithm of the number of postings
+        List<Posting> merged = postings;
+        while (merged.size() > 1) {
+            List<Posting> next = new ArrayList<>((merged.size() + 1) / 2);
+            for (int i = 0; i < merged.size(); i += 2) {
+                next.add(i + 1 < merged.size() ? union(merged.get(i), merged.get(i + 1)) : merged.get(i));
+            }
+            merged = next;
+        }
+        return merged.get(0);
+    }
+
+    private static Posting union(Posting a, Posting b) {
+        int[] runs = new int[a.size() + b.size()];
+        byte[] points = new byte[runs.length];
+        int count = 0;
+        int i = 0;
+        int j = 0;
+        while (i < a.size() || j < b.size()) {
+            if (j == b.size() || (i < a.size() && a.runs()[i] < b.runs()[j])) {
+                runs[count] = a.runs()[i];
+                points[count++] = a.points()[i++];
+            } else if (i == a.size() || b.runs()[j] < a.runs()[i]) {
+                runs[count] = b.runs()[j];
+                points[count++] = b.points()[j++];
+            } else {
+                runs[count] = a.runs()[i];
+                points[count++] = (byte) Math.max(a.points()[i++], b.points()[j++]);
+            }
+        }
+        return new Posting(Arrays.copyOf(runs, count), Arrays.copyOf(points, count));
+    }
+
+    private static void addWords(Map<String, Byte> weights, String text, byte weight) {
+        String normalized = normalize(text);
+        if (normalized.isEmpty()) {
+            return;
+        }
+        for (String word : normalized.split(" ")) {
+            weights.merge(word, weight, (a, b) -> (byte) Math.max(a, b));
+        }
+    }
+
+    /**
+     * The three characters at {@code from}, packed 16 bits each.
+     */
+    private static long gram(String text, int from) {
+        return ((long) text.charAt(from) << 32) | ((long) text.charAt(from + 1) << 16) | text.charAt(from + 2);
+    }
+
+    private static int[] intersect(int[] a, int[] b) {
+        int[] common = new int[Math.min(a.length, b.length)];
+        int count = 0;
+        int i = 0;
+        int j = 0;
+        while (i < a.length && j < b.length) {
+            if (a[i] < b[j]) {
+                i++;
+            } else if (a[i] > b[j]) {
+                j++;
+            } else {
+                common[count++] = a[i];
+                i++;
+                j++;
+            }
+        }
+        return Arrays.copyOf(common, count);
+    }
+
+    private static boolean isAvailable(DealRun run, int minute) {
+        for (MinuteRange range : run.available()) {
+            if (range.first() <= minute && minute <= range.last()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Result of a search.
+     *
+     * @param runs      positions of the best matching runs, best first, up to the limit asked for
+     * @param runCount  number of runs matching
+     * @param dealCount number of deals in all matching runs
+     */
+    public record Matches(int[] runs, int runCount, int dealCount) {
+    }
+
+    /**
+     * Ascending runs and the points each of them scores.
+     */
+    private record Posting(int[] runs, byte[] points) {
+
+        int size() {
+            return runs.length;
+        }
+
+        /**
+         * The same runs, with points multiplied by the quality of a term's match.
+         */
+        Posting scaled(int quality) {
+            byte[] scaled = new byte[points.length];
+            for (int i = 0; i < points.length; i++) {
+                scaled[i] = (byte) (points[i] * quality);
+            }
+            return new Posting(runs, scaled);
+        }
+    }
+
+    /**
+     * Runs using one word and the weight of the field it appears in, built in ascending run order.
+     */
+    private static final class PostingBuilder {
+
+        private int[] runs = new int[4];
+        private byte[] weights = new byte[4];
+        private int size;
+
+        void add(int run, byte weight) {
+            if (size == runs.length) {
+                runs = Arrays.copyOf(runs, size * 2);
+                weights = Arrays.copyOf(weights, size * 2);
+            }
+            runs[size] = run;
+            weights[size] = weight;
+            size++;
+        }
+
+        Posting build() {
+            return new Posting(Arrays.copyOf(runs, size), Arrays.copyOf(weights, size));
+        }
+    }
+
+    /**
+     * Growable list of positions.
+     */
+    private static final class PositionsBuilder {
+
+        private int[] values = new int[4];
+        private int size;
+
+        void add(int position) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = position;
+        }
+
+        int[] build() {
+            return Arrays.copyOf(values, size);
+        }
+    }
+}
@@ -0,0 +1,168 @@
+package com.eatclub.challenge.snapshot;
+
+import com.eatclub.challenge.model.DealFilter;
+import com.eatclub.challenge.model.compact.CompactRestaurant;
+import com.eatclub.challenge.model.compiled.DealRun;
+import lombok.Getter;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Immutable view of the restaurant feed at a point in time.
+ * Readers hold on to a snapshot for the duration of a request.
+ */
+@Getter
+public final class RestaurantSnapshot {
+
+    private final long version;
+    private final Instant fetchedAt;
+    private final List<CompactRestaurant> restaurants;
+    private final CompiledCatalog catalog;
+    private final DealTimeline timeline;
+    private final ActiveDealIndex activeDealIndex;
+    private final DealIntervalTree dealIntervalTree;
+    private final DealPostings dealPostings;
+    private final DealOrderings dealOrderings;
+    private final RestaurantSearchIndex searchIndex;
+    private final PeakProfile peakProfile;
+    private final DealFacets dealFacets;
+
+    private RestaurantSnapshot(long version, Instant fetchedAt, List<CompactRestaurant> restaurants,
+                               CompiledCatalog catalog, DealTimeline timeline, Indexes indexes,
+                               Instant computedAt, DealFacets dealFacets) {
+        this.version = version;
+        this.fetchedAt = fetchedAt;
+        this.restaurants = List.copyOf(restaurants);
+        this.catalog = catalog;
+        this.timeline = timeline;
+        this.activeDealIndex = indexes.activeDealIndex();
+        this.dealIntervalTree = indexes.dealIntervalTree();
+        this.dealPostings = indexes.dealPostings();
+        this.dealOrderings = indexes.dealOrderings();
+        this.searchIndex = indexes.searchIndex();
+        // The answer only changes with the data, so it is computed here rather than per request
+        this.peakProfile = PeakProfile.of(timeline, computedAt);
+        this.dealFacets = dealFacets;
+    }
+
+    public static RestaurantSnapshot of(long version, Instant fetchedAt, List<CompactRestaurant> restaurants) {
+        CompiledCatalog catalog = CompiledCatalog.of(restaurants);
+        Instant computedAt = Instant.now();
+        return new RestaurantSnapshot(version, fetchedAt, restaurants, catalog,
+                DealTimeline.of(catalog.getDealRuns()), Indexes.of(catalog.getDealRuns()), computedAt,
+                DealFacets.of(catalog.getDealRuns(), computedAt));
+    }
+
+    /**
+     * Builds the next snapshot from a diff against this one. The compiled catalog, the deal timeline and the facets
+     * are derived from the changes only. The position-keyed indexes are shared or patched when every run keeps its
+     * position, window and deal count, as when only deal values or restaurant details change; an added, removed or
+     * moved run shifts the positions after it, so they are then rebuilt.
+     */
+    public RestaurantSnapshot next(long version, Instant fetchedAt, SnapshotDiff diff) {
+        CompiledCatalog nextCatalog = catalog.next(diff);
+        int[] changedRuns = changedRunPositions(diff, nextCatalog);
+        Indexes indexes = changedRuns != null
+                ? new Indexes(activeDealIndex, dealIntervalTree, dealPostings, dealOrderings, searchIndex)
+                        .apply(diff, catalog, nextCatalog, changedRuns)
+                : Indexes.of(nextCatalog.getDealRuns());
+        Instant computedAt = Instant.now();
+        return new RestaurantSnapshot(version, fetchedAt, diff.restaurants(), nextCatalog,
+                timeline.apply(diff, catalog, nextCatalog), indexes, computedAt,
+                dealFacets.apply(diff, catalog, nextCatalog, computedAt));
+    }
+
+    /**
+     * Deal counts of the day for the deals the filter matches; the snapshot's own profile when it matches every deal.
+     */
+    public PeakProfile peakProfile(DealFilter filter) {
+        return filter.isEmpty() ? peakProfile : dealFacets.profile(filter);
+    }
+
+    /**
+     * Age of this snapshot relative to the given instant.
+     */
+    public Duration age(Instant now) {
+        return Duration.between(fetchedAt, now);
+    }
+
+    /**
+     * Positions of the runs of changed restaurants when the diff keeps every run's position, available window and
+     * deal count, or null when the runs' layout changes.
+     */
+    private int[] changedRunPositions(SnapshotDiff diff, CompiledCatalog nextCatalog) {
+        if (diff.fullRebuild() || diff.reordered() || !diff.added().isEmpty() || !diff.removed().isEmpty()) {
+            return null;
+        }
+        Set<CompactRestaurant> changed = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (SnapshotDiff.Change change : diff.changed()) {
+            List<DealRun> before = catalog.runs(change.previous());
+            List<DealRun> after = nextCatalog.runs(change.current());
+            if (before.size() != after.size()) {
+                return null;
+            }
+            for (int i = 0; i < before.size(); i++) {
+                if (!before.get(i).available().equals(after.get(i).available())
+                        || before.get(i).deals().size() != after.get(i).deals().size()) {
+                    return null;
+                }
+            }
+            changed.add(change.current());
+        }
+
+        // Positions follow the restaurants in feed order, so finding them walks the list once
+        int[] positions = new int[diff.changed().size()];
+        int count = 0;
+        int position = 0;
+        for (CompactRestaurant restaurant : diff.restaurants()) {
+            int runs = nextCatalog.runs(restaurant).size();
+            if (changed.contains(restaurant)) {
+                for (int i = 0; i < runs; i++) {
+                    if (count == positions.length) {
+                        positions = Arrays.copyOf(positions, count * 2);
+                    }
+                    positions[count++] = position + i;
+                }
+            }
+            position += runs;
+        }
+        return Arrays.copyOf(positions, count);
+    }
+
+    /**
+     * Indexes keyed by run position, built or carried over together.
+     */
+    private record Indexes(ActiveDealIndex activeDealIndex, DealIntervalTree dealIntervalTree,
+                           DealPostings dealPostings, DealOrderings dealOrderings, RestaurantSearchIndex searchIndex) {
+
+        static Indexes of(List<DealRun> runs) {
+            DealPostings dealPostings = DealPostings.of(runs);
+            return new Indexes(ActiveDealIndex.of(runs), DealIntervalTree.of(runs), dealPostings,
+                    DealOrderings.of(dealPostings), RestaurantSearchIndex.of(runs));
+        }
+
+        /**
+         * Carries the indexes over to a catalog whose runs keep their positions, windows and deal counts: the
+         * window indexes are shared, the postings and orderings are patched for the changed runs, and the search
+         * index is shared unless a changed restaurant's name, suburb or cuisines differ.
+         */
+        Indexes apply(SnapshotDiff diff, CompiledCatalog previous, CompiledCatalog next, int[] changedRuns) {
+            List<DealRun> runs = next.getDealRuns();
+            DealPostings nextPostings = dealPostings.apply(runs, changedRuns);
+            boolean sameText = diff.changed().stream().allMatch(change ->
+                    Objects.equals(change.previous().name(), change.current().name())
+                            && Objects.equals(change.previous().suburb(), change.current().suburb())
+                            && Objects.equals(change.previous().cuisines(), change.current().cuisines()));
+            return new Indexes(activeDealIndex.withRuns(runs), dealIntervalTree.withRuns(runs), nextPostings,
+                    dealOrderings.apply(dealPostings, nextPostings, changedRuns),
+                    sameText ? searchIndex.withRuns(runs) : RestaurantSearchIndex.of(runs));
+        }
+    }
+}
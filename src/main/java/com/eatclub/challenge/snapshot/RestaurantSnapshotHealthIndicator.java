@@ -0,0 +1,45 @@
+package com.eatclub.challenge.snapshot;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+
+/**
+ * Reports the version and age of the restaurant snapshot.
+ * A stale snapshot is still UP because it keeps being served; only a missing snapshot is DOWN.
+ */
+@Component("restaurantSnapshot")
+@RequiredArgsConstructor
+public class RestaurantSnapshotHealthIndicator implements HealthIndicator {
+
+    private final RestaurantSnapshotStore snapshotStore;
+
+    @Override
+    public Health health() {
+        Health.Builder builder = snapshotStore.peek()
+                .map(snapshot -> Health.up()
+                        .withDetail("version", snapshot.getVersion())
+                        .withDetail("restaurants", snapshot.getRestaurants().size())
+                        .withDetail("quarantined", snapshot.getCatalog().getQuarantined().size())
+                        .withDetail("fetchedAt", snapshot.getFetchedAt())
+                        .withDetail("ageSeconds", snapshot.age(Instant.now()).toSeconds()))
+                .orElseGet(Health::down);
+
+        builder.withDetail("stale", snapshotStore.isStale())
+                .withDetail("consecutiveFailures", snapshotStore.getConsecutiveFailures());
+
+        if (snapshotStore.getLastVerifiedAt() != null) {
+            builder.withDetail("lastVerifiedAt", snapshotStore.getLastVerifiedAt());
+        }
+        if (snapshotStore.getLastRefreshAttempt() != null) {
+            builder.withDetail("lastRefreshAttempt", snapshotStore.getLastRefreshAttempt());
+        }
+        if (snapshotStore.getLastError() != null) {
+            builder.withDetail("lastError", snapshotStore.getLastError());
+        }
+        return builder.build();
+    }
+}
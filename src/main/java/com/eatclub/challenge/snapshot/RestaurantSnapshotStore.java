@@ -0,0 +1,322 @@
+package com.eatclub.challenge.snapshot;
+
+import com.eatclub.challenge.client.FeedUpdate;
+import com.eatclub.challenge.client.RestaurantDataSource;
+import com.eatclub.challenge.config.SnapshotProperties;
+import com.eatclub.challenge.exception.RestaurantDataException;
+import com.eatclub.challenge.model.compact.CompactRestaurant;
+import com.eatclub.challenge.model.compiled.QuarantinedRecord;
+import com.eatclub.challenge.util.SingleFlight;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Stream;
+
+/**
+ * Holds the current restaurant snapshot and refreshes it in the background.
+ * Readers never touch the network; when a refresh fails the last good snapshot keeps being served.
+ * Concurrent refreshes (schedule, file watcher, startup) are coalesced into a single fetch, and readers
+ * arriving before the first snapshot wait for the initial load instead of failing. When a persist path is
+ * configured, every installed snapshot is written to disk and restored on the next start, so a restarted
+ * node serves immediately and reconciles with the feed in the background. The few most recent snapshots stay
+ * readable by version so that paginated reads pinned to one do not shift when a refresh lands mid-way.
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class RestaurantSnapshotStore implements MeterBinder {
+
+    private static final int MAX_LOGGED_QUARANTINED = 10;
+
+    private final RestaurantDataSource dataSource;
+    private final SnapshotProperties properties;
+
+    private final AtomicReference<RestaurantSnapshot> current = new AtomicReference<>();
+    private final AtomicReference<List<RestaurantSnapshot>> retained = new AtomicReference<>(List.of());
+    private final AtomicInteger consecutiveFailures = new AtomicInteger();
+    private final SingleFlight<Boolean> refreshFlight = new SingleFlight<>();
+
+    private volatile Instant lastRefreshAttempt;
+    private volatile Instant lastVerifiedAt;
+    private volatile String lastError;
+
+    /**
+     * Returns the latest snapshot, waiting up to the configured initial load wait for a load in flight if none has
+     * been installed yet.
+     *
+     * @return current snapshot
+     * @throws RestaurantDataException if no snapshot has been loaded yet
+     */
+    public RestaurantSnapshot current() {
+        RestaurantSnapshot snapshot = current.get();
+        if (snapshot == null) {
+            refreshFlight.inFlight().ifPresent(this::awaitInitialLoad);
+            snapshot = current.get();
+        }
+        if (snapshot == null) {
+            throw new RestaurantDataException("Restaurant data is not available yet");
+        }
+        return snapshot;
+    }
+
+    /**
+     * Non-blocking variant of {@link #current()}: completes once a load in flight has finished, or the initial load
+     * wait has passed, instead of waiting on the calling thread, so it is safe to use on event-loop threads.
+     *
+     * @return current snapshot, or an error signal with {@link RestaurantDataException}
+     */
+    public Mono<RestaurantSnapshot> currentReactive() {
+        return Mono.defer(() -> {
+            RestaurantSnapshot snapshot = current.get();
+            if (snapshot != null) {
+                return Mono.just(snapshot);
+            }
+            Mono<Boolean> load = refreshFlight.inFlight()
+                    .map(inFlight -> Mono.fromFuture(inFlight, true)
+                            .timeout(properties.getInitialLoadWait(), Mono.empty()))
+                    .orElseGet(Mono::empty);
+            return load.then(Mono.fromSupplier(current::get))
+                    .switchIfEmpty(Mono.error(() ->
+                            new RestaurantDataException("Restaurant data is not available yet")));
+        });
+    }
+
+    /**
+     * Returns the latest snapshot if one has been loaded.
+     */
+    public Optional<RestaurantSnapshot> peek() {
+        return Optional.ofNullable(current.get());
+    }
+
+    /**
+     * Returns the snapshot with the given version if it is current or one of the recently replaced ones still
+     * retained. Never waits for a load.
+     */
+    public Optional<RestaurantSnapshot> find(long version) {
+        return retained.get().stream()
+                .filter(snapshot -> snapshot.getVersion() == version)
+                .findFirst();
+    }
+
+    /**
+     * Restores the snapshot persisted by a previous run, if any. A missing, corrupt or incompatible file
+     * is logged and ignored; the initial refresh then loads from the feed as usual.
+     * The restored snapshot is not marked verified, so it reports stale until the feed confirms it.
+     */
+    @PostConstruct
+    public void restorePersistedSnapshot() {
+        Path path = properties.getPersistPath();
+        if (path == null || !Files.exists(path)) {
+            return;
+        }
+        try {
+            RestaurantSnapshot restored = SnapshotFileCodec.read(path);
+            if (current.compareAndSet(null, restored)) {
+                retain(restored);
+                log.info("Restored restaurant snapshot v{} with {} restaurants fetched at {} from {}",
+                        restored.getVersion(), restored.getRestaurants().size(), restored.getFetchedAt(), path);
+            }
+        } catch (IOException | RuntimeException e) {
+            log.warn("Ignoring persisted restaurant snapshot {}: {}", path, e.getMessage());
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadInitialSnapshot() {
+        refresh();
+    }
+
+    @Scheduled(fixedDelayString = "${eatclub.snapshot.refresh-interval:60s}",
+            initialDelayString = "${eatclub.snapshot.refresh-interval:60s}")
+    public void scheduledRefresh() {
+        refresh();
+    }
+
+    /**
+     * Fetches the feed and swaps in a new snapshot if it changed.
+     * Failures are recorded and the previous snapshot is kept. Callers arriving while a refresh is
+     * in flight share its outcome instead of fetching again.
+     *
+     * @return true if a new snapshot was installed
+     */
+    public boolean refresh() {
+        return refreshFlight.execute(this::doRefresh);
+    }
+
+    private boolean doRefresh() {
+        lastRefreshAttempt = Instant.now();
+        try {
+            Optional<FeedUpdate> changed = dataSource.fetchRestaurantsIfChanged();
+            RestaurantSnapshot previous = current.get();
+            if (changed.isEmpty() && previous != null) {
+                markVerified();
+                log.debug("Restaurant feed unchanged, keeping snapshot v{}", previous.getVersion());
+                return false;
+            }
+
+            FeedUpdate update = changed.orElseGet(dataSource::fetchRestaurants);
+            List<CompactRestaurant> restaurants = update.restaurants();
+            if (previous == null) {
+                return install(RestaurantSnapshot.of(1, Instant.now(), restaurants), update, "initial load");
+            }
+
+            SnapshotDiff diff = SnapshotDiff.between(previous.getRestaurants(), restaurants);
+            if (diff.isEmpty()) {
+                update.commit();
+                markVerified();
+                log.info("Restaurant feed matches snapshot v{}, keeping it", previous.getVersion());
+                return false;
+            }
+            return install(previous.next(previous.getVersion() + 1, Instant.now(), diff), update, diff.toString());
+        } catch (Exception e) {
+            int failures = consecutiveFailures.incrementAndGet();
+            lastError = e.getMessage();
+            log.warn("Snapshot refresh failed ({} consecutive), serving {}: {}",
+                    failures, describeCurrent(), e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Whether the snapshot has not been confirmed against the feed within the configured stale threshold.
+     */
+    public boolean isStale() {
+        Instant verifiedAt = lastVerifiedAt;
+        return current.get() == null || verifiedAt == null
+                || Duration.between(verifiedAt, Instant.now()).compareTo(properties.getStaleAfter()) > 0;
+    }
+
+    public Instant getLastRefreshAttempt() {
+        return lastRefreshAttempt;
+    }
+
+    public Instant getLastVerifiedAt() {
+        return lastVerifiedAt;
+    }
+
+    public String getLastError() {
+        return lastError;
+    }
+
+    public int getConsecutiveFailures() {
+        return consecutiveFailures.get();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("restaurant.refresh.executions", refreshFlight, SingleFlight::getExecutions)
+                .description("Snapshot refreshes that fetched the feed")
+                .register(registry);
+        FunctionCounter.builder("restaurant.refresh.coalesced", refreshFlight, SingleFlight::getCoalesced)
+                .description("Refresh callers that joined a fetch already in flight")
+                .register(registry);
+        Gauge.builder("restaurant.refresh.in.flight", refreshFlight, flight -> flight.inFlight().isPresent() ? 1 : 0)
+                .description("Whether a snapshot refresh is currently running")
+                .register(registry);
+        Gauge.builder("restaurant.snapshot.quarantined", current,
+                        ref -> ref.get() != null ? ref.get().getCatalog().getQuarantined().size() : 0)
+                .description("Restaurants and deals in the current snapshot rejected by ingest validation")
+                .register(registry);
+    }
+
+    /**
+     * Swaps in the snapshot and only then commits the update it was built from, so a feed whose snapshot failed to
+     * compile is fetched again rather than skipped as unchanged.
+     */
+    private boolean install(RestaurantSnapshot snapshot, FeedUpdate update, String changes) {
+        current.set(snapshot);
+        retain(snapshot);
+        update.commit();
+        markVerified();
+        persist(snapshot);
+
+        log.info("Installed restaurant snapshot v{} with {} restaurants from {} ({})",
+                snapshot.getVersion(), snapshot.getRestaurants().size(), dataSource.describe(), changes);
+        logQuarantined(snapshot);
+        return true;
+    }
+
+    private void retain(RestaurantSnapshot snapshot) {
+        int limit = Math.max(1, properties.getRetainedVersions());
+        retained.updateAndGet(snapshots -> Stream.concat(Stream.of(snapshot), snapshots.stream())
+                .limit(limit)
+                .toList());
+    }
+
+    private void logQuarantined(RestaurantSnapshot snapshot) {
+        List<QuarantinedRecord> quarantined = snapshot.getCatalog().getQuarantined();
+        if (quarantined.isEmpty()) {
+            return;
+        }
+        log.warn("Quarantined {} invalid records in snapshot v{}", quarantined.size(), snapshot.getVersion());
+        quarantined.stream()
+                .limit(MAX_LOGGED_QUARANTINED)
+                .forEach(record -> log.warn("Quarantined restaurant {}{}: {}", record.restaurantObjectId(),
+                        record.dealObjectId() != null ? " deal " + record.dealObjectId() : "", record.reason()));
+    }
+
+    private void persist(RestaurantSnapshot snapshot) {
+        Path path = properties.getPersistPath();
+        if (path == null) {
+            return;
+        }
+        try {
+            SnapshotFileCodec.write(snapshot, path);
+        } catch (IOException e) {
+            log.warn("Unable to persist restaurant snapshot v{} to {}: {}",
+                    snapshot.getVersion(), path, e.getMessage());
+        }
+    }
+
+    /**
+     * Waits for the load in flight for at most the initial load wait. A load that fails or takes longer leaves the
+     * caller without a snapshot; the load itself keeps running and records its own outcome.
+     */
+    private void awaitInitialLoad(CompletableFuture<Boolean> load) {
+        Duration wait = properties.getInitialLoadWait();
+        try {
+            load.get(wait.toNanos(), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            log.warn("Initial restaurant snapshot still loading after {}, refusing request", wait);
+        } catch (ExecutionException e) {
+            log.debug("Initial restaurant snapshot load failed: {}", e.getCause().getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void markVerified() {
+        lastVerifiedAt = Instant.now();
+        consecutiveFailures.set(0);
+        lastError = null;
+    }
+
+    private String describeCurrent() {
+        return peek()
+                .map(snapshot -> "snapshot v" + snapshot.getVersion() + " from " + snapshot.getFetchedAt())
+                .orElse("no snapshot");
+    }
+}
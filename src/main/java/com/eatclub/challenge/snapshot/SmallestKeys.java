@@ -0,0 +1,103 @@
+package com.eatclub.challenge.snapshot;
+
+import java.util.Arrays;
+
+/**
+ * Selects the smallest of a set of packed sort keys, for queries that only need the first page in order.
+ * <p>
+ * Keys can be given all at once to {@link #of}, or offered one at a time to an instance, which keeps them in a heap
+ * of at most the wanted count, grown as keys arrive, so a page of n offered keys costs O(n log count) and O(count)
+ * memory.
+ */
+final class SmallestKeys {
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    private final int count;
+    private long[] heap;
+    private int size;
+
+    SmallestKeys(int count) {
+        this.count = Math.max(count, 0);
+        this.heap = new long[Math.min(this.count, INITIAL_CAPACITY)];
+    }
+
+    /**
+     * Keeps the key if it is among the {@code count} smallest offered so far.
+     */
+    void offer(long key) {
+        if (size < count) {
+            if (size == heap.length) {
+                heap = Arrays.copyOf(heap, (int) Math.min(count, heap.length * 2L));
+            }
+            // Sift up towards the root, which holds the largest key kept
+            int index = size++;
+            while (index > 0 && heap[(index - 1) / 2] < key) {
+                heap[index] = heap[(index - 1) / 2];
+                index = (index - 1) / 2;
+            }
+            heap[index] = key;
+        } else if (count > 0 && key < heap[0]) {
+            heap[0] = key;
+            siftDown(heap, 0, size);
+        }
+    }
+
+    /**
+     * The kept keys in ascending order.
+     */
+    long[] sorted() {
+        long[] sorted = Arrays.copyOf(heap, size);
+        Arrays.sort(sorted);
+        return sorted;
+    }
+
+    /**
+     * The {@code count} smallest of the first {@code size} keys, in ascending order.
+     * A heap holding at most {@code count} keys is used while few are wanted, so selection costs
+     * O(size log count); when most are wanted anyway, all of them are sorted instead.
+     * The keys array may be reordered.
+     */
+    static long[] of(long[] keys, int size, int count) {
+        count = Math.min(count, size);
+        if (count <= 0) {
+            return new long[0];
+        }
+        long[] smallest;
+        if (count * 2L >= size) {
+            Arrays.sort(keys, 0, size);
+            smallest = Arrays.copyOf(keys, count);
+        } else {
+            smallest = Arrays.copyOf(keys, count);
+            for (int i = count / 2 - 1; i >= 0; i--) {
+                siftDown(smallest, i, count);
+            }
+            // The root is the largest key kept so far
+            for (int i = count; i < size; i++) {
+                if (keys[i] < smallest[0]) {
+                    smallest[0] = keys[i];
+                    siftDown(smallest, 0, count);
+                }
+            }
+            Arrays.sort(smallest);
+        }
+        return smallest;
+    }
+
+    private static void siftDown(long[] heap, int index, int size) {
+        long key = heap[index];
+        int half = size / 2;
+        while (index < half) {
+            int child = 2 * index + 1;
+            if (child + 1 < size && heap[child + 1] > heap[child]) {
+                child++;
+            }
+            if (key >= heap[child]) {
+                break;
+            }
+            heap[index] = heap[child];
+            index = child;
+        }
+        heap[index] = key;
+    }
+}
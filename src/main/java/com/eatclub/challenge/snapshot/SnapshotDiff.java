@@ -0,0 +1,134 @@
+package com.eatclub.challenge.snapshot;
+
+import com.eatclub.challenge.model.compact.CompactDeal;
+import com.eatclub.challenge.model.compact.CompactRestaurant;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Difference between the restaurants of a snapshot and a newly fetched feed, keyed by {@code objectId}.
+ * <p>
+ * {@link #restaurants()} is the fetched list in feed order, with every unchanged restaurant replaced by the
+ * instance already held in the previous snapshot, so an update only allocates what actually changed.
+ * When object ids are missing or repeated the feed cannot be matched reliably and the diff is marked as a
+ * full rebuild instead.
+ */
+public record SnapshotDiff(
+        List<CompactRestaurant> restaurants,
+        List<CompactRestaurant> added,
+        List<CompactRestaurant> removed,
+        List<Change> changed,
+        int dealsAdded,
+        int dealsRemoved,
+        int dealsChanged,
+        boolean reordered,
+        boolean fullRebuild
+) {
+
+    /**
+     * A restaurant present in both lists whose content differs.
+     */
+    public record Change(CompactRestaurant previous, CompactRestaurant current) {
+    }
+
+    public static SnapshotDiff between(List<CompactRestaurant> previous, List<CompactRestaurant> fetched) {
+        Map<String, CompactRestaurant> previousById = indexById(previous);
+        Map<String, CompactRestaurant> fetchedById = indexById(fetched);
+        if (previousById == null || fetchedById == null) {
+            return new SnapshotDiff(fetched, fetched, previous, List.of(), 0, 0, 0, false, true);
+        }
+
+        List<CompactRestaurant> restaurants = new ArrayList<>(fetched.size());
+        List<CompactRestaurant> added = new ArrayList<>();
+        List<Change> changed = new ArrayList<>();
+        int dealsAdded = 0;
+        int dealsRemoved = 0;
+        int dealsChanged = 0;
+        boolean reordered = previous.size() != fetched.size();
+
+        for (int i = 0; i < fetched.size(); i++) {
+            CompactRestaurant restaurant = fetched.get(i);
+            CompactRestaurant existing = previousById.get(restaurant.objectId());
+            reordered |= i < previous.size() && previous.get(i) != existing;
+            if (existing == null) {
+                added.add(restaurant);
+                dealsAdded += restaurant.deals().size();
+                restaurants.add(restaurant);
+            } else if (existing.equals(restaurant)) {
+                restaurants.add(existing);
+            } else {
+                changed.add(new Change(existing, restaurant));
+                DealCounts deals = DealCounts.between(existing.deals(), restaurant.deals());
+                dealsAdded += deals.added();
+                dealsRemoved += deals.removed();
+                dealsChanged += deals.changed();
+                restaurants.add(restaurant);
+            }
+        }
+
+        List<CompactRestaurant> removed = new ArrayList<>();
+        for (CompactRestaurant restaurant : previous) {
+            if (!fetchedById.containsKey(restaurant.objectId())) {
+                removed.add(restaurant);
+                dealsRemoved += restaurant.deals().size();
+            }
+        }
+
+        return new SnapshotDiff(restaurants, added, removed, changed,
+                dealsAdded, dealsRemoved, dealsChanged, reordered, false);
+    }
+
+    /**
+     * Whether the fetched feed matches the previous snapshot exactly, including restaurant order.
+     */
+    public boolean isEmpty() {
+        return !fullRebuild && !reordered && added.isEmpty() && removed.isEmpty() && changed.isEmpty();
+    }
+
+    @Override
+    public String toString() {
+        if (fullRebuild) {
+            return "full rebuild of " + restaurants.size() + " restaurants";
+        }
+        return String.format("%d added, %d removed, %d changed restaurants; %d added, %d removed, %d changed deals",
+                added.size(), removed.size(), changed.size(), dealsAdded, dealsRemoved, dealsChanged);
+    }
+
+    private static Map<String, CompactRestaurant> indexById(List<CompactRestaurant> restaurants) {
+        Map<String, CompactRestaurant> byId = new HashMap<>(restaurants.size() * 2);
+        for (CompactRestaurant restaurant : restaurants) {
+            if (restaurant.objectId() == null || byId.putIfAbsent(restaurant.objectId(), restaurant) != null) {
+                return null;
+            }
+        }
+        return byId;
+    }
+
+    private record DealCounts(int added, int removed, int changed) {
+
+        static DealCounts between(List<CompactDeal> previous, List<CompactDeal> current) {
+            Map<String, CompactDeal> previousById = new HashMap<>();
+            previous.forEach(deal -> previousById.put(deal.objectId(), deal));
+
+            int added = 0;
+            int changed = 0;
+            Set<String> seen = new HashSet<>();
+            for (CompactDeal deal : current) {
+                seen.add(deal.objectId());
+                CompactDeal existing = previousById.get(deal.objectId());
+                if (existing == null) {
+                    added++;
+                } else if (!existing.equals(deal)) {
+                    changed++;
+                }
+            }
+            int removed = (int) previousById.keySet().stream().filter(id -> !seen.contains(id)).count();
+            return new DealCounts(added, removed, changed);
+        }
+    }
+}
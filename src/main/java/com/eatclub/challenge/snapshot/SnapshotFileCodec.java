@@ -0,0 +1,234 @@
+package com.eatclub.challenge.snapshot;
+
+import com.eatclub.challenge.model.compact.CompactDeal;
+import com.eatclub.challenge.model.compact.CompactRestaurant;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+/**
+ * Reads and writes {@link RestaurantSnapshot}s in a compact binary format.
+ * <p>
+ * Layout: magic, format version, snapshot version, fetch time, a table of distinct strings, the restaurants
+ * as indexes into that table, and a CRC32 of everything before it. Storing each distinct string once keeps the
+ * file small and restores the value sharing the feed reader sets up at ingest. Any mismatch in magic, format
+ * version, length or checksum is reported as an {@link IOException} so that callers fall back to a fetch.
+ */
+final class SnapshotFileCodec {
+
+    static final int MAGIC = 0x4543534E; // "ECSN"
+    static final int FORMAT_VERSION = 1;
+
+    private static final int NULL_INDEX = -1;
+    private static final int MIN_PAYLOAD_BYTES = 4 * Integer.BYTES + 2 * Long.BYTES;
+    private static final int CHECKSUM_BYTES = Integer.BYTES;
+
+    private SnapshotFileCodec() {
+    }
+
+    /**
+     * Writes the snapshot to a temporary file next to {@code path} and atomically moves it into place,
+     * so readers never see a partially written file.
+     */
+    static void write(RestaurantSnapshot snapshot, Path path) throws IOException {
+        byte[] bytes = encode(snapshot);
+        Path directory = path.toAbsolutePath().getParent();
+        Files.createDirectories(directory);
+        Path temp = Files.createTempFile(directory, path.getFileName().toString(), ".tmp");
+        try {
+            Files.write(temp, bytes);
+            Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    static RestaurantSnapshot read(Path path) throws IOException {
+        return decode(Files.readAllBytes(path));
+    }
+
+    static byte[] encode(RestaurantSnapshot snapshot) throws IOException {
+        Map<String, Integer> strings = new LinkedHashMap<>();
+        for (CompactRestaurant restaurant : snapshot.getRestaurants()) {
+            collectStrings(restaurant, strings);
+        }
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeInt(MAGIC);
+        out.writeInt(FORMAT_VERSION);
+        out.writeLong(snapshot.getVersion());
+        out.writeLong(snapshot.getFetchedAt().toEpochMilli());
+
+        out.writeInt(strings.size());
+        for (String value : strings.keySet()) {
+            byte[] utf8 = value.getBytes(StandardCharsets.UTF_8);
+            out.writeInt(utf8.length);
+            out.write(utf8);
+        }
+
+        out.writeInt(snapshot.getRestaurants().size());
+        for (CompactRestaurant restaurant : snapshot.getRestaurants()) {
+            writeRestaurant(out, restaurant, strings);
+        }
+        out.flush();
+
+        CRC32 crc = new CRC32();
+        crc.update(bytes.toByteArray());
+        out.writeInt((int) crc.getValue());
+        return bytes.toByteArray();
+    }
+
+    static RestaurantSnapshot decode(byte[] bytes) throws IOException {
+        if (bytes.length < MIN_PAYLOAD_BYTES + CHECKSUM_BYTES) {
+            throw new IOException("Snapshot file is truncated");
+        }
+        int payloadLength = bytes.length - CHECKSUM_BYTES;
+        CRC32 crc = new CRC32();
+        crc.update(bytes, 0, payloadLength);
+        if ((int) crc.getValue() != ByteBuffer.wrap(bytes, payloadLength, CHECKSUM_BYTES).getInt()) {
+            throw new IOException("Snapshot file checksum mismatch");
+        }
+
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes, 0, payloadLength));
+        if (in.readInt() != MAGIC) {
+            throw new IOException("Not a restaurant snapshot file");
+        }
+        int formatVersion = in.readInt();
+        if (formatVersion != FORMAT_VERSION) {
+            throw new IOException("Unsupported snapshot format version " + formatVersion);
+        }
+        long version = in.readLong();
+        Instant fetchedAt = Instant.ofEpochMilli(in.readLong());
+
+        String[] strings = new String[in.readInt()];
+        for (int i = 0; i < strings.length; i++) {
+            strings[i] = new String(in.readNBytes(in.readInt()), StandardCharsets.UTF_8);
+        }
+
+        int restaurantCount = in.readInt();
+        List<CompactRestaurant> restaurants = new ArrayList<>(restaurantCount);
+        Map<List<String>, List<String>> cuisinePool = new HashMap<>();
+        for (int i = 0; i < restaurantCount; i++) {
+            restaurants.add(readRestaurant(in, strings, cuisinePool));
+        }
+        if (in.available() != 0) {
+            throw new IOException("Snapshot file has trailing data");
+        }
+        return RestaurantSnapshot.of(version, fetchedAt, restaurants);
+    }
+
+    private static void collectStrings(CompactRestaurant restaurant, Map<String, Integer> strings) {
+        intern(restaurant.objectId(), strings);
+        intern(restaurant.name(), strings);
+        intern(restaurant.address1(), strings);
+        intern(restaurant.suburb(), strings);
+        restaurant.cuisines().forEach(cuisine -> intern(cuisine, strings));
+        intern(restaurant.open(), strings);
+        intern(restaurant.close(), strings);
+        for (CompactDeal deal : restaurant.deals()) {
+            intern(deal.objectId(), strings);
+            intern(deal.discount(), strings);
+            intern(deal.dineIn(), strings);
+            intern(deal.lightning(), strings);
+            intern(deal.qtyLeft(), strings);
+            intern(deal.open(), strings);
+            intern(deal.close(), strings);
+            intern(deal.start(), strings);
+            intern(deal.end(), strings);
+        }
+    }
+
+    private static void intern(String value, Map<String, Integer> strings) {
+        if (value != null) {
+            strings.putIfAbsent(value, strings.size());
+        }
+    }
+
+    private static void writeRestaurant(DataOutputStream out, CompactRestaurant restaurant,
+                                        Map<String, Integer> strings) throws IOException {
+        writeString(out, restaurant.objectId(), strings);
+        writeString(out, restaurant.name(), strings);
+        writeString(out, restaurant.address1(), strings);
+        writeString(out, restaurant.suburb(), strings);
+        out.writeInt(restaurant.cuisines().size());
+        for (String cuisine : restaurant.cuisines()) {
+            writeString(out, cuisine, strings);
+        }
+        writeString(out, restaurant.open(), strings);
+        writeString(out, restaurant.close(), strings);
+        out.writeInt(restaurant.deals().size());
+        for (CompactDeal deal : restaurant.deals()) {
+            writeString(out, deal.objectId(), strings);
+            writeString(out, deal.discount(), strings);
+            writeString(out, deal.dineIn(), strings);
+            writeString(out, deal.lightning(), strings);
+            writeString(out, deal.qtyLeft(), strings);
+            writeString(out, deal.open(), strings);
+            writeString(out, deal.close(), strings);
+            writeString(out, deal.start(), strings);
+            writeString(out, deal.end(), strings);
+        }
+    }
+
+    private static void writeString(DataOutputStream out, String value, Map<String, Integer> strings)
+            throws IOException {
+        out.writeInt(value == null ? NULL_INDEX : strings.get(value));
+    }
+
+    private static CompactRestaurant readRestaurant(DataInputStream in, String[] strings,
+                                                    Map<List<String>, List<String>> cuisinePool) throws IOException {
+        String objectId = readString(in, strings);
+        String name = readString(in, strings);
+        String address1 = readString(in, strings);
+        String suburb = readString(in, strings);
+        List<String> cuisines = new ArrayList<>();
+        for (int i = in.readInt(); i > 0; i--) {
+            cuisines.add(readString(in, strings));
+        }
+        String open = readString(in, strings);
+        String close = readString(in, strings);
+        List<CompactDeal> deals = new ArrayList<>();
+        for (int i = in.readInt(); i > 0; i--) {
+            deals.add(new CompactDeal(
+                    readString(in, strings),
+                    readString(in, strings),
+                    readString(in, strings),
+                    readString(in, strings),
+                    readString(in, strings),
+                    readString(in, strings),
+                    readString(in, strings),
+                    readString(in, strings),
+                    readString(in, strings)));
+        }
+        return new CompactRestaurant(objectId, name, address1, suburb,
+                cuisinePool.computeIfAbsent(List.copyOf(cuisines), shared -> shared),
+                open, close, List.copyOf(deals));
+    }
+
+    private static String readString(DataInputStream in, String[] strings) throws IOException {
+        int index = in.readInt();
+        if (index == NULL_INDEX) {
+            return null;
+        }
+        if (index < 0 || index >= strings.length) {
+            throw new IOException("Snapshot file references unknown string " + index);
+        }
+        return strings[index];
+    }
+}
@@ -0,0 +1,84 @@
+package com.eatclub.challenge.util;
+
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Coalesces concurrent invocations of the same call.
+ * The first caller runs the call; callers arriving while it is in flight wait for it and receive
+ * the same result or exception instead of running the call again.
+ *
+ * @param <T> result type
+ */
+public final class SingleFlight<T> {
+
+    private final AtomicReference<CompletableFuture<T>> inFlight = new AtomicReference<>();
+    private final LongAdder executions = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+
+    /**
+     * Runs the call, or joins the invocation already in flight.
+     *
+     * @param call the call to run
+     * @return result of the shared invocation
+     */
+    public T execute(Supplier<T> call) {
+        CompletableFuture<T> own = new CompletableFuture<>();
+        CompletableFuture<T> existing = inFlight.compareAndExchange(null, own);
+        if (existing != null) {
+            coalesced.increment();
+            return await(existing);
+        }
+
+        executions.increment();
+        try {
+            T result = call.get();
+            own.complete(result);
+            return result;
+        } catch (RuntimeException | Error e) {
+            own.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.compareAndSet(own, null);
+        }
+    }
+
+    /**
+     * Returns the invocation currently in flight, if any.
+     */
+    public Optional<CompletableFuture<T>> inFlight() {
+        return Optional.ofNullable(inFlight.get());
+    }
+
+    /**
+     * Number of invocations that actually ran the call.
+     */
+    public long getExecutions() {
+        return executions.sum();
+    }
+
+    /**
+     * Number of callers that joined an invocation already in flight.
+     */
+    public long getCoalesced() {
+        return coalesced.sum();
+    }
+
+    private static <T> T await(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package com.eatclub.challenge.util;
+
+import lombok.experimental.UtilityClass;
+
+import java.time.LocalTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Locale;
+
+/**
+ * Allocation-free conversion between time-of-day text and minutes since midnight.
+ * <p>
+ * Parsing reads a {@link CharSequence} in a single pass and reports failure through {@link #INVALID} rather than
+ * an exception. It accepts exactly what the {@code h:mma}, {@code h:mm a}, {@code H:mm} and {@code HH:mm}
+ * {@link DateTimeFormatter}s it replaces accepted: surrounding whitespace is ignored, am/pm is case-insensitive,
+ * {@code 0} and {@code 12} o'clock are both valid 12-hour values, and {@code 24:00} resolves to midnight.
+ * Formatting reads a precomputed table of all 1440 minutes.
+ */
+@UtilityClass
+public class TimeCodec {
+
+    /**
+     * Returned by {@link #parseMinuteOfDay} when the text is not a time of day.
+     */
+    public static final int INVALID = -1;
+
+    private static final int MINUTES_PER_DAY = 1440;
+    private static final int MAX_HOUR_DIGITS = 19;
+    private static final String[] FORMATTED = new String[MINUTES_PER_DAY];
+
+    static {
+        DateTimeFormatter format = DateTimeFormatter.ofPattern("h:mma", Locale.ENGLISH);
+        for (int minute = 0; minute < MINUTES_PER_DAY; minute++) {
+            FORMATTED[minute] = LocalTime.of(minute / 60, minute % 60).format(format).toLowerCase(Locale.ENGLISH);
+        }
+    }
+
+    /**
+     * Parses a time such as {@code 3:00pm}, {@code 3:00 PM}, {@code 15:00} or {@code 09:00}.
+     *
+     * @param text time to parse, may be null
+     * @return minutes since midnight (0 to 1439), or {@link #INVALID}
+     */
+    public static int parseMinuteOfDay(CharSequence text) {
+        if (text == null) {
+            return INVALID;
+        }
+        int start = 0;
+        int end = text.length();
+        while (start < end && text.charAt(start) <= ' ') {
+            start++;
+        }
+        while (end > start && text.charAt(end - 1) <= ' ') {
+            end--;
+        }
+
+        int pos = start;
+        int hour = 0;
+        while (pos < end && isDigit(text.charAt(pos))) {
+            if (pos - start == MAX_HOUR_DIGITS) {
+                return INVALID;
+            }
+            // Saturate so long runs of digits cannot overflow; anything above 24 is rejected below
+            hour = Math.min(hour * 10 + (text.charAt(pos) - '0'), 100);
+            pos++;
+        }
+        if (pos == start || pos == end || text.charAt(pos) != ':') {
+            return INVALID;
+        }
+        pos++;
+        if (end - pos < 2 || !isDigit(text.charAt(pos)) || !isDigit(text.charAt(pos + 1))) {
+            return INVALID;
+        }
+        int minute = (text.charAt(pos) - '0') * 10 + (text.charAt(pos + 1) - '0');
+        if (minute > 59) {
+            return INVALID;
+        }
+        pos += 2;
+
+        if (pos == end) {
+            if (hour < 24) {
+                return hour * 60 + minute;
+            }
+            return hour == 24 && minute == 0 ? 0 : INVALID;
+        }
+
+        if (text.charAt(pos) == ' ') {
+            pos++;
+        }
+        if (end - pos != 2 || hour > 12) {
+            return INVALID;
+        }
+        char marker = text.charAt(pos);
+        char m = text.charAt(pos + 1);
+        if (m != 'm' && m != 'M') {
+            return INVALID;
+        }
+        int hourOfDay = hour % 12;
+        if (marker == 'p' || marker == 'P') {
+            hourOfDay += 12;
+        } else if (marker != 'a' && marker != 'A') {
+            return INVALID;
+        }
+        return hourOfDay * 60 + minute;
+    }
+
+    /**
+     * Formats minutes since midnight as lower-case 12-hour time, e.g. {@code 3:05pm}.
+     *
+     * @param minuteOfDay minutes since midnight (0 to 1439)
+     * @return shared, precomputed string
+     */
+    public static String format(int minuteOfDay) {
+        if (minuteOfDay < 0 || minuteOfDay >= MINUTES_PER_DAY) {
+            throw new IllegalArgumentException("Minute of day out of range: " + minuteOfDay);
+        }
+        return FORMATTED[minuteOfDay];
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+}
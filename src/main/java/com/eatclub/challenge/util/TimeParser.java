@@ -6,10 +6,6 @@ import lombok.experimental.UtilityClass;
 import lombok.extern.slf4j.Slf4j;
 
 import java.time.LocalTime;
-import java.time.format.DateTimeFormatter;
-import java.time.format.DateTimeFormatterBuilder;
-import java.time.format.DateTimeParseException;
-import java.util.List;
 
 /**
  * Utility class for parsing and comparing time strings.
@@ -18,52 +14,46 @@ import java.util.List;
 @Slf4j
 public class TimeParser {
 
-    private static final DateTimeFormatter FORMATTER_12H_NO_SPACE =
-            new DateTimeFormatterBuilder()
-                    .parseCaseInsensitive()
-                    .appendPattern("h:mma")
-                    .toFormatter();
-    private static final DateTimeFormatter FORMATTER_12H_WITH_SPACE =
-            new DateTimeFormatterBuilder()
-                    .parseCaseInsensitive()
-                    .appendPattern("h:mm a")
-                    .toFormatter();
-    private static final DateTimeFormatter FORMATTER_24H_SINGLE =
-            DateTimeFormatter.ofPattern("H:mm");
-    private static final DateTimeFormatter FORMATTER_24H_DOUBLE =
-            DateTimeFormatter.ofPattern("HH:mm");
-
-    private static final List<DateTimeFormatter> FORMATTERS = List.of(
-            FORMATTER_12H_NO_SPACE,      // "7:00pm" or "7:00PM"
-            FORMATTER_12H_WITH_SPACE,    // "7:00 pm" or "7:00 PM"
-            FORMATTER_24H_SINGLE,        // "19:00"
-            FORMATTER_24H_DOUBLE         // "09:00"
-    );
-
     /**
-     * Parse time string to LocalTime, trying multiple formats.
+     * Parse time string to LocalTime.
+     * Accepts 12-hour (3:00pm, 3:00 pm) and 24-hour (15:00, 09:00) formats, see {@link TimeCodec}.
      *
      * @param timeStr time string to parse
      * @return parsed LocalTime
      * @throws InvalidTimeFormatException if unable to parse
      */
     public static LocalTime parseTime(String timeStr) {
+        int minuteOfDay = parseMinuteOfDay(timeStr);
+        return LocalTime.of(minuteOfDay / 60, minuteOfDay % 60);
+    }
+
+    /**
+     * Parse time string to minutes since midnight, without creating a LocalTime.
+     *
+     * @param timeStr time string to parse
+     * @return minutes since midnight (0 to 1439)
+     * @throws InvalidTimeFormatException if unable to parse
+     */
+    public static int parseMinuteOfDay(String timeStr) {
         if (timeStr == null || timeStr.isBlank()) {
             throw new InvalidTimeFormatException("Time cannot be null or empty");
         }
 
-        for (DateTimeFormatter formatter : FORMATTERS) {
-            try {
-                return LocalTime.parse(timeStr.trim(), formatter);
-            } catch (DateTimeParseException e) {
-                // Try next format
-            }
+        int minuteOfDay = TimeCodec.parseMinuteOfDay(timeStr);
+        if (minuteOfDay == TimeCodec.INVALID) {
+            throw new InvalidTimeFormatException(
+                    "Unable to parse time: '" + timeStr +
+                            "'. Expected formats: 3:00pm, 3:00 pm, 15:00, etc."
+            );
         }
+        return minuteOfDay;
+    }
 
-        throw new InvalidTimeFormatException(
-                "Unable to parse time: '" + timeStr +
-                        "'. Expected formats: 3:00pm, 3:00 pm, 15:00, etc."
-        );
+    /**
+     * Minutes since midnight of the given time, ignoring seconds.
+     */
+    public static int toMinuteOfDay(LocalTime time) {
+        return time.getHour() * 60 + time.getMinute();
     }
 
     /**
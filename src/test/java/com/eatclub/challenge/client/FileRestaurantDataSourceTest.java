@@ -0,0 +1,103 @@
+package com.eatclub.challenge.client;
+
+import com.eatclub.challenge.exception.RestaurantDataException;
+import com.eatclub.challenge.model.compact.CompactRestaurant;
+import com.fasterxml.jackson.core.JsonFactory;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Unit tests for the plain and memory-mapped file data sources.
+ */
+class FileRestaurantDataSourceTest {
+
+    private static final String FEED = """
+            {"restaurants":[{"objectId":"r1","name":"Test","open":"9:00am","close":"5:00pm","deals":[{"objectId":"d1"}]}]}
+            """;
+
+    private final JsonFactory jsonFactory = spy(new JsonFactory());
+
+    @TempDir
+    Path directory;
+
+    @ParameterizedTest
+    @ValueSource(strings = {"file", "mmap"})
+    void fetchRestaurantsIfChanged_readsFileOnceUntilItChanges(String type) throws IOException {
+        Path feed = directory.resolve("feed.json");
+        Files.writeString(feed, FEED);
+        RestaurantDataSource source = create(type, feed);
+
+        Optional<FeedUpdate> first = source.fetchRestaurantsIfChanged();
+        first.ifPresent(FeedUpdate::commit);
+        Optional<FeedUpdate> unchanged = source.fetchRestaurantsIfChanged();
+        Files.writeString(feed, FEED.replace("Test", "Changed"));
+        Files.setLastModifiedTime(feed, FileTime.from(Instant.now().plusSeconds(5)));
+        Optional<FeedUpdate> changed = source.fetchRestaurantsIfChanged();
+
+        assertThat(first).hasValueSatisfying(update ->
+                assertThat(update.restaurants()).extracting(CompactRestaurant::name).containsExactly("Test"));
+        assertThat(unchanged).isEmpty();
+        assertThat(changed).hasValueSatisfying(update ->
+                assertThat(update.restaurants()).extracting(CompactRestaurant::name).containsExactly("Changed"));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"file", "mmap"})
+    void fetchRestaurantsIfChanged_updateNotCommitted_readsFileAgain(String type) throws IOException {
+        Path feed = directory.resolve("feed.json");
+        Files.writeString(feed, FEED);
+        RestaurantDataSource source = create(type, feed);
+
+        assertThat(source.fetchRestaurantsIfChanged()).isPresent();
+
+        assertThat(source.fetchRestaurantsIfChanged()).hasValueSatisfying(update ->
+                assertThat(update.restaurants()).extracting(CompactRestaurant::name).containsExactly("Test"));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"file", "mmap"})
+    void fetchRestaurantsIfChanged_touchedWithSameContent_returnsEmptyWithoutParsing(String type) throws IOException {
+        Path feed = directory.resolve("feed.json");
+        Files.writeString(feed, FEED);
+        RestaurantDataSource source = create(type, feed);
+
+        source.fetchRestaurantsIfChanged().ifPresent(FeedUpdate::commit);
+        Files.setLastModifiedTime(feed, FileTime.from(Instant.now().plusSeconds(5)));
+
+        assertThat(source.fetchRestaurantsIfChanged()).isEmpty();
+        verify(jsonFactory, times(1)).createNonBlockingByteBufferParser();
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"file", "mmap"})
+    void fetchRestaurants_missingFile_throwsRestaurantDataException(String type) {
+        RestaurantDataSource source = create(type, directory.resolve("missing.json"));
+
+        assertThatThrownBy(source::fetchRestaurants)
+                .isInstanceOf(RestaurantDataException.class)
+                .hasMessageContaining("not found");
+    }
+
+    private RestaurantDataSource create(String type, Path path) {
+        IngestMetrics metrics = new IngestMetrics(new SimpleMeterRegistry());
+        return type.equals("mmap")
+                ? new MappedFileRestaurantDataSource(path, jsonFactory, metrics)
+                : new FileRestaurantDataSource(path, jsonFactory, metrics);
+    }
+}
@@ -0,0 +1,166 @@
+package com.eatclub.challenge.client;
+
+import com.eatclub.challenge.exception.RestaurantDataException;
+import com.eatclub.challenge.model.compact.CompactDeal;
+import com.eatclub.challenge.model.compact.CompactRestaurant;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Unit tests for MultiFeedRestaurantDataSource, with each regional feed served by a stubbed exchange function.
+ */
+class MultiFeedRestaurantDataSourceTest {
+
+    private static final String EAST = """
+            {"restaurants":[
+              {"objectId":"r1","name":"East Name","open":"9:00am","close":"5:00pm","deals":[{"objectId":"d1","qtyLeft":"1"}]},
+              {"objectId":"r2","name":"Only East","open":"9:00am","close":"5:00pm","deals":[]}
+            ]}
+            """;
+    private static final String WEST = """
+            {"restaurants":[
+              {"objectId":"r1","name":"West Name","open":"9:00am","close":"5:00pm",
+               "deals":[{"objectId":"d1","qtyLeft":"9"},{"objectId":"d2","qtyLeft":"2"}]},
+              {"objectId":"r3","name":"Only West","open":"9:00am","close":"5:00pm","deals":[]}
+            ]}
+            """;
+
+    private final Map<String, Supplier<Mono<ClientResponse>>> responses = new HashMap<>();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void fetchRestaurantsIfChanged_mergesFeedsWithFirstFeedPrecedence() {
+        responses.put("east", () -> ok(EAST));
+        responses.put("west", () -> ok(WEST));
+
+        List<CompactRestaurant> restaurants = dataSource(Duration.ofSeconds(5)).fetchRestaurantsIfChanged()
+                .orElseThrow().restaurants();
+
+        assertThat(restaurants).extracting(CompactRestaurant::objectId).containsExactly("r1", "r2", "r3");
+        CompactRestaurant merged = restaurants.get(0);
+        assertThat(merged.name()).isEqualTo("East Name");
+        assertThat(merged.deals()).extracting(CompactDeal::objectId).containsExactly("d1", "d2");
+        assertThat(merged.deals().get(0).qtyLeft()).isEqualTo("1");
+        assertThat(meterRegistry.get("restaurant.feed.fetch").tag("outcome", "changed").timers()).hasSize(2);
+    }
+
+    @Test
+    void fetchRestaurantsIfChanged_failingFeed_keepsItsLastGoodData() {
+        responses.put("east", () -> ok(EAST));
+        responses.put("west", () -> ok(WEST));
+        MultiFeedRestaurantDataSource dataSource = dataSource(Duration.ofSeconds(5));
+        dataSource.fetchRestaurantsIfChanged().orElseThrow().commit();
+
+        responses.put("east", () -> ok(EAST.replace("Only East", "Renamed")));
+        responses.put("west", () -> Mono.just(ClientResponse.create(HttpStatus.BAD_GATEWAY).build()));
+
+        List<CompactRestaurant> restaurants = dataSource.fetchRestaurantsIfChanged().orElseThrow().restaurants();
+
+        assertThat(restaurants).extracting(CompactRestaurant::name).containsExactly("East Name", "Renamed", "Only West");
+        assertThat(meterRegistry.get("restaurant.feed.fetch").tag("feed", "https://west.test/feed.json")
+                .tag("outcome", "error").timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    void fetchRestaurantsIfChanged_slowFeed_timesOutWithoutHoldingUpOthers() {
+        responses.put("east", () -> ok(EAST));
+        responses.put("west", Mono::never);
+
+        long start = System.nanoTime();
+        List<CompactRestaurant> restaurants = dataSource(Duration.ofMillis(200)).fetchRestaurantsIfChanged()
+                .orElseThrow().restaurants();
+
+        assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofSeconds(5));
+        assertThat(restaurants).extracting(CompactRestaurant::objectId).containsExactly("r1", "r2");
+        assertThat(meterRegistry.get("restaurant.feed.fetch").tag("outcome", "timeout").timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    void fetchRestaurantsIfChanged_committed_advancesOnlyFeedsThatChanged() {
+        responses.put("east", () -> ok(EAST));
+        responses.put("west", () -> ok(WEST));
+        MultiFeedRestaurantDataSource dataSource = dataSource(Duration.ofSeconds(5));
+        dataSource.fetchRestaurantsIfChanged().orElseThrow().commit();
+
+        assertThat(dataSource.fetchRestaurantsIfChanged()).isEmpty();
+
+        responses.put("west", () -> ok(WEST.replace("Only West", "Renamed")));
+        FeedUpdate update = dataSource.fetchRestaurantsIfChanged().orElseThrow();
+
+        assertThat(update.restaurants()).extracting(CompactRestaurant::name)
+                .containsExactly("East Name", "Only East", "Renamed");
+        // Until the update is committed, the west feed keeps reporting its new data as a change
+        assertThat(dataSource.fetchRestaurantsIfChanged()).isPresent();
+        update.commit();
+        assertThat(dataSource.fetchRestaurantsIfChanged()).isEmpty();
+    }
+
+    @Test
+    void fetchRestaurantsIfChanged_feedAnsweringAfterTimeout_isFetchedAgain() {
+        responses.put("east", () -> ok(EAST));
+        responses.put("west", () -> ok(WEST).delayElement(Duration.ofMillis(500)));
+        MultiFeedRestaurantDataSource dataSource = dataSource(Duration.ofMillis(100));
+        dataSource.fetchRestaurantsIfChanged().orElseThrow().commit();
+
+        responses.put("west", () -> ok(WEST));
+
+        assertThat(dataSource.fetchRestaurantsIfChanged()).hasValueSatisfying(update ->
+                assertThat(update.restaurants()).extracting(CompactRestaurant::objectId)
+                        .containsExactly("r1", "r2", "r3"));
+    }
+
+    @Test
+    void fetchRestaurantsIfChanged_allFeedsFail_throwsRestaurantDataException() {
+        responses.put("east", () -> Mono.just(ClientResponse.create(HttpStatus.INTERNAL_SERVER_ERROR).build()));
+        responses.put("west", () -> Mono.just(ClientResponse.create(HttpStatus.INTERNAL_SERVER_ERROR).build()));
+
+        assertThatThrownBy(() -> dataSource(Duration.ofSeconds(5)).fetchRestaurantsIfChanged())
+                .isInstanceOf(RestaurantDataException.class)
+                .hasMessageContaining("All 2 restaurant feeds failed");
+    }
+
+    @Test
+    void merge_duplicateWithinFeed_keepsFirstOccurrence() {
+        CompactRestaurant first = new CompactRestaurant("r1", "First", null, null, null, "9:00am", "5:00pm", List.of());
+        CompactRestaurant second = new CompactRestaurant("r1", "Second", null, null, null, "9:00am", "5:00pm", List.of());
+
+        assertThat(MultiFeedRestaurantDataSource.merge(List.of(List.of(first, second)))).containsExactly(first);
+    }
+
+    private MultiFeedRestaurantDataSource dataSource(Duration feedTimeout) {
+        WebClient.Builder builder = WebClient.builder().exchangeFunction(request ->
+                responses.get(request.url().getHost().replace(".test", "")).get());
+        IngestMetrics ingestMetrics = new IngestMetrics(meterRegistry);
+        List<RestaurantDataClient> clients = List.of(
+                new RestaurantDataClient(builder.clone(), new ObjectMapper(), ingestMetrics, "https://east.test/feed.json",
+                        CircuitBreaker.ofDefaults("east"), Bulkhead.ofDefaults("east"), Duration.ofSeconds(5)),
+                new RestaurantDataClient(builder.clone(), new ObjectMapper(), ingestMetrics, "https://west.test/feed.json",
+                        CircuitBreaker.ofDefaults("west"), Bulkhead.ofDefaults("west"), Duration.ofSeconds(5)));
+        return new MultiFeedRestaurantDataSource(clients, ingestMetrics, feedTimeout);
+    }
+
+    private static Mono<ClientResponse> ok(String body) {
+        return Mono.just(ClientResponse.create(HttpStatus.OK)
+                .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .body(body)
+                .build());
+    }
+}
@@ -0,0 +1,196 @@
+package com.eatclub.challenge.client;
+
+import com.eatclub.challenge.exception.RestaurantDataException;
+import com.eatclub.challenge.model.compact.CompactRestaurant;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Unit tests for conditional fetching and resilience in RestaurantDataClient, using a stubbed exchange function.
+ */
+class RestaurantDataClientTest {
+
+    private static final String FEED = """
+            {"restaurants":[{"objectId":"r1","name":"Test","open":"9:00am","close":"5:00pm","deals":[{"objectId":"d1"}]}]}
+            """;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Deque<ClientResponse> responses = new ArrayDeque<>();
+    private final List<ClientRequest> requests = new ArrayList<>();
+
+    private final CircuitBreaker circuitBreaker = CircuitBreaker.of("restaurantFeed", CircuitBreakerConfig.custom()
+            .slidingWindowSize(2)
+            .minimumNumberOfCalls(2)
+            .waitDurationInOpenState(Duration.ofMinutes(1))
+            .build());
+
+    private RestaurantDataClient client;
+
+    @BeforeEach
+    void setUp() {
+        WebClient.Builder builder = WebClient.builder().exchangeFunction(request -> {
+            requests.add(request);
+            return Mono.just(responses.removeFirst());
+        });
+        client = new RestaurantDataClient(builder, objectMapper,
+                new IngestMetrics(new SimpleMeterRegistry()), "https://feed.test/restaurants.json",
+                circuitBreaker, Bulkhead.ofDefaults("restaurantFeed"), Duration.ofSeconds(5));
+    }
+
+    @Test
+    void fetchRestaurantsIfChanged_firstFetch_returnsRestaurants() {
+        responses.add(ok(FEED, "\"v1\""));
+
+        Optional<FeedUpdate> result = client.fetchRestaurantsIfChanged();
+
+        assertThat(result).isPresent();
+        assertThat(result.get().restaurants()).extracting(CompactRestaurant::name).containsExactly("Test");
+        assertThat(requests.get(0).headers().getIfNoneMatch()).isEmpty();
+    }
+
+    @Test
+    void fetchRestaurantsIfChanged_notModified_sendsValidatorsAndReturnsEmpty() {
+        responses.add(ok(FEED, "\"v1\""));
+        responses.add(ClientResponse.create(HttpStatus.NOT_MODIFIED).build());
+
+        client.fetchRestaurantsIfChanged().ifPresent(FeedUpdate::commit);
+        Optional<FeedUpdate> result = client.fetchRestaurantsIfChanged();
+
+        assertThat(result).isEmpty();
+        assertThat(requests.get(1).headers().getIfNoneMatch()).containsExactly("\"v1\"");
+    }
+
+    @Test
+    void fetchRestaurantsIfChanged_sameBodyWithoutValidators_returnsEmpty() {
+        responses.add(ok(FEED, null));
+        responses.add(ok(FEED, null));
+        responses.add(ok(FEED.replace("Test", "Changed"), null));
+
+        client.fetchRestaurantsIfChanged().orElseThrow().commit();
+        assertThat(client.fetchRestaurantsIfChanged()).isEmpty();
+        assertThat(client.fetchRestaurantsIfChanged()).hasValueSatisfying(update ->
+                assertThat(update.restaurants().get(0).name()).isEqualTo("Changed"));
+    }
+
+    @Test
+    void fetchRestaurantsIfChanged_updateNotCommitted_keepsPreviousValidators() {
+        responses.add(ok(FEED, "\"v1\""));
+        responses.add(ok(FEED.replace("Test", "Changed"), "\"v2\""));
+        responses.add(ok(FEED.replace("Test", "Changed"), "\"v2\""));
+
+        client.fetchRestaurantsIfChanged().orElseThrow().commit();
+        Optional<FeedUpdate> dropped = client.fetchRestaurantsIfChanged();
+        Optional<FeedUpdate> retried = client.fetchRestaurantsIfChanged();
+
+        assertThat(dropped).isPresent();
+        assertThat(retried).hasValueSatisfying(update ->
+                assertThat(update.restaurants().get(0).name()).isEqualTo("Changed"));
+        assertThat(requests.get(2).headers().getIfNoneMatch()).containsExactly("\"v1\"");
+    }
+
+    @Test
+    void fetchRestaurantsIfChanged_sameBodyInOtherChunks_hashesAcrossChunksAndReturnsEmpty() {
+        DefaultDataBufferFactory buffers = DefaultDataBufferFactory.sharedInstance;
+        byte[] feed = FEED.getBytes(StandardCharsets.UTF_8);
+        responses.add(ok(FEED, null));
+        responses.add(ClientResponse.create(HttpStatus.OK)
+                .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .body(Flux.range(0, feed.length)
+                        .map(i -> buffers.wrap(Arrays.copyOfRange(feed, i, i + 1))))
+                .build());
+
+        client.fetchRestaurantsIfChanged().orElseThrow().commit();
+        assertThat(client.fetchRestaurantsIfChanged()).isEmpty();
+    }
+
+    @Test
+    void fetchRestaurantsIfChanged_repeatedFailures_opensCircuitAndFailsFast() {
+        responses.add(ClientResponse.create(HttpStatus.SERVICE_UNAVAILABLE).build());
+        responses.add(ClientResponse.create(HttpStatus.SERVICE_UNAVAILABLE).build());
+
+        assertThatThrownBy(client::fetchRestaurantsIfChanged).isInstanceOf(RestaurantDataException.class);
+        assertThatThrownBy(client::fetchRestaurantsIfChanged).isInstanceOf(RestaurantDataException.class);
+
+        assertThat(circuitBreaker.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+        assertThatThrownBy(client::fetchRestaurantsIfChanged)
+                .isInstanceOf(RestaurantDataException.class)
+                .hasMessageContaining("circuit breaker restaurantFeed is open");
+        assertThat(requests).hasSize(2);
+    }
+
+    @Test
+    void fetchRestaurantsIfChangedReactive_bulkheadFull_rejectsExtraCall() {
+        WebClient.Builder hanging = WebClient.builder().exchangeFunction(request -> Mono.never());
+        RestaurantDataClient bounded = new RestaurantDataClient(hanging, new ObjectMapper(),
+                new IngestMetrics(new SimpleMeterRegistry()), "https://feed.test/restaurants.json",
+                CircuitBreaker.ofDefaults("bounded"),
+                Bulkhead.of("bounded", BulkheadConfig.custom().maxConcurrentCalls(1).maxWaitDuration(Duration.ZERO).build()),
+                Duration.ofSeconds(5));
+
+        Disposable inFlight = bounded.fetchRestaurantsIfChangedReactive().subscribe();
+        try {
+            assertThatThrownBy(bounded::fetchRestaurantsIfChanged)
+                    .isInstanceOf(RestaurantDataException.class)
+                    .hasMessageContaining("Too many concurrent requests");
+        } finally {
+            inFlight.dispose();
+        }
+    }
+
+    @Test
+    void fetchRestaurants_feedSlowerThanFetchTimeout_failsAtDeadline() {
+        WebClient.Builder trickling = WebClient.builder().exchangeFunction(request -> Mono.just(
+                ClientResponse.create(HttpStatus.OK)
+                        .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                        .body(Flux.concat(Flux.just(DefaultDataBufferFactory.sharedInstance.wrap(
+                                "{\"restaurants\":[".getBytes(StandardCharsets.UTF_8))), Flux.never()))
+                        .build()));
+        RestaurantDataClient bounded = new RestaurantDataClient(trickling, new ObjectMapper(),
+                new IngestMetrics(new SimpleMeterRegistry()), "https://feed.test/restaurants.json",
+                CircuitBreaker.ofDefaults("bounded"), Bulkhead.ofDefaults("bounded"), Duration.ofMillis(200));
+
+        long start = System.nanoTime();
+        assertThatThrownBy(bounded::fetchRestaurants)
+                .isInstanceOf(RestaurantDataException.class)
+                .hasMessageContaining("did not respond within");
+        assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofSeconds(5));
+    }
+
+    private ClientResponse ok(String body, String etag) {
+        ClientResponse.Builder builder = ClientResponse.create(HttpStatus.OK)
+                .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .body(body);
+        if (etag != null) {
+            builder.header(HttpHeaders.ETAG, etag);
+        }
+        return builder.build();
+    }
+}
@@ -0,0 +1,108 @@
+package com.eatclub.challenge.client;
+
+import com.eatclub.challenge.exception.RestaurantDataException;
+import com.eatclub.challenge.model.compact.CompactRestaurant;
+import com.fasterxml.jackson.core.JsonFactory;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Unit tests for RestaurantFeedReader.
+ * Documents are fed in small chunks so that tokens are split across chunk boundaries.
+ */
+class RestaurantFeedReaderTest {
+
+    private static final String FEED = """
+            {
+              "meta": {"generated": "today", "nested": [1, 2, {"x": null}]},
+              "restaurants": [
+                {
+                  "objectId": "r1", "name": "Pizza Place", "address1": "1 Main St", "suburb": "Richmond",
+                  "cuisines": ["Pizza", "Italian"], "imageLink": "https://img/1.png",
+                  "open": "9:00am", "close": "5:00pm",
+                  "deals": [
+                    {"objectId": "d1", "discount": "20", "dineIn": "true", "lightning": "false", "qtyLeft": "5"},
+                    {"objectId": "d2", "discount": 30, "dineIn": "false", "lightning": "true", "qtyLeft": "1",
+                     "open": "3:00pm", "close": "4:00pm", "extra": {"ignored": [true]}}
+                  ]
+                },
+                {
+                  "objectId": "r2", "name": "Noodle Bar", "suburb": "Richmond", "cuisines": ["Pizza", "Italian"],
+                  "open": "5:00pm", "close": "11:00pm", "deals": null
+                }
+              ]
+            }
+            """;
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 7, 64, 4096})
+    void finish_chunkedDocument_buildsCompactRestaurants(int chunkSize) {
+        RestaurantFeedReader reader = read(FEED, chunkSize);
+
+        List<CompactRestaurant> restaurants = reader.finish();
+
+        assertThat(restaurants).extracting(CompactRestaurant::name).containsExactly("Pizza Place", "Noodle Bar");
+        CompactRestaurant first = restaurants.get(0);
+        assertThat(first.cuisines()).containsExactly("Pizza", "Italian");
+        assertThat(first.deals()).hasSize(2);
+        assertThat(first.deals().get(1).discount()).isEqualTo("30");
+        assertThat(first.deals().get(1).open()).isEqualTo("3:00pm");
+        assertThat(restaurants.get(1).deals()).isEmpty();
+    }
+
+    @Test
+    void finish_repeatedValues_areShared() {
+        RestaurantFeedReader reader = read(FEED, 16);
+
+        List<CompactRestaurant> restaurants = reader.finish();
+
+        assertThat(restaurants.get(0).suburb()).isSameAs(restaurants.get(1).suburb());
+        assertThat(restaurants.get(0).cuisines()).isSameAs(restaurants.get(1).cuisines());
+    }
+
+    @Test
+    void stats_reportsSizesAndObjects() {
+        RestaurantFeedReader reader = read(FEED, 32);
+        reader.finish();
+
+        IngestStats stats = reader.stats();
+
+        assertThat(stats.bytesRead()).isEqualTo(FEED.getBytes(StandardCharsets.UTF_8).length);
+        assertThat(stats.restaurants()).isEqualTo(2);
+        assertThat(stats.deals()).isEqualTo(2);
+        assertThat(stats.retainedObjects()).isGreaterThan(4);
+    }
+
+    @Test
+    void finish_truncatedDocument_throwsRestaurantDataException() {
+        RestaurantFeedReader reader = read(FEED.substring(0, FEED.length() / 2), 64);
+
+        assertThatThrownBy(reader::finish).isInstanceOf(RestaurantDataException.class);
+    }
+
+    @Test
+    void finish_missingRestaurants_throwsRestaurantDataException() {
+        RestaurantFeedReader reader = read("{\"restaurants\": null}", 8);
+
+        assertThatThrownBy(reader::finish)
+                .isInstanceOf(RestaurantDataException.class)
+                .hasMessageContaining("empty response");
+    }
+
+    private RestaurantFeedReader read(String document, int chunkSize) {
+        RestaurantFeedReader reader = new RestaurantFeedReader(new JsonFactory());
+        byte[] bytes = document.getBytes(StandardCharsets.UTF_8);
+        for (int offset = 0; offset < bytes.length; offset += chunkSize) {
+            reader.feed(ByteBuffer.wrap(bytes, offset, Math.min(chunkSize, bytes.length - offset)));
+        }
+        return reader;
+    }
+}
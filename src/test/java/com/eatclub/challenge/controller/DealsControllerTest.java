@@ -1,10 +1,18 @@
 package com.eatclub.challenge.controller;
 
+import com.eatclub.challenge.dto.AvailabilityBucket;
+import com.eatclub.challenge.dto.AvailabilityResponse;
 import com.eatclub.challenge.dto.DealDto;
 import com.eatclub.challenge.dto.DealResponse;
+import com.eatclub.challenge.dto.FacetCountsDto;
 import com.eatclub.challenge.dto.PeakTimeResponse;
+import com.eatclub.challenge.dto.PeakWindowsResponse;
+import com.eatclub.challenge.dto.TimeWindowDto;
+import com.eatclub.challenge.exception.CursorExpiredException;
 import com.eatclub.challenge.exception.InvalidTimeFormatException;
 import com.eatclub.challenge.exception.RestaurantDataException;
+import com.eatclub.challenge.model.DealFilter;
+import com.eatclub.challenge.model.RangeMatch;
 import com.eatclub.challenge.service.DealService;
 import com.eatclub.challenge.service.PeakTimeService;
 import org.junit.jupiter.api.Test;
@@ -12,13 +20,23 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import reactor.core.publisher.Flux;
 
+import java.time.Instant;
 import java.util.List;
+import java.util.Map;
 
+import static org.hamcrest.Matchers.matchesPattern;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
@@ -43,7 +61,8 @@ class DealsControllerTest {
                 .pageSize(20)
                 .build();
 
-        when(dealService.getActiveDeals(eq("3:00pm"), any(Pageable.class))).thenReturn(response);
+        when(dealService.getActiveDeals(eq("3:00pm"), eq(DealFilter.NONE), isNull(), any(Pageable.class)))
+                .thenReturn(response);
 
         mockMvc.perform(get("/api/v1/deals").param("timeOfDay", "3:00pm"))
                 .andExpect(status().isOk())
@@ -53,7 +72,7 @@ class DealsControllerTest {
 
     @Test
     void getActiveDeals_withInvalidTime_returnsBadRequest() throws Exception {
-        when(dealService.getActiveDeals(eq("invalid"), any(Pageable.class)))
+        when(dealService.getActiveDeals(eq("invalid"), eq(DealFilter.NONE), isNull(), any(Pageable.class)))
                 .thenThrow(new InvalidTimeFormatException("Unable to parse time"));
 
         mockMvc.perform(get("/api/v1/deals").param("timeOfDay", "invalid"))
@@ -63,7 +82,7 @@ class DealsControllerTest {
 
     @Test
     void getActiveDeals_withServiceError_returnsServiceUnavailable() throws Exception {
-        when(dealService.getActiveDeals(eq("3:00pm"), any(Pageable.class)))
+        when(dealService.getActiveDeals(eq("3:00pm"), eq(DealFilter.NONE), isNull(), any(Pageable.class)))
                 .thenThrow(new RestaurantDataException("Service unavailable"));
 
         mockMvc.perform(get("/api/v1/deals").param("timeOfDay", "3:00pm"))
@@ -71,24 +90,270 @@ class DealsControllerTest {
                 .andExpect(jsonPath("$.status").value(503));
     }
 
+    @Test
+    void getActiveDeals_withFilters_passesFilterAndReturnsFacets() throws Exception {
+        DealResponse response = DealResponse.builder()
+                .deals(List.of(DealDto.builder().restaurantName("Test").build()))
+                .totalElements(1)
+                .currentPage(0)
+                .pageSize(20)
+                .facets(FacetCountsDto.builder()
+                        .suburbs(Map.of("Richmond", 1))
+                        .cuisines(Map.of("Indian", 1))
+                        .dineIn(1)
+                        .build())
+                .build();
+
+        when(dealService.getActiveDeals(eq("3:00pm"), eq(new DealFilter("richmond", null, true, null, 20)),
+                isNull(), any(Pageable.class))).thenReturn(response);
+
+        mockMvc.perform(get("/api/v1/deals")
+                        .param("timeOfDay", "3:00pm")
+                        .param("suburb", "Richmond")
+                        .param("dineIn", "true")
+                        .param("minDiscount", "20"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalElements").value(1))
+                .andExpect(jsonPath("$.facets.suburbs.Richmond").value(1))
+                .andExpect(jsonPath("$.facets.dineIn").value(1));
+    }
+
+    @Test
+    void getActiveDeals_withoutFilters_omitsFacets() throws Exception {
+        when(dealService.getActiveDeals(eq("3:00pm"), eq(DealFilter.NONE), isNull(), any(Pageable.class)))
+                .thenReturn(DealResponse.builder().deals(List.of()).build());
+
+        mockMvc.perform(get("/api/v1/deals").param("timeOfDay", "3:00pm"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.facets").doesNotExist());
+    }
+
+    @Test
+    void getActiveDeals_withInvalidMinDiscount_returnsBadRequest() throws Exception {
+        mockMvc.perform(get("/api/v1/deals").param("timeOfDay", "3:00pm").param("minDiscount", "150"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.status").value(400));
+    }
+
+    @Test
+    void getActiveDeals_withCursor_passesCursorAndReturnsNext() throws Exception {
+        when(dealService.getActiveDeals(eq("3:00pm"), eq(DealFilter.NONE), eq("cursor-1"), any(Pageable.class)))
+                .thenReturn(DealResponse.builder().deals(List.of()).nextCursor("cursor-2").build());
+
+        mockMvc.perform(get("/api/v1/deals").param("timeOfDay", "3:00pm").param("cursor", "cursor-1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.nextCursor").value("cursor-2"));
+    }
+
+    @Test
+    void getActiveDeals_withExpiredCursor_returnsGone() throws Exception {
+        when(dealService.getActiveDeals(eq("3:00pm"), eq(DealFilter.NONE), eq("old"), any(Pageable.class)))
+                .thenThrow(new CursorExpiredException("Snapshot version 1 is no longer available"));
+
+        mockMvc.perform(get("/api/v1/deals").param("timeOfDay", "3:00pm").param("cursor", "old"))
+                .andExpect(status().isGone())
+                .andExpect(jsonPath("$.status").value(410));
+    }
+
+    @Test
+    void getActiveDeals_withSort_passesSortInPageable() throws Exception {
+        DealResponse response = DealResponse.builder()
+                .deals(List.of(DealDto.builder().restaurantName("Test").build()))
+                .totalElements(1)
+                .build();
+
+        when(dealService.getActiveDeals(eq("3:00pm"), eq(DealFilter.NONE), isNull(),
+                argThat(pageable -> Sort.by(Sort.Direction.DESC, "discount").equals(pageable.getSort()))))
+                .thenReturn(response);
+
+        mockMvc.perform(get("/api/v1/deals").param("timeOfDay", "3:00pm").param("sort", "discount,desc"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalElements").value(1));
+    }
+
+    @Test
+    void streamActiveDeals_withNdjsonAccept_writesOneDealPerLine() throws Exception {
+        when(dealService.streamActiveDeals("3:00pm", new DealFilter(null, "Thai", null, null)))
+                .thenReturn(Flux.just(DealDto.builder().dealObjectId("d1").build(),
+                        DealDto.builder().dealObjectId("d2").build()));
+
+        MvcResult result = mockMvc.perform(get("/api/v1/deals").param("timeOfDay", "3:00pm").param("cuisine", "Thai")
+                        .accept(MediaType.APPLICATION_NDJSON))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+                .andExpect(content().string(matchesPattern("\\{[^\\n]*\"dealObjectId\":\"d1\"[^\\n]*}\\n"
+                        + "\\{[^\\n]*\"dealObjectId\":\"d2\"[^\\n]*}\\n")));
+    }
+
+    @Test
+    void streamActiveDeals_withInvalidTime_returnsJsonBadRequest() throws Exception {
+        when(dealService.streamActiveDeals("invalid", DealFilter.NONE))
+                .thenThrow(new InvalidTimeFormatException("Unable to parse time"));
+
+        mockMvc.perform(get("/api/v1/deals").param("timeOfDay", "invalid").accept(MediaType.APPLICATION_NDJSON))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.status").value(400));
+    }
+
+    @Test
+    void getDealsInRange_passesBoundsAndMatchMode() throws Exception {
+        DealResponse response = DealResponse.builder()
+                .deals(List.of(DealDto.builder().restaurantName("Test").build()))
+                .totalElements(1)
+                .currentPage(0)
+                .pageSize(20)
+                .build();
+
+        when(dealService.getDealsInRange(eq("5:30pm"), eq("7:00pm"), eq(RangeMatch.ALL), any(Pageable.class)))
+                .thenReturn(response);
+
+        mockMvc.perform(get("/api/v1/deals/range")
+                        .param("from", "5:30pm")
+                        .param("to", "7:00pm")
+                        .param("match", "ALL"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalElements").value(1));
+    }
+
+    @Test
+    void getDealsInRange_defaultsToAnyMatch() throws Exception {
+        when(dealService.getDealsInRange(eq("5:30pm"), eq("7:00pm"), eq(RangeMatch.ANY), any(Pageable.class)))
+                .thenReturn(DealResponse.builder().deals(List.of()).build());
+
+        mockMvc.perform(get("/api/v1/deals/range").param("from", "5:30pm").param("to", "7:00pm"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalElements").value(0));
+    }
+
+    @Test
+    void getDealsInRange_withUnknownMatch_returnsBadRequest() throws Exception {
+        mockMvc.perform(get("/api/v1/deals/range")
+                        .param("from", "5:30pm")
+                        .param("to", "7:00pm")
+                        .param("match", "SOME"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.status").value(400));
+    }
+
+    @Test
+    void searchDeals_passesQueryAndTime() throws Exception {
+        DealResponse response = DealResponse.builder()
+                .deals(List.of(DealDto.builder().restaurantName("Thai Town").build()))
+                .totalElements(1)
+                .build();
+
+        when(dealService.searchDeals(eq("thai"), isNull(), any(Pageable.class))).thenReturn(response);
+
+        mockMvc.perform(get("/api/v1/deals/search").param("q", "thai"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.deals[0].restaurantName").value("Thai Town"));
+    }
+
+    @Test
+    void searchDeals_withInvalidQuery_returnsBadRequest() throws Exception {
+        when(dealService.searchDeals(eq("?"), isNull(), any(Pageable.class)))
+                .thenThrow(new IllegalArgumentException("q must contain at least one letter or digit"));
+
+        mockMvc.perform(get("/api/v1/deals/search").param("q", "?"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.status").value(400));
+    }
+
+    @Test
+    void getAvailability_passesBucketSize() throws Exception {
+        when(dealService.getAvailability(15)).thenReturn(AvailabilityResponse.builder()
+                .bucketMinutes(15)
+                .snapshotVersion(2)
+                .buckets(List.of(new AvailabilityBucket("12:00am", 3, 4)))
+                .build());
+
+        mockMvc.perform(get("/api/v1/deals/availability").param("bucket", "15"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.bucketMinutes").value(15))
+                .andExpect(jsonPath("$.buckets[0].start").value("12:00am"))
+                .andExpect(jsonPath("$.buckets[0].maxDealCount").value(4));
+    }
+
+    @Test
+    void getAvailability_withInvalidBucket_returnsBadRequest() throws Exception {
+        when(dealService.getAvailability(0))
+                .thenThrow(new IllegalArgumentException("bucket must be between 1 and 1440 minutes"));
+
+        mockMvc.perform(get("/api/v1/deals/availability").param("bucket", "0"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.status").value(400));
+    }
+
     @Test
     void getPeakTime_returnsOkWithPeakWindow() throws Exception {
-        when(peakTimeService.calculatePeakTime())
-                .thenReturn(new PeakTimeResponse("6:00pm", "9:00pm"));
+        when(peakTimeService.calculatePeakTime(DealFilter.NONE))
+                .thenReturn(new PeakTimeResponse("6:00pm", "9:00pm", 3L, Instant.parse("2025-11-21T03:30:00Z")));
 
         mockMvc.perform(get("/api/v1/deals/peak-time"))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.peakTimeStart").value("6:00pm"))
-                .andExpect(jsonPath("$.peakTimeEnd").value("9:00pm"));
+                .andExpect(jsonPath("$.peakTimeEnd").value("9:00pm"))
+                .andExpect(jsonPath("$.snapshotVersion").value(3))
+                .andExpect(jsonPath("$.computedAt").value("2025-11-21T03:30:00Z"));
+    }
+
+    @Test
+    void getPeakTime_withFilters_passesFilter() throws Exception {
+        when(peakTimeService.calculatePeakTime(new DealFilter("Richmond", "Indian", null, true)))
+                .thenReturn(new PeakTimeResponse("5:00pm", "7:00pm", 3L, Instant.parse("2025-11-21T03:30:00Z")));
+
+        mockMvc.perform(get("/api/v1/deals/peak-time")
+                        .param("suburb", "Richmond")
+                        .param("cuisine", "Indian")
+                        .param("lightning", "true"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.peakTimeStart").value("5:00pm"))
+                .andExpect(jsonPath("$.peakTimeEnd").value("7:00pm"));
+    }
+
+    @Test
+    void getPeakTime_withInvalidFlag_returnsBadRequest() throws Exception {
+        mockMvc.perform(get("/api/v1/deals/peak-time").param("dineIn", "sometimes"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.status").value(400));
     }
 
     @Test
     void getPeakTime_withServiceError_returnsServiceUnavailable() throws Exception {
-        when(peakTimeService.calculatePeakTime())
+        when(peakTimeService.calculatePeakTime(DealFilter.NONE))
                 .thenThrow(new RestaurantDataException("Service unavailable"));
 
         mockMvc.perform(get("/api/v1/deals/peak-time"))
                 .andExpect(status().isServiceUnavailable())
                 .andExpect(jsonPath("$.status").value(503));
     }
+
+    @Test
+    void getTopWindows_passesK() throws Exception {
+        when(peakTimeService.getTopWindows(2)).thenReturn(PeakWindowsResponse.builder()
+                .maxDealCount(5)
+                .windows(List.of(new TimeWindowDto("12:00pm", "1:00pm", 5, 5)))
+                .snapshotVersion(1)
+                .build());
+
+        mockMvc.perform(get("/api/v1/deals/peak-time/top").param("k", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.maxDealCount").value(5))
+                .andExpect(jsonPath("$.windows[0].start").value("12:00pm"));
+    }
+
+    @Test
+    void getNearPeakWindows_withInvalidRatio_returnsBadRequest() throws Exception {
+        when(peakTimeService.getNearPeakWindows(2.0))
+                .thenThrow(new IllegalArgumentException("ratio must be greater than 0 and at most 1"));
+
+        mockMvc.perform(get("/api/v1/deals/peak-time/near").param("ratio", "2.0"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.status").value(400));
+    }
 }
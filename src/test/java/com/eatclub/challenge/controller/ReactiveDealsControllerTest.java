@@ -0,0 +1,312 @@
+package com.eatclub.challenge.controller;
+
+import com.eatclub.challenge.dto.AvailabilityBucket;
+import com.eatclub.challenge.dto.AvailabilityResponse;
+import com.eatclub.challenge.dto.DealDto;
+import com.eatclub.challenge.dto.DealResponse;
+import com.eatclub.challenge.dto.FacetCountsDto;
+import com.eatclub.challenge.dto.PeakTimeResponse;
+import com.eatclub.challenge.dto.PeakWindowsResponse;
+import com.eatclub.challenge.dto.TimeWindowDto;
+import com.eatclub.challenge.exception.CursorExpiredException;
+import com.eatclub.challenge.exception.InvalidTimeFormatException;
+import com.eatclub.challenge.exception.RestaurantDataException;
+import com.eatclub.challenge.model.DealFilter;
+import com.eatclub.challenge.model.RangeMatch;
+import com.eatclub.challenge.service.DealService;
+import com.eatclub.challenge.service.PeakTimeService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.WebFluxTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.when;
+
+@WebFluxTest(ReactiveDealsController.class)
+class ReactiveDealsControllerTest {
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @MockBean
+    private DealService dealService;
+
+    @MockBean
+    private PeakTimeService peakTimeService;
+
+    @Test
+    void getActiveDeals_returnsOkWithPaginatedDeals() {
+        DealResponse response = DealResponse.builder()
+                .deals(List.of(DealDto.builder().restaurantName("Test").build()))
+                .totalElements(1)
+                .currentPage(1)
+                .pageSize(5)
+                .build();
+
+        when(dealService.getActiveDealsReactive(eq("3:00pm"), eq(DealFilter.NONE), isNull(),
+                argThat(pageable -> pageable.getPageNumber() == 1 && pageable.getPageSize() == 5)))
+                .thenReturn(Mono.just(response));
+
+        webTestClient.get().uri("/api/v1/deals?timeOfDay=3:00pm&page=1&size=5")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.deals").isArray()
+                .jsonPath("$.totalElements").isEqualTo(1)
+                .jsonPath("$.pageSize").isEqualTo(5);
+    }
+
+    @Test
+    void getActiveDeals_withInvalidTime_returnsBadRequest() {
+        when(dealService.getActiveDealsReactive(eq("invalid"), eq(DealFilter.NONE), isNull(),
+                any(Pageable.class)))
+                .thenReturn(Mono.error(new InvalidTimeFormatException("Unable to parse time")));
+
+        webTestClient.get().uri("/api/v1/deals?timeOfDay=invalid")
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody()
+                .jsonPath("$.status").isEqualTo(400)
+                .jsonPath("$.path").isEqualTo("/api/v1/deals");
+    }
+
+    @Test
+    void getActiveDeals_withoutTime_returnsBadRequest() {
+        webTestClient.get().uri("/api/v1/deals")
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody()
+                .jsonPath("$.status").isEqualTo(400);
+    }
+
+    @Test
+    void getActiveDeals_withFilters_passesFilterAndReturnsFacets() {
+        DealResponse response = DealResponse.builder()
+                .deals(List.of(DealDto.builder().restaurantName("Test").build()))
+                .totalElements(1)
+                .pageSize(20)
+                .facets(FacetCountsDto.builder()
+                        .suburbs(Map.of("Richmond", 1))
+                        .cuisines(Map.of("Thai", 1))
+                        .lightning(1)
+                        .build())
+                .build();
+
+        when(dealService.getActiveDealsReactive(eq("3:00pm"), eq(new DealFilter(null, "thai", null, true)),
+                isNull(), any(Pageable.class))).thenReturn(Mono.just(response));
+
+        webTestClient.get().uri("/api/v1/deals?timeOfDay=3:00pm&cuisine=Thai&lightning=true")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.totalElements").isEqualTo(1)
+                .jsonPath("$.facets.cuisines.Thai").isEqualTo(1)
+                .jsonPath("$.facets.lightning").isEqualTo(1);
+    }
+
+    @Test
+    void getActiveDeals_withInvalidMinDiscount_returnsBadRequest() {
+        webTestClient.get().uri("/api/v1/deals?timeOfDay=3:00pm&minDiscount=-5")
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody()
+                .jsonPath("$.status").isEqualTo(400);
+    }
+
+    @Test
+    void getActiveDeals_withExpiredCursor_returnsGone() {
+        when(dealService.getActiveDealsReactive(eq("3:00pm"), eq(DealFilter.NONE), eq("old"), any(Pageable.class)))
+                .thenReturn(Mono.error(new CursorExpiredException("Snapshot version 1 is no longer available")));
+
+        webTestClient.get().uri("/api/v1/deals?timeOfDay=3:00pm&cursor=old")
+                .exchange()
+                .expectStatus().isEqualTo(410)
+                .expectBody()
+                .jsonPath("$.status").isEqualTo(410);
+    }
+
+    @Test
+    void streamActiveDeals_withNdjsonAccept_emitsEachDeal() {
+        when(dealService.streamActiveDealsReactive("3:00pm", new DealFilter(null, null, true, null)))
+                .thenReturn(Flux.just(DealDto.builder().dealObjectId("d1").build(),
+                        DealDto.builder().dealObjectId("d2").build()));
+
+        webTestClient.get().uri("/api/v1/deals?timeOfDay=3:00pm&dineIn=true")
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON)
+                .expectBodyList(DealDto.class)
+                .value(deals -> assertThat(deals).extracting(DealDto::getDealObjectId).containsExactly("d1", "d2"));
+    }
+
+    @Test
+    void streamActiveDeals_withInvalidTime_returnsJsonBadRequest() {
+        when(dealService.streamActiveDealsReactive("invalid", DealFilter.NONE))
+                .thenReturn(Flux.error(new InvalidTimeFormatException("Unable to parse time")));
+
+        webTestClient.get().uri("/api/v1/deals?timeOfDay=invalid")
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_JSON)
+                .expectBody()
+                .jsonPath("$.status").isEqualTo(400);
+    }
+
+    @Test
+    void getActiveDeals_withServiceError_returnsServiceUnavailable() {
+        when(dealService.getActiveDealsReactive(eq("3:00pm"), eq(DealFilter.NONE), isNull(),
+                any(Pageable.class)))
+                .thenReturn(Mono.error(new RestaurantDataException("Service unavailable")));
+
+        webTestClient.get().uri("/api/v1/deals?timeOfDay=3:00pm")
+                .exchange()
+                .expectStatus().isEqualTo(503)
+                .expectBody()
+                .jsonPath("$.status").isEqualTo(503);
+    }
+
+    @Test
+    void getDealsInRange_passesBoundsAndMatchMode() {
+        DealResponse response = DealResponse.builder()
+                .deals(List.of(DealDto.builder().restaurantName("Test").build()))
+                .totalElements(1)
+                .currentPage(0)
+                .pageSize(20)
+                .build();
+
+        when(dealService.getDealsInRangeReactive(eq("11:00pm"), eq("1:00am"), eq(RangeMatch.ALL),
+                any(Pageable.class)))
+                .thenReturn(Mono.just(response));
+
+        webTestClient.get().uri("/api/v1/deals/range?from=11:00pm&to=1:00am&match=ALL")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.totalElements").isEqualTo(1);
+    }
+
+    @Test
+    void getDealsInRange_withInvalidTime_returnsBadRequest() {
+        when(dealService.getDealsInRangeReactive(eq("late"), eq("1:00am"), eq(RangeMatch.ANY), any(Pageable.class)))
+                .thenReturn(Mono.error(new InvalidTimeFormatException("Unable to parse time")));
+
+        webTestClient.get().uri("/api/v1/deals/range?from=late&to=1:00am")
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody()
+                .jsonPath("$.status").isEqualTo(400);
+    }
+
+    @Test
+    void searchDeals_passesQueryAndTime() {
+        DealResponse response = DealResponse.builder()
+                .deals(List.of(DealDto.builder().restaurantName("Thai Town").build()))
+                .totalElements(1)
+                .build();
+
+        when(dealService.searchDealsReactive(eq("thai"), eq("6:00pm"), any(Pageable.class)))
+                .thenReturn(Mono.just(response));
+
+        webTestClient.get().uri("/api/v1/deals/search?q=thai&timeOfDay=6:00pm")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.deals[0].restaurantName").isEqualTo("Thai Town");
+    }
+
+    @Test
+    void searchDeals_withoutQuery_returnsBadRequest() {
+        webTestClient.get().uri("/api/v1/deals/search")
+                .exchange()
+                .expectStatus().isBadRequest();
+    }
+
+    @Test
+    void getAvailability_defaultsToOneMinuteBuckets() {
+        when(dealService.getAvailabilityReactive(1)).thenReturn(Mono.just(AvailabilityResponse.builder()
+                .bucketMinutes(1)
+                .buckets(List.of(new AvailabilityBucket("12:00am", 0, 0)))
+                .build()));
+
+        webTestClient.get().uri("/api/v1/deals/availability")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.bucketMinutes").isEqualTo(1);
+    }
+
+    @Test
+    void getPeakTime_returnsOkWithPeakWindow() {
+        when(peakTimeService.calculatePeakTimeReactive(DealFilter.NONE))
+                .thenReturn(Mono.just(new PeakTimeResponse("6:00pm", "9:00pm")));
+
+        webTestClient.get().uri("/api/v1/deals/peak-time")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.peakTimeStart").isEqualTo("6:00pm")
+                .jsonPath("$.peakTimeEnd").isEqualTo("9:00pm");
+    }
+
+    @Test
+    void getPeakTime_withFilters_passesFilter() {
+        when(peakTimeService.calculatePeakTimeReactive(new DealFilter("Richmond", null, true, false)))
+                .thenReturn(Mono.just(new PeakTimeResponse("5:00pm", "7:00pm")));
+
+        webTestClient.get().uri("/api/v1/deals/peak-time?suburb=Richmond&dineIn=true&lightning=false")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.peakTimeStart").isEqualTo("5:00pm");
+    }
+
+    @Test
+    void getPeakTime_withInvalidFlag_returnsBadRequest() {
+        webTestClient.get().uri("/api/v1/deals/peak-time?lightning=sometimes")
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody()
+                .jsonPath("$.status").isEqualTo(400);
+    }
+
+    @Test
+    void getPeakTime_withServiceError_returnsServiceUnavailable() {
+        when(peakTimeService.calculatePeakTimeReactive(DealFilter.NONE))
+                .thenReturn(Mono.error(new RestaurantDataException("Service unavailable")));
+
+        webTestClient.get().uri("/api/v1/deals/peak-time")
+                .exchange()
+                .expectStatus().isEqualTo(503)
+                .expectBody()
+                .jsonPath("$.status").isEqualTo(503);
+    }
+
+    @Test
+    void getNearPeakWindows_defaultsToNinetyPercent() {
+        when(peakTimeService.getNearPeakWindowsReactive(0.9)).thenReturn(Mono.just(PeakWindowsResponse.builder()
+                .maxDealCount(10)
+                .windows(List.of(new TimeWindowDto("6:00pm", "8:00pm", 9, 10)))
+                .build()));
+
+        webTestClient.get().uri("/api/v1/deals/peak-time/near")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.windows[0].dealCount").isEqualTo(9);
+    }
+}
@@ -0,0 +1,134 @@
+package com.eatclub.challenge.integration;
+
+import com.eatclub.challenge.EatclubChallengeApplication;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Compares platform and virtual request threads while the first snapshot loads from a slow feed.
+ * <p>
+ * The feed answers after {@link #FEED_DELAY}. While it loads, {@link #WAITING_REQUESTS} deals requests wait for the
+ * snapshot on a Tomcat pool capped at {@link #REQUEST_THREADS} threads, and one {@code /actuator/health} request is
+ * timed. Only runs with {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+class ThreadModeBenchmarkTest {
+
+    private static final Duration FEED_DELAY = Duration.ofSeconds(3);
+    private static final int REQUEST_THREADS = 20;
+    private static final int WAITING_REQUESTS = 40;
+    private static final String FEED = """
+            {"restaurants":[{"objectId":"r1","name":"Masala Kitchen","suburb":"Richmond","cuisines":["Indian"],
+            "open":"9:00am","close":"9:00pm","deals":[{"objectId":"d1","discount":"30","dineIn":"true",
+            "lightning":"false","qtyLeft":"5"}]}]}
+            """;
+
+    @ParameterizedTest(name = "virtual threads: {0}")
+    @ValueSource(booleans = {false, true})
+    void healthDuringSlowInitialLoad(boolean virtualThreads) throws Exception {
+        CountDownLatch feedRequested = new CountDownLatch(1);
+        HttpServer feed = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        feed.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        feed.createContext("/feed.json", exchange -> {
+            feedRequested.countDown();
+            try {
+                Thread.sleep(FEED_DELAY);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            byte[] body = FEED.getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        feed.start();
+
+        int port = freePort();
+        ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor();
+        // The initial load runs on the ready event, so startup only returns once the feed has answered
+        CompletableFuture<ConfigurableApplicationContext> application = CompletableFuture.supplyAsync(() ->
+                new SpringApplicationBuilder(EatclubChallengeApplication.class).run(
+                        "--server.port=" + port,
+                        "--server.tomcat.threads.max=" + REQUEST_THREADS,
+                        "--spring.threads.virtual.enabled=" + virtualThreads,
+                        "--eatclub.snapshot.refresh-interval=1h",
+                        "--eatclub.data-source.url=http://localhost:" + feed.getAddress().getPort() + "/feed.json"),
+                clients);
+        try {
+            assertThat(feedRequested.await(30, TimeUnit.SECONDS)).isTrue();
+            HttpClient http = HttpClient.newBuilder()
+                    .version(HttpClient.Version.HTTP_1_1)
+                    .executor(clients)
+                    .build();
+            String base = "http://localhost:" + port;
+
+            List<CompletableFuture<Duration>> deals = IntStream.range(0, WAITING_REQUESTS)
+                    .mapToObj(i -> timed(http, base + "/api/v1/deals?timeOfDay=3:00pm"))
+                    .toList();
+            // Lets the deals requests reach the server and take its request threads first
+            Thread.sleep(200);
+            Duration health = timed(http, base + "/actuator/health").get(30, TimeUnit.SECONDS);
+            Duration slowestDeals = deals.stream()
+                    .map(CompletableFuture::join)
+                    .max(Comparator.naturalOrder())
+                    .orElseThrow();
+
+            System.out.printf("%s threads: health answered in %d ms, %d deals requests done within %d ms "
+                            + "(feed delay %d ms, %d request threads)%n", virtualThreads ? "virtual" : "platform",
+                    health.toMillis(), WAITING_REQUESTS, slowestDeals.toMillis(), FEED_DELAY.toMillis(),
+                    REQUEST_THREADS);
+
+            if (virtualThreads) {
+                assertThat(health).isLessThan(FEED_DELAY.dividedBy(3));
+            } else {
+                assertThat(health).isGreaterThan(FEED_DELAY.dividedBy(3));
+            }
+        } finally {
+            application.get(30, TimeUnit.SECONDS).close();
+            feed.stop(0);
+            clients.shutdownNow();
+        }
+    }
+
+    /**
+     * Sends a GET and completes with the time until its response was read.
+     */
+    private static CompletableFuture<Duration> timed(HttpClient http, String url) {
+        long start = System.nanoTime();
+        return http.sendAsync(HttpRequest.newBuilder(URI.create(url)).build(), HttpResponse.BodyHandlers.discarding())
+                .thenApply(response -> Duration.ofNanos(System.nanoTime() - start));
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.eatclub.challenge.model.compact;
+
+import com.eatclub.challenge.model.domain.Deal;
+import com.eatclub.challenge.model.domain.Restaurant;
+
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Converts domain restaurants built in tests into the compact records the snapshot holds, the way
+ * the feed reader would read them.
+ */
+public final class CompactRestaurants {
+
+    private CompactRestaurants() {
+    }
+
+    /**
+     * Missing cuisines and deals become empty lists, and null deal entries are skipped.
+     */
+    public static CompactRestaurant from(Restaurant restaurant) {
+        return new CompactRestaurant(
+                restaurant.getObjectId(),
+                restaurant.getName(),
+                restaurant.getAddress1(),
+                restaurant.getSuburb(),
+                restaurant.getCuisines() != null ? List.copyOf(restaurant.getCuisines()) : null,
+                restaurant.getOpen(),
+                restaurant.getClose(),
+                restaurant.getDeals().stream().filter(Objects::nonNull).map(CompactRestaurants::from).toList());
+    }
+
+    private static CompactDeal from(Deal deal) {
+        return new CompactDeal(
+                deal.getObjectId(),
+                deal.getDiscount(),
+                deal.getDineIn(),
+                deal.getLightning(),
+                deal.getQtyLeft(),
+                deal.getOpen(),
+                deal.getClose(),
+                deal.getStart(),
+                deal.getEnd());
+    }
+}
@@ -1,9 +1,19 @@
 package com.eatclub.challenge.service;
 
-import com.eatclub.challenge.client.RestaurantDataClient;
+import com.eatclub.challenge.dto.AvailabilityBucket;
+import com.eatclub.challenge.dto.AvailabilityResponse;
 import com.eatclub.challenge.dto.DealDto;
+import com.eatclub.challenge.dto.DealResponse;
+import com.eatclub.challenge.exception.CursorExpiredException;
+import com.eatclub.challenge.exception.InvalidTimeFormatException;
+import com.eatclub.challenge.exception.RestaurantDataException;
+import com.eatclub.challenge.model.DealFilter;
+import com.eatclub.challenge.model.RangeMatch;
+import com.eatclub.challenge.model.compact.CompactRestaurants;
 import com.eatclub.challenge.model.domain.Deal;
 import com.eatclub.challenge.model.domain.Restaurant;
+import com.eatclub.challenge.snapshot.RestaurantSnapshot;
+import com.eatclub.challenge.snapshot.RestaurantSnapshotStore;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.junit.jupiter.params.ParameterizedTest;
@@ -12,8 +22,16 @@ import org.junit.jupiter.params.provider.ValueSource;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
 
+import java.time.Duration;
+import java.time.Instant;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.when;
@@ -22,7 +40,7 @@ import static org.mockito.Mockito.when;
 class DealServiceTest {
 
     @Mock
-    private RestaurantDataClient dataClient;
+    private RestaurantSnapshotStore snapshotStore;
 
     @InjectMocks
     private DealService dealService;
@@ -48,7 +66,7 @@ class DealServiceTest {
                 .deals(List.of(deal))
                 .build();
 
-        when(dataClient.fetchRestaurants()).thenReturn(List.of(restaurant));
+        when(snapshotStore.current()).thenReturn(snapshotOf(List.of(restaurant)));
 
         // When
         List<DealDto> result = dealService.getActiveDeals("3:00pm");
@@ -81,7 +99,7 @@ class DealServiceTest {
                 .deals(List.of(deal))
                 .build();
 
-        when(dataClient.fetchRestaurants()).thenReturn(List.of(restaurant));
+        when(snapshotStore.current()).thenReturn(snapshotOf(List.of(restaurant)));
 
         // When
         List<DealDto> result = dealService.getActiveDeals("8:00pm");
@@ -112,7 +130,7 @@ class DealServiceTest {
                 .deals(List.of(deal))
                 .build();
 
-        when(dataClient.fetchRestaurants()).thenReturn(List.of(restaurant));
+        when(snapshotStore.current()).thenReturn(snapshotOf(List.of(restaurant)));
 
         // When
         List<DealDto> result = dealService.getActiveDeals("1:00am");
@@ -149,7 +167,7 @@ class DealServiceTest {
                 .deals(null)
                 .build();
 
-        when(dataClient.fetchRestaurants()).thenReturn(List.of(restaurantWithNullDeals));
+        when(snapshotStore.current()).thenReturn(snapshotOf(List.of(restaurantWithNullDeals)));
 
         // When
         List<DealDto> result = dealService.getActiveDeals("3:00pm");
@@ -180,7 +198,7 @@ class DealServiceTest {
                 .deals(List.of(deal))
                 .build();
 
-        when(dataClient.fetchRestaurants()).thenReturn(List.of(invalidRestaurant));
+        when(snapshotStore.current()).thenReturn(snapshotOf(List.of(invalidRestaurant)));
 
         // When
         List<DealDto> result = dealService.getActiveDeals("3:00pm");
@@ -189,4 +207,448 @@ class DealServiceTest {
         assertNotNull(result);
         assertTrue(result.isEmpty());
     }
-}
\ No newline at end of file
+
+    @Test
+    void getActiveDeals_paged_materializesPageAcrossRestaurants() {
+        Restaurant first = Restaurant.builder().objectId("rest1").name("First").open("9:00am").close("5:00pm")
+                .deals(List.of(dealWithId("d1"), dealWithId("d2"), dealWithId("d3"))).build();
+        Restaurant closed = Restaurant.builder().objectId("rest2").name("Closed").open("6:00pm").close("9:00pm")
+                .deals(List.of(dealWithId("d4"))).build();
+        Restaurant second = Restaurant.builder().objectId("rest3").name("Second").open("10:00pm").close("4:00pm")
+                .deals(List.of(dealWithId("d5"), dealWithId("d6"))).build();
+
+        when(snapshotStore.current()).thenReturn(snapshotOf(List.of(first, closed, second)));
+
+        DealResponse page = dealService.getActiveDeals("3:00pm", PageRequest.of(1, 2));
+
+        assertEquals(5, page.getTotalElements());
+        assertEquals(3, page.getTotalPages());
+        assertEquals(List.of("d3", "d5"), page.getDeals().stream().map(DealDto::getDealObjectId).toList());
+        assertTrue(dealService.getActiveDeals("3:00pm", PageRequest.of(3, 2)).getDeals().isEmpty());
+    }
+
+    @Test
+    void getActiveDeals_filtered_pagesMatchingDealsWithFacetCounts() {
+        Restaurant richmond = Restaurant.builder().objectId("rest1").name("First").suburb("Richmond")
+                .cuisines(List.of("Indian")).open("9:00am").close("5:00pm")
+                .deals(List.of(
+                        Deal.builder().objectId("d1").discount("20").dineIn("true").qtyLeft("1").build(),
+                        Deal.builder().objectId("d2").discount("10").dineIn("true").qtyLeft("1").build(),
+                        Deal.builder().objectId("d3").discount("40").dineIn("false").qtyLeft("1").build()))
+                .build();
+        Restaurant carlton = Restaurant.builder().objectId("rest2").name("Second").suburb("Carlton")
+                .cuisines(List.of("Thai")).open("9:00am").close("5:00pm")
+                .deals(List.of(
+                        Deal.builder().objectId("d4").discount("25").dineIn("true").lightning("true").qtyLeft("1")
+                                .build(),
+                        Deal.builder().objectId("d5").discount("30").dineIn("true").qtyLeft("1").build()))
+                .build();
+
+        when(snapshotStore.current()).thenReturn(snapshotOf(List.of(richmond, carlton)));
+
+        DealFilter filter = new DealFilter(null, null, true, null, 20);
+        DealResponse page = dealService.getActiveDeals("3:00pm", filter, PageRequest.of(1, 2));
+
+        assertEquals(3, page.getTotalElements());
+        assertEquals(List.of("d5"), page.getDeals().stream().map(DealDto::getDealObjectId).toList());
+        assertEquals(Map.of("Carlton", 2, "Richmond", 1), page.getFacets().getSuburbs());
+        assertEquals(Map.of("Thai", 2, "Indian", 1), page.getFacets().getCuisines());
+        assertEquals(3, page.getFacets().getDineIn());
+        assertEquals(1, page.getFacets().getLightning());
+        assertNull(dealService.getActiveDeals("3:00pm", PageRequest.of(0, 20)).getFacets());
+        assertEquals(0, dealService.getActiveDeals("8:00pm", filter, PageRequest.of(0, 20)).getTotalElements());
+    }
+
+    @Test
+    void getActiveDeals_sorted_pagesDealsInRequestedOrder() {
+        Restaurant richmond = Restaurant.builder().objectId("rest1").name("Basil").suburb("Richmond")
+                .open("9:00am").close("5:00pm")
+                .deals(List.of(
+                        Deal.builder().objectId("d1").discount("20").dineIn("true").qtyLeft("4").build(),
+                        Deal.builder().objectId("d2").discount("35%").dineIn("false").qtyLeft("1").build(),
+                        Deal.builder().objectId("d3").discount("10").dineIn("true").qtyLeft("9").build()))
+                .build();
+        Restaurant carlton = Restaurant.builder().objectId("rest2").name("Apple").suburb("Carlton")
+                .open("9:00am").close("5:00pm")
+                .deals(List.of(
+                        Deal.builder().objectId("d4").discount("35").dineIn("true").qtyLeft("2").build(),
+                        Deal.builder().objectId("d5").discount("5").dineIn("true").qtyLeft("7").build()))
+                .build();
+        RestaurantSnapshot snapshot = snapshotOf(List.of(richmond, carlton));
+
+        when(snapshotStore.current()).thenReturn(snapshot);
+        when(snapshotStore.find(1)).thenReturn(Optional.of(snapshot));
+
+        DealResponse byDiscount = dealService.getActiveDeals("3:00pm", DealFilter.NONE,
+                PageRequest.of(0, 3, Sort.by(Sort.Direction.DESC, "discount")));
+        DealResponse next = dealService.getActiveDeals("3:00pm", DealFilter.NONE, byDiscount.getNextCursor(),
+                PageRequest.of(0, 3, Sort.by(Sort.Direction.DESC, "discount")));
+        DealResponse byQty = dealService.getActiveDeals("3:00pm", new DealFilter(null, null, true, null),
+                PageRequest.of(1, 2, Sort.by("qtyLeft")));
+        DealResponse byQtyFirst = dealService.getActiveDeals("3:00pm", new DealFilter(null, null, true, null),
+                PageRequest.of(0, 2, Sort.by("qtyLeft")));
+        DealResponse byQtyNext = dealService.getActiveDeals("3:00pm", new DealFilter(null, null, true, null),
+                byQtyFirst.getNextCursor(), PageRequest.of(0, 2, Sort.by("qtyLeft")));
+        DealResponse byName = dealService.getActiveDeals("3:00pm", DealFilter.NONE,
+                PageRequest.of(0, 5, Sort.by("restaurantName")));
+
+        // Equal discounts keep feed order
+        assertEquals(List.of("d2", "d4", "d1"), byDiscount.getDeals().stream().map(DealDto::getDealObjectId).toList());
+        assertNull(byDiscount.getFacets());
+        assertEquals(List.of("d3", "d5"), next.getDeals().stream().map(DealDto::getDealObjectId).toList());
+        assertEquals(List.of("d5", "d3"), byQty.getDeals().stream().map(DealDto::getDealObjectId).toList());
+        assertEquals(4, byQty.getTotalElements());
+        assertEquals(Map.of("Richmond", 2, "Carlton", 2), byQty.getFacets().getSuburbs());
+        // The cursor continues after the last key of the first page, with the same totals and facets
+        assertEquals(List.of("d4", "d1"), byQtyFirst.getDeals().stream().map(DealDto::getDealObjectId).toList());
+        assertEquals(byQty.getDeals(), byQtyNext.getDeals());
+        assertEquals(1, byQtyNext.getCurrentPage());
+        assertEquals(4, byQtyNext.getTotalElements());
+        assertEquals(byQty.getFacets(), byQtyNext.getFacets());
+        assertNull(byQtyNext.getNextCursor());
+        assertEquals(List.of("d4", "d5", "d1", "d2", "d3"),
+                byName.getDeals().stream().map(DealDto::getDealObjectId).toList());
+    }
+
+    @Test
+    void getActiveDeals_unsupportedSort_throwsIllegalArgumentException() {
+        assertThrows(IllegalArgumentException.class, () -> dealService.getActiveDeals("3:00pm", DealFilter.NONE,
+                PageRequest.of(0, 20, Sort.by("price"))));
+        assertThrows(IllegalArgumentException.class, () -> dealService.getActiveDeals("3:00pm", DealFilter.NONE,
+                PageRequest.of(0, 20, Sort.by("discount", "qtyLeft"))));
+    }
+
+    @Test
+    void searchDeals_pagesDealsOfBestMatchingRestaurantsFirst() {
+        Restaurant curry = Restaurant.builder().objectId("rest1").name("Curry House").suburb("Richmond")
+                .cuisines(List.of("Thai")).open("9:00am").close("5:00pm")
+                .deals(List.of(dealWithId("d1"), dealWithId("d2"))).build();
+        Restaurant thai = Restaurant.builder().objectId("rest2").name("Thai Town").suburb("Carlton")
+                .open("9:00am").close("5:00pm")
+                .deals(List.of(dealWithId("d3"), dealWithId("d4"))).build();
+        Restaurant evening = Restaurant.builder().objectId("rest3").name("Thai Night").suburb("Carlton")
+                .open("6:00pm").close("11:00pm")
+                .deals(List.of(dealWithId("d5"))).build();
+
+        when(snapshotStore.current()).thenReturn(snapshotOf(List.of(curry, thai, evening)));
+
+        DealResponse first = dealService.searchDeals("thai", null, PageRequest.of(0, 3));
+        DealResponse second = dealService.searchDeals("thai", null, PageRequest.of(1, 3));
+        DealResponse atThree = dealService.searchDeals("THAI", "3:00pm", PageRequest.of(0, 20));
+
+        assertEquals(List.of("d3", "d4", "d5"), first.getDeals().stream().map(DealDto::getDealObjectId).toList());
+        assertEquals(5, first.getTotalElements());
+        assertTrue(first.isHasNext());
+        assertEquals(List.of("d1", "d2"), second.getDeals().stream().map(DealDto::getDealObjectId).toList());
+        assertEquals(List.of("d3", "d4", "d1", "d2"),
+                atThree.getDeals().stream().map(DealDto::getDealObjectId).toList());
+        assertEquals(List.of("d1", "d2"), dealService.searchDeals("thai richmond", null, PageRequest.of(0, 20))
+                .getDeals().stream().map(DealDto::getDealObjectId).toList());
+    }
+
+    @Test
+    void searchDeals_invalidQueryOrTime_throws() {
+        assertThrows(InvalidTimeFormatException.class,
+                () -> dealService.searchDeals("thai", "noon-ish", PageRequest.of(0, 20)));
+
+        when(snapshotStore.current()).thenReturn(snapshotOf(List.of()));
+
+        assertThrows(IllegalArgumentException.class,
+                () -> dealService.searchDeals("???", null, PageRequest.of(0, 20)));
+    }
+
+    @Test
+    void searchDealsReactive_searchesCurrentSnapshot() {
+        Restaurant restaurant = Restaurant.builder().objectId("rest1").name("Pho Real").open("9:00am").close("5:00pm")
+                .deals(List.of(dealWithId("d1"))).build();
+
+        when(snapshotStore.currentReactive()).thenReturn(Mono.just(snapshotOf(List.of(restaurant))));
+
+        StepVerifier.create(dealService.searchDealsReactive("pho", "3:00pm", PageRequest.of(0, 20)))
+                .assertNext(page -> assertEquals("d1", page.getDeals().get(0).getDealObjectId()))
+                .verifyComplete();
+    }
+
+    @Test
+    void getActiveDeals_cursor_continuesOnPinnedSnapshotVersion() {
+        Restaurant first = Restaurant.builder().objectId("rest1").name("First").open("9:00am").close("5:00pm")
+                .deals(List.of(dealWithId("d1"), dealWithId("d2"), dealWithId("d3"))).build();
+        Restaurant second = Restaurant.builder().objectId("rest2").name("Second").open("10:00am").close("4:00pm")
+                .deals(List.of(dealWithId("d4"), dealWithId("d5"))).build();
+        RestaurantSnapshot pinned = snapshotOf(List.of(first, second));
+
+        when(snapshotStore.current()).thenReturn(pinned);
+        when(snapshotStore.find(1)).thenReturn(Optional.of(pinned), Optional.of(pinned), Optional.empty());
+
+        DealResponse page1 = dealService.getActiveDeals("3:00pm", DealFilter.NONE, null, PageRequest.of(0, 2));
+        // A refresh between pages does not move the cursor: it keeps reading version 1
+        DealResponse page2 = dealService.getActiveDeals("3:00pm", DealFilter.NONE, page1.getNextCursor(),
+                PageRequest.of(0, 2));
+        DealResponse page3 = dealService.getActiveDeals("3:00pm", DealFilter.NONE, page2.getNextCursor(),
+                PageRequest.of(0, 2));
+
+        assertEquals(List.of("d1", "d2"), page1.getDeals().stream().map(DealDto::getDealObjectId).toList());
+        assertEquals(List.of("d3", "d4"), page2.getDeals().stream().map(DealDto::getDealObjectId).toList());
+        assertEquals(List.of("d5"), page3.getDeals().stream().map(DealDto::getDealObjectId).toList());
+        assertEquals(5, page2.getTotalElements());
+        assertEquals(1, page2.getCurrentPage());
+        assertTrue(page2.isHasPrevious());
+        assertFalse(page3.isHasNext());
+        assertNull(page3.getNextCursor());
+        assertThrows(CursorExpiredException.class, () -> dealService.getActiveDeals("3:00pm", DealFilter.NONE,
+                page1.getNextCursor(), PageRequest.of(0, 2)));
+    }
+
+    @Test
+    void getActiveDeals_cursorForAnotherQuery_throwsIllegalArgumentException() {
+        Restaurant restaurant = Restaurant.builder().objectId("rest1").name("First").suburb("Richmond")
+                .open("9:00am").close("5:00pm")
+                .deals(List.of(dealWithId("d1"), dealWithId("d2"))).build();
+
+        when(snapshotStore.current()).thenReturn(snapshotOf(List.of(restaurant)));
+
+        DealFilter filter = new DealFilter("Richmond", null, null, null);
+        String cursor = dealService.getActiveDeals("3:00pm", filter, null, PageRequest.of(0, 1)).getNextCursor();
+
+        assertNotNull(cursor);
+        assertThrows(IllegalArgumentException.class,
+                () -> dealService.getActiveDeals("4:00pm", filter, cursor, PageRequest.of(0, 1)));
+        assertThrows(IllegalArgumentException.class,
+                () -> dealService.getActiveDeals("3:00pm", DealFilter.NONE, cursor, PageRequest.of(0, 1)));
+        assertThrows(IllegalArgumentException.class,
+                () -> dealService.getActiveDeals("3:00pm", filter, "not a cursor", PageRequest.of(0, 1)));
+    }
+
+    @Test
+    void getActiveDealsReactive_cursor_readsPinnedSnapshot() {
+        Restaurant restaurant = Restaurant.builder().objectId("rest1").name("First").open("9:00am").close("5:00pm")
+                .deals(List.of(dealWithId("d1"), dealWithId("d2"))).build();
+        RestaurantSnapshot pinned = snapshotOf(List.of(restaurant));
+
+        when(snapshotStore.currentReactive()).thenReturn(Mono.just(pinned));
+        when(snapshotStore.find(1)).thenReturn(Optional.of(pinned));
+
+        StepVerifier.create(dealService.getActiveDealsReactive("3:00pm", DealFilter.NONE, null, PageRequest.of(0, 1))
+                        .flatMap(page -> dealService.getActiveDealsReactive("3:00pm", DealFilter.NONE,
+                                page.getNextCursor(), PageRequest.of(0, 1))))
+                .assertNext(page -> {
+                    assertEquals("d2", page.getDeals().get(0).getDealObjectId());
+                    assertNull(page.getNextCursor());
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    void streamActiveDeals_emitsDealsInFeedOrderAsRequested() {
+        Restaurant open = Restaurant.builder().objectId("rest1").name("Open").open("9:00am").close("5:00pm")
+                .deals(List.of(dealWithId("d1"), dealWithId("d2"))).build();
+        Restaurant closed = Restaurant.builder().objectId("rest2").name("Closed").open("6:00pm").close("9:00pm")
+                .deals(List.of(dealWithId("d3"))).build();
+        Restaurant later = Restaurant.builder().objectId("rest3").name("Later").open("2:00pm").close("4:00pm")
+                .deals(List.of(dealWithId("d4"))).build();
+
+        when(snapshotStore.current()).thenReturn(snapshotOf(List.of(open, closed, later)));
+
+        StepVerifier.create(dealService.streamActiveDeals("3:00pm", DealFilter.NONE), 1)
+                .assertNext(deal -> assertEquals("d1", deal.getDealObjectId()))
+                .expectNoEvent(Duration.ofMillis(50))
+                .thenRequest(2)
+                .assertNext(deal -> assertEquals("d2", deal.getDealObjectId()))
+                .assertNext(deal -> assertEquals("d4", deal.getDealObjectId()))
+                .verifyComplete();
+    }
+
+    @Test
+    void streamActiveDeals_withFilter_emitsMatchingDealsOnly() {
+        Restaurant restaurant = Restaurant.builder().objectId("rest1").name("First").open("9:00am").close("5:00pm")
+                .deals(List.of(
+                        Deal.builder().objectId("d1").discount("20").dineIn("true").qtyLeft("1").build(),
+                        Deal.builder().objectId("d2").discount("10").dineIn("false").qtyLeft("1").build(),
+                        Deal.builder().objectId("d3").discount("40").dineIn("true").qtyLeft("1").build()))
+                .build();
+
+        when(snapshotStore.current()).thenReturn(snapshotOf(List.of(restaurant)));
+
+        StepVerifier.create(dealService.streamActiveDeals("3:00pm", new DealFilter(null, null, true, null))
+                        .map(DealDto::getDealObjectId))
+                .expectNext("d1", "d3")
+                .verifyComplete();
+    }
+
+    @Test
+    void streamActiveDeals_withInvalidTime_throwsBeforeStreaming() {
+        assertThrows(InvalidTimeFormatException.class,
+                () -> dealService.streamActiveDeals("invalid", DealFilter.NONE));
+    }
+
+    @Test
+    void streamActiveDealsReactive_emitsDealsFromCurrentSnapshot() {
+        Restaurant restaurant = Restaurant.builder().objectId("rest1").name("First").open("9:00am").close("5:00pm")
+                .deals(List.of(dealWithId("d1"), dealWithId("d2"))).build();
+
+        when(snapshotStore.currentReactive()).thenReturn(Mono.just(snapshotOf(List.of(restaurant))));
+
+        StepVerifier.create(dealService.streamActiveDealsReactive("3:00pm", DealFilter.NONE)
+                        .map(DealDto::getDealObjectId))
+                .expectNext("d1", "d2")
+                .verifyComplete();
+        StepVerifier.create(dealService.streamActiveDealsReactive("invalid", DealFilter.NONE))
+                .expectError(InvalidTimeFormatException.class)
+                .verify();
+    }
+
+    @Test
+    void getActiveDealsReactive_emitsPageFromCurrentSnapshot() {
+        Deal deal = Deal.builder().objectId("deal1").discount("50").qtyLeft("10").build();
+        Restaurant restaurant = Restaurant.builder()
+                .objectId("rest1")
+                .name("Test Restaurant")
+                .open("9:00am")
+                .close("5:00pm")
+                .deals(List.of(deal))
+                .build();
+
+        when(snapshotStore.currentReactive()).thenReturn(Mono.just(snapshotOf(List.of(restaurant))));
+
+        StepVerifier.create(dealService.getActiveDealsReactive("3:00pm", PageRequest.of(0, 20)))
+                .assertNext(response -> {
+                    assertEquals(1, response.getTotalElements());
+                    assertEquals("deal1", response.getDeals().get(0).getDealObjectId());
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    void getActiveDealsReactive_invalidTime_signalsErrorWithoutThrowing() {
+        StepVerifier.create(dealService.getActiveDealsReactive("invalid", PageRequest.of(0, 20)))
+                .expectError(InvalidTimeFormatException.class)
+                .verify();
+    }
+
+    @Test
+    void getActiveDealsReactive_noSnapshot_signalsRestaurantDataException() {
+        when(snapshotStore.currentReactive()).thenReturn(Mono.error(new RestaurantDataException("not loaded")));
+
+        StepVerifier.create(dealService.getActiveDealsReactive("3:00pm", PageRequest.of(0, 20)))
+                .expectError(RestaurantDataException.class)
+                .verify();
+    }
+
+    @Test
+    void getActiveDeals_dealWindow_limitsDealWithinRestaurantHours() {
+        Deal allDay = dealWithId("d1");
+        Deal lightning = Deal.builder().objectId("d2").discount("20").lightning("true").qtyLeft("1")
+                .open("5:00pm").close("7:00pm").build();
+        Restaurant restaurant = Restaurant.builder().objectId("rest1").name("Diner").open("4:00pm").close("11:00pm")
+                .deals(List.of(allDay, lightning)).build();
+
+        when(snapshotStore.current()).thenReturn(snapshotOf(List.of(restaurant)));
+
+        assertEquals(List.of("d1", "d2"),
+                dealService.getActiveDeals("6:00pm").stream().map(DealDto::getDealObjectId).toList());
+        assertEquals(List.of("d1"),
+                dealService.getActiveDeals("8:00pm").stream().map(DealDto::getDealObjectId).toList());
+    }
+
+    @Test
+    void getDealsInRange_anyAndAll_matchRestaurantsOpenInOrThroughoutRange() {
+        Restaurant lunch = Restaurant.builder().objectId("rest1").name("Lunch").open("11:00am").close("6:00pm")
+                .deals(List.of(dealWithId("d1"))).build();
+        Restaurant dinner = Restaurant.builder().objectId("rest2").name("Dinner").open("5:00pm").close("10:00pm")
+                .deals(List.of(dealWithId("d2"), dealWithId("d3"))).build();
+        Restaurant late = Restaurant.builder().objectId("rest3").name("Late").open("9:00pm").close("2:00am")
+                .deals(List.of(dealWithId("d4"))).build();
+
+        when(snapshotStore.current()).thenReturn(snapshotOf(List.of(lunch, dinner, late)));
+
+        DealResponse any = dealService.getDealsInRange("5:30pm", "7:00pm", RangeMatch.ANY, PageRequest.of(0, 20));
+        DealResponse all = dealService.getDealsInRange("5:30pm", "7:00pm", RangeMatch.ALL, PageRequest.of(0, 20));
+        DealResponse overnight = dealService.getDealsInRange("11:00pm", "1:00am", RangeMatch.ALL,
+                PageRequest.of(0, 20));
+
+        assertEquals(List.of("d1", "d2", "d3"), any.getDeals().stream().map(DealDto::getDealObjectId).toList());
+        assertEquals(List.of("d2", "d3"), all.getDeals().stream().map(DealDto::getDealObjectId).toList());
+        assertEquals(List.of("d4"), overnight.getDeals().stream().map(DealDto::getDealObjectId).toList());
+    }
+
+    @ParameterizedTest
+    @NullAndEmptySource
+    void getDealsInRange_missingBound_throwsIllegalArgumentException(String from) {
+        assertThrows(IllegalArgumentException.class,
+                () -> dealService.getDealsInRange(from, "7:00pm", RangeMatch.ANY, PageRequest.of(0, 20)));
+    }
+
+    @Test
+    void getDealsInRangeReactive_invalidTime_signalsErrorWithoutThrowing() {
+        StepVerifier.create(dealService.getDealsInRangeReactive("5:30pm", "late", RangeMatch.ALL,
+                        PageRequest.of(0, 20)))
+                .expectError(InvalidTimeFormatException.class)
+                .verify();
+    }
+
+    @Test
+    void getAvailability_everyMinute_countsDealsUntilTheirClosingMinute() {
+        Restaurant lunch = Restaurant.builder().objectId("rest1").name("Lunch").open("11:00am").close("3:00pm")
+                .deals(List.of(dealWithId("d1"), dealWithId("d2"))).build();
+        Restaurant late = Restaurant.builder().objectId("rest2").name("Late").open("10:00pm").close("2:00am")
+                .deals(List.of(dealWithId("d3"))).build();
+
+        when(snapshotStore.current()).thenReturn(snapshotOf(List.of(lunch, late)));
+
+        AvailabilityResponse response = dealService.getAvailability(1);
+
+        assertEquals(1440, response.getBuckets().size());
+        for (int minute = 0; minute < 1440; minute++) {
+            // Like /peak-time, a deal no longer counts at its closing minute
+            int expected = minute >= 660 && minute < 900 ? 2 : minute < 120 || minute >= 1320 ? 1 : 0;
+            AvailabilityBucket bucket = response.getBuckets().get(minute);
+            assertEquals(expected, bucket.getDealCount(), bucket.getStart());
+            assertEquals(expected, bucket.getMaxDealCount(), bucket.getStart());
+        }
+        assertEquals("2:59pm", response.getBuckets().get(899).getStart());
+    }
+
+    @Test
+    void getAvailability_buckets_reportStartAndMaximumCounts() {
+        Restaurant lunch = Restaurant.builder().objectId("rest1").name("Lunch").open("11:10am").close("3:00pm")
+                .deals(List.of(dealWithId("d1"), dealWithId("d2"))).build();
+
+        when(snapshotStore.current()).thenReturn(snapshotOf(List.of(lunch)));
+
+        AvailabilityResponse response = dealService.getAvailability(60);
+
+        assertEquals(24, response.getBuckets().size());
+        assertEquals(new AvailabilityBucket("11:00am", 0, 2), response.getBuckets().get(11));
+        assertEquals(new AvailabilityBucket("2:00pm", 2, 2), response.getBuckets().get(14));
+        assertEquals(new AvailabilityBucket("3:00pm", 0, 0), response.getBuckets().get(15));
+        assertEquals(new AvailabilityBucket("4:00pm", 0, 0), response.getBuckets().get(16));
+        assertEquals(206, dealService.getAvailability(7).getBuckets().size());
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {0, -15, 1441})
+    void getAvailability_bucketOutOfRange_throwsIllegalArgumentException(int bucket) {
+        assertThrows(IllegalArgumentException.class, () -> dealService.getAvailability(bucket));
+    }
+
+    @Test
+    void getAvailabilityReactive_emitsCountsFromCurrentSnapshot() {
+        when(snapshotStore.currentReactive()).thenReturn(Mono.just(snapshotOf(List.of())));
+
+        StepVerifier.create(dealService.getAvailabilityReactive(1440))
+                .assertNext(response -> {
+                    assertEquals(1, response.getBuckets().size());
+                    assertEquals(0, response.getBuckets().get(0).getMaxDealCount());
+                })
+                .verifyComplete();
+    }
+
+    private Deal dealWithId(String objectId) {
+        return Deal.builder().objectId(objectId).discount("10").qtyLeft("1").build();
+    }
+
+    private RestaurantSnapshot snapshotOf(List<Restaurant> restaurants) {
+        return RestaurantSnapshot.of(1, Instant.now(),
+                restaurants.stream().map(CompactRestaurants::from).toList());
+    }
+}
@@ -1,19 +1,28 @@
 package com.eatclub.challenge.service;
 
-import com.eatclub.challenge.client.RestaurantDataClient;
 import com.eatclub.challenge.dto.PeakTimeResponse;
+import com.eatclub.challenge.dto.PeakWindowsResponse;
+import com.eatclub.challenge.dto.TimeWindowDto;
+import com.eatclub.challenge.model.DealFilter;
+import com.eatclub.challenge.model.compact.CompactRestaurants;
 import com.eatclub.challenge.model.domain.Deal;
 import com.eatclub.challenge.model.domain.Restaurant;
+import com.eatclub.challenge.snapshot.RestaurantSnapshot;
+import com.eatclub.challenge.snapshot.RestaurantSnapshotStore;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
 
+import java.time.Instant;
 import java.util.ArrayList;
 import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.Mockito.when;
 
 /**
@@ -24,13 +33,13 @@ import static org.mockito.Mockito.when;
 class PeakTimeServiceTest {
 
     @Mock
-    private RestaurantDataClient dataClient;
+    private RestaurantSnapshotStore snapshotStore;
 
     private PeakTimeService peakTimeService;
 
     @BeforeEach
     void setUp() {
-        peakTimeService = new PeakTimeService(dataClient);
+        peakTimeService = new PeakTimeService(snapshotStore);
     }
 
     @Test
@@ -39,7 +48,7 @@ class PeakTimeServiceTest {
         Restaurant r1 = createRestaurant("R1", "11:00am", "1:00pm", 4);
         Restaurant r2 = createRestaurant("R2", "5:00pm", "7:00pm", 4);
 
-        when(dataClient.fetchRestaurants()).thenReturn(List.of(r1, r2));
+        when(snapshotStore.current()).thenReturn(snapshotOf(List.of(r1, r2)));
 
         PeakTimeResponse response = peakTimeService.calculatePeakTime();
 
@@ -55,7 +64,7 @@ class PeakTimeServiceTest {
         Restaurant r1 = createRestaurant("R1", "12:00pm", "2:00pm", 3);
         Restaurant r2 = createRestaurant("R2", "12:00pm", "4:00pm", 3);
 
-        when(dataClient.fetchRestaurants()).thenReturn(List.of(r1, r2));
+        when(snapshotStore.current()).thenReturn(snapshotOf(List.of(r1, r2)));
 
         PeakTimeResponse response = peakTimeService.calculatePeakTime();
 
@@ -71,7 +80,7 @@ class PeakTimeServiceTest {
         Restaurant r2 = createRestaurant("R2", "12:00pm", "4:00pm", 2);
         Restaurant r3 = createRestaurant("R3", "2:00pm", "6:00pm", 2);
 
-        when(dataClient.fetchRestaurants()).thenReturn(List.of(r1, r2, r3));
+        when(snapshotStore.current()).thenReturn(snapshotOf(List.of(r1, r2, r3)));
 
         PeakTimeResponse response = peakTimeService.calculatePeakTime();
 
@@ -90,7 +99,7 @@ class PeakTimeServiceTest {
         Restaurant r4 = createRestaurant("R4", "1:00pm", "5:00pm", 2);    // 2 deals
 
         // Peak should be 1pm-2pm with 11 deals (R2:5 + R3:4 + R4:2)
-        when(dataClient.fetchRestaurants()).thenReturn(List.of(r1, r2, r3, r4));
+        when(snapshotStore.current()).thenReturn(snapshotOf(List.of(r1, r2, r3, r4)));
 
         PeakTimeResponse response = peakTimeService.calculatePeakTime();
 
@@ -105,7 +114,7 @@ class PeakTimeServiceTest {
         Restaurant r1 = createRestaurant("R1", "10:00pm", "2:00am", 5);
         Restaurant r2 = createRestaurant("R2", "6:00pm", "11:00pm", 3);
 
-        when(dataClient.fetchRestaurants()).thenReturn(List.of(r1, r2));
+        when(snapshotStore.current()).thenReturn(snapshotOf(List.of(r1, r2)));
 
         PeakTimeResponse response = peakTimeService.calculatePeakTime();
 
@@ -120,7 +129,7 @@ class PeakTimeServiceTest {
         Restaurant r2 = createRestaurant("R2", "12:00pm", "3:00pm", 5);
         Restaurant r3 = createRestaurant("R3", "1:00pm", "4:00pm", 0);  // No deals
 
-        when(dataClient.fetchRestaurants()).thenReturn(List.of(r1, r2, r3));
+        when(snapshotStore.current()).thenReturn(snapshotOf(List.of(r1, r2, r3)));
 
         PeakTimeResponse response = peakTimeService.calculatePeakTime();
 
@@ -134,7 +143,7 @@ class PeakTimeServiceTest {
         Restaurant r1 = createRestaurant("R1", "invalid", "2:00pm", 3);
         Restaurant r2 = createRestaurant("R2", "12:00pm", "4:00pm", 5);
 
-        when(dataClient.fetchRestaurants()).thenReturn(List.of(r1, r2));
+        when(snapshotStore.current()).thenReturn(snapshotOf(List.of(r1, r2)));
 
         PeakTimeResponse response = peakTimeService.calculatePeakTime();
 
@@ -145,7 +154,7 @@ class PeakTimeServiceTest {
 
     @Test
     void calculatePeakTime_emptyRestaurantList_returnsNullTimes() {
-        when(dataClient.fetchRestaurants()).thenReturn(List.of());
+        when(snapshotStore.current()).thenReturn(snapshotOf(List.of()));
 
         PeakTimeResponse response = peakTimeService.calculatePeakTime();
 
@@ -159,7 +168,7 @@ class PeakTimeServiceTest {
         Restaurant r2 = createRestaurant("R2", "11:00am", "2:00pm", 3);
         Restaurant r3 = createRestaurant("R3", "11:00am", "2:00pm", 4);
 
-        when(dataClient.fetchRestaurants()).thenReturn(List.of(r1, r2, r3));
+        when(snapshotStore.current()).thenReturn(snapshotOf(List.of(r1, r2, r3)));
 
         PeakTimeResponse response = peakTimeService.calculatePeakTime();
 
@@ -173,7 +182,7 @@ class PeakTimeServiceTest {
         Restaurant r1 = createRestaurant("R1", "11:00pm", "3:00am", 6);
         Restaurant r2 = createRestaurant("R2", "1:00am", "4:00am", 3);
 
-        when(dataClient.fetchRestaurants()).thenReturn(List.of(r1, r2));
+        when(snapshotStore.current()).thenReturn(snapshotOf(List.of(r1, r2)));
 
         PeakTimeResponse response = peakTimeService.calculatePeakTime();
 
@@ -182,6 +191,141 @@ class PeakTimeServiceTest {
         assertThat(response.getPeakTimeEnd()).isEqualTo("3:00am");
     }
 
+    @Test
+    void calculatePeakTime_dealWindows_countOnlyWhileDealIsAvailable() {
+        // R1's lightning deals only run 5pm-6pm, inside its 3pm-9pm hours
+        Restaurant r1 = createRestaurant("R1", "3:00pm", "9:00pm", 0);
+        r1.setDeals(List.of(
+                Deal.builder().objectId("l1").discount("20").qtyLeft("1").open("5:00pm").close("6:00pm").build(),
+                Deal.builder().objectId("l2").discount("20").qtyLeft("1").start("5:00pm").end("6:00pm").build()));
+        Restaurant r2 = createRestaurant("R2", "7:00pm", "8:00pm", 1);
+
+        when(snapshotStore.current()).thenReturn(snapshotOf(List.of(r1, r2)));
+
+        PeakTimeResponse response = peakTimeService.calculatePeakTime();
+
+        assertThat(response.getPeakTimeStart()).isEqualTo("5:00pm");
+        assertThat(response.getPeakTimeEnd()).isEqualTo("6:00pm");
+    }
+
+    @Test
+    void calculatePeakTime_repeatedCalls_readWindowMaterializedWithSnapshot() {
+        RestaurantSnapshot snapshot = RestaurantSnapshot.of(7, Instant.now(),
+                List.of(CompactRestaurants.from(createRestaurant("R1", "11:00am", "2:00pm", 2))));
+
+        when(snapshotStore.current()).thenReturn(snapshot);
+
+        PeakTimeResponse first = peakTimeService.calculatePeakTime();
+        PeakTimeResponse second = peakTimeService.calculatePeakTime();
+
+        assertThat(first.getSnapshotVersion()).isEqualTo(7);
+        assertThat(first.getComputedAt()).isEqualTo(snapshot.getPeakProfile().getComputedAt());
+        assertThat(second).isEqualTo(first);
+    }
+
+    @Test
+    void calculatePeakTime_withFilter_countsMatchingDealsOnly() {
+        // Most deals overall are at R1 in the morning, but the only lightning deals are at R2 in the evening
+        Restaurant r1 = createRestaurant("R1", "9:00am", "11:00am", 3);
+        Restaurant r2 = createRestaurant("R2", "6:00pm", "8:00pm", 0);
+        r2.setSuburb("Richmond");
+        r2.setDeals(List.of(
+                Deal.builder().objectId("l1").discount("30").qtyLeft("1").lightning("true").build(),
+                Deal.builder().objectId("l2").discount("30").qtyLeft("1").lightning("true")
+                        .open("7:00pm").close("8:00pm").build()));
+        RestaurantSnapshot snapshot = snapshotOf(List.of(r1, r2));
+
+        when(snapshotStore.current()).thenReturn(snapshot);
+
+        PeakTimeResponse unfiltered = peakTimeService.calculatePeakTime();
+        PeakTimeResponse lightning = peakTimeService.calculatePeakTime(new DealFilter(null, null, null, true));
+        PeakTimeResponse richmond = peakTimeService.calculatePeakTime(new DealFilter("richmond", null, null, null));
+        PeakTimeResponse elsewhere = peakTimeService.calculatePeakTime(new DealFilter("Carlton", null, null, null));
+
+        assertThat(unfiltered.getPeakTimeStart()).isEqualTo("9:00am");
+        assertThat(lightning.getPeakTimeStart()).isEqualTo("7:00pm");
+        assertThat(lightning.getPeakTimeEnd()).isEqualTo("8:00pm");
+        assertThat(lightning.getSnapshotVersion()).isEqualTo(snapshot.getVersion());
+        assertThat(richmond.getPeakTimeStart()).isEqualTo("7:00pm");
+        assertThat(richmond.getPeakTimeEnd()).isEqualTo("8:00pm");
+        assertThat(elsewhere.getPeakTimeStart()).isNull();
+        assertThat(elsewhere.getPeakTimeEnd()).isNull();
+    }
+
+    @Test
+    void getTopWindows_ranksWindowsByDealCountThenStart() {
+        // 11am-12pm: 2, 12pm-1pm: 5, 1pm-2pm: 3, 5pm-6pm: 3
+        Restaurant r1 = createRestaurant("R1", "11:00am", "2:00pm", 2);
+        Restaurant r2 = createRestaurant("R2", "12:00pm", "1:00pm", 3);
+        Restaurant r3 = createRestaurant("R3", "1:00pm", "2:00pm", 1);
+        Restaurant r4 = createRestaurant("R4", "5:00pm", "6:00pm", 3);
+
+        when(snapshotStore.current()).thenReturn(snapshotOf(List.of(r1, r2, r3, r4)));
+
+        PeakWindowsResponse response = peakTimeService.getTopWindows(3);
+
+        assertThat(response.getMaxDealCount()).isEqualTo(5);
+        assertThat(response.getWindows()).containsExactly(
+                new TimeWindowDto("12:00pm", "1:00pm", 5, 5),
+                new TimeWindowDto("1:00pm", "2:00pm", 3, 3),
+                new TimeWindowDto("5:00pm", "6:00pm", 3, 3));
+        assertThat(peakTimeService.getTopWindows(100).getWindows()).hasSize(4);
+    }
+
+    @Test
+    void getNearPeakWindows_mergesAdjacentWindowsAboveThreshold() {
+        // 10 deals 6pm-7pm, 9 deals 7pm-8pm, 4 deals 8pm-9pm, 9 deals 9pm-10pm
+        Restaurant r1 = createRestaurant("R1", "6:00pm", "8:00pm", 5);
+        Restaurant r2 = createRestaurant("R2", "6:00pm", "7:00pm", 1);
+        Restaurant r3 = createRestaurant("R3", "6:00pm", "10:00pm", 4);
+        Restaurant r4 = createRestaurant("R4", "9:00pm", "10:00pm", 5);
+
+        when(snapshotStore.current()).thenReturn(snapshotOf(List.of(r1, r2, r3, r4)));
+
+        PeakWindowsResponse response = peakTimeService.getNearPeakWindows(0.9);
+
+        assertThat(response.getWindows()).containsExactly(
+                new TimeWindowDto("6:00pm", "8:00pm", 9, 10),
+                new TimeWindowDto("9:00pm", "10:00pm", 9, 9));
+        assertThat(peakTimeService.getNearPeakWindows(1).getWindows())
+                .containsExactly(new TimeWindowDto("6:00pm", "7:00pm", 10, 10));
+    }
+
+    @Test
+    void getTopWindows_invalidArguments_throwIllegalArgumentException() {
+        assertThatThrownBy(() -> peakTimeService.getTopWindows(0)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> peakTimeService.getNearPeakWindows(0)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> peakTimeService.getNearPeakWindows(1.5))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void getNearPeakWindowsReactive_emptySnapshot_emitsNoWindows() {
+        when(snapshotStore.currentReactive()).thenReturn(Mono.just(snapshotOf(List.of())));
+
+        StepVerifier.create(peakTimeService.getNearPeakWindowsReactive(0.9))
+                .assertNext(response -> {
+                    assertThat(response.getMaxDealCount()).isZero();
+                    assertThat(response.getWindows()).isEmpty();
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    void calculatePeakTimeReactive_emitsPeakFromCurrentSnapshot() {
+        Restaurant r1 = createRestaurant("R1", "11:00pm", "3:00am", 6);
+        Restaurant r2 = createRestaurant("R2", "1:00am", "4:00am", 3);
+
+        when(snapshotStore.currentReactive()).thenReturn(Mono.just(snapshotOf(List.of(r1, r2))));
+
+        StepVerifier.create(peakTimeService.calculatePeakTimeReactive())
+                .assertNext(response -> {
+                    assertThat(response.getPeakTimeStart()).isEqualTo("1:00am");
+                    assertThat(response.getPeakTimeEnd()).isEqualTo("3:00am");
+                })
+                .verifyComplete();
+    }
+
     /**
      * Helper method to create a restaurant with specified details.
      */
@@ -219,4 +363,12 @@ class PeakTimeServiceTest {
         }
         return deals;
     }
-}
\ No newline at end of file
+
+    /**
+     * Helper method to wrap restaurants in a snapshot.
+     */
+    private RestaurantSnapshot snapshotOf(List<Restaurant> restaurants) {
+        return RestaurantSnapshot.of(1, Instant.now(),
+                restaurants.stream().map(CompactRestaurants::from).toList());
+    }
+}
@@ -0,0 +1,154 @@
+package com.eatclub.challenge.snapshot;
+
+import com.eatclub.challenge.model.compact.CompactRestaurant;
+import com.eatclub.challenge.snapshot.ActiveDealIndex.ActiveDeals;
+import com.eatclub.challenge.util.TimeParser;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+import static com.eatclub.challenge.snapshot.SnapshotFixtures.randomTime;
+import static com.eatclub.challenge.snapshot.SnapshotFixtures.restaurant;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for ActiveDealIndex.
+ */
+class ActiveDealIndexTest {
+
+    @Test
+    void at_everyMinute_matchesOperatingHoursCheck() {
+        List<CompactRestaurant> restaurants = List.of(
+                restaurant("r1", "9:00am", "5:00pm", 2),
+                restaurant("r2", "10:00pm", "2:00am", 1),
+                restaurant("r3", "12:00am", "11:59pm", 3),
+                restaurant("r4", "6:30pm", "6:30pm", 1),
+                restaurant("r5", "11:59pm", "12:00am", 1),
+                restaurant("r6", "3:00pm", "3:01pm", 2),
+                restaurant("r7", "12:00am", "12:00am", 1));
+        ActiveDealIndex index = index(restaurants);
+
+        for (int minute = 0; minute < DealTimeline.MINUTES_PER_DAY; minute++) {
+            LocalTime time = LocalTime.of(minute / 60, minute % 60);
+            List<String> expected = restaurants.stream()
+                    .filter(restaurant -> TimeParser.isWithinOperatingHours(time,
+                            TimeParser.parseTime(restaurant.open()),
+                            TimeParser.parseTime(restaurant.close())))
+                    .map(CompactRestaurant::objectId)
+                    .toList();
+
+            assertThat(restaurantIds(index.at(time))).as("minute %d", minute).isEqualTo(expected);
+        }
+    }
+
+    @Test
+    void at_manySegments_replaysChangesFromNearestCheckpoint() {
+        Random random = new Random(12);
+        List<CompactRestaurant> restaurants = new ArrayList<>();
+        for (int i = 0; i < 80; i++) {
+            restaurants.add(restaurant("r" + i, randomTime(random), randomTime(random), 1 + random.nextInt(3)));
+        }
+        ActiveDealIndex index = index(restaurants);
+
+        assertThat(index.segmentCount()).isGreaterThan(64);
+        for (int minute = 0; minute < DealTimeline.MINUTES_PER_DAY; minute++) {
+            LocalTime time = LocalTime.of(minute / 60, minute % 60);
+            List<CompactRestaurant> expected = restaurants.stream()
+                    .filter(restaurant -> TimeParser.isWithinOperatingHours(time,
+                            TimeParser.parseTime(restaurant.open()),
+                            TimeParser.parseTime(restaurant.close())))
+                    .toList();
+
+            ActiveDeals active = index.at(minute);
+            assertThat(restaurantIds(active)).as("minute %d", minute)
+                    .isEqualTo(expected.stream().map(CompactRestaurant::objectId).toList());
+            assertThat(active.dealCount()).as("minute %d", minute)
+                    .isEqualTo(expected.stream().mapToInt(restaurant -> restaurant.deals().size()).sum());
+            assertThat(active.size()).as("minute %d", minute).isEqualTo(expected.size());
+            for (int ordinal = 0, before = 0, i = 0; i < expected.size(); i++) {
+                for (int d = 0; d < expected.get(i).deals().size(); d++, ordinal++) {
+                    ActiveDeals.Cursor cursor = active.from(ordinal);
+                    assertThat(cursor.next()).isTrue();
+                    assertThat(cursor.run().restaurant().source()).isSameAs(expected.get(i));
+                    assertThat(cursor.dealsBefore()).isEqualTo(before);
+                }
+                before += expected.get(i).deals().size();
+            }
+            assertThat(index.at(minute)).isSameAs(active);
+        }
+    }
+
+    @Test
+    void at_closingMinute_isInclusive() {
+        ActiveDealIndex index = index(List.of(restaurant("r1", "9:00am", "5:00pm", 1)));
+
+        assertThat(index.at(LocalTime.of(9, 0)).size()).isEqualTo(1);
+        assertThat(index.at(LocalTime.of(17, 0)).size()).isEqualTo(1);
+        assertThat(index.at(LocalTime.of(17, 1)).size()).isZero();
+        assertThat(index.at(LocalTime.of(8, 59)).size()).isZero();
+    }
+
+    @Test
+    void of_restaurantsWithoutDealsOrParseableHours_areLeftOut() {
+        ActiveDealIndex index = index(List.of(
+                restaurant("r1", "9:00am", "5:00pm", 0),
+                restaurant("r2", "soon", "5:00pm", 1),
+                restaurant("r3", null, "5:00pm", 1),
+                restaurant("r4", "9:00am", "5:00pm", 1)));
+
+        // r2 and r3 are quarantined at ingest and r1 has no deal runs
+        assertThat(restaurantIds(index.at(LocalTime.NOON))).containsExactly("r4");
+        assertThat(index.at(LocalTime.NOON).dealCount()).isEqualTo(1);
+    }
+
+    @Test
+    void of_sharedHours_shareOneSegment() {
+        List<CompactRestaurant> restaurants = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            restaurants.add(restaurant("r" + i, "9:00am", "5:00pm", 1));
+        }
+
+        ActiveDealIndex index = index(restaurants);
+
+        assertThat(index.segmentCount()).isEqualTo(3);
+        assertThat(restaurantIds(index.at(LocalTime.of(9, 0)))).hasSize(100)
+                .isEqualTo(restaurantIds(index.at(LocalTime.of(17, 0))));
+    }
+
+    @Test
+    void from_seeksToRunHoldingDealOrdinal() {
+        ActiveDeals active = index(List.of(
+                        restaurant("r1", "9:00am", "5:00pm", 2),
+                        restaurant("r2", "9:00am", "5:00pm", 1),
+                        restaurant("r3", "9:00am", "5:00pm", 3)))
+                .at(LocalTime.NOON);
+
+        assertThat(active.dealCount()).isEqualTo(6);
+        assertThat(IntStream.range(0, 6).map(ordinal -> {
+            ActiveDeals.Cursor cursor = active.from(ordinal);
+            assertThat(cursor.next()).isTrue();
+            return cursor.position();
+        })).containsExactly(0, 0, 1, 2, 2, 2);
+        ActiveDeals.Cursor third = active.from(3);
+        assertThat(third.next()).isTrue();
+        assertThat(third.dealsBefore()).isEqualTo(3);
+        assertThat(third.next()).isFalse();
+        assertThat(active.from(6).next()).isFalse();
+    }
+
+    private static ActiveDealIndex index(List<CompactRestaurant> restaurants) {
+        return ActiveDealIndex.of(CompiledCatalog.of(restaurants).getDealRuns());
+    }
+
+    private static List<String> restaurantIds(ActiveDeals active) {
+        List<String> ids = new ArrayList<>();
+        for (ActiveDeals.Cursor cursor = active.from(0); cursor.next(); ) {
+            ids.add(cursor.run().restaurant().source().objectId());
+        }
+        return ids;
+    }
+}
@@ -0,0 +1,120 @@
+package com.eatclub.challenge.snapshot;
+
+import com.eatclub.challenge.model.compact.CompactDeal;
+import com.eatclub.challenge.model.compact.CompactRestaurant;
+import com.eatclub.challenge.model.compiled.CompiledDeal;
+import com.eatclub.challenge.model.compiled.CompiledRestaurant;
+import com.eatclub.challenge.model.compiled.DealRun;
+import com.eatclub.challenge.model.compiled.MinuteRange;
+import com.eatclub.challenge.model.compiled.QuarantinedRecord;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static com.eatclub.challenge.snapshot.SnapshotFixtures.deal;
+import static com.eatclub.challenge.snapshot.SnapshotFixtures.restaurant;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for CompiledCatalog.
+ */
+class CompiledCatalogTest {
+
+    @Test
+    void of_validRecords_compilesTypedValues() {
+        CompactDeal deal = new CompactDeal("d1", " 25% ", "TRUE", null, "7", null, null, null, null);
+        CompactRestaurant lateNight = new CompactRestaurant("r1", "Late", null, null, null,
+                "10:00pm", "2:00am", List.of(deal));
+
+        CompiledCatalog catalog = CompiledCatalog.of(List.of(lateNight));
+
+        assertThat(catalog.getQuarantined()).isEmpty();
+        CompiledRestaurant compiled = catalog.getRestaurants().get(0);
+        assertThat(compiled.source()).isSameAs(lateNight);
+        assertThat(compiled.openMinute()).isEqualTo(1320);
+        assertThat(compiled.closeMinute()).isEqualTo(120);
+        assertThat(compiled.wrapsMidnight()).isTrue();
+        assertThat(compiled.deals()).containsExactly(new CompiledDeal(deal, 25, true, false, 7));
+    }
+
+    @Test
+    void of_invalidRecords_areQuarantinedWithReasons() {
+        CompactRestaurant unparseableHours = new CompactRestaurant("r1", "Broken", null, null, null,
+                "soon", "5:00pm", List.of(deal("d1", "1")));
+        CompactRestaurant mixedDeals = restaurant("r2", "5:00pm",
+                deal("d2", "3"),
+                deal("d3", "-1"),
+                deal("d4", "150", "true", "false", "1"),
+                deal("d5", "10", "yes", "false", "1"),
+                deal("d6", null, "true", "false", "1"));
+
+        CompiledCatalog catalog = CompiledCatalog.of(List.of(unparseableHours, mixedDeals));
+
+        assertThat(catalog.getRestaurants()).hasSize(1);
+        assertThat(catalog.getRestaurants().get(0).deals())
+                .extracting(compiled -> compiled.source().objectId())
+                .containsExactly("d2");
+        assertThat(catalog.getQuarantined()).containsExactly(
+                new QuarantinedRecord("r1", null, "invalid opening hours 'soon' to '5:00pm'"),
+                new QuarantinedRecord("r2", "d3", "invalid qtyLeft '-1'"),
+                new QuarantinedRecord("r2", "d4", "invalid discount '150'"),
+                new QuarantinedRecord("r2", "d5", "invalid dineIn 'yes'"),
+                new QuarantinedRecord("r2", "d6", "invalid discount 'null'"));
+    }
+
+    @Test
+    void of_dealWindows_groupConsecutiveDealsAndIntersectRestaurantHours() {
+        CompactRestaurant restaurant = new CompactRestaurant("r1", "Diner", null, null, null,
+                "6:00pm", "2:00am", List.of(
+                deal("d1", "1"),
+                new CompactDeal("d2", "20", "true", "false", "1", "6:00pm", "2:00am", null, null),
+                new CompactDeal("d3", "20", "true", "true", "1", null, null, "1:00am", "7:00pm"),
+                new CompactDeal("d4", "20", "true", "true", "1", "8:00am", "noon", null, null),
+                deal("d5", "1")));
+
+        CompiledCatalog catalog = CompiledCatalog.of(List.of(restaurant));
+
+        assertThat(catalog.getQuarantined()).containsExactly(
+                new QuarantinedRecord("r1", "d4", "invalid deal window '8:00am' to 'noon'"));
+        List<DealRun> runs = catalog.getDealRuns();
+        assertThat(runs).extracting(run -> run.deals().size()).containsExactly(2, 1, 1);
+        assertThat(runs.get(0).available())
+                .containsExactly(new MinuteRange(0, 120), new MinuteRange(1080, 1439));
+        assertThat(runs.get(1).available())
+                .containsExactly(new MinuteRange(60, 120), new MinuteRange(1080, 1140));
+        assertThat(runs.get(1).counted())
+                .containsExactly(new MinuteRange(60, 119), new MinuteRange(1080, 1139));
+        assertThat(catalog.runs(restaurant)).isEqualTo(runs);
+    }
+
+    @Test
+    void of_dealWindowOutsideRestaurantHours_isNeverAvailable() {
+        CompactRestaurant restaurant = new CompactRestaurant("r1", "Cafe", null, null, null,
+                "6:00am", "2:00pm", List.of(
+                new CompactDeal("d1", "20", "true", "false", "1", "6:00pm", "9:00pm", null, null)));
+
+        DealRun run = CompiledCatalog.of(List.of(restaurant)).getDealRuns().get(0);
+
+        assertThat(run.available()).isEmpty();
+        assertThat(run.counted()).isEmpty();
+    }
+
+    @Test
+    void next_reusesCompilationOfUnchangedRestaurants() {
+        List<CompactRestaurant> previous = List.of(
+                restaurant("r1", "5:00pm", deal("d1", "5")),
+                restaurant("r2", "9:00pm", deal("d2", "x")));
+        List<CompactRestaurant> fetched = List.of(
+                restaurant("r1", "5:00pm", deal("d1", "5")),
+                restaurant("r2", "9:00pm", deal("d2", "x")),
+                restaurant("r3", "4:00pm", deal("d3", "2")));
+        CompiledCatalog catalog = CompiledCatalog.of(previous);
+
+        CompiledCatalog next = catalog.next(SnapshotDiff.between(previous, fetched));
+
+        assertThat(next.getRestaurants()).hasSize(3);
+        assertThat(next.getRestaurants().get(0)).isSameAs(catalog.getRestaurants().get(0));
+        assertThat(next.getQuarantined()).isEqualTo(catalog.getQuarantined());
+        assertThat(next.compiled(fetched.get(2))).isPresent();
+    }
+}
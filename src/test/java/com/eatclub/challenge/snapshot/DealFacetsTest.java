@@ -0,0 +1,157 @@
+package com.eatclub.challenge.snapshot;
+
+import com.eatclub.challenge.model.DealFilter;
+import com.eatclub.challenge.model.compact.CompactDeal;
+import com.eatclub.challenge.model.compact.CompactRestaurant;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static com.eatclub.challenge.snapshot.SnapshotFixtures.deal;
+import static com.eatclub.challenge.snapshot.SnapshotFixtures.randomTime;
+import static com.eatclub.challenge.snapshot.SnapshotFixtures.restaurant;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for DealFacets.
+ */
+class DealFacetsTest {
+
+    private static final String[] SUBURBS = {"Richmond", "carlton", null};
+    private static final String[] CUISINES = {"Indian", "thai", "Pizza"};
+    private static final String[] FLAGS = {"true", "false", null};
+
+    @Test
+    void profile_everyFilter_matchesTimelineOfMatchingDealsOnly() {
+        Random random = new Random(20);
+        List<CompactRestaurant> restaurants = new ArrayList<>();
+        for (int i = 0; i < 60; i++) {
+            restaurants.add(randomRestaurant("r" + i, random));
+        }
+        DealFacets facets = DealFacets.of(CompiledCatalog.of(restaurants).getDealRuns(), Instant.EPOCH);
+
+        for (String suburb : new String[]{null, "richmond", " CARLTON ", "Nowhere"}) {
+            for (String cuisine : new String[]{null, "INDIAN", "Thai", "Sushi"}) {
+                for (Boolean dineIn : new Boolean[]{null, true, false}) {
+                    for (Boolean lightning : new Boolean[]{null, true, false}) {
+                        DealFilter filter = new DealFilter(suburb, cuisine, dineIn, lightning);
+                        if (filter.isEmpty()) {
+                            continue;
+                        }
+                        PeakProfile expected = PeakProfile.of(DealTimeline.of(
+                                CompiledCatalog.of(matching(restaurants, filter)).getDealRuns()), Instant.EPOCH);
+                        PeakProfile actual = facets.profile(filter);
+
+                        assertThat(actual.maxDealCount()).as("%s", filter).isEqualTo(expected.maxDealCount());
+                        assertThat(actual.top(DealTimeline.MINUTES_PER_DAY)).as("%s", filter)
+                                .isEqualTo(expected.top(DealTimeline.MINUTES_PER_DAY));
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    void profile_cuisineListedTwice_countsDealsOnce() {
+        CompactRestaurant restaurant = restaurant("r1", "Restaurant r1", "Richmond", List.of("Thai", " thai "),
+                "12:00pm", "2:00pm", List.of(deal("d1", "20", "true", "false", "1")));
+        DealFacets facets = DealFacets.of(CompiledCatalog.of(List.of(restaurant)).getDealRuns(), Instant.EPOCH);
+
+        PeakWindow peak = facets.profile(new DealFilter(null, "Thai", null, null)).peak().orElseThrow();
+
+        assertThat(peak).isEqualTo(new PeakWindow(720, 840, 1, 1));
+    }
+
+    @Test
+    void of_onlyOccurringKeys_holdArrays() {
+        CompactRestaurant restaurant = restaurant("r1", "Restaurant r1", "Richmond", List.of("Thai"),
+                "12:00pm", "2:00pm", List.of(deal("d1", "20", "true", "true", "1")));
+        DealFacets facets = DealFacets.of(CompiledCatalog.of(List.of(restaurant)).getDealRuns(), Instant.EPOCH);
+
+        // Any or this suburb, with any or this cuisine
+        assertThat(facets.size()).isEqualTo(4);
+        assertThat(facets.profile(new DealFilter("Richmond", null, null, true)).peak())
+                .isEqualTo(facets.profile(new DealFilter("RICHMOND", "", null, true)).peak())
+                .contains(new PeakWindow(720, 840, 1, 1));
+        assertThat(facets.profile(new DealFilter("Carlton", null, null, null)).peak()).isEmpty();
+        assertThat(facets.profile(new DealFilter(null, "Thai", false, null)).peak()).isEmpty();
+        assertThat(facets.profile(new DealFilter(null, "Thai", true, null)).getComputedAt()).isEqualTo(Instant.EPOCH);
+        assertThat(facets.size()).isEqualTo(4);
+    }
+
+    @Test
+    void apply_changes_matchFreshBuildAndLeavePreviousFacetsUnchanged() {
+        Random random = new Random(21);
+        List<CompactRestaurant> restaurants = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            restaurants.add(randomRestaurant("r" + i, random));
+        }
+        List<CompactRestaurant> changed = new ArrayList<>(restaurants);
+        for (int i = 0; i < changed.size(); i += 4) {
+            changed.set(i, randomRestaurant("r" + i, random));
+        }
+        changed.remove(1);
+        changed.add(randomRestaurant("added", random));
+        CompiledCatalog previous = CompiledCatalog.of(restaurants);
+        SnapshotDiff diff = SnapshotDiff.between(restaurants, changed);
+        DealFacets facets = DealFacets.of(previous.getDealRuns(), Instant.EPOCH);
+
+        DealFacets patched = facets.apply(diff, previous, previous.next(diff), Instant.EPOCH);
+
+        DealFacets rebuiltNext = DealFacets.of(CompiledCatalog.of(changed).getDealRuns(), Instant.EPOCH);
+        DealFacets rebuiltPrevious = DealFacets.of(previous.getDealRuns(), Instant.EPOCH);
+        for (String suburb : new String[]{null, "Richmond", "Carlton"}) {
+            for (String cuisine : new String[]{null, "Indian", "Thai", "Pizza"}) {
+                for (Boolean dineIn : new Boolean[]{null, true, false}) {
+                    DealFilter filter = new DealFilter(suburb, cuisine, dineIn, null);
+                    if (filter.isEmpty()) {
+                        continue;
+                    }
+                    assertThat(patched.profile(filter).top(DealTimeline.MINUTES_PER_DAY)).as("%s", filter)
+                            .isEqualTo(rebuiltNext.profile(filter).top(DealTimeline.MINUTES_PER_DAY));
+                    assertThat(facets.profile(filter).top(DealTimeline.MINUTES_PER_DAY)).as("%s", filter)
+                            .isEqualTo(rebuiltPrevious.profile(filter).top(DealTimeline.MINUTES_PER_DAY));
+                }
+            }
+        }
+    }
+
+    private static List<CompactRestaurant> matching(List<CompactRestaurant> restaurants, DealFilter filter) {
+        return restaurants.stream()
+                .filter(restaurant -> filter.suburb() == null
+                        || filter.suburb().equals(DealFilter.normalize(restaurant.suburb())))
+                .filter(restaurant -> filter.cuisine() == null || restaurant.cuisines().stream()
+                        .anyMatch(cuisine -> filter.cuisine().equals(DealFilter.normalize(cuisine))))
+                .map(restaurant -> new CompactRestaurant(restaurant.objectId(), restaurant.name(), null,
+                        restaurant.suburb(), restaurant.cuisines(), restaurant.open(), restaurant.close(),
+                        restaurant.deals().stream()
+                                .filter(deal -> filter.dineIn() == null
+                                        || filter.dineIn() == "true".equals(deal.dineIn()))
+                                .filter(deal -> filter.lightning() == null
+                                        || filter.lightning() == "true".equals(deal.lightning()))
+                                .toList()))
+                .toList();
+    }
+
+    private static CompactRestaurant randomRestaurant(String objectId, Random random) {
+        List<String> cuisines = new ArrayList<>(Arrays.asList(CUISINES));
+        cuisines.removeIf(cuisine -> random.nextBoolean());
+        List<CompactDeal> deals = new ArrayList<>();
+        int dealCount = random.nextInt(4);
+        for (int i = 0; i < dealCount; i++) {
+            CompactDeal deal = deal(objectId + "-d" + i, "20", FLAGS[random.nextInt(FLAGS.length)],
+                    FLAGS[random.nextInt(FLAGS.length)], "1");
+            if (random.nextInt(3) == 0) {
+                deal = new CompactDeal(deal.objectId(), deal.discount(), deal.dineIn(), deal.lightning(),
+                        deal.qtyLeft(), randomTime(random), randomTime(random), null, null);
+            }
+            deals.add(deal);
+        }
+        return restaurant(objectId, "Restaurant " + objectId, SUBURBS[random.nextInt(SUBURBS.length)], cuisines,
+                randomTime(random), randomTime(random), deals);
+    }
+}
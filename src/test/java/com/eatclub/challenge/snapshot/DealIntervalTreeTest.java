@@ -0,0 +1,168 @@
+package com.eatclub.challenge.snapshot;
+
+import com.eatclub.challenge.model.compact.CompactDeal;
+import com.eatclub.challenge.model.compact.CompactRestaurant;
+import com.eatclub.challenge.model.compiled.DealRun;
+import com.eatclub.challenge.snapshot.ActiveDealIndex.ActiveDeals;
+import com.eatclub.challenge.util.TimeCodec;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.IntStream;
+
+import static com.eatclub.challenge.snapshot.SnapshotFixtures.deal;
+import static com.eatclub.challenge.snapshot.SnapshotFixtures.restaurant;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for DealIntervalTree.
+ */
+class DealIntervalTreeTest {
+
+    @Test
+    void ranges_matchMinuteByMinuteLookups() {
+        List<CompactRestaurant> restaurants = new ArrayList<>(List.of(
+                restaurant("r1", "9:00am", "5:00pm", 2),
+                restaurant("r2", "10:00pm", "2:00am", 1),
+                restaurant("r3", "12:00am", "11:59pm", 3),
+                restaurant("r4", "6:30pm", "6:30pm", 1),
+                restaurant("r5", "11:59pm", "12:00am", 1),
+                restaurant("r6", "3:00pm", "3:01pm", 2),
+                restaurant("r7", "12:00am", "12:00am", 1),
+                restaurant("r8", "9:00am", "5:00pm", 0)));
+        Random random = new Random(42);
+        for (int i = 0; i < 200; i++) {
+            List<CompactDeal> deals = IntStream.range(0, 1 + random.nextInt(3))
+                    .mapToObj(d -> random.nextBoolean()
+                            ? deal("x" + d, "1")
+                            : new CompactDeal("x" + d, "20", "true", "false", "1",
+                            TimeCodec.format(random.nextInt(1440)), TimeCodec.format(random.nextInt(1440)),
+                            null, null))
+                    .toList();
+            restaurants.add(new CompactRestaurant("x" + i, "Restaurant x" + i, null, null, null,
+                    TimeCodec.format(random.nextInt(1440)), TimeCodec.format(random.nextInt(1440)), deals));
+        }
+        List<DealRun> runs = CompiledCatalog.of(restaurants).getDealRuns();
+        ActiveDealIndex index = ActiveDealIndex.of(runs);
+        DealIntervalTree tree = DealIntervalTree.of(runs);
+
+        Set<Integer> boundaries = new TreeSet<>(List.of(0, 1, 539, 540, 541, 900, 901, 1020, 1021, 1110,
+                1320, 1438, 1439));
+        List<int[]> ranges = new ArrayList<>();
+        for (int from : boundaries) {
+            for (int to : boundaries) {
+                ranges.add(new int[]{from, to});
+            }
+        }
+        for (int i = 0; i < 40; i++) {
+            ranges.add(new int[]{random.nextInt(1440), random.nextInt(1440)});
+        }
+
+        // Positions of the runs open at each minute, looked up once and compared as bits
+        Map<DealRun, Integer> positions = new IdentityHashMap<>();
+        for (int position = 0; position < runs.size(); position++) {
+            positions.put(runs.get(position), position);
+        }
+        BitSet[] openAt = new BitSet[DealTimeline.MINUTES_PER_DAY];
+        for (int minute = 0; minute < openAt.length; minute++) {
+            openAt[minute] = positionsOf(index.at(minute), positions);
+        }
+
+        for (int[] range : ranges) {
+            int from = range[0];
+            int to = range[1];
+            BitSet any = new BitSet(runs.size());
+            BitSet all = new BitSet(runs.size());
+            all.set(0, runs.size());
+            minutes(from, to).forEach(minute -> {
+                any.or(openAt[minute]);
+                all.and(openAt[minute]);
+            });
+
+            assertThat(positionsOf(tree.overlapping(from, to), positions)).as("any %d-%d", from, to).isEqualTo(any);
+            assertThat(positionsOf(tree.covering(from, to), positions)).as("all %d-%d", from, to).isEqualTo(all);
+        }
+    }
+
+    @Test
+    void overlapping_includesWindowsTouchingEitherEnd() {
+        DealIntervalTree tree = tree(List.of(
+                restaurant("lunch", "11:00am", "5:30pm", 1),
+                restaurant("dinner", "7:00pm", "11:00pm", 1),
+                restaurant("breakfast", "7:00am", "11:00am", 1)));
+
+        assertThat(restaurantIds(tree.overlapping(1050, 1140))).containsExactly("lunch", "dinner");
+        assertThat(restaurantIds(tree.covering(1050, 1140))).isEmpty();
+    }
+
+    @Test
+    void covering_rangeAcrossMidnight_needsBothSidesOpen() {
+        DealIntervalTree tree = tree(List.of(
+                restaurant("late", "10:00pm", "2:00am", 1),
+                restaurant("evening", "6:00pm", "11:59pm", 1),
+                restaurant("always", "12:00pm", "12:00pm", 1)));
+
+        // 11:00pm to 1:00am
+        assertThat(restaurantIds(tree.covering(1380, 60))).containsExactly("late", "always");
+        assertThat(restaurantIds(tree.overlapping(1380, 60))).containsExactly("late", "evening", "always");
+    }
+
+    @Test
+    void ranges_countDealsOfMatchedRestaurants() {
+        ActiveDeals matched = tree(List.of(
+                restaurant("r1", "9:00am", "5:00pm", 2),
+                restaurant("r2", "12:00pm", "9:00pm", 3)))
+                .overlapping(600, 720);
+
+        assertThat(matched.size()).isEqualTo(2);
+        assertThat(matched.dealCount()).isEqualTo(5);
+    }
+
+    @Test
+    void of_noRestaurants_matchesNothing() {
+        DealIntervalTree tree = tree(List.of());
+
+        assertThat(tree.overlapping(0, 1439).size()).isZero();
+        assertThat(tree.covering(1380, 60).size()).isZero();
+    }
+
+    private static IntStream minutes(int from, int to) {
+        return from <= to
+                ? IntStream.rangeClosed(from, to)
+                : IntStream.concat(IntStream.rangeClosed(from, 1439), IntStream.rangeClosed(0, to));
+    }
+
+    private static DealIntervalTree tree(List<CompactRestaurant> restaurants) {
+        return DealIntervalTree.of(CompiledCatalog.of(restaurants).getDealRuns());
+    }
+
+    /**
+     * Positions of the matched runs, checking that they come in feed order.
+     */
+    private static BitSet positionsOf(ActiveDeals active, Map<DealRun, Integer> positions) {
+        BitSet matched = new BitSet();
+        int previous = -1;
+        for (ActiveDeals.Cursor cursor = active.from(0); cursor.next(); ) {
+            int position = positions.get(cursor.run());
+            assertThat(position).isGreaterThan(previous);
+            matched.set(position);
+            previous = position;
+        }
+        return matched;
+    }
+
+    private static List<String> restaurantIds(ActiveDeals active) {
+        List<String> ids = new ArrayList<>();
+        for (ActiveDeals.Cursor cursor = active.from(0); cursor.next(); ) {
+            ids.add(cursor.run().restaurant().source().objectId());
+        }
+        return ids;
+    }
+}
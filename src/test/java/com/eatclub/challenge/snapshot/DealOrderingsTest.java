@@ -0,0 +1,145 @@
+package com.eatclub.challenge.snapshot;
+
+import com.eatclub.challenge.model.DealSort;
+import com.eatclub.challenge.model.compact.CompactDeal;
+import com.eatclub.challenge.model.compact.CompactRestaurant;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+import static com.eatclub.challenge.snapshot.SnapshotFixtures.deal;
+import static com.eatclub.challenge.snapshot.SnapshotFixtures.restaurant;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for DealOrderings.
+ */
+class DealOrderingsTest {
+
+    private static final String[] NAMES = {"Zest", "apple Tree", "Basil", null, "basil"};
+
+    @Test
+    void select_everySortAndLimit_matchesStableSortOfDeals() {
+        Random random = new Random(24);
+        List<CompactRestaurant> restaurants = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            restaurants.add(randomRestaurant("r" + i, random));
+        }
+        DealPostings postings = DealPostings.of(CompiledCatalog.of(restaurants).getDealRuns());
+        DealOrderings orderings = DealOrderings.of(postings);
+        int[] every = IntStream.range(0, postings.dealCount()).toArray();
+        int[] everyThird = IntStream.range(0, postings.dealCount()).filter(ordinal -> ordinal % 3 == 0).toArray();
+
+        for (DealSort.Key key : DealSort.Key.values()) {
+            for (boolean descending : new boolean[]{false, true}) {
+                DealSort sort = new DealSort(key, descending);
+                for (int[] ordinals : List.of(every, everyThird)) {
+                    // Limits below, at and above the number of deals, the heap growing as deals are offered
+                    for (int limit : new int[]{1, 5, ordinals.length / 2, ordinals.length, ordinals.length + 10}) {
+                        assertThat(first(orderings, ordinals, sort, limit))
+                                .as("%s, %d of %d deals", sort, limit, ordinals.length)
+                                .containsExactly(expected(postings, ordinals, sort, limit));
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    void select_equalValues_keepFeedOrderInBothDirections() {
+        CompactRestaurant basil = restaurant("r1", "Basil", null, List.of(), "9:00am", "9:00pm",
+                List.of(deal("d1", "20", "true", "false", "5"), deal("d2", "30", "true", "false", "5")));
+        CompactRestaurant apple = restaurant("r2", "Apple", null, List.of(), "9:00am", "9:00pm",
+                List.of(deal("d3", "20", "true", "false", "1"), deal("d4", "30", "true", "false", "9")));
+        DealPostings postings = DealPostings.of(CompiledCatalog.of(List.of(basil, apple)).getDealRuns());
+        DealOrderings orderings = DealOrderings.of(postings);
+        int[] every = {0, 1, 2, 3};
+
+        assertThat(first(orderings, every, new DealSort(DealSort.Key.DISCOUNT, true), 4)).containsExactly(1, 3, 0, 2);
+        assertThat(first(orderings, every, new DealSort(DealSort.Key.DISCOUNT, false), 2)).containsExactly(0, 2);
+        assertThat(first(orderings, every, new DealSort(DealSort.Key.QTY_LEFT, false), 4)).containsExactly(2, 0, 1, 3);
+        assertThat(first(orderings, every, new DealSort(DealSort.Key.RESTAURANT_NAME, false), 4))
+                .containsExactly(2, 3, 0, 1);
+    }
+
+    @Test
+    void select_noDealsOrZeroLimit_returnsEmpty() {
+        DealPostings postings = DealPostings.of(CompiledCatalog.of(List.of(
+                restaurant("r1", "Basil", null, List.of(), "9:00am", "9:00pm",
+                        List.of(deal("d1", "20", "true", "false", "5"))))).getDealRuns());
+        DealOrderings orderings = DealOrderings.of(postings);
+        DealSort sort = new DealSort(DealSort.Key.DISCOUNT, false);
+
+        assertThat(first(orderings, new int[0], sort, 10)).isEmpty();
+        assertThat(first(orderings, new int[]{0}, sort, 0)).isEmpty();
+    }
+
+    private static int[] expected(DealPostings postings, int[] ordinals, DealSort sort, int limit) {
+        Comparator<Integer> byValue = switch (sort.key()) {
+            case DISCOUNT -> Comparator.comparingInt(ordinal -> postings.dealAt(ordinal).discount());
+            case QTY_LEFT -> Comparator.comparingInt(ordinal -> postings.dealAt(ordinal).qtyLeft());
+            case RESTAURANT_NAME -> Comparator.comparing(
+                    ordinal -> postings.runOf(ordinal).restaurant().source().name(),
+                    Comparator.nullsLast(String.CASE_INSENSITIVE_ORDER));
+        };
+        Comparator<Integer> order = sort.descending() ? byValue.reversed() : byValue;
+        // List.sort is stable, so deals with equal values stay in feed order
+        List<Integer> sorted = new ArrayList<>(Arrays.stream(ordinals).boxed().toList());
+        sorted.sort(order);
+        return sorted.stream().limit(limit).mapToInt(Integer::intValue).toArray();
+    }
+
+    @Test
+    void select_afterLastKey_continuesWithNextPage() {
+        Random random = new Random(22);
+        List<CompactRestaurant> restaurants = new ArrayList<>();
+        for (int i = 0; i < 30; i++) {
+            restaurants.add(randomRestaurant("r" + i, random));
+        }
+        DealPostings postings = DealPostings.of(CompiledCatalog.of(restaurants).getDealRuns());
+        DealOrderings orderings = DealOrderings.of(postings);
+        int[] every = IntStream.range(0, postings.dealCount()).toArray();
+
+        List<DealSort> sorts = new ArrayList<>();
+        sorts.add(null);
+        for (DealSort.Key key : DealSort.Key.values()) {
+            sorts.add(new DealSort(key, false));
+            sorts.add(new DealSort(key, true));
+        }
+        for (DealSort sort : sorts) {
+            List<Integer> paged = new ArrayList<>();
+            long after = -1;
+            while (true) {
+                DealOrderings.Selection page = orderings.select(sort, after, 7);
+                Arrays.stream(every).forEach(page::offer);
+                long[] keys = page.keys();
+                if (keys.length == 0) {
+                    break;
+                }
+                Arrays.stream(keys).forEach(key -> paged.add(DealOrderings.ordinalOf(key)));
+                after = keys[keys.length - 1];
+            }
+            int[] expected = sort != null ? expected(postings, every, sort, every.length) : every;
+            assertThat(paged).as("%s", sort).containsExactlyElementsOf(Arrays.stream(expected).boxed().toList());
+        }
+    }
+
+    private static int[] first(DealOrderings orderings, int[] ordinals, DealSort sort, int limit) {
+        DealOrderings.Selection selection = orderings.select(sort, -1, limit);
+        Arrays.stream(ordinals).forEach(selection::offer);
+        return Arrays.stream(selection.keys()).mapToInt(DealOrderings::ordinalOf).toArray();
+    }
+
+    private static CompactRestaurant randomRestaurant(String objectId, Random random) {
+        List<CompactDeal> deals = IntStream.range(0, random.nextInt(5))
+                .mapToObj(i -> deal(objectId + "-d" + i, String.valueOf(random.nextInt(5) * 10), "true", "false",
+                        String.valueOf(random.nextInt(4))))
+                .toList();
+        return restaurant(objectId, NAMES[random.nextInt(NAMES.length)], null, List.of(), "9:00am", "9:00pm", deals);
+    }
+}
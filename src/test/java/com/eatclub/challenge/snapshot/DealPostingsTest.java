@@ -0,0 +1,153 @@
+package com.eatclub.challenge.snapshot;
+
+import com.eatclub.challenge.model.DealFilter;
+import com.eatclub.challenge.model.compact.CompactDeal;
+import com.eatclub.challenge.model.compact.CompactRestaurant;
+import com.eatclub.challenge.model.compiled.CompiledDeal;
+import com.eatclub.challenge.model.compiled.DealRun;
+import com.eatclub.challenge.snapshot.ActiveDealIndex.ActiveDeals;
+import com.eatclub.challenge.snapshot.DealPostings.FacetCounts;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+import static com.eatclub.challenge.snapshot.SnapshotFixtures.deal;
+import static com.eatclub.challenge.snapshot.SnapshotFixtures.randomTime;
+import static com.eatclub.challenge.snapshot.SnapshotFixtures.restaurant;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for DealPostings.
+ */
+class DealPostingsTest {
+
+    private static final String[] SUBURBS = {"Richmond", "Carlton", null};
+    private static final String[] CUISINES = {"Indian", "Thai", "Pizza"};
+    private static final String[] FLAGS = {"true", "false", null};
+    private static final String[] DISCOUNTS = {"10", "20%", "35", "50"};
+
+    @Test
+    void matching_everyFilter_matchesScanOfActiveDeals() {
+        Random random = new Random(21);
+        List<CompactRestaurant> restaurants = new ArrayList<>();
+        for (int i = 0; i < 80; i++) {
+            restaurants.add(randomRestaurant("r" + i, random));
+        }
+        List<DealRun> runs = CompiledCatalog.of(restaurants).getDealRuns();
+        ActiveDealIndex index = ActiveDealIndex.of(runs);
+        DealPostings postings = DealPostings.of(runs);
+
+        for (int minute = 0; minute < DealTimeline.MINUTES_PER_DAY; minute += 37) {
+            ActiveDeals active = index.at(minute);
+            for (String suburb : new String[]{null, "richmond", "CARLTON", "Nowhere"}) {
+                for (String cuisine : new String[]{null, "indian", "Thai"}) {
+                    for (Boolean dineIn : new Boolean[]{null, true, false}) {
+                        for (Integer minDiscount : new Integer[]{null, 0, 20, 36, 60}) {
+                            DealFilter filter = new DealFilter(suburb, cuisine, dineIn, minute % 2 == 0 ? null : true,
+                                    minDiscount);
+
+                            assertThat(ids(postings, postings.matching(active, minute, filter)))
+                                    .as("minute %d, %s", minute, filter)
+                                    .isEqualTo(scan(active, filter));
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    void matches_walksLazilyAndStaysExhausted() {
+        List<DealRun> runs = CompiledCatalog.of(List.of(
+                restaurant("r1", "Richmond", List.of("Indian"),
+                        deal("d1", "20", "true", "false", "1"), deal("d2", "30", "false", "false", "1")),
+                restaurant("r2", "Carlton", List.of("Thai"), deal("d3", "10", "true", "true", "1")))).getDealRuns();
+        ActiveDeals active = ActiveDealIndex.of(runs).at(720);
+        DealPostings postings = DealPostings.of(runs);
+
+        for (DealFilter filter : List.of(DealFilter.NONE, new DealFilter(null, null, true, null))) {
+            DealPostings.Matches matches = postings.matches(active, 720, filter);
+            List<Integer> walked = new ArrayList<>();
+            matches.forEachRemaining((int ordinal) -> walked.add(ordinal));
+            assertThat(walked).as("%s", filter)
+                    .containsExactlyElementsOf(Arrays.stream(postings.matching(active, 720, filter)).boxed().toList());
+            assertThat(matches.hasNext()).isFalse();
+        }
+        assertThat(postings.matches(active, 720, new DealFilter("Nowhere", null, null, null)).hasNext()).isFalse();
+    }
+
+    @Test
+    void facetTally_countsAddedDealsPerValue() {
+        List<DealRun> runs = CompiledCatalog.of(List.of(
+                restaurant("r1", "Richmond", List.of("Indian", "Thai"),
+                        deal("d1", "20", "true", "false", "1"), deal("d2", "30", "false", "true", "1")),
+                restaurant("r2", "richmond ", List.of("thai"), deal("d3", "10", "true", "true", "1")),
+                restaurant("r3", "Carlton", List.of(), deal("d4", "50", "true", "false", "1")))).getDealRuns();
+        DealPostings postings = DealPostings.of(runs);
+
+        DealPostings.FacetTally tally = postings.facetTally();
+        IntStream.range(0, 4).forEach(tally::add);
+        FacetCounts counts = tally.counts();
+
+        assertThat(counts.suburbs()).containsExactly(Map.entry("Richmond", 3), Map.entry("Carlton", 1));
+        assertThat(counts.cuisines()).containsExactly(Map.entry("Thai", 3), Map.entry("Indian", 2));
+        assertThat(counts.dineIn()).isEqualTo(3);
+        assertThat(counts.lightning()).isEqualTo(2);
+    }
+
+    @Test
+    void matching_unknownValueOrDiscountAboveAll_matchesNothing() {
+        List<DealRun> runs = CompiledCatalog.of(List.of(
+                restaurant("r1", "Richmond", List.of("Indian"), deal("d1", "20", "true", "false", "1")))).getDealRuns();
+        ActiveDeals active = ActiveDealIndex.of(runs).at(720);
+        DealPostings postings = DealPostings.of(runs);
+
+        assertThat(postings.matching(active, 720, new DealFilter("Carlton", null, null, null))).isEmpty();
+        assertThat(postings.matching(active, 720, new DealFilter(null, null, null, null, 21))).isEmpty();
+        assertThat(postings.matching(active, 720, new DealFilter(null, "INDIAN", null, null, 20))).containsExactly(0);
+    }
+
+    private static List<String> ids(DealPostings postings, int[] ordinals) {
+        return Arrays.stream(ordinals)
+                .mapToObj(ordinal -> postings.runOf(ordinal).restaurant().source().objectId() + "/"
+                        + postings.dealAt(ordinal).source().objectId())
+                .toList();
+    }
+
+    private static List<String> scan(ActiveDeals active, DealFilter filter) {
+        List<String> ids = new ArrayList<>();
+        for (ActiveDeals.Cursor cursor = active.from(0); cursor.next(); ) {
+            DealRun run = cursor.run();
+            CompactRestaurant restaurant = run.restaurant().source();
+            for (CompiledDeal deal : run.deals()) {
+                boolean matches = (filter.suburb() == null
+                        || filter.suburb().equals(DealFilter.normalize(restaurant.suburb())))
+                        && (filter.cuisine() == null || restaurant.cuisines().stream()
+                        .anyMatch(cuisine -> filter.cuisine().equals(DealFilter.normalize(cuisine))))
+                        && (filter.dineIn() == null || filter.dineIn() == deal.dineIn())
+                        && (filter.lightning() == null || filter.lightning() == deal.lightning())
+                        && (filter.minDiscount() == null || deal.discount() >= filter.minDiscount());
+                if (matches) {
+                    ids.add(restaurant.objectId() + "/" + deal.source().objectId());
+                }
+            }
+        }
+        return ids;
+    }
+
+    private static CompactRestaurant randomRestaurant(String objectId, Random random) {
+        List<String> cuisines = new ArrayList<>(Arrays.asList(CUISINES));
+        cuisines.removeIf(cuisine -> random.nextBoolean());
+        CompactDeal[] deals = IntStream.range(0, random.nextInt(4))
+                .mapToObj(i -> deal(objectId + "-d" + i, DISCOUNTS[random.nextInt(DISCOUNTS.length)],
+                        FLAGS[random.nextInt(FLAGS.length)], FLAGS[random.nextInt(FLAGS.length)], "1"))
+                .toArray(CompactDeal[]::new);
+        return restaurant(objectId, "Restaurant " + objectId, SUBURBS[random.nextInt(SUBURBS.length)], cuisines,
+                randomTime(random), randomTime(random), List.of(deals));
+    }
+}
@@ -0,0 +1,99 @@
+package com.eatclub.challenge.snapshot;
+
+import com.eatclub.challenge.model.compact.CompactDeal;
+import com.eatclub.challenge.model.compact.CompactRestaurant;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static com.eatclub.challenge.snapshot.SnapshotFixtures.deal;
+import static com.eatclub.challenge.snapshot.SnapshotFixtures.restaurant;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for DealTimeline.
+ */
+class DealTimelineTest {
+
+    @Test
+    void of_midnightSpanningRestaurant_splitsAtEndOfDay() {
+        CompactRestaurant lateNight = new CompactRestaurant("r1", "Late", null, null, null,
+                "10:00pm", "2:00am", List.of(deal("d1", "1"), deal("d2", "1")));
+
+        DealTimeline timeline = timeline(List.of(lateNight));
+
+        assertThat(timeline.eventMinutes()).containsExactly(0, 120, 1320, 1440);
+        assertThat(timeline.deltaAt(0)).isEqualTo(2);
+        assertThat(timeline.deltaAt(120)).isEqualTo(-2);
+        assertThat(timeline.deltaAt(1320)).isEqualTo(2);
+        assertThat(timeline.deltaAt(1440)).isEqualTo(-2);
+    }
+
+    @Test
+    void of_dealWindow_countsOnlyInsideRestaurantHours() {
+        CompactRestaurant restaurant = new CompactRestaurant("r1", "Diner", null, null, null,
+                "4:00pm", "11:00pm", List.of(
+                deal("d1", "1"),
+                new CompactDeal("d2", "20", "false", "true", "1", "5:00pm", "7:00pm", null, null),
+                new CompactDeal("d3", "20", "false", "true", "1", null, null, "10:00pm", "1:00am")));
+
+        DealTimeline timeline = timeline(List.of(restaurant));
+
+        assertThat(timeline.eventMinutes()).containsExactly(960, 1020, 1140, 1320, 1380);
+        assertThat(timeline.deltaAt(960)).isEqualTo(1);
+        assertThat(timeline.deltaAt(1020)).isEqualTo(1);
+        assertThat(timeline.deltaAt(1140)).isEqualTo(-1);
+        assertThat(timeline.deltaAt(1320)).isEqualTo(1);
+        assertThat(timeline.deltaAt(1380)).isEqualTo(-2);
+    }
+
+    @Test
+    void of_unparseableHours_contributesNothing() {
+        CompactRestaurant broken = new CompactRestaurant("r1", "Broken", null, null, null,
+                "soon", "5:00pm", List.of(deal("d1", "1")));
+
+        assertThat(timeline(List.of(broken)).eventMinutes()).isEmpty();
+    }
+
+    @Test
+    void apply_diff_matchesFullRebuild() {
+        List<CompactRestaurant> previous = List.of(
+                restaurant("r1", "5:00pm", deal("d1", "5")),
+                restaurant("r2", "9:00pm", deal("d2", "5"), deal("d3", "1")),
+                restaurant("r3", "3:00pm", deal("d4", "5")));
+        List<CompactRestaurant> fetched = List.of(
+                restaurant("r1", "5:00pm", deal("d1", "5")),
+                restaurant("r2", "11:00pm", deal("d2", "5")),
+                restaurant("r4", "4:00pm", deal("d6", "2")));
+
+        SnapshotDiff diff = SnapshotDiff.between(previous, fetched);
+        CompiledCatalog previousCatalog = CompiledCatalog.of(previous);
+
+        DealTimeline patched = timeline(previous).apply(diff, previousCatalog, previousCatalog.next(diff));
+
+        assertThat(patched).isEqualTo(timeline(fetched));
+    }
+
+    @Test
+    void apply_diffWithQuarantinedRestaurants_matchesFullRebuild() {
+        List<CompactRestaurant> previous = List.of(
+                restaurant("r1", "5:00pm", deal("d1", "5")),
+                restaurant("r2", "late", deal("d2", "5")),
+                restaurant("r3", "3:00pm", deal("d3", "5"), deal("d4", "none")));
+        List<CompactRestaurant> fetched = List.of(
+                restaurant("r1", "never", deal("d1", "5")),
+                restaurant("r2", "9:00pm", deal("d2", "5")),
+                restaurant("r3", "3:00pm", deal("d3", "5"), deal("d4", "1")));
+
+        SnapshotDiff diff = SnapshotDiff.between(previous, fetched);
+        CompiledCatalog previousCatalog = CompiledCatalog.of(previous);
+
+        DealTimeline patched = timeline(previous).apply(diff, previousCatalog, previousCatalog.next(diff));
+
+        assertThat(patched).isEqualTo(timeline(fetched));
+    }
+
+    private static DealTimeline timeline(List<CompactRestaurant> restaurants) {
+        return DealTimeline.of(CompiledCatalog.of(restaurants).getDealRuns());
+    }
+}
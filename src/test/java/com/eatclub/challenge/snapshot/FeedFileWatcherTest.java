@@ -0,0 +1,67 @@
+package com.eatclub.challenge.snapshot;
+
+import com.eatclub.challenge.config.RestaurantDataSourceProperties;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class FeedFileWatcherTest {
+
+    @Mock
+    private RestaurantSnapshotStore snapshotStore;
+
+    @TempDir
+    Path directory;
+
+    private FeedFileWatcher watcher;
+
+    @AfterEach
+    void tearDown() throws IOException {
+        watcher.stop();
+    }
+
+    @Test
+    void atomicReplaceOfFeedFile_triggersRefresh() throws IOException {
+        Path feed = directory.resolve("feed.json");
+        Files.writeString(feed, "{}");
+        watcher = startWatcher(feed);
+
+        Path staged = Files.writeString(directory.resolve("feed.json.tmp"), "{\"restaurants\":[]}");
+        Files.move(staged, feed, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+
+        verify(snapshotStore, timeout(5000)).refresh();
+    }
+
+    @Test
+    void unrelatedFileInDirectory_doesNotTriggerRefresh() throws IOException, InterruptedException {
+        Path feed = directory.resolve("feed.json");
+        Files.writeString(feed, "{}");
+        watcher = startWatcher(feed);
+
+        Files.writeString(directory.resolve("other.json"), "{}");
+        Thread.sleep(500);
+
+        verify(snapshotStore, never()).refresh();
+    }
+
+    private FeedFileWatcher startWatcher(Path feed) throws IOException {
+        RestaurantDataSourceProperties properties = new RestaurantDataSourceProperties();
+        properties.setPath(feed);
+        FeedFileWatcher fileWatcher = new FeedFileWatcher(snapshotStore, properties);
+        fileWatcher.start();
+        return fileWatcher;
+    }
+}
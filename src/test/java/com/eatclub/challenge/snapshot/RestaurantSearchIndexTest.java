@@ -0,0 +1,138 @@
+package com.eatclub.challenge.snapshot;
+
+import com.eatclub.challenge.model.compact.CompactRestaurant;
+import com.eatclub.challenge.model.compiled.DealRun;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Stream;
+
+import static com.eatclub.challenge.snapshot.SnapshotFixtures.deal;
+import static com.eatclub.challenge.snapshot.SnapshotFixtures.randomTime;
+import static com.eatclub.challenge.snapshot.SnapshotFixtures.restaurant;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Unit tests for RestaurantSearchIndex.
+ */
+class RestaurantSearchIndexTest {
+
+    private static final String[] WORDS = {"Thai", "Basil", "Kitchen", "Masala", "Pho", "Burger", "Bar", "Sushi"};
+    private static final String[] SUBURBS = {"Richmond", "Carlton North", "South Yarra", null};
+    private static final String[] CUISINES = {"Thai", "Indian", "Vietnamese", "Burgers"};
+
+    @Test
+    void search_everyQuery_matchesScanOfRestaurants() {
+        Random random = new Random(25);
+        List<CompactRestaurant> restaurants = new ArrayList<>();
+        for (int i = 0; i < 120; i++) {
+            restaurants.add(randomRestaurant("r" + i, random));
+        }
+        List<DealRun> runs = CompiledCatalog.of(restaurants).getDealRuns();
+        RestaurantSearchIndex index = RestaurantSearchIndex.of(runs);
+
+        for (String query : new String[]{"thai", "THAI richmond", "ba", "b", "asa", "kitchen-bar", "north", "yarra sou",
+                "viet", "pho indian", "zzz", "Thai Thai", "urger"}) {
+            for (int minute : new int[]{RestaurantSearchIndex.ANY_TIME, 0, 720, 1200}) {
+                assertThat(positions(index.search(query, minute, Integer.MAX_VALUE).runs()))
+                        .as("'%s' at %d", query, minute)
+                        .containsExactlyInAnyOrderElementsOf(scan(runs, query, minute));
+            }
+        }
+    }
+
+    @Test
+    void search_ranksWholeWordsAndNamesFirst() {
+        RestaurantSearchIndex index = RestaurantSearchIndex.of(CompiledCatalog.of(List.of(
+                restaurant("r1", "Basil Leaf", "Richmond", List.of("Thai"), "9:00am", "9:00pm",
+                        List.of(deal("r1-d", "1"))),
+                restaurant("r2", "Thaiger Bar", "Carlton", List.of(), "9:00am", "9:00pm",
+                        List.of(deal("r2-d", "1"))),
+                restaurant("r3", "Golden Thai", "Richmond", List.of(), "9:00am", "9:00pm",
+                        List.of(deal("r3-d", "1"))),
+                restaurant("r4", "Southern Thai Kitchen", "Fitzroy", List.of("Thai"), "9:00am", "9:00pm",
+                        List.of(deal("r4-d", "1"))),
+                restaurant("r5", "Nothai", "Thailand Street", List.of(), "9:00am", "9:00pm",
+                        List.of(deal("r5-d", "1"))))).getDealRuns());
+
+        // Whole word in the name, then name prefix, then whole cuisine word, then inside a word
+        assertThat(ids(index, index.search("thai", RestaurantSearchIndex.ANY_TIME, 10).runs()))
+                .containsExactly("r3", "r4", "r2", "r1", "r5");
+        assertThat(ids(index, index.search("thai richmond", RestaurantSearchIndex.ANY_TIME, 10).runs()))
+                .containsExactly("r3", "r1");
+        assertThat(ids(index, index.search("th", RestaurantSearchIndex.ANY_TIME, 10).runs()))
+                .containsExactly("r2", "r3", "r4", "r1", "r5");
+    }
+
+    @Test
+    void search_filtersByAvailabilityAtMinute() {
+        CompactRestaurant lunch = restaurant("r1", "Thai Lunch", null, List.of(),
+                "11:00am", "2:00pm", List.of(deal("d1", "1")));
+        CompactRestaurant dinner = restaurant("r2", "Thai Dinner", null, List.of(),
+                "5:00pm", "10:00pm", List.of(deal("d2", "1")));
+        RestaurantSearchIndex index = RestaurantSearchIndex.of(
+                CompiledCatalog.of(List.of(lunch, dinner)).getDealRuns());
+
+        assertThat(ids(index, index.search("thai", 720, 10).runs())).containsExactly("r1");
+        assertThat(ids(index, index.search("thai", 1080, 10).runs())).containsExactly("r2");
+        assertThat(index.search("thai", 180, 10).runs()).isEmpty();
+    }
+
+    @Test
+    void search_queryWithoutWordsOrTooLong_throwsIllegalArgumentException() {
+        RestaurantSearchIndex index = RestaurantSearchIndex.of(List.of());
+
+        assertThatThrownBy(() -> index.search(" -!- ", RestaurantSearchIndex.ANY_TIME, 10).runs())
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> index.search("a".repeat(RestaurantSearchIndex.MAX_QUERY_LENGTH + 1),
+                RestaurantSearchIndex.ANY_TIME, 10))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThat(index.search("thai", RestaurantSearchIndex.ANY_TIME, 10).runs()).isEmpty();
+    }
+
+    private static List<Integer> positions(int[] positions) {
+        return Arrays.stream(positions).boxed().toList();
+    }
+
+    private static List<String> ids(RestaurantSearchIndex index, int[] positions) {
+        return Arrays.stream(positions).mapToObj(position -> index.runAt(position).restaurant().source().objectId())
+                .toList();
+    }
+
+    /**
+     * Positions of the runs where every query term starts a word, or occurs inside one if three characters or longer.
+     */
+    private static List<Integer> scan(List<DealRun> runs, String query, int minute) {
+        String[] terms = RestaurantSearchIndex.normalize(query).split(" ");
+        List<Integer> positions = new ArrayList<>();
+        for (int position = 0; position < runs.size(); position++) {
+            DealRun run = runs.get(position);
+            CompactRestaurant restaurant = run.restaurant().source();
+            List<String> words = Stream.concat(Stream.of(restaurant.name(), restaurant.suburb()),
+                            restaurant.cuisines().stream())
+                    .flatMap(text -> Arrays.stream(RestaurantSearchIndex.normalize(text).split(" ")))
+                    .toList();
+            boolean available = minute == RestaurantSearchIndex.ANY_TIME || run.available().stream()
+                    .anyMatch(range -> range.first() <= minute && minute <= range.last());
+            boolean matches = Arrays.stream(terms).allMatch(term -> words.stream()
+                    .anyMatch(word -> term.length() >= 3 ? word.contains(term) : word.startsWith(term)));
+            if (available && matches) {
+                positions.add(position);
+            }
+        }
+        return positions;
+    }
+
+    private static CompactRestaurant randomRestaurant(String objectId, Random random) {
+        String name = WORDS[random.nextInt(WORDS.length)] + (random.nextBoolean() ? "-" : " ")
+                + WORDS[random.nextInt(WORDS.length)];
+        List<String> cuisines = new ArrayList<>(Arrays.asList(CUISINES));
+        cuisines.removeIf(cuisine -> random.nextInt(3) > 0);
+        return restaurant(objectId, name, SUBURBS[random.nextInt(SUBURBS.length)], cuisines, randomTime(random),
+                randomTime(random), List.of(deal(objectId + "-d", "1")));
+    }
+}
@@ -0,0 +1,298 @@
+package com.eatclub.challenge.snapshot;
+
+import com.eatclub.challenge.client.FeedUpdate;
+import com.eatclub.challenge.client.RestaurantDataSource;
+import com.eatclub.challenge.config.SnapshotProperties;
+import com.eatclub.challenge.exception.RestaurantDataException;
+import com.eatclub.challenge.model.compact.CompactRestaurant;
+import com.eatclub.challenge.model.compact.CompactRestaurants;
+import com.eatclub.challenge.model.domain.Restaurant;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.test.StepVerifier;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class RestaurantSnapshotStoreTest {
+
+    @Mock
+    private RestaurantDataSource dataSource;
+
+    private RestaurantSnapshotStore snapshotStore;
+
+    @BeforeEach
+    void setUp() {
+        snapshotStore = new RestaurantSnapshotStore(dataSource, new SnapshotProperties());
+    }
+
+    @Test
+    void current_beforeFirstLoad_throwsRestaurantDataException() {
+        assertThatThrownBy(() -> snapshotStore.current())
+                .isInstanceOf(RestaurantDataException.class);
+        assertThat(snapshotStore.isStale()).isTrue();
+    }
+
+    @Test
+    void refresh_success_installsNewVersion() {
+        when(dataSource.fetchRestaurantsIfChanged())
+                .thenReturn(Optional.of(FeedUpdate.of(List.of(restaurant("R1")))))
+                .thenReturn(Optional.of(FeedUpdate.of(List.of(restaurant("R2")))));
+
+        assertThat(snapshotStore.refresh()).isTrue();
+        assertThat(snapshotStore.refresh()).isTrue();
+
+        RestaurantSnapshot snapshot = snapshotStore.current();
+        assertThat(snapshot.getVersion()).isEqualTo(2);
+        assertThat(snapshot.getRestaurants()).hasSize(1);
+        assertThat(snapshotStore.isStale()).isFalse();
+    }
+
+    @Test
+    void refresh_failure_keepsServingLastGoodSnapshot() {
+        when(dataSource.fetchRestaurantsIfChanged())
+                .thenReturn(Optional.of(FeedUpdate.of(List.of(restaurant("R1")))))
+                .thenThrow(new RestaurantDataException("Upstream down"));
+
+        snapshotStore.refresh();
+        RestaurantSnapshot lastGood = snapshotStore.current();
+
+        assertThat(snapshotStore.refresh()).isFalse();
+        assertThat(snapshotStore.current()).isSameAs(lastGood);
+        assertThat(snapshotStore.getConsecutiveFailures()).isEqualTo(1);
+        assertThat(snapshotStore.getLastError()).isEqualTo("Upstream down");
+    }
+
+    @Test
+    void refresh_unchangedFeed_keepsSnapshotAndClearsFailures() {
+        when(dataSource.fetchRestaurantsIfChanged())
+                .thenReturn(Optional.of(FeedUpdate.of(List.of(restaurant("R1")))))
+                .thenThrow(new RestaurantDataException("Upstream down"))
+                .thenReturn(Optional.empty());
+
+        snapshotStore.refresh();
+        RestaurantSnapshot loaded = snapshotStore.current();
+        snapshotStore.refresh();
+
+        assertThat(snapshotStore.refresh()).isFalse();
+        assertThat(snapshotStore.current()).isSameAs(loaded);
+        assertThat(snapshotStore.getConsecutiveFailures()).isZero();
+        assertThat(snapshotStore.getLastError()).isNull();
+    }
+
+    @Test
+    void refresh_installed_commitsUpdateAfterSwappingSnapshot() {
+        List<RestaurantSnapshot> seenAtCommit = new ArrayList<>();
+        when(dataSource.fetchRestaurantsIfChanged()).thenReturn(Optional.of(new FeedUpdate(List.of(restaurant("R1")),
+                () -> seenAtCommit.add(snapshotStore.peek().orElse(null)))));
+
+        assertThat(snapshotStore.refresh()).isTrue();
+
+        assertThat(seenAtCommit).containsExactly(snapshotStore.current());
+    }
+
+    @Test
+    void refresh_snapshotFailsToBuild_leavesUpdateUncommitted() {
+        Runnable commit = mock(Runnable.class);
+        when(dataSource.fetchRestaurantsIfChanged())
+                .thenReturn(Optional.of(FeedUpdate.of(List.of(restaurant("R1")))))
+                .thenReturn(Optional.of(new FeedUpdate(Arrays.asList(restaurant("R2"), null), commit)));
+        snapshotStore.refresh();
+
+        assertThat(snapshotStore.refresh()).isFalse();
+
+        verify(commit, never()).run();
+        assertThat(snapshotStore.current().getVersion()).isEqualTo(1);
+        assertThat(snapshotStore.getConsecutiveFailures()).isEqualTo(1);
+    }
+
+    @Test
+    void refresh_sameRestaurantsAsSnapshot_commitsUpdateWithoutInstalling() {
+        Runnable commit = mock(Runnable.class);
+        when(dataSource.fetchRestaurantsIfChanged())
+                .thenReturn(Optional.of(FeedUpdate.of(List.of(restaurant("R1")))))
+                .thenReturn(Optional.of(new FeedUpdate(List.of(restaurant("R1")), commit)));
+        snapshotStore.refresh();
+
+        assertThat(snapshotStore.refresh()).isFalse();
+
+        verify(commit).run();
+        assertThat(snapshotStore.current().getVersion()).isEqualTo(1);
+    }
+
+    @Test
+    void refresh_concurrentCallers_shareOneFetch() throws Exception {
+        CountDownLatch fetching = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(dataSource.fetchRestaurantsIfChanged()).thenAnswer(invocation -> {
+            fetching.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return Optional.of(FeedUpdate.of(List.of(restaurant("R1"))));
+        });
+
+        CompletableFuture<Boolean> first = CompletableFuture.supplyAsync(snapshotStore::refresh);
+        assertThat(fetching.await(5, TimeUnit.SECONDS)).isTrue();
+        CompletableFuture<Boolean> second = CompletableFuture.supplyAsync(snapshotStore::refresh);
+        CompletableFuture<RestaurantSnapshot> coldReader = CompletableFuture.supplyAsync(snapshotStore::current);
+        Thread.sleep(50);
+        release.countDown();
+
+        assertThat(first.get(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(second.get(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(coldReader.get(5, TimeUnit.SECONDS).getVersion()).isEqualTo(1);
+        verify(dataSource, times(1)).fetchRestaurantsIfChanged();
+    }
+
+    @Test
+    void currentReactive_beforeFirstLoad_signalsRestaurantDataException() {
+        StepVerifier.create(snapshotStore.currentReactive())
+                .expectError(RestaurantDataException.class)
+                .verify();
+    }
+
+    @Test
+    void currentReactive_duringFirstLoad_completesWhenLoadFinishes() throws Exception {
+        CountDownLatch fetching = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(dataSource.fetchRestaurantsIfChanged()).thenAnswer(invocation -> {
+            fetching.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return Optional.of(FeedUpdate.of(List.of(restaurant("R1"))));
+        });
+
+        CompletableFuture<Boolean> load = CompletableFuture.supplyAsync(snapshotStore::refresh);
+        assertThat(fetching.await(5, TimeUnit.SECONDS)).isTrue();
+
+        StepVerifier.create(snapshotStore.currentReactive())
+                .then(release::countDown)
+                .assertNext(snapshot -> assertThat(snapshot.getVersion()).isEqualTo(1))
+                .verifyComplete();
+        assertThat(load.get(5, TimeUnit.SECONDS)).isTrue();
+    }
+
+    @Test
+    void current_initialLoadSlowerThanWait_refusesAfterWait() throws Exception {
+        SnapshotProperties properties = new SnapshotProperties();
+        properties.setInitialLoadWait(Duration.ofMillis(100));
+        snapshotStore = new RestaurantSnapshotStore(dataSource, properties);
+        CountDownLatch fetching = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(dataSource.fetchRestaurantsIfChanged()).thenAnswer(invocation -> {
+            fetching.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return Optional.of(FeedUpdate.of(List.of(restaurant("R1"))));
+        });
+        CompletableFuture<Boolean> load = CompletableFuture.supplyAsync(snapshotStore::refresh);
+        assertThat(fetching.await(5, TimeUnit.SECONDS)).isTrue();
+
+        try {
+            assertThatThrownBy(() -> snapshotStore.current())
+                    .isInstanceOf(RestaurantDataException.class)
+                    .hasMessageContaining("not available yet");
+            StepVerifier.create(snapshotStore.currentReactive())
+                    .expectError(RestaurantDataException.class)
+                    .verify(Duration.ofSeconds(5));
+        } finally {
+            release.countDown();
+        }
+        assertThat(load.get(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(snapshotStore.current().getVersion()).isEqualTo(1);
+    }
+
+    @Test
+    void restorePersistedSnapshot_servesImmediatelyAndReconciles(@TempDir Path tempDir) throws IOException {
+        Path path = tempDir.resolve("snapshot.bin");
+        SnapshotFileCodec.write(RestaurantSnapshot.of(4, Instant.now(), List.of(restaurant("R1"))), path);
+        when(dataSource.fetchRestaurantsIfChanged())
+                .thenReturn(Optional.of(FeedUpdate.of(List.of(restaurant("R1")))))
+                .thenReturn(Optional.of(FeedUpdate.of(List.of(restaurant("R2")))));
+        snapshotStore = persistingStore(path);
+
+        snapshotStore.restorePersistedSnapshot();
+
+        assertThat(snapshotStore.current().getVersion()).isEqualTo(4);
+        assertThat(snapshotStore.isStale()).isTrue();
+        assertThat(snapshotStore.refresh()).isFalse();
+        assertThat(snapshotStore.isStale()).isFalse();
+        assertThat(snapshotStore.refresh()).isTrue();
+        assertThat(SnapshotFileCodec.read(path).getVersion()).isEqualTo(5);
+        assertThat(SnapshotFileCodec.read(path).getRestaurants()).extracting(CompactRestaurant::name)
+                .containsExactly("R2");
+    }
+
+    @Test
+    void restorePersistedSnapshot_corruptFile_fallsBackToFetch(@TempDir Path tempDir) throws IOException {
+        Path path = tempDir.resolve("snapshot.bin");
+        Files.writeString(path, "not a snapshot");
+        when(dataSource.fetchRestaurantsIfChanged()).thenReturn(Optional.of(FeedUpdate.of(List.of(restaurant("R1")))));
+        snapshotStore = persistingStore(path);
+
+        snapshotStore.restorePersistedSnapshot();
+
+        assertThat(snapshotStore.peek()).isEmpty();
+        assertThat(snapshotStore.refresh()).isTrue();
+        assertThat(SnapshotFileCodec.read(path).getVersion()).isEqualTo(1);
+    }
+
+    @Test
+    void find_keepsConfiguredNumberOfRecentVersions() {
+        SnapshotProperties properties = new SnapshotProperties();
+        properties.setRetainedVersions(2);
+        snapshotStore = new RestaurantSnapshotStore(dataSource, properties);
+        when(dataSource.fetchRestaurantsIfChanged())
+                .thenReturn(Optional.of(FeedUpdate.of(List.of(restaurant("R1")))))
+                .thenReturn(Optional.of(FeedUpdate.of(List.of(restaurant("R2")))))
+                .thenReturn(Optional.of(FeedUpdate.of(List.of(restaurant("R3")))));
+
+        snapshotStore.refresh();
+        RestaurantSnapshot second = refreshAndGet();
+        RestaurantSnapshot third = refreshAndGet();
+
+        assertThat(snapshotStore.find(1)).isEmpty();
+        assertThat(snapshotStore.find(2)).containsSame(second);
+        assertThat(snapshotStore.find(3)).containsSame(third);
+    }
+
+    private RestaurantSnapshot refreshAndGet() {
+        snapshotStore.refresh();
+        return snapshotStore.current();
+    }
+
+    private RestaurantSnapshotStore persistingStore(Path path) {
+        SnapshotProperties properties = new SnapshotProperties();
+        properties.setPersistPath(path);
+        return new RestaurantSnapshotStore(dataSource, properties);
+    }
+
+    private CompactRestaurant restaurant(String name) {
+        return CompactRestaurants.from(Restaurant.builder()
+                .objectId("id-" + name)
+                .name(name)
+                .open("9:00am")
+                .close("5:00pm")
+                .build());
+    }
+}
@@ -0,0 +1,187 @@
+package com.eatclub.challenge.snapshot;
+
+import com.eatclub.challenge.model.DealFilter;
+import com.eatclub.challenge.model.DealSort;
+import com.eatclub.challenge.model.compact.CompactDeal;
+import com.eatclub.challenge.model.compact.CompactRestaurant;
+import com.eatclub.challenge.snapshot.ActiveDealIndex.ActiveDeals;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.function.UnaryOperator;
+
+import static com.eatclub.challenge.snapshot.SnapshotFixtures.deal;
+import static com.eatclub.challenge.snapshot.SnapshotFixtures.randomTime;
+import static com.eatclub.challenge.snapshot.SnapshotFixtures.restaurant;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for RestaurantSnapshot.
+ */
+class RestaurantSnapshotTest {
+
+    private static final String[] SUBURBS = {"Richmond", "Carlton", null};
+    private static final String[] CUISINES = {"Indian", "Thai", "Pizza"};
+    private static final String[] DISCOUNTS = {"10", "20", "35"};
+    private static final String[] FLAGS = {"true", "false"};
+    private static final int[] MINUTES = {0, 300, 540, 720, 1020, 1260, 1439};
+
+    @Test
+    void next_dealValuesChanged_patchedIndexesMatchFreshBuild() {
+        assertNextMatchesFreshBuild(31, deal -> deal(deal.objectId(), DISCOUNTS[Math.abs(deal.hashCode()) % 3],
+                deal.lightning(), deal.dineIn(), String.valueOf(Math.abs(deal.hashCode()) % 7)));
+    }
+
+    @Test
+    void next_discountNoDealHadBefore_rebuiltIndexesMatchFreshBuild() {
+        assertNextMatchesFreshBuild(32, deal -> deal(deal.objectId(), "55", deal.dineIn(), deal.lightning(),
+                deal.qtyLeft()));
+    }
+
+    @Test
+    void next_restaurantDetailsChanged_patchedIndexesMatchFreshBuild() {
+        Random random = new Random(33);
+        List<CompactRestaurant> restaurants = randomRestaurants(random, 40);
+        List<CompactRestaurant> changed = new ArrayList<>(restaurants);
+        for (int i = 0; i < changed.size(); i += 3) {
+            CompactRestaurant restaurant = changed.get(i);
+            changed.set(i, restaurant(restaurant.objectId(), "Renamed " + i, SUBURBS[random.nextInt(SUBURBS.length)],
+                    List.of(CUISINES[random.nextInt(CUISINES.length)]), restaurant.open(), restaurant.close(),
+                    restaurant.deals()));
+        }
+
+        assertSameAnswers(RestaurantSnapshot.of(1, Instant.EPOCH, restaurants).next(2, Instant.EPOCH,
+                SnapshotDiff.between(restaurants, changed)), RestaurantSnapshot.of(2, Instant.EPOCH, changed));
+    }
+
+    @Test
+    void next_windowsChangedAndRestaurantAdded_rebuiltIndexesMatchFreshBuild() {
+        Random random = new Random(34);
+        List<CompactRestaurant> restaurants = randomRestaurants(random, 40);
+        List<CompactRestaurant> changed = new ArrayList<>(restaurants);
+        CompactRestaurant first = changed.getFirst();
+        changed.set(0, restaurant(first.objectId(), first.name(), first.suburb(), first.cuisines(),
+                "6:00am", "11:00am", first.deals()));
+        RestaurantSnapshot previous = RestaurantSnapshot.of(1, Instant.EPOCH, restaurants);
+
+        assertSameAnswers(previous.next(2, Instant.EPOCH, SnapshotDiff.between(restaurants, changed)),
+                RestaurantSnapshot.of(2, Instant.EPOCH, changed));
+
+        changed.add(20, randomRestaurant("added", random));
+        assertSameAnswers(previous.next(2, Instant.EPOCH, SnapshotDiff.between(restaurants, changed)),
+                RestaurantSnapshot.of(2, Instant.EPOCH, changed));
+    }
+
+    @Test
+    void next_patched_leavesPreviousSnapshotUnchanged() {
+        Random random = new Random(35);
+        List<CompactRestaurant> restaurants = randomRestaurants(random, 30);
+        RestaurantSnapshot previous = RestaurantSnapshot.of(1, Instant.EPOCH, restaurants);
+        List<CompactRestaurant> changed = restaurants.stream()
+                .map(restaurant -> withDeals(restaurant, deal -> deal(deal.objectId(), "10", "false", "true", "9")))
+                .toList();
+
+        previous.next(2, Instant.EPOCH, SnapshotDiff.between(restaurants, changed));
+
+        assertSameAnswers(previous, RestaurantSnapshot.of(1, Instant.EPOCH, restaurants));
+    }
+
+    private static void assertNextMatchesFreshBuild(long seed, UnaryOperator<CompactDeal> change) {
+        Random random = new Random(seed);
+        List<CompactRestaurant> restaurants = randomRestaurants(random, 40);
+        List<CompactRestaurant> changed = new ArrayList<>(restaurants);
+        for (int i = 0; i < changed.size(); i += 2) {
+            changed.set(i, withDeals(changed.get(i), change));
+        }
+
+        assertSameAnswers(RestaurantSnapshot.of(1, Instant.EPOCH, restaurants).next(2, Instant.EPOCH,
+                SnapshotDiff.between(restaurants, changed)), RestaurantSnapshot.of(2, Instant.EPOCH, changed));
+    }
+
+    private static void assertSameAnswers(RestaurantSnapshot actual, RestaurantSnapshot expected) {
+        DealPostings postings = expected.getDealPostings();
+        assertThat(actual.getDealPostings().dealCount()).isEqualTo(postings.dealCount());
+        for (int minute : MINUTES) {
+            ActiveDeals active = actual.getActiveDealIndex().at(minute);
+            assertThat(positions(active)).as("minute %d", minute)
+                    .containsExactly(positions(expected.getActiveDealIndex().at(minute)));
+            for (DealFilter filter : List.of(new DealFilter(null, null, null, null, null),
+                    new DealFilter("richmond", null, null, null, null), new DealFilter(null, "thai", true, null, null),
+                    new DealFilter(null, null, null, true, 20), new DealFilter("Carlton", "Pizza", false, false, 10))) {
+                assertThat(actual.getDealPostings().matching(active, minute, filter)).as("%s at %d", filter, minute)
+                        .containsExactly(postings.matching(expected.getActiveDealIndex().at(minute), minute, filter));
+            }
+            assertThat(actual.getSearchIndex().search("restaurant", minute, 20).runs())
+                    .isEqualTo(expected.getSearchIndex().search("restaurant", minute, 20).runs());
+        }
+        assertThat(positions(actual.getDealIntervalTree().overlapping(600, 900)))
+                .containsExactly(positions(expected.getDealIntervalTree().overlapping(600, 900)));
+
+        int[] every = new int[postings.dealCount()];
+        Arrays.setAll(every, ordinal -> ordinal);
+        for (DealSort.Key key : DealSort.Key.values()) {
+            for (boolean descending : new boolean[]{false, true}) {
+                DealSort sort = new DealSort(key, descending);
+                assertThat(keys(actual.getDealOrderings(), sort, every)).as("%s", sort)
+                        .containsExactly(keys(expected.getDealOrderings(), sort, every));
+            }
+        }
+
+        for (DealFilter filter : List.of(new DealFilter("Richmond", null, null, null),
+                new DealFilter(null, "Indian", true, null), new DealFilter(null, null, false, true))) {
+            assertThat(actual.peakProfile(filter).top(DealTimeline.MINUTES_PER_DAY)).as("%s", filter)
+                    .isEqualTo(expected.peakProfile(filter).top(DealTimeline.MINUTES_PER_DAY));
+        }
+        assertThat(actual.getPeakProfile().top(DealTimeline.MINUTES_PER_DAY))
+                .isEqualTo(expected.getPeakProfile().top(DealTimeline.MINUTES_PER_DAY));
+    }
+
+    private static int[] positions(ActiveDeals active) {
+        int[] positions = new int[active.size()];
+        ActiveDeals.Cursor cursor = active.from(0);
+        for (int i = 0; cursor.next(); i++) {
+            positions[i] = cursor.position();
+        }
+        return positions;
+    }
+
+    private static long[] keys(DealOrderings orderings, DealSort sort, int[] ordinals) {
+        DealOrderings.Selection selection = orderings.select(sort, -1, ordinals.length);
+        for (int ordinal : ordinals) {
+            selection.offer(ordinal);
+        }
+        return selection.keys();
+    }
+
+    private static CompactRestaurant withDeals(CompactRestaurant restaurant, UnaryOperator<CompactDeal> change) {
+        return restaurant(restaurant.objectId(), restaurant.name(), restaurant.suburb(), restaurant.cuisines(),
+                restaurant.open(), restaurant.close(), restaurant.deals().stream().map(change).toList());
+    }
+
+    private static List<CompactRestaurant> randomRestaurants(Random random, int count) {
+        List<CompactRestaurant> restaurants = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            restaurants.add(randomRestaurant("r" + i, random));
+        }
+        return restaurants;
+    }
+
+    private static CompactRestaurant randomRestaurant(String objectId, Random random) {
+        List<String> cuisines = new ArrayList<>(Arrays.asList(CUISINES));
+        cuisines.removeIf(cuisine -> random.nextBoolean());
+        List<CompactDeal> deals = new ArrayList<>();
+        int dealCount = random.nextInt(4);
+        for (int i = 0; i < dealCount; i++) {
+            CompactDeal deal = deal(objectId + "-d" + i, DISCOUNTS[random.nextInt(DISCOUNTS.length)],
+                    FLAGS[random.nextInt(FLAGS.length)], FLAGS[random.nextInt(FLAGS.length)],
+                    String.valueOf(random.nextInt(5)));
+            deals.add(deal);
+        }
+        return restaurant(objectId, "Restaurant " + objectId, SUBURBS[random.nextInt(SUBURBS.length)], cuisines,
+                randomTime(random), randomTime(random), deals);
+    }
+}
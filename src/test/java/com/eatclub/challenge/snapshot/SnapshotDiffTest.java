@@ -0,0 +1,73 @@
+package com.eatclub.challenge.snapshot;
+
+import com.eatclub.challenge.model.compact.CompactRestaurant;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static com.eatclub.challenge.snapshot.SnapshotFixtures.deal;
+import static com.eatclub.challenge.snapshot.SnapshotFixtures.restaurant;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for SnapshotDiff.
+ */
+class SnapshotDiffTest {
+
+    @Test
+    void between_identicalFeeds_isEmptyAndReusesInstances() {
+        List<CompactRestaurant> previous = List.of(restaurant("r1", "5:00pm", deal("d1", "5")));
+        List<CompactRestaurant> fetched = List.of(restaurant("r1", "5:00pm", deal("d1", "5")));
+
+        SnapshotDiff diff = SnapshotDiff.between(previous, fetched);
+
+        assertThat(diff.isEmpty()).isTrue();
+        assertThat(diff.restaurants().get(0)).isSameAs(previous.get(0));
+    }
+
+    @Test
+    void between_changedFeed_reportsAddedRemovedAndChanged() {
+        CompactRestaurant unchanged = restaurant("r1", "5:00pm", deal("d1", "5"));
+        List<CompactRestaurant> previous = List.of(
+                unchanged,
+                restaurant("r2", "5:00pm", deal("d2", "5"), deal("d3", "1")),
+                restaurant("r3", "5:00pm", deal("d4", "5")));
+        List<CompactRestaurant> fetched = List.of(
+                restaurant("r1", "5:00pm", deal("d1", "5")),
+                restaurant("r2", "5:00pm", deal("d2", "4"), deal("d5", "1")),
+                restaurant("r4", "9:00pm"));
+
+        SnapshotDiff diff = SnapshotDiff.between(previous, fetched);
+
+        assertThat(diff.isEmpty()).isFalse();
+        assertThat(diff.added()).extracting(CompactRestaurant::objectId).containsExactly("r4");
+        assertThat(diff.removed()).extracting(CompactRestaurant::objectId).containsExactly("r3");
+        assertThat(diff.changed()).extracting(change -> change.current().objectId()).containsExactly("r2");
+        assertThat(diff.dealsAdded()).isEqualTo(1);
+        assertThat(diff.dealsRemoved()).isEqualTo(2);
+        assertThat(diff.dealsChanged()).isEqualTo(1);
+        assertThat(diff.restaurants()).extracting(CompactRestaurant::objectId).containsExactly("r1", "r2", "r4");
+        assertThat(diff.restaurants().get(0)).isSameAs(unchanged);
+    }
+
+    @Test
+    void between_reorderedFeed_isNotEmpty() {
+        List<CompactRestaurant> previous = List.of(restaurant("r1", "5:00pm"), restaurant("r2", "5:00pm"));
+
+        SnapshotDiff diff = SnapshotDiff.between(previous, List.of(previous.get(1), previous.get(0)));
+
+        assertThat(diff.isEmpty()).isFalse();
+        assertThat(diff.changed()).isEmpty();
+    }
+
+    @Test
+    void between_duplicateObjectIds_fallsBackToFullRebuild() {
+        List<CompactRestaurant> fetched = List.of(restaurant("r1", "5:00pm"), restaurant("r1", "9:00pm"));
+
+        SnapshotDiff diff = SnapshotDiff.between(List.of(restaurant("r1", "5:00pm")), fetched);
+
+        assertThat(diff.fullRebuild()).isTrue();
+        assertThat(diff.isEmpty()).isFalse();
+        assertThat(diff.restaurants()).isEqualTo(fetched);
+    }
+}
@@ -0,0 +1,91 @@
+package com.eatclub.challenge.snapshot;
+
+import com.eatclub.challenge.model.compact.CompactDeal;
+import com.eatclub.challenge.model.compact.CompactRestaurant;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.CRC32;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Unit tests for the binary snapshot file format.
+ */
+class SnapshotFileCodecTest {
+
+    private static final RestaurantSnapshot SNAPSHOT = RestaurantSnapshot.of(7, Instant.ofEpochMilli(1_700_000_000_000L),
+            List.of(
+                    new CompactRestaurant("r1", "Pizza Place", "1 Main St", "Richmond", List.of("Pizza", "Italian"),
+                            "9:00am", "5:00pm", List.of(
+                            new CompactDeal("d1", "20", "true", "false", "5", null, null, null, null),
+                            new CompactDeal("d2", "30", "false", "true", "1", "3:00pm", "4:00pm", null, null))),
+                    new CompactRestaurant("r2", "Café Ünïcode", null, "Richmond", List.of("Pizza", "Italian"),
+                            "5:00pm", "11:00pm", List.of())));
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void writeAndRead_roundTripsSnapshot() throws IOException {
+        Path path = tempDir.resolve("nested/snapshot.bin");
+
+        SnapshotFileCodec.write(SNAPSHOT, path);
+        RestaurantSnapshot restored = SnapshotFileCodec.read(path);
+
+        assertThat(restored.getVersion()).isEqualTo(7);
+        assertThat(restored.getFetchedAt()).isEqualTo(SNAPSHOT.getFetchedAt());
+        assertThat(restored.getRestaurants()).isEqualTo(SNAPSHOT.getRestaurants());
+        assertThat(restored.getRestaurants().get(0).suburb()).isSameAs(restored.getRestaurants().get(1).suburb());
+        assertThat(restored.getRestaurants().get(0).cuisines()).isSameAs(restored.getRestaurants().get(1).cuisines());
+        try (var files = Files.list(path.getParent())) {
+            assertThat(files).containsExactly(path);
+        }
+    }
+
+    @Test
+    void decode_flippedByte_throwsChecksumMismatch() throws IOException {
+        byte[] bytes = SnapshotFileCodec.encode(SNAPSHOT);
+        bytes[bytes.length / 2] ^= 0x01;
+
+        assertThatThrownBy(() -> SnapshotFileCodec.decode(bytes))
+                .isInstanceOf(IOException.class)
+                .hasMessageContaining("checksum");
+    }
+
+    @Test
+    void decode_truncatedFile_throwsIOException() throws IOException {
+        byte[] bytes = SnapshotFileCodec.encode(SNAPSHOT);
+
+        assertThatThrownBy(() -> SnapshotFileCodec.decode(Arrays.copyOf(bytes, bytes.length - 10)))
+                .isInstanceOf(IOException.class);
+        assertThatThrownBy(() -> SnapshotFileCodec.decode(new byte[3]))
+                .isInstanceOf(IOException.class)
+                .hasMessageContaining("truncated");
+    }
+
+    @Test
+    void decode_unknownFormatVersion_throwsIOException() throws IOException {
+        byte[] bytes = SnapshotFileCodec.encode(SNAPSHOT);
+        ByteBuffer.wrap(bytes).putInt(Integer.BYTES, SnapshotFileCodec.FORMAT_VERSION + 1);
+
+        assertThatThrownBy(() -> SnapshotFileCodec.decode(withChecksum(bytes)))
+                .isInstanceOf(IOException.class)
+                .hasMessageContaining("format version");
+    }
+
+    private static byte[] withChecksum(byte[] bytes) {
+        CRC32 crc = new CRC32();
+        crc.update(bytes, 0, bytes.length - Integer.BYTES);
+        ByteBuffer.wrap(bytes).putInt(bytes.length - Integer.BYTES, (int) crc.getValue());
+        return bytes;
+    }
+}
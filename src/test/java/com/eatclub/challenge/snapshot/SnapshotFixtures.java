@@ -0,0 +1,65 @@
+package com.eatclub.challenge.snapshot;
+
+import com.eatclub.challenge.model.compact.CompactDeal;
+import com.eatclub.challenge.model.compact.CompactRestaurant;
+
+import java.util.List;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+/**
+ * Feed records shared by the snapshot tests.
+ */
+final class SnapshotFixtures {
+
+    private SnapshotFixtures() {
+    }
+
+    /**
+     * Restaurant named after its objectId, open from 9:00am until the given time, with no suburb or cuisines.
+     */
+    static CompactRestaurant restaurant(String objectId, String close, CompactDeal... deals) {
+        return restaurant(objectId, "Restaurant " + objectId, null, null, "9:00am", close, List.of(deals));
+    }
+
+    /**
+     * Restaurant named after its objectId with the given hours and number of deals, with no suburb or cuisines.
+     */
+    static CompactRestaurant restaurant(String objectId, String open, String close, int dealCount) {
+        return restaurant(objectId, "Restaurant " + objectId, null, null, open, close,
+                IntStream.range(0, dealCount).mapToObj(i -> deal(objectId + "-d" + i, "1")).toList());
+    }
+
+    /**
+     * Restaurant named after its objectId, open from 9:00am to 9:00pm.
+     */
+    static CompactRestaurant restaurant(String objectId, String suburb, List<String> cuisines, CompactDeal... deals) {
+        return restaurant(objectId, "Restaurant " + objectId, suburb, cuisines, "9:00am", "9:00pm", List.of(deals));
+    }
+
+    static CompactRestaurant restaurant(String objectId, String name, String suburb, List<String> cuisines,
+                                        String open, String close, List<CompactDeal> deals) {
+        return new CompactRestaurant(objectId, name, null, suburb, cuisines, open, close, deals);
+    }
+
+    /**
+     * 20% dine-in deal using the restaurant's hours.
+     */
+    static CompactDeal deal(String objectId, String qtyLeft) {
+        return deal(objectId, "20", "true", "false", qtyLeft);
+    }
+
+    /**
+     * Deal using the restaurant's hours.
+     */
+    static CompactDeal deal(String objectId, String discount, String dineIn, String lightning, String qtyLeft) {
+        return new CompactDeal(objectId, discount, dineIn, lightning, qtyLeft, null, null, null, null);
+    }
+
+    /**
+     * Time on a quarter hour, in the feed's format.
+     */
+    static String randomTime(Random random) {
+        return String.format("%d:%02d", random.nextInt(24), random.nextInt(4) * 15);
+    }
+}
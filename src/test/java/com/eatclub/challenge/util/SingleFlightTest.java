@@ -0,0 +1,108 @@
+package com.eatclub.challenge.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Unit tests for SingleFlight.
+ */
+class SingleFlightTest {
+
+    private static final int CALLERS = 8;
+
+    private final SingleFlight<String> singleFlight = new SingleFlight<>();
+
+    @Test
+    void execute_concurrentCallers_shareOneInvocation() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger invocations = new AtomicInteger();
+
+        List<Future<String>> results = runConcurrently(() -> {
+            invocations.incrementAndGet();
+            await(release);
+            return "feed";
+        }, release);
+
+        for (Future<String> result : results) {
+            assertThat(result.get(5, TimeUnit.SECONDS)).isEqualTo("feed");
+        }
+        assertThat(invocations).hasValue(1);
+        assertThat(singleFlight.getExecutions()).isEqualTo(1);
+        assertThat(singleFlight.getCoalesced()).isEqualTo(CALLERS - 1);
+        assertThat(singleFlight.inFlight()).isEmpty();
+    }
+
+    @Test
+    void execute_failure_isSharedWithJoinedCallers() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+
+        List<Future<String>> results = runConcurrently(() -> {
+            await(release);
+            throw new IllegalStateException("Upstream down");
+        }, release);
+
+        for (Future<String> result : results) {
+            assertThatThrownBy(() -> result.get(5, TimeUnit.SECONDS))
+                    .hasCauseInstanceOf(IllegalStateException.class)
+                    .hasRootCauseMessage("Upstream down");
+        }
+        assertThat(singleFlight.getExecutions()).isEqualTo(1);
+    }
+
+    @Test
+    void execute_sequentialCalls_runEachTime() {
+        AtomicInteger invocations = new AtomicInteger();
+
+        singleFlight.execute(() -> "v" + invocations.incrementAndGet());
+        String second = singleFlight.execute(() -> "v" + invocations.incrementAndGet());
+
+        assertThat(second).isEqualTo("v2");
+        assertThat(singleFlight.getCoalesced()).isZero();
+    }
+
+    private List<Future<String>> runConcurrently(Supplier<String> call, CountDownLatch release) {
+        ExecutorService executor = Executors.newFixedThreadPool(CALLERS);
+        try {
+            List<Future<String>> results = new ArrayList<>();
+            results.add(executor.submit(() -> singleFlight.execute(call)));
+            waitUntil(() -> singleFlight.inFlight().isPresent());
+            for (int i = 1; i < CALLERS; i++) {
+                results.add(executor.submit(() -> singleFlight.execute(call)));
+            }
+            waitUntil(() -> singleFlight.getCoalesced() == CALLERS - 1);
+            release.countDown();
+            return results;
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    private static void waitUntil(BooleanSupplier condition) {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean()) {
+            assertThat(System.nanoTime()).as("condition not met in time").isLessThan(deadline);
+            Thread.onSpinWait();
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
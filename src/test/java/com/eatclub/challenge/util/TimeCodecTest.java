@@ -0,0 +1,92 @@
+package com.eatclub.challenge.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeFormatterBuilder;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Unit tests for TimeCodec, checked against the DateTimeFormatter chain it replaced.
+ */
+class TimeCodecTest {
+
+    private static final List<DateTimeFormatter> LEGACY_FORMATTERS = List.of(
+            new DateTimeFormatterBuilder().parseCaseInsensitive().appendPattern("h:mma").toFormatter(Locale.ENGLISH),
+            new DateTimeFormatterBuilder().parseCaseInsensitive().appendPattern("h:mm a").toFormatter(Locale.ENGLISH),
+            DateTimeFormatter.ofPattern("H:mm", Locale.ENGLISH),
+            DateTimeFormatter.ofPattern("HH:mm", Locale.ENGLISH));
+
+    @Test
+    void parseMinuteOfDay_generatedInputs_matchLegacyFormatters() {
+        List<String> inputs = new ArrayList<>();
+        String[] hours = {"0", "00", "1", "01", "007", "9", "09", "11", "12", "13", "19", "23", "24", "25", "99", ""};
+        String[] minutes = {"00", "05", "30", "59", "60", "7", "075", ""};
+        String[] suffixes = {"", "am", "pm", "AM", "PM", "Pm", "aM", " am", " PM", "  pm", "a", "m", "xm", "pmx", ":00"};
+        for (String hour : hours) {
+            for (String minute : minutes) {
+                for (String suffix : suffixes) {
+                    inputs.add(hour + ":" + minute + suffix);
+                }
+            }
+        }
+        inputs.addAll(List.of("3:00pm", "3:00 PM", "9:00am", "15:00", "09:00", "invalid", "25:00", "12:00am",
+                "12:00pm", " 3:00pm ", "\t15:00\n", "3.00pm", "3:00p.m.", "-3:00", "+3:00", "3:0", ":00",
+                "1234567890123456789:00", "00000000000000000007:00", "99999999999999999999:00", "3:00pm3",
+                "٣:٠٠", "3 :00", "3: 00"));
+
+        for (String input : inputs) {
+            assertThat(TimeCodec.parseMinuteOfDay(input)).as("'%s'", input).isEqualTo(legacyParse(input));
+        }
+    }
+
+    @Test
+    void parseMinuteOfDay_nullOrBlank_isInvalid() {
+        assertThat(TimeCodec.parseMinuteOfDay(null)).isEqualTo(TimeCodec.INVALID);
+        assertThat(TimeCodec.parseMinuteOfDay("")).isEqualTo(TimeCodec.INVALID);
+        assertThat(TimeCodec.parseMinuteOfDay("   ")).isEqualTo(TimeCodec.INVALID);
+    }
+
+    @Test
+    void parseMinuteOfDay_readsAnyCharSequence() {
+        assertThat(TimeCodec.parseMinuteOfDay(new StringBuilder("10:45 pm"))).isEqualTo(22 * 60 + 45);
+    }
+
+    @Test
+    void format_everyMinute_matchesLegacyFormatting() {
+        DateTimeFormatter output = DateTimeFormatter.ofPattern("h:mma", Locale.ENGLISH);
+        for (int minute = 0; minute < 1440; minute++) {
+            String expected = LocalTime.of(minute / 60, minute % 60).format(output).toLowerCase(Locale.ENGLISH);
+            assertThat(TimeCodec.format(minute)).isEqualTo(expected);
+            assertThat(TimeCodec.parseMinuteOfDay(TimeCodec.format(minute))).isEqualTo(minute);
+        }
+    }
+
+    @Test
+    void format_outOfRange_throwsIllegalArgumentException() {
+        assertThatThrownBy(() -> TimeCodec.format(1440)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> TimeCodec.format(-1)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static int legacyParse(String input) {
+        if (input.isBlank()) {
+            return TimeCodec.INVALID;
+        }
+        for (DateTimeFormatter formatter : LEGACY_FORMATTERS) {
+            try {
+                LocalTime time = LocalTime.parse(input.trim(), formatter);
+                return time.getHour() * 60 + time.getMinute();
+            } catch (DateTimeParseException e) {
+                // Try next format
+            }
+        }
+        return TimeCodec.INVALID;
+    }
+}